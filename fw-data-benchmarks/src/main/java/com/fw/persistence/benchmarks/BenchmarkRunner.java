@@ -0,0 +1,50 @@
+package com.fw.persistence.benchmarks;
+
+import java.io.File;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs all benchmarks of this module, once for each configured thread count, with allocation profiling
+ * enabled. Results are written as json files, named with specified label (like commit id), so that
+ * results of different commits can be compared.
+ * <BR><BR>
+ * Usage: java -jar benchmarks.jar [label] [thread-counts] [include-regex]
+ * <BR>
+ * Thread counts are comma separated, defaults to "1,4".
+ * 
+ * @author akiran
+ */
+public class BenchmarkRunner
+{
+	private static final String DEFAULT_THREAD_COUNTS = "1,4";
+	
+	private static final String RESULTS_FOLDER = "jmh-results";
+	
+	public static void main(String[] args) throws RunnerException
+	{
+		String label = (args.length > 0) ? args[0] : "current";
+		String threadCounts = (args.length > 1) ? args[1] : DEFAULT_THREAD_COUNTS;
+		String include = (args.length > 2) ? args[2] : BenchmarkRunner.class.getPackage().getName() + ".*Benchmark";
+		
+		new File(RESULTS_FOLDER).mkdirs();
+		
+		for(String threads : threadCounts.split("\\s*\\,\\s*"))
+		{
+			Options options = new OptionsBuilder()
+					.include(include)
+					.threads(Integer.parseInt(threads))
+					.addProfiler(GCProfiler.class)
+					.resultFormat(ResultFormatType.JSON)
+					.result(RESULTS_FOLDER + File.separator + label + "-t" + threads + ".json")
+					.build();
+			
+			new Runner(options).run();
+		}
+	}
+}
@@ -0,0 +1,68 @@
+package com.fw.persistence.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fw.persistence.benchmarks.entity.Customer;
+import com.fw.persistence.benchmarks.entity.Order;
+
+/**
+ * Benchmarks deletion of customer, along with its orders (which are marked to be deleted with parent).
+ * The customer graph is created before every invocation, outside of measured time.
+ * @author akiran
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class CascadeDeleteBenchmark
+{
+	/**
+	 * Customer (with orders) to be deleted by current thread
+	 * @author akiran
+	 */
+	@State(Scope.Thread)
+	public static class CustomerGraph
+	{
+		/**
+		 * Number of orders created for the customer
+		 */
+		@Param({"10", "100"})
+		public int childCount;
+		
+		private long customerId;
+		
+		@Setup(Level.Invocation)
+		public void createGraph(RepositoryState state)
+		{
+			Customer customer = new Customer(state.nextName(), RepositoryState.region(0), 40);
+			state.getCustomerRepository().save(customer);
+			
+			for(int i = 0; i < childCount; i++)
+			{
+				state.getOrderRepository().save(new Order("order-" + i, i, customer));
+			}
+			
+			customerId = customer.getId();
+		}
+	}
+	
+	@Benchmark
+	public boolean cascadeDelete(RepositoryState state, CustomerGraph graph)
+	{
+		return state.getCustomerRepository().deleteById(graph.customerId);
+	}
+}
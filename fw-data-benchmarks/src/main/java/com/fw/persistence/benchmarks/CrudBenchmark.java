@@ -0,0 +1,109 @@
+package com.fw.persistence.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fw.persistence.Operator;
+import com.fw.persistence.benchmarks.entity.Customer;
+import com.fw.persistence.repository.search.SearchCondition;
+import com.fw.persistence.repository.search.SearchQuery;
+
+/**
+ * Benchmarks of basic crud and query paths of repositories. Fork, warmup and measurement settings
+ * are fixed here, so that results of different commits are comparable.
+ * @author akiran
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class CrudBenchmark
+{
+	/**
+	 * Inserts new customer. Note, the table keeps growing during the trial.
+	 * @param state
+	 * @return
+	 */
+	@Benchmark
+	public Customer save(RepositoryState state)
+	{
+		Customer customer = new Customer(state.nextName(), RepositoryState.region(state.randomIndex()), 30);
+		state.getCustomerRepository().save(customer);
+		
+		return customer;
+	}
+	
+	/**
+	 * Updates random existing customer
+	 * @param state
+	 * @return
+	 */
+	@Benchmark
+	public boolean update(RepositoryState state)
+	{
+		int index = state.randomIndex();
+		
+		Customer customer = new Customer("customer-" + index, RepositoryState.region(index), 20 + state.randomIndex() % 50);
+		customer.setId(state.randomId());
+		
+		return state.getCustomerRepository().update(customer);
+	}
+	
+	@Benchmark
+	public Customer findById(RepositoryState state)
+	{
+		return state.getCustomerRepository().findById(state.randomId());
+	}
+	
+	/**
+	 * Finder returning single entity
+	 * @param state
+	 * @return
+	 */
+	@Benchmark
+	public Customer finder(RepositoryState state)
+	{
+		return state.getCustomerRepository().findCustomerByName("customer-" + state.randomIndex());
+	}
+	
+	/**
+	 * Finder returning 1/{@link RepositoryState#REGION_COUNT REGION_COUNT} of the rows
+	 * @param state
+	 * @return
+	 */
+	@Benchmark
+	public List<Customer> finderList(RepositoryState state)
+	{
+		return state.getCustomerRepository().findByRegion(RepositoryState.region(state.randomIndex()));
+	}
+	
+	@Benchmark
+	public List<Customer> search(RepositoryState state)
+	{
+		return state.getCustomerRepository().search(new SearchQuery(
+				new SearchCondition("region", Operator.EQ, RepositoryState.region(state.randomIndex())),
+				new SearchCondition("age", Operator.GE, 60)
+		));
+	}
+	
+	@Benchmark
+	public long count(RepositoryState state)
+	{
+		return state.getCustomerRepository().getCount();
+	}
+	
+	@Benchmark
+	public long countByRegion(RepositoryState state)
+	{
+		return state.getCustomerRepository().getCountByRegion(RepositoryState.region(state.randomIndex()));
+	}
+}
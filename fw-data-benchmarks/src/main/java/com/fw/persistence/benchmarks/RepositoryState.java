@@ -0,0 +1,165 @@
+package com.fw.persistence.benchmarks;
+
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.fw.persistence.benchmarks.entity.Customer;
+import com.fw.persistence.benchmarks.entity.ICustomerRepository;
+import com.fw.persistence.benchmarks.entity.IOrderRepository;
+import com.fw.persistence.benchmarks.entity.Order;
+import com.fw.persistence.rdbms.RdbmsDataStore;
+import com.fw.persistence.repository.RepositoryFactory;
+
+/**
+ * Benchmark state which boots repository factory against in-memory embedded derby and populates
+ * customers table with {@link #rowCount rowCount} rows. The state is shared by all benchmark threads.
+ * @author akiran
+ */
+@State(Scope.Benchmark)
+public class RepositoryState
+{
+	/**
+	 * Number of distinct regions, customers are distributed across
+	 */
+	public static final int REGION_COUNT = 10;
+	
+	private static final String DB_URL = "jdbc:derby:memory:benchDB";
+	
+	/**
+	 * Number of customers populated before the benchmark
+	 */
+	@Param({"1000", "10000"})
+	public int rowCount;
+	
+	private BasicDataSource dataSource;
+	
+	private RepositoryFactory factory;
+	
+	private ICustomerRepository customerRepository;
+	
+	private IOrderRepository orderRepository;
+	
+	/**
+	 * Ids of populated customers
+	 */
+	private long customerIds[];
+	
+	/**
+	 * Used to generate unique names for customers created during benchmark
+	 */
+	private AtomicLong nameSequence = new AtomicLong();
+	
+	@Setup(Level.Trial)
+	public void setup()
+	{
+		dataSource = new BasicDataSource();
+		dataSource.setDriverClassName("org.apache.derby.jdbc.EmbeddedDriver");
+		dataSource.setUrl(DB_URL + ";create=true");
+		
+		//ensure pool does not become bottle neck in multi threaded runs
+		dataSource.setMaxTotal(64);
+		dataSource.setMaxIdle(64);
+		
+		RdbmsDataStore dataStore = new RdbmsDataStore("derby");
+		dataStore.setDataSource(dataSource);
+		
+		//tables are created without db level cascade, deletion of child entities is done by repositories
+		dataStore.setExplicitForeignCheckRequired(true);
+		
+		factory = new RepositoryFactory();
+		factory.setName("benchmark");
+		factory.setDataStore(dataStore);
+		factory.setCreateTables(true);
+		
+		customerRepository = factory.getRepository(ICustomerRepository.class);
+		orderRepository = factory.getRepository(IOrderRepository.class);
+		
+		customerIds = new long[rowCount];
+		Customer customer = null;
+		
+		for(int i = 0; i < rowCount; i++)
+		{
+			customer = new Customer("customer-" + i, region(i), 20 + (i % 50));
+			customerRepository.save(customer);
+			
+			customerIds[i] = customer.getId();
+		}
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() throws SQLException
+	{
+		factory.dropRepository(Order.class);
+		factory.dropRepository(Customer.class);
+		
+		dataSource.close();
+		
+		try
+		{
+			DriverManager.getConnection(DB_URL + ";drop=true");
+		}catch(SQLException ex)
+		{
+			//derby reports successful drop of database with an exception
+		}
+	}
+	
+	/**
+	 * Fetches region name for specified index
+	 * @param index
+	 * @return
+	 */
+	public static String region(int index)
+	{
+		return "region-" + (index % REGION_COUNT);
+	}
+	
+	/**
+	 * @return Index of random populated customer
+	 */
+	public int randomIndex()
+	{
+		return ThreadLocalRandom.current().nextInt(rowCount);
+	}
+	
+	/**
+	 * @return Id of random populated customer
+	 */
+	public long randomId()
+	{
+		return customerIds[randomIndex()];
+	}
+	
+	/**
+	 * @return Unique name for customer created during benchmark
+	 */
+	public String nextName()
+	{
+		return "new-customer-" + nameSequence.incrementAndGet();
+	}
+	
+	/**
+	 * @return the {@link #customerRepository customerRepository}
+	 */
+	public ICustomerRepository getCustomerRepository()
+	{
+		return customerRepository;
+	}
+	
+	/**
+	 * @return the {@link #orderRepository orderRepository}
+	 */
+	public IOrderRepository getOrderRepository()
+	{
+		return orderRepository;
+	}
+}
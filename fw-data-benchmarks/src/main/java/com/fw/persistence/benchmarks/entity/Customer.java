@@ -0,0 +1,102 @@
+package com.fw.persistence.benchmarks.entity;
+
+import javax.persistence.Column;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * Customer entity used by benchmarks
+ * @author akiran
+ */
+@Table(name = "BENCH_CUSTOMER")
+public class Customer
+{
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private long id;
+	
+	@Column
+	private String name;
+	
+	@Column
+	private String region;
+	
+	@Column
+	private int age;
+	
+	public Customer()
+	{}
+	
+	public Customer(String name, String region, int age)
+	{
+		this.name = name;
+		this.region = region;
+		this.age = age;
+	}
+	
+	/**
+	 * @return the {@link #id id}
+	 */
+	public long getId()
+	{
+		return id;
+	}
+	
+	/**
+	 * @param id the {@link #id id} to set
+	 */
+	public void setId(long id)
+	{
+		this.id = id;
+	}
+	
+	/**
+	 * @return the {@link #name name}
+	 */
+	public String getName()
+	{
+		return name;
+	}
+	
+	/**
+	 * @param name the {@link #name name} to set
+	 */
+	public void setName(String name)
+	{
+		this.name = name;
+	}
+	
+	/**
+	 * @return the {@link #region region}
+	 */
+	public String getRegion()
+	{
+		return region;
+	}
+	
+	/**
+	 * @param region the {@link #region region} to set
+	 */
+	public void setRegion(String region)
+	{
+		this.region = region;
+	}
+	
+	/**
+	 * @return the {@link #age age}
+	 */
+	public int getAge()
+	{
+		return age;
+	}
+	
+	/**
+	 * @param age the {@link #age age} to set
+	 */
+	public void setAge(int age)
+	{
+		this.age = age;
+	}
+}
@@ -0,0 +1,17 @@
+package com.fw.persistence.benchmarks.entity;
+
+import java.util.List;
+
+import com.fw.persistence.ICrudRepository;
+import com.fw.persistence.repository.annotations.Condition;
+import com.fw.persistence.repository.annotations.CountFunction;
+
+public interface ICustomerRepository extends ICrudRepository<Customer>
+{
+	public Customer findCustomerByName(@Condition("name") String name);
+	
+	public List<Customer> findByRegion(@Condition("region") String region);
+	
+	@CountFunction
+	public long getCountByRegion(@Condition("region") String region);
+}
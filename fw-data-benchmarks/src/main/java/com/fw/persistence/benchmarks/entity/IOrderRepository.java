@@ -0,0 +1,7 @@
+package com.fw.persistence.benchmarks.entity;
+
+import com.fw.persistence.ICrudRepository;
+
+public interface IOrderRepository extends ICrudRepository<Order>
+{
+}
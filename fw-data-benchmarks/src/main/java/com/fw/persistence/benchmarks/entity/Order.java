@@ -0,0 +1,107 @@
+package com.fw.persistence.benchmarks.entity;
+
+import javax.persistence.Column;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+
+import com.fw.persistence.annotations.DeleteWithParent;
+
+/**
+ * Order entity used by benchmarks. Orders are deleted along with their customer.
+ * @author akiran
+ */
+@Table(name = "BENCH_ORDER")
+public class Order
+{
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private long id;
+	
+	@Column
+	private String title;
+	
+	@Column
+	private int amount;
+	
+	@ManyToOne
+	@DeleteWithParent
+	@Column(name = "CUST_ID")
+	private Customer customer;
+	
+	public Order()
+	{}
+	
+	public Order(String title, int amount, Customer customer)
+	{
+		this.title = title;
+		this.amount = amount;
+		this.customer = customer;
+	}
+	
+	/**
+	 * @return the {@link #id id}
+	 */
+	public long getId()
+	{
+		return id;
+	}
+	
+	/**
+	 * @param id the {@link #id id} to set
+	 */
+	public void setId(long id)
+	{
+		this.id = id;
+	}
+	
+	/**
+	 * @return the {@link #title title}
+	 */
+	public String getTitle()
+	{
+		return title;
+	}
+	
+	/**
+	 * @param title the {@link #title title} to set
+	 */
+	public void setTitle(String title)
+	{
+		this.title = title;
+	}
+	
+	/**
+	 * @return the {@link #amount amount}
+	 */
+	public int getAmount()
+	{
+		return amount;
+	}
+	
+	/**
+	 * @param amount the {@link #amount amount} to set
+	 */
+	public void setAmount(int amount)
+	{
+		this.amount = amount;
+	}
+	
+	/**
+	 * @return the {@link #customer customer}
+	 */
+	public Customer getCustomer()
+	{
+		return customer;
+	}
+	
+	/**
+	 * @param customer the {@link #customer customer} to set
+	 */
+	public void setCustomer(Customer customer)
+	{
+		this.customer = customer;
+	}
+}
@@ -1,5 +1,10 @@
 package com.fw.persistence;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
@@ -9,7 +14,9 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 import javax.persistence.Column;
@@ -32,6 +39,7 @@ import com.fw.persistence.annotations.Indexed;
 import com.fw.persistence.annotations.Indexes;
 import com.fw.persistence.annotations.UniqueConstraint;
 import com.fw.persistence.annotations.UniqueConstraints;
+import com.fw.persistence.conversion.IPersistenceConverter;
 import com.fw.persistence.monitor.EntityDetailsMonitor;
 import com.fw.persistence.monitor.IEntityCreateTableListener;
 import com.fw.persistence.query.CreateIndexQuery;
@@ -46,6 +54,176 @@ public class EntityDetailsFactory
 
 	private EntityDetailsMonitor entityDetailsMonitor = new EntityDetailsMonitor();
 	
+	/**
+	 * Converters specified by {@link DataTypeMapping}, shared by all fields using same converter type
+	 */
+	private Map<Class<?>, IPersistenceConverter> typeToConverter = new ConcurrentHashMap<>();
+	
+	/**
+	 * Columns of existing tables, fetched for all tables in single pass (or loaded from {@link #snapshotFile snapshotFile}) on first use. 
+	 * Columns of tables missing in this map are fetched individually.
+	 */
+	private Map<String, Set<String>> tableColumns;
+	
+	/**
+	 * Optional file in which table columns are persisted, so that on next start up columns are loaded from this file
+	 * instead of data store. The snapshot is used only when the tables in it match with the tables in data store.
+	 */
+	private File snapshotFile;
+	
+	/**
+	 * Flag indicating if {@link #tableColumns} are loaded from {@link #snapshotFile snapshotFile}
+	 */
+	private boolean snapshotLoaded;
+	
+	/**
+	 * Tables whose columns loaded from snapshot are refetched from data store, as the snapshot columns were not matching with entity
+	 */
+	private Set<String> refreshedTables = new HashSet<>();
+	
+	/**
+	 * @return the {@link #snapshotFile snapshotFile}
+	 */
+	public File getSnapshotFile()
+	{
+		return snapshotFile;
+	}
+
+	/**
+	 * Note: Snapshot validation on load only checks the table names. When a column mapped by an entity is missing in 
+	 * the snapshot (like when columns are added or renamed), columns of the table are refetched and snapshot is rewritten.
+	 * @param snapshotFile the {@link #snapshotFile snapshotFile} to set
+	 */
+	public void setSnapshotFile(File snapshotFile)
+	{
+		this.snapshotFile = snapshotFile;
+	}
+	
+	/**
+	 * Fetches columns of all existing tables. On first call columns are loaded from snapshot file (if valid one is available)
+	 * or from data store.
+	 * @param dataStore
+	 * @return
+	 */
+	private Map<String, Set<String>> getTableColumns(IDataStore dataStore)
+	{
+		if(tableColumns != null)
+		{
+			return tableColumns;
+		}
+		
+		tableColumns = loadSnapshot(dataStore);
+		
+		if(tableColumns != null)
+		{
+			snapshotLoaded = true;
+			return tableColumns;
+		}
+		
+		try
+		{
+			tableColumns = dataStore.getAllColumnNames();
+		}catch(RuntimeException ex)
+		{
+			logger.warn("Failed to fetch columns of all tables. Columns will be fetched table by table", ex);
+			
+			tableColumns = new HashMap<>();
+			return tableColumns;
+		}
+		
+		saveSnapshot();
+		return tableColumns;
+	}
+	
+	/**
+	 * Loads table columns from snapshot file, if one is configured and is in sync with the tables of data store
+	 * @param dataStore
+	 * @return Loaded table columns, null if snapshot is not available or not valid
+	 */
+	private Map<String, Set<String>> loadSnapshot(IDataStore dataStore)
+	{
+		if(snapshotFile == null || !snapshotFile.exists())
+		{
+			return null;
+		}
+		
+		Properties snapshot = new Properties();
+		
+		try(InputStream is = new FileInputStream(snapshotFile))
+		{
+			snapshot.load(is);
+			
+			Map<String, Set<String>> columns = new HashMap<>();
+			
+			for(String table : snapshot.stringPropertyNames())
+			{
+				columns.put(table, new HashSet<>(Arrays.asList(snapshot.getProperty(table).split(","))));
+			}
+			
+			//fetching table names is much cheaper than fetching columns
+			if(!columns.keySet().equals(dataStore.getTableNames()))
+			{
+				logger.info("Tables in metadata snapshot '{}' are not matching with data store tables. Ignoring the snapshot.", snapshotFile);
+				return null;
+			}
+			
+			logger.debug("Loaded columns of {} tables from metadata snapshot: {}", columns.size(), snapshotFile);
+			return columns;
+		}catch(Exception ex)
+		{
+			logger.warn("An error occurred while loading metadata snapshot: " + snapshotFile, ex);
+			return null;
+		}
+	}
+	
+	/**
+	 * Refetches columns of specified table from data store, if the columns are loaded from snapshot file and are
+	 * not yet refetched. The snapshot file is rewritten with the fetched columns.
+	 * @param tableName Table whose columns needs to be refetched
+	 * @param dataStore Data store to use
+	 * @return true if columns are refetched
+	 */
+	private boolean refreshSnapshotColumns(String tableName, IDataStore dataStore)
+	{
+		if(!snapshotLoaded || !refreshedTables.add(tableName))
+		{
+			return false;
+		}
+		
+		logger.info("Columns of table '{}' in metadata snapshot are not matching with entity. Refetching the columns from data store.", tableName);
+		
+		tableColumns.put(tableName, new HashSet<>(dataStore.getColumnNames(tableName)));
+		saveSnapshot();
+		
+		return true;
+	}
+	
+	/**
+	 * Persists current table columns to snapshot file, if one is configured
+	 */
+	private void saveSnapshot()
+	{
+		if(snapshotFile == null)
+		{
+			return;
+		}
+		
+		Properties snapshot = new Properties();
+		
+		for(Map.Entry<String, Set<String>> entry : tableColumns.entrySet())
+		{
+			snapshot.setProperty(entry.getKey(), String.join(",", entry.getValue()));
+		}
+		
+		try(OutputStream os = new FileOutputStream(snapshotFile))
+		{
+			snapshot.store(os, "Table columns snapshot");
+		}catch(Exception ex)
+		{
+			logger.warn("An error occurred while saving metadata snapshot: " + snapshotFile, ex);
+		}
+	}
+	
 	/**
 	 * Removes non aplha numeric characters (including underscore) from column names and sets it as key and the actual column
 	 * name as value of the resultant map. This can be used to find column mapping for undeclared columns.
@@ -56,7 +234,14 @@ public class EntityDetailsFactory
 	 */
 	private Map<String, String> flattenColumnNames(String tableName, IDataStore dataStore)
 	{
-		Set<String> columns = dataStore.getColumnNames(tableName);
+		Set<String> columns = getTableColumns(dataStore).get(tableName);
+		
+		//if table is not found in prefetched columns, fetch its columns directly (which throws error if table does not exist)
+		if(columns == null || columns.isEmpty())
+		{
+			columns = dataStore.getColumnNames(tableName);
+		}
+		
 		String flattenName = null;
 		
 		Map<String, String> map = new HashMap<>();
@@ -227,16 +412,23 @@ public class EntityDetailsFactory
 			logger.info("An error occurred while fetching column details for table '" + entityDetails.getTableName() + "'. Assuming table does not exist and needs to be created");
 		}
 		
-		//loop through the class hierarchy and fetch column mappings
-		while(true)
+		try
 		{
-			if(cls.getName().startsWith("java"))
+			fetchAllFieldMappings(entityType, entityDetails, accessType, flattenColumnMap);
+		}catch(InvalidMappingException ex)
+		{
+			//columns loaded from snapshot might be outdated, in which case refetch the columns and retry the mapping
+			if(flattenColumnMap == null || !refreshSnapshotColumns(entityDetails.getTableName(), dataStore))
 			{
-				break;
+				throw ex;
 			}
 			
-			fetchFieldMappings(cls, entityDetails, accessType, flattenColumnMap);
-			cls = cls.getSuperclass();
+			flattenColumnMap = flattenColumnNames(entityDetails.getTableName(), dataStore);
+			
+			entityDetails = new EntityDetails(table.name(), entityType);
+			entityDetails.setTableCreated(true);
+			
+			fetchAllFieldMappings(entityType, entityDetails, accessType, flattenColumnMap);
 		}
 
 		//set entity details on map, set it before processing constraints
@@ -308,6 +500,26 @@ public class EntityDetailsFactory
 		return entityDetails;
 	}
 	
+	/**
+	 * Fetches column mappings of the fields of specified entity type, including the fields of super classes
+	 */
+	private void fetchAllFieldMappings(Class<?> entityType, EntityDetails entityDetails, AccessType accessType, Map<String, String> flattenColumnMap)
+	{
+		Class<?> cls = entityType;
+		
+		//loop through the class hierarchy and fetch column mappings
+		while(true)
+		{
+			if(cls.getName().startsWith("java"))
+			{
+				break;
+			}
+			
+			fetchFieldMappings(cls, entityDetails, accessType, flattenColumnMap);
+			cls = cls.getSuperclass();
+		}
+	}
+	
 	private void fetchFieldMappings(Class<?> cls, EntityDetails entityDetails, AccessType accessType, Map<String, String> flattenColumnMap)
 	{
 		Field fields[] = cls.getDeclaredFields();
@@ -443,9 +655,37 @@ public class EntityDetailsFactory
 			logger.trace("Adding ID field details {} to entity {}", fieldDetails, entityDetails);
 		}
 		
+		fieldDetails.setConverter(getConverter(field));
+		
 		entityDetails.addFieldDetails(fieldDetails);
 		return fieldDetails;
 	}
+	
+	/**
+	 * Fetches the converter for specified field, if it is explicitly defined on field using {@link DataTypeMapping}
+	 * @param field
+	 * @return
+	 */
+	private IPersistenceConverter getConverter(Field field)
+	{
+		DataTypeMapping typeMapping = field.getAnnotation(DataTypeMapping.class);
+		
+		if(typeMapping == null)
+		{
+			return null;
+		}
+		
+		return typeToConverter.computeIfAbsent(typeMapping.converterType(), converterType -> 
+		{
+			try
+			{
+				return (IPersistenceConverter)converterType.newInstance();
+			}catch(Exception ex)
+			{
+				throw new InvalidMappingException("Failed to create converter of type: " + converterType.getName(), ex);
+			}
+		});
+	}
 
 	/**
 	 * Fetches constraints defined at fied level like - Unique constraint, foreign key constraint etc
@@ -597,9 +837,16 @@ public class EntityDetailsFactory
 	 * corresponding entity table is dropped
 	 * @param entityType
 	 */
-	public void removeEntityDetails(Class<?> entityType)
+	public synchronized void removeEntityDetails(Class<?> entityType)
 	{
-		typeToDetails.remove(entityType);
+		EntityDetails entityDetails = typeToDetails.remove(entityType);
+		
+		//as table is dropped, its columns should not be used further
+		if(entityDetails != null && tableColumns != null)
+		{
+			tableColumns.remove(entityDetails.getTableName());
+		}
+		
 		entityDetailsMonitor.entityRemoved(entityType);
 	}
 	
@@ -0,0 +1,74 @@
+package com.fw.persistence;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Transaction scoped identity map (first level cache) of entities. Maintains entities loaded within a
+ * transaction by their type and id, so that repeated lookups within the transaction can avoid data store calls.
+ *
+ * Note: Identity map is expected to be used by single thread at a time, same as its transaction.
+ *
+ * @author akiran
+ */
+public class EntityIdentityMap
+{
+	/**
+	 * Entities mapped by id, grouped by entity type
+	 */
+	private Map<Class<?>, Map<Object, Object>> typeToEntities = new HashMap<>();
+
+	/**
+	 * Fetches the entity with specified type and id
+	 * @param entityType Type of entity
+	 * @param id Id of entity
+	 * @return Matching entity, if present, otherwise null
+	 */
+	public Object get(Class<?> entityType, Object id)
+	{
+		Map<Object, Object> entities = typeToEntities.get(entityType);
+
+		if(entities == null)
+		{
+			return null;
+		}
+
+		return entities.get(id);
+	}
+
+	/**
+	 * Adds specified entity to this map
+	 * @param entityType Type of entity
+	 * @param id Id of entity
+	 * @param entity Entity to add
+	 */
+	public void put(Class<?> entityType, Object id, Object entity)
+	{
+		Map<Object, Object> entities = typeToEntities.get(entityType);
+
+		if(entities == null)
+		{
+			entities = new HashMap<>();
+			typeToEntities.put(entityType, entities);
+		}
+
+		entities.put(id, entity);
+	}
+
+	/**
+	 * Removes entities of specified type from this map
+	 * @param entityType Type of entities to remove
+	 */
+	public void clear(Class<?> entityType)
+	{
+		typeToEntities.remove(entityType);
+	}
+
+	/**
+	 * Removes all entities from this map
+	 */
+	public void clear()
+	{
+		typeToEntities.clear();
+	}
+}
@@ -5,6 +5,9 @@ import java.lang.reflect.Field;
 import javax.persistence.GenerationType;
 
 import com.fw.persistence.annotations.DataType;
+import com.fw.persistence.annotations.DataTypeMapping;
+import com.fw.persistence.conversion.IPersistenceConverter;
+import com.fw.utils.CommonUtils;
 
 public class FieldDetails
 {
@@ -25,12 +28,25 @@ public class FieldDetails
 	 */
 	private ForeignConstraintDetails foreignConstraintDetails;
 	
+	/**
+	 * Converter specified for this field using {@link DataTypeMapping}, null if not specified
+	 */
+	private IPersistenceConverter converter;
+	
+	/**
+	 * Java type of this field, with primitive type replaced by its wrapper type. Db values of this type can be
+	 * set on the field without any conversion.
+	 */
+	private Class<?> javaType;
+	
 	private FieldDetails(FieldDetails details)
 	{
 		this.field = details.field;
 		this.column = details.column;
 		this.dbDataType = details.dbDataType;
 		this.overriddenColumnName = details.overriddenColumnName;
+		this.converter = details.converter;
+		this.javaType = details.javaType;
 	}
 	
 	public FieldDetails(Field field, String column, DataType dbDataType)
@@ -51,6 +67,7 @@ public class FieldDetails
 		this.field = field;
 		this.column = column;
 		this.dbDataType = dbDataType;
+		this.javaType = field.getType().isPrimitive() ? CommonUtils.getWrapperType(field.getType()) : field.getType();
 
 		if(!field.isAccessible())
 		{
@@ -99,6 +116,14 @@ public class FieldDetails
 		return dbDataType;
 	}
 
+	/**
+	 * @return true, if this field is mapped to BLOB or CLOB column
+	 */
+	public boolean isLob()
+	{
+		return (dbDataType == DataType.BLOB || dbDataType == DataType.CLOB);
+	}
+
 	public boolean isIdField()
 	{
 		return ((flags & FLAG_ID) == FLAG_ID);
@@ -156,7 +181,29 @@ public class FieldDetails
 		return new FieldDetails(this);
 	}
 	
+	/**
+	 * @return the {@link #converter converter}
+	 */
+	public IPersistenceConverter getConverter()
+	{
+		return converter;
+	}
+
+	/**
+	 * @param converter the {@link #converter converter} to set
+	 */
+	void setConverter(IPersistenceConverter converter)
+	{
+		this.converter = converter;
+	}
 	
+	/**
+	 * @return the {@link #javaType javaType}
+	 */
+	public Class<?> getJavaType()
+	{
+		return javaType;
+	}
 
 	/**
 	 * @return the {@link #foreignConstraintDetails foreignConstraintDetails}
@@ -1,5 +1,8 @@
 package com.fw.persistence;
 
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.Collection;
 import java.util.List;
 
 import com.fw.persistence.repository.annotations.CountFunction;
@@ -23,6 +26,42 @@ public interface ICrudRepository<E>
 	
 	public boolean deleteById(Object key);
 	
+	/**
+	 * Saves specified entities to underlying store. Entities are saved using batch execution. 
+	 * @param entities Entities to save
+	 * @return Number of entities saved
+	 */
+	public int saveAll(Collection<E> entities);
+	
+	/**
+	 * Updates specified entities using batch execution.
+	 * @param entities Entities to update
+	 * @return Number of entities updated
+	 */
+	public int updateAll(Collection<E> entities);
+	
+	/**
+	 * Deletes the entities with specified ids using batch execution.
+	 * @param keys Ids of entities to be deleted
+	 * @return Number of entities deleted
+	 */
+	public int deleteAllById(Collection<?> keys);
+	
+	/**
+	 * Saves specified entity, or updates it if an entity with same id already exists. When possible, this
+	 * is done using single statement, without fetching existing entity.
+	 * @param entity Entity to save or update
+	 * @return true if entity is saved or updated
+	 */
+	public boolean saveOrUpdate(E entity);
+	
+	/**
+	 * Saves or updates specified entities using batch execution.
+	 * @param entities Entities to save or update
+	 * @return Number of entities saved or updated
+	 */
+	public int saveOrUpdateAll(Collection<E> entities);
+	
 	public E findById(Object key);
 	
 	/**
@@ -38,4 +77,40 @@ public interface ICrudRepository<E>
 	 * @return
 	 */
 	public List<E> search(SearchQuery searchQuery);
+	
+	/**
+	 * Reads the BLOB field value of entity with specified id as stream, without loading the value in memory
+	 * @param key Id of the entity
+	 * @param field BLOB field to read
+	 * @return Stream of field value, which should be closed by the caller. Null if entity or value is not found.
+	 */
+	public InputStream readBlob(Object key, String field);
+	
+	/**
+	 * Reads the CLOB field value of entity with specified id as reader, without loading the value in memory
+	 * @param key Id of the entity
+	 * @param field CLOB field to read
+	 * @return Reader of field value, which should be closed by the caller. Null if entity or value is not found.
+	 */
+	public Reader readClob(Object key, String field);
+	
+	/**
+	 * Writes the content of specified stream as BLOB field value of entity with specified id. Stream is
+	 * not closed by this method.
+	 * @param key Id of the entity
+	 * @param field BLOB field to write
+	 * @param content Content to write
+	 * @return true if entity is found and updated
+	 */
+	public boolean writeBlob(Object key, String field, InputStream content);
+	
+	/**
+	 * Writes the content of specified reader as CLOB field value of entity with specified id. Reader is
+	 * not closed by this method.
+	 * @param key Id of the entity
+	 * @param field CLOB field to write
+	 * @param content Content to write
+	 * @return true if entity is found and updated
+	 */
+	public boolean writeClob(Object key, String field, Reader content);
 }
@@ -1,7 +1,11 @@
 package com.fw.persistence;
 
+import java.io.InputStream;
+import java.io.Reader;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Stream;
 
 import com.fw.persistence.conversion.ConversionService;
 import com.fw.persistence.query.ChildrenExistenceQuery;
@@ -12,6 +16,9 @@ import com.fw.persistence.query.DeleteQuery;
 import com.fw.persistence.query.DropTableQuery;
 import com.fw.persistence.query.FetchChildrenIdsQuery;
 import com.fw.persistence.query.FinderQuery;
+import com.fw.persistence.query.MultiCountQuery;
+import com.fw.persistence.query.NestedChildrenQuery;
+import com.fw.persistence.query.SaveOrUpdateQuery;
 import com.fw.persistence.query.SaveQuery;
 import com.fw.persistence.query.UpdateQuery;
 import com.fw.utils.ObjectWrapper;
@@ -24,6 +31,19 @@ public interface IDataStore
 	
 	public Set<String> getColumnNames(String tableName);
 	
+	/**
+	 * Fetches names of all tables in the data store
+	 * @return
+	 */
+	public Set<String> getTableNames();
+	
+	/**
+	 * Fetches column names of all tables in single pass, which is much faster than fetching
+	 * columns table by table
+	 * @return Table name to column names mapping
+	 */
+	public Map<String, Set<String>> getAllColumnNames();
+	
 	public void checkAndCreateSequence(String name);
 	
 	public void createTable(CreateTableQuery query);
@@ -32,6 +52,13 @@ public interface IDataStore
 	
 	public long getCount(CountQuery existenceQuery, EntityDetails entityDetails);
 	
+	/**
+	 * Executes all count queries of specified query in single round trip
+	 * @param multiCountQuery Query to execute
+	 * @return Counts in the order of count queries
+	 */
+	public long[] getCounts(MultiCountQuery multiCountQuery);
+	
 	/**
 	 * Executes the specified save-query using structure details from specified entity-details. And stores
 	 * generated id if any, into idGenerated.
@@ -47,12 +74,111 @@ public interface IDataStore
 	
 	public int delete(DeleteQuery deleteQuery, EntityDetails entityDetails);
 	
+	/**
+	 * Executes specified save queries in batches. Generated ids are not fetched as part of
+	 * batch execution.
+	 * 
+	 * @param saveQueries Queries to execute
+	 * @param entityDetails Target entity details
+	 * @return Number of rows affected by each query, in order of specified queries
+	 */
+	public int[] saveAll(List<SaveQuery> saveQueries, EntityDetails entityDetails);
+	
+	/**
+	 * Executes specified update queries in batches.
+	 * 
+	 * @param updateQueries Queries to execute
+	 * @param entityDetails Target entity details
+	 * @return Number of rows affected by each query, in order of specified queries
+	 */
+	public int[] updateAll(List<UpdateQuery> updateQueries, EntityDetails entityDetails);
+	
+	/**
+	 * Inserts the row represented by specified query, or updates the row if a row with same id already exists, 
+	 * using single statement.
+	 * 
+	 * @param saveOrUpdateQuery Query to execute
+	 * @param entityDetails Target entity details
+	 * @return Number of rows affected, as reported by underlying store
+	 */
+	public int saveOrUpdate(SaveOrUpdateQuery saveOrUpdateQuery, EntityDetails entityDetails);
+	
+	/**
+	 * Executes specified save-or-update queries in batches.
+	 * 
+	 * @param saveOrUpdateQueries Queries to execute
+	 * @param entityDetails Target entity details
+	 * @return Number of rows affected by each query, in order of specified queries
+	 */
+	public int[] saveOrUpdateAll(List<SaveOrUpdateQuery> saveOrUpdateQueries, EntityDetails entityDetails);
+	
+	/**
+	 * Executes specified delete queries in batches.
+	 * 
+	 * @param deleteQueries Queries to execute
+	 * @param entityDetails Target entity details
+	 * @return Number of rows affected by each query, in order of specified queries
+	 */
+	public int[] deleteAll(List<DeleteQuery> deleteQueries, EntityDetails entityDetails);
+	
 	public int checkChildrenExistence(ChildrenExistenceQuery childrenExistenceQuery);
 	
 	public List<Object> fetchChildrenIds(FetchChildrenIdsQuery fetchChildrenIdsQuery);
+	
+	/**
+	 * Fetches number of child rows related to parent rows, matching with parent conditions of specified query
+	 * @param nestedChildrenQuery Query to execute
+	 * @return Number of matching child rows
+	 */
+	public int checkChildrenExistence(NestedChildrenQuery nestedChildrenQuery);
+	
+	/**
+	 * Fetches ids of child rows related to parent rows, matching with parent conditions of specified query
+	 * @param nestedChildrenQuery Query to execute
+	 * @return Ids of matching child rows
+	 */
+	public List<Object> fetchChildrenIds(NestedChildrenQuery nestedChildrenQuery);
+	
+	/**
+	 * Deletes child rows related to parent rows, matching with parent conditions of specified query, 
+	 * using single statement
+	 * @param nestedChildrenQuery Query to execute
+	 * @return Number of rows deleted
+	 */
+	public int deleteChildren(NestedChildrenQuery nestedChildrenQuery);
 
 	public List<Record> executeFinder(FinderQuery findQuery, EntityDetails entityDetails);
 	
+	/**
+	 * Executes specified finder query and returns the stream of resultant records. Records are fetched
+	 * as the stream is consumed and underlying resources are held till the stream is closed.
+	 * 
+	 * @param findQuery Query to execute
+	 * @param entityDetails Target entity details
+	 * @return Stream of resultant records, which should be closed by the caller
+	 */
+	public Stream<Record> streamFinder(FinderQuery findQuery, EntityDetails entityDetails);
+	
+	/**
+	 * Executes specified finder query, which is expected to select single BLOB column, and returns the
+	 * BLOB value of first row as stream. Underlying resources are held till the stream is closed.
+	 * 
+	 * @param findQuery Query to execute
+	 * @param entityDetails Target entity details
+	 * @return BLOB content stream, which should be closed by the caller. Null if no row or value is found.
+	 */
+	public InputStream readBlob(FinderQuery findQuery, EntityDetails entityDetails);
+	
+	/**
+	 * Executes specified finder query, which is expected to select single CLOB column, and returns the
+	 * CLOB value of first row as reader. Underlying resources are held till the reader is closed.
+	 * 
+	 * @param findQuery Query to execute
+	 * @param entityDetails Target entity details
+	 * @return CLOB content reader, which should be closed by the caller. Null if no row or value is found.
+	 */
+	public Reader readClob(FinderQuery findQuery, EntityDetails entityDetails);
+	
 	/**
 	 * Drops the underlying entity table
 	 * @param query
@@ -77,6 +203,14 @@ public interface IDataStore
 	 * @return
 	 */
 	public boolean isExplicitUniqueCheckRequired();
+	
+	/**
+	 * Indicates whether unique constraints should be checked explicitly before save-or-update, irrespective
+	 * of {@link #isExplicitUniqueCheckRequired()}. Needed when native save-or-update of the data store
+	 * updates the conflicting row on violation of any unique key.
+	 * @return
+	 */
+	public boolean isSaveOrUpdateUniqueCheckRequired();
 }
 
 
@@ -7,4 +7,19 @@ public interface ITransaction extends AutoCloseable
 	public void rollback() throws TransactionException;
 	
 	public void close() throws TransactionException;
+	
+	/**
+	 * Fetches identity map of this transaction, which can be used to maintain entities loaded
+	 * as part of this transaction
+	 * @return Identity map of this transaction
+	 */
+	public EntityIdentityMap getIdentityMap();
+	
+	/**
+	 * Registers specified action to be executed once this transaction is committed successfully. Actions
+	 * registered with same key are executed only once. Registered actions are discarded on rollback.
+	 * @param key Key identifying the action
+	 * @param action Action to be executed after commit
+	 */
+	public void onCommit(Object key, Runnable action);
 }
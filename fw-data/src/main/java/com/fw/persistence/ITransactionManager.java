@@ -1,5 +1,7 @@
 package com.fw.persistence;
 
+import java.util.concurrent.Callable;
+
 public interface ITransactionManager<T extends ITransaction>
 {
 	public T newTransaction() throws TransactionException;
@@ -7,4 +9,31 @@ public interface ITransactionManager<T extends ITransaction>
 	public T currentTransaction() throws TransactionException;
 	
 	public TransactionWrapper<T> newOrExistingTransaction() throws TransactionException;
+	
+	/**
+	 * Fetches the transaction of current thread, if any. Unlike {@link #currentTransaction()}, this method
+	 * does not throw error when no transaction is in progress.
+	 * @return Transaction of current thread, null if no transaction is in progress
+	 */
+	public T existingTransaction();
+	
+	/**
+	 * Wraps specified task, so that when the task is executed (in any thread) the transaction of 
+	 * current thread is available to it as current transaction. The binding is removed once the task
+	 * is completed. If no transaction is active in current thread, the task is returned as is.
+	 * 
+	 * Note: Underlying transaction resources are not expected to be used concurrently, so the calling 
+	 * thread should not use the transaction while propagated task is in progress.
+	 * 
+	 * @param task Task to which transaction needs to be propagated
+	 * @return Wrapped task
+	 */
+	public Runnable propagate(Runnable task);
+	
+	/**
+	 * Callable version of {@link #propagate(Runnable)}
+	 * @param task Task to which transaction needs to be propagated
+	 * @return Wrapped task
+	 */
+	public <V> Callable<V> propagate(Callable<V> task);
 }
@@ -1,26 +1,36 @@
 package com.fw.persistence;
 
 import java.util.Date;
-import java.util.HashMap;
-
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Single row of a result. Column details are maintained by {@link RecordSchema} shared by all
+ * records of the result, record itself maintains only values.
+ * @author akiran
+ */
 public class Record
 {
+	private RecordSchema schema;
 	private Object data[];
-	private HashMap<String, Object> nameToVal = new HashMap<String, Object>();
-	private String columnNames[];
 
-	public Record(int len)
+	public Record(RecordSchema schema)
 	{
-		data = new Object[len];
-		columnNames = new String[len];
+		this.schema = schema;
+		this.data = new Object[schema.getColumnCount()];
 	}
 
-	public void set(int idx, String name, Object value)
+	public void set(int idx, Object value)
 	{
 		data[idx] = value;
-		columnNames[idx] = name;
-		
-		nameToVal.put(name, value);
+	}
+	
+	/**
+	 * @return the {@link #schema schema}
+	 */
+	public RecordSchema getSchema()
+	{
+		return schema;
 	}
 	
 	public Object[] getValues()
@@ -30,12 +40,12 @@ public class Record
 	
 	public String[] getColumnNames()
 	{
-		return columnNames;
+		return schema.getColumnNames();
 	}
 	
 	public String getColumn(int idx)
 	{
-		return columnNames[idx];
+		return schema.getColumnName(idx);
 	}
 
 	public Object getObject(int idx)
@@ -136,12 +146,13 @@ public class Record
 
 	public Object getObject(String name)
 	{
-		return nameToVal.get(name);
+		int idx = schema.getIndex(name);
+		return (idx < 0) ? null : data[idx];
 	}
 
 	public String getString(String name)
 	{
-		Object o = nameToVal.get(name);
+		Object o = getObject(name);
 
 		if(o == null)
 			return null;
@@ -255,6 +266,13 @@ public class Record
 
 	public String toString()
 	{
+		Map<String, Object> nameToVal = new LinkedHashMap<>();
+		
+		for(int i = 0; i < data.length; i++)
+		{
+			nameToVal.put(schema.getColumnName(i), data[i]);
+		}
+		
 		return "Record [" + nameToVal.toString() + "]";
 	}
 }
@@ -0,0 +1,128 @@
+package com.fw.persistence;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Column details of records of a single result, shared by all the records. So that records
+ * need to maintain only values.
+ * @author akiran
+ */
+public class RecordSchema
+{
+	/**
+	 * Column names in result order
+	 */
+	private String columnNames[];
+	
+	/**
+	 * Column name to index mapping
+	 */
+	private Map<String, Integer> nameToIndex;
+	
+	/**
+	 * Last index mapping resolved using {@link #getIndexes(String[])}. As the same names array is used
+	 * for all records of the result, this avoids name lookups for every record.
+	 */
+	private volatile IndexMapping lastMapping;
+	
+	/**
+	 * Indexes of columns, resolved for a names array
+	 * @author akiran
+	 */
+	private static class IndexMapping
+	{
+		private String names[];
+		private int indexes[];
+		
+		public IndexMapping(String names[], int indexes[])
+		{
+			this.names = names;
+			this.indexes = indexes;
+		}
+	}
+	
+	public RecordSchema(String... columnNames)
+	{
+		this.columnNames = columnNames;
+		this.nameToIndex = new HashMap<>(columnNames.length * 2);
+		
+		for(int i = 0; i < columnNames.length; i++)
+		{
+			nameToIndex.put(columnNames[i], i);
+		}
+	}
+	
+	/**
+	 * @return Number of columns
+	 */
+	public int getColumnCount()
+	{
+		return columnNames.length;
+	}
+	
+	/**
+	 * @return the {@link #columnNames columnNames}
+	 */
+	public String[] getColumnNames()
+	{
+		return columnNames;
+	}
+	
+	/**
+	 * Fetches column name at specified index
+	 * @param index
+	 * @return
+	 */
+	public String getColumnName(int index)
+	{
+		return columnNames[index];
+	}
+	
+	/**
+	 * Fetches index of specified column
+	 * @param name
+	 * @return Index of column, -1 if column is not present
+	 */
+	public int getIndex(String name)
+	{
+		Integer index = nameToIndex.get(name);
+		return (index == null) ? -1 : index;
+	}
+	
+	/**
+	 * Fetches indexes of specified columns. Callers are expected to use the same names array for all records,
+	 * so that the indexes are resolved only once.
+	 * @param names
+	 * @return Indexes of specified columns, with -1 for missing columns
+	 */
+	public int[] getIndexes(String names[])
+	{
+		IndexMapping mapping = this.lastMapping;
+		
+		if(mapping != null && mapping.names == names)
+		{
+			return mapping.indexes;
+		}
+		
+		int indexes[] = new int[names.length];
+		
+		for(int i = 0; i < names.length; i++)
+		{
+			indexes[i] = getIndex(names[i]);
+		}
+		
+		this.lastMapping = new IndexMapping(names, indexes);
+		return indexes;
+	}
+	
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		return "RecordSchema " + Arrays.toString(columnNames);
+	}
+}
@@ -60,6 +60,24 @@ public class TransactionWrapper<T extends ITransaction> implements ITransaction
 		transaction.close();
 	}
 	
+	/* (non-Javadoc)
+	 * @see com.fw.persistence.ITransaction#getIdentityMap()
+	 */
+	@Override
+	public EntityIdentityMap getIdentityMap()
+	{
+		return transaction.getIdentityMap();
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.fw.persistence.ITransaction#onCommit(java.lang.Object, java.lang.Runnable)
+	 */
+	@Override
+	public void onCommit(Object key, Runnable action)
+	{
+		transaction.onCommit(key, action);
+	}
+	
 	public boolean isExistingTransaction()
 	{
 		return existingTransaction;
@@ -0,0 +1,22 @@
+package com.fw.persistence.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Enables dirty checking for updates of the entity. State of entities loaded through entity repositories is
+ * captured, and when such an entity is updated only the modified columns are updated. Unique and foreign
+ * constraints are checked only when their fields are modified, and update of unmodified entity is skipped.
+ * <BR/>
+ * Entities which are not loaded through repository (or copies returned by shared cache) are updated fully.
+ * State is compared in converted (db) form, so in-place modifications of field values are detected only for
+ * values which are converted while persisting (like json fields), dates and arrays.
+ * @author akiran
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE})
+public @interface DirtyCheck
+{
+}
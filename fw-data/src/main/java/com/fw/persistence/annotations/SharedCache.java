@@ -0,0 +1,33 @@
+package com.fw.persistence.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Enables shared (second level) cache for the entity. Results of finder methods (including findById) of 
+ * entity repositories are cached and are invalidated when entities of this type are saved, updated or deleted.
+ * Suitable for read mostly entities.
+ * <BR/>
+ * Results are cached only for calls made outside transactions. Modifications done within a transaction invalidate 
+ * the cache when the transaction is committed, so that results read by other threads before the commit are not 
+ * served after the commit.
+ * @author akiran
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE})
+public @interface SharedCache
+{
+	/**
+	 * Maximum number of results to be cached. When exceeded, least recently used results are evicted.
+	 * @return
+	 */
+	public int maxSize() default 1000;
+	
+	/**
+	 * Time (in millis) for which a result is valid after caching. Zero or negative value indicates no expiry.
+	 * @return
+	 */
+	public long timeToLive() default 300000;
+}
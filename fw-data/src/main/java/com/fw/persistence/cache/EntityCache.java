@@ -0,0 +1,452 @@
+package com.fw.persistence.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.fw.persistence.EntityDetails;
+import com.fw.persistence.FieldDetails;
+import com.fw.persistence.annotations.SharedCache;
+
+/**
+ * Shared (second level) cache of an entity type, which caches finder results of the entity repositories.
+ * Cached entities are copied (shallow) while caching and while returning from cache, so that modifications
+ * done by callers are not visible to other callers.
+ *
+ * @author akiran
+ */
+public class EntityCache
+{
+	private static Logger logger = LogManager.getLogger(EntityCache.class);
+
+	/**
+	 * Key of cached finder result
+	 * @author akiran
+	 */
+	private static class ResultKey
+	{
+		/**
+		 * Finder method name
+		 */
+		private String method;
+
+		/**
+		 * Arguments of the finder method
+		 */
+		private List<Object> args;
+
+		public ResultKey(String method, Object args[])
+		{
+			this.method = method;
+			this.args = (args != null) ? Arrays.asList(args) : null;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.lang.Object#equals(java.lang.Object)
+		 */
+		@Override
+		public boolean equals(Object obj)
+		{
+			if(obj == this)
+			{
+				return true;
+			}
+
+			if(!(obj instanceof ResultKey))
+			{
+				return false;
+			}
+
+			ResultKey other = (ResultKey)obj;
+			return method.equals(other.method) && (args == null ? other.args == null : args.equals(other.args));
+		}
+
+		/* (non-Javadoc)
+		 * @see java.lang.Object#hashCode()
+		 */
+		@Override
+		public int hashCode()
+		{
+			return method.hashCode() * 31 + (args != null ? args.hashCode() : 0);
+		}
+	}
+
+	/**
+	 * Cached result with its expiry time
+	 * @author akiran
+	 */
+	private static class CacheEntry
+	{
+		private Object value;
+		private long expiryTime;
+
+		public CacheEntry(Object value, long expiryTime)
+		{
+			this.value = value;
+			this.expiryTime = expiryTime;
+		}
+	}
+
+	/**
+	 * Entity details of the entity being cached
+	 */
+	private EntityDetails entityDetails;
+
+	/**
+	 * Maximum number of results to be cached
+	 */
+	private int maxSize;
+
+	/**
+	 * Time in millis for which cached result is valid
+	 */
+	private long timeToLive;
+
+	/**
+	 * LRU map of cached results
+	 */
+	private Map<ResultKey, CacheEntry> results;
+
+	private AtomicLong hits = new AtomicLong();
+	private AtomicLong misses = new AtomicLong();
+	private AtomicLong evictions = new AtomicLong();
+	private AtomicLong invalidations = new AtomicLong();
+	
+	/**
+	 * Incremented on every invalidation. Used to avoid caching results which were fetched before invalidation.
+	 */
+	private long version = 0;
+
+	public EntityCache(EntityDetails entityDetails, SharedCache sharedCache)
+	{
+		if(sharedCache.maxSize() <= 0)
+		{
+			throw new IllegalArgumentException("Invalid max size specified for shared cache of entity - " + entityDetails.getEntityType().getName());
+		}
+
+		this.entityDetails = entityDetails;
+		this.maxSize = sharedCache.maxSize();
+		this.timeToLive = sharedCache.timeToLive();
+
+		this.results = new LinkedHashMap<ResultKey, CacheEntry>(16, 0.75f, true)
+		{
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<ResultKey, CacheEntry> eldest)
+			{
+				if(size() <= maxSize)
+				{
+					return false;
+				}
+
+				evictions.incrementAndGet();
+				return true;
+			}
+		};
+	}
+
+	/**
+	 * Checks if specified finder arguments can be used as cache key. Only simple immutable values are
+	 * supported as arguments.
+	 * @param args
+	 * @return
+	 */
+	public boolean isCacheableArguments(Object args[])
+	{
+		if(args == null)
+		{
+			return true;
+		}
+
+		for(Object arg : args)
+		{
+			if(arg != null && !isSimpleValue(arg))
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private boolean isSimpleValue(Object value)
+	{
+		return (value instanceof String) || (value instanceof Number) || (value instanceof Boolean) ||
+				(value instanceof Character) || (value instanceof Enum);
+	}
+
+	/**
+	 * Checks if specified result can be cached. Results which are simple values, entities or collection of
+	 * them can be cached.
+	 * @param result
+	 * @return
+	 */
+	private boolean isCacheableResult(Object result)
+	{
+		if(result == null || isSimpleValue(result) || entityDetails.getEntityType().equals(result.getClass()))
+		{
+			return true;
+		}
+
+		if(!(result instanceof Collection))
+		{
+			return false;
+		}
+
+		for(Object elem : (Collection<?>)result)
+		{
+			if(elem instanceof Collection || !isCacheableResult(elem))
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Creates shallow copy of specified entity
+	 * @param entity
+	 * @return
+	 */
+	private Object copyEntity(Object entity)
+	{
+		try
+		{
+			Object copy = entity.getClass().newInstance();
+
+			for(FieldDetails field : entityDetails.getFieldDetails())
+			{
+				field.setValue(copy, field.getValue(entity));
+			}
+
+			return copy;
+		}catch(InstantiationException | IllegalAccessException ex)
+		{
+			throw new IllegalStateException("An error occurred while copying entity of type - " + entity.getClass().getName(), ex);
+		}
+	}
+
+	/**
+	 * Copies specified result, so that entities in the result are not shared
+	 * @param result
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	private Object copyResult(Object result)
+	{
+		if(result == null || isSimpleValue(result))
+		{
+			return result;
+		}
+
+		if(!(result instanceof Collection))
+		{
+			return copyEntity(result);
+		}
+
+		Collection<Object> collection = (Collection<Object>)result;
+
+		//empty collections returned by finders are immutable
+		if(collection.isEmpty())
+		{
+			return result;
+		}
+
+		Collection<Object> copy = null;
+
+		try
+		{
+			copy = (Collection<Object>)result.getClass().newInstance();
+		}catch(Exception ex)
+		{
+			copy = new ArrayList<>(collection.size());
+		}
+
+		for(Object elem : collection)
+		{
+			copy.add(copyResult(elem));
+		}
+
+		return copy;
+	}
+
+	/**
+	 * Fetches cached result of specified finder method and arguments
+	 * @param method Finder method name
+	 * @param args Finder arguments
+	 * @return Copy of cached result, null if result is not cached or expired
+	 */
+	public Object getResult(String method, Object args[])
+	{
+		ResultKey key = new ResultKey(method, args);
+		CacheEntry entry = null;
+
+		synchronized(results)
+		{
+			entry = results.get(key);
+
+			if(entry != null && entry.expiryTime > 0 && entry.expiryTime < System.currentTimeMillis())
+			{
+				results.remove(key);
+				evictions.incrementAndGet();
+				entry = null;
+			}
+		}
+
+		if(entry == null)
+		{
+			misses.incrementAndGet();
+			return null;
+		}
+
+		hits.incrementAndGet();
+		return copyResult(entry.value);
+	}
+
+	/**
+	 * Fetches current version of this cache, which should be fetched before fetching the result 
+	 * from data store and should be passed to {@link #putResult(String, Object[], Object, long)}
+	 * @return Current version
+	 */
+	public long getVersion()
+	{
+		synchronized(results)
+		{
+			return version;
+		}
+	}
+
+	/**
+	 * Caches specified result of specified finder method. Null results and results which are not
+	 * entities or simple values are not cached. If the cache is invalidated after specified version
+	 * was fetched, result will not be cached, as it may be stale.
+	 * @param method Finder method name
+	 * @param args Finder arguments
+	 * @param result Result to cache
+	 * @param version Cache version fetched before fetching the result
+	 */
+	public void putResult(String method, Object args[], Object result, long version)
+	{
+		if(result == null || !isCacheableResult(result))
+		{
+			return;
+		}
+
+		CacheEntry entry = new CacheEntry(copyResult(result), (timeToLive > 0) ? System.currentTimeMillis() + timeToLive : 0);
+
+		synchronized(results)
+		{
+			if(this.version != version)
+			{
+				return;
+			}
+			
+			results.put(new ResultKey(method, args), entry);
+		}
+	}
+
+	/**
+	 * Removes all cached results. Called when entities of this type are modified.
+	 */
+	public void invalidate()
+	{
+		synchronized(results)
+		{
+			results.clear();
+			version++;
+		}
+
+		invalidations.incrementAndGet();
+		logger.trace("Invalidated shared cache of entity type: {}", entityDetails.getEntityType().getName());
+	}
+
+	/**
+	 * @return Type of entity being cached
+	 */
+	public Class<?> getEntityType()
+	{
+		return entityDetails.getEntityType();
+	}
+
+	/**
+	 * @return Number of results currently cached
+	 */
+	public int getSize()
+	{
+		synchronized(results)
+		{
+			return results.size();
+		}
+	}
+
+	/**
+	 * @return Number of lookups served from cache
+	 */
+	public long getHits()
+	{
+		return hits.get();
+	}
+
+	/**
+	 * @return Number of lookups which are not found in cache
+	 */
+	public long getMisses()
+	{
+		return misses.get();
+	}
+
+	/**
+	 * @return Ratio of hits to total lookups, zero if no lookups are done
+	 */
+	public double getHitRate()
+	{
+		long hits = this.hits.get();
+		long total = hits + misses.get();
+
+		return (total == 0) ? 0 : ((double)hits / total);
+	}
+
+	/**
+	 * @return Number of results removed because of size limit or expiry
+	 */
+	public long getEvictions()
+	{
+		return evictions.get();
+	}
+
+	/**
+	 * @return Number of times this cache was invalidated because of entity modifications
+	 */
+	public long getInvalidations()
+	{
+		return invalidations.get();
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		StringBuilder builder = new StringBuilder(super.toString());
+		builder.append("[");
+
+		builder.append("Entity: ").append(getEntityType().getName());
+		builder.append(",").append("Size: ").append(getSize());
+		builder.append(",").append("Hits: ").append(hits.get());
+		builder.append(",").append("Misses: ").append(misses.get());
+		builder.append(",").append("Evictions: ").append(evictions.get());
+
+		builder.append("]");
+		return builder.toString();
+	}
+}
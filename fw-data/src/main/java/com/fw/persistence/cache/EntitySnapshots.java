@@ -0,0 +1,266 @@
+package com.fw.persistence.cache;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.fw.persistence.EntityDetails;
+import com.fw.persistence.FieldDetails;
+import com.fw.persistence.annotations.DirtyCheck;
+import com.fw.persistence.conversion.ConversionService;
+import com.fw.persistence.repository.executors.proxy.LazyFieldsEntityCreator;
+
+/**
+ * Maintains state of entities (of single type) as loaded from data store, which is used to find modified fields
+ * during update, when dirty checking is enabled for the entity type (see {@link DirtyCheck}). Entities are weakly
+ * referenced and are identified by identity, so that snapshots are discarded along with entities.
+ * @author akiran
+ */
+public class EntitySnapshots
+{
+	private static Logger logger = LogManager.getLogger(EntitySnapshots.class);
+	
+	/**
+	 * Snapshot value used for lazy fields which are not loaded
+	 */
+	private static final Object NOT_LOADED = new Object();
+	
+	/**
+	 * Weak key of entity, which compares entities by identity
+	 * @author akiran
+	 */
+	private static class EntityKey extends WeakReference<Object>
+	{
+		private int hashCode;
+		
+		public EntityKey(Object entity, ReferenceQueue<Object> queue)
+		{
+			super(entity, queue);
+			this.hashCode = System.identityHashCode(entity);
+		}
+		
+		/* (non-Javadoc)
+		 * @see java.lang.Object#equals(java.lang.Object)
+		 */
+		@Override
+		public boolean equals(Object obj)
+		{
+			if(obj == this)
+			{
+				return true;
+			}
+			
+			if(!(obj instanceof EntityKey))
+			{
+				return false;
+			}
+			
+			Object entity = get();
+			return (entity != null && entity == ((EntityKey)obj).get());
+		}
+		
+		/* (non-Javadoc)
+		 * @see java.lang.Object#hashCode()
+		 */
+		@Override
+		public int hashCode()
+		{
+			return hashCode;
+		}
+	}
+	
+	/**
+	 * Entity details of the entity type
+	 */
+	private EntityDetails entityDetails;
+	
+	/**
+	 * Table owned non-id fields, whose values are maintained in snapshots
+	 */
+	private List<FieldDetails> fields = new ArrayList<>();
+	
+	/**
+	 * Snapshot values of entities, in the order of {@link #fields fields}
+	 */
+	private Map<EntityKey, Object[]> snapshots = new HashMap<>();
+	
+	/**
+	 * Queue to which keys of garbage collected entities are enqueued
+	 */
+	private ReferenceQueue<Object> queue = new ReferenceQueue<>();
+	
+	public EntitySnapshots(EntityDetails entityDetails)
+	{
+		this.entityDetails = entityDetails;
+		
+		for(FieldDetails field : entityDetails.getFieldDetails())
+		{
+			if(field.isIdField() || !field.isTableOwned())
+			{
+				continue;
+			}
+			
+			fields.add(field);
+		}
+	}
+	
+	/**
+	 * Fetches value of specified field from specified entity, in the form to be maintained in snapshot. Relation
+	 * field values are maintained as is (and compared by identity), other values are converted to db type.
+	 */
+	private Object getSnapshotValue(Object entity, FieldDetails field, ConversionService conversionService)
+	{
+		if(!LazyFieldsEntityCreator.isFieldLoaded(entity, field.getName()))
+		{
+			return NOT_LOADED;
+		}
+		
+		Object value = field.getValue(entity);
+		
+		if(field.isRelationField())
+		{
+			return value;
+		}
+		
+		value = conversionService.convertToDBType(value, field);
+		
+		//copy mutable values, so that in-place modifications are detected
+		if(value instanceof Date)
+		{
+			return ((Date)value).clone();
+		}
+		
+		if(value instanceof byte[])
+		{
+			return ((byte[])value).clone();
+		}
+		
+		if(value instanceof char[])
+		{
+			return ((char[])value).clone();
+		}
+		
+		return value;
+	}
+	
+	/**
+	 * Removes snapshots of entities which are garbage collected
+	 */
+	private void purge()
+	{
+		Reference<?> key = null;
+		
+		while((key = queue.poll()) != null)
+		{
+			snapshots.remove(key);
+		}
+	}
+	
+	/**
+	 * Captures current state of specified entity, which is expected to match with the state in data store
+	 * @param entity
+	 * @param conversionService
+	 */
+	public void capture(Object entity, ConversionService conversionService)
+	{
+		Object values[] = new Object[fields.size()];
+		
+		for(int i = 0; i < values.length; i++)
+		{
+			values[i] = getSnapshotValue(entity, fields.get(i), conversionService);
+		}
+		
+		synchronized(snapshots)
+		{
+			purge();
+			snapshots.put(new EntityKey(entity, queue), values);
+		}
+	}
+	
+	/**
+	 * Finds the fields of specified entity which are modified after its snapshot is captured
+	 * @param entity
+	 * @param conversionService
+	 * @return Modified fields (in entity field order), null if snapshot is not available for the entity
+	 */
+	public List<FieldDetails> getModifiedFields(Object entity, ConversionService conversionService)
+	{
+		Object values[] = null;
+		
+		synchronized(snapshots)
+		{
+			values = snapshots.get(new EntityKey(entity, null));
+		}
+		
+		if(values == null)
+		{
+			return null;
+		}
+		
+		List<FieldDetails> modifiedFields = new ArrayList<>();
+		FieldDetails field = null;
+		Object value = null;
+		
+		for(int i = 0; i < values.length; i++)
+		{
+			field = fields.get(i);
+			value = getSnapshotValue(entity, field, conversionService);
+			
+			//lazy fields which are never loaded or set, are not modified
+			if(value == NOT_LOADED)
+			{
+				continue;
+			}
+			
+			if(field.isRelationField() ? (value != values[i]) : (values[i] == NOT_LOADED || !Objects.deepEquals(value, values[i])))
+			{
+				modifiedFields.add(field);
+			}
+		}
+		
+		logger.trace("Found modified fields of {} entity as: {}", entityDetails.getEntityType().getName(), modifiedFields);
+		return modifiedFields.isEmpty() ? Collections.emptyList() : modifiedFields;
+	}
+	
+	/**
+	 * Removes snapshot of specified entity
+	 * @param entity
+	 */
+	public void remove(Object entity)
+	{
+		synchronized(snapshots)
+		{
+			snapshots.remove(new EntityKey(entity, null));
+		}
+	}
+	
+	/**
+	 * @return Type of entity whose snapshots are maintained
+	 */
+	public Class<?> getEntityType()
+	{
+		return entityDetails.getEntityType();
+	}
+	
+	/**
+	 * @return Number of snapshots currently maintained
+	 */
+	public int getSize()
+	{
+		synchronized(snapshots)
+		{
+			purge();
+			return snapshots.size();
+		}
+	}
+}
@@ -1,29 +1,25 @@
 package com.fw.persistence.conversion;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import com.fw.persistence.FieldDetails;
 import com.fw.persistence.annotations.DataType;
-import com.fw.persistence.annotations.DataTypeMapping;
 import com.fw.utils.ConvertUtils;
 
 /**
- * Service to convert object of one type into other.
+ * Service to convert object of one type into other. Field specific converters are resolved while building 
+ * entity details and are fetched from {@link FieldDetails}.
  * @author akiran
  */
 public class ConversionService
 {
 	private static Logger logger = LogManager.getLogger(ConversionService.class);
 	
-	private List<IPersistenceConverter> converters = new ArrayList<>();
-	
-	private Map<Class<?>, IPersistenceConverter> typeToConverter = new HashMap<>();
+	private List<IPersistenceConverter> converters = new CopyOnWriteArrayList<>();
 	
 	public ConversionService()
 	{
@@ -44,47 +40,6 @@ public class ConversionService
 		this.converters.add(converter);
 	}
 	
-	/**
-	 * Fetches the converter for specified field, if it is explcitly defined on 
-	 * target java field
-	 * @param fieldDetails
-	 * @return
-	 */
-	private IPersistenceConverter getConverter(FieldDetails fieldDetails)
-	{
-		//TODO: Check why field details needs to be null. Is there any substitute.
-		if(fieldDetails == null || fieldDetails.getField() == null)
-		{
-			return null;
-		}
-		
-		DataTypeMapping typeMapping = fieldDetails.getField().getAnnotation(DataTypeMapping.class);
-		
-		if(typeMapping == null)
-		{
-			return null;
-		}
-		
-		Class<?> converterType = typeMapping.converterType();
-		IPersistenceConverter converter = typeToConverter.get(converterType);
-		
-		if(converter != null)
-		{
-			return converter;
-		}
-		
-		try
-		{
-			converter = (IPersistenceConverter)converterType.newInstance();
-		}catch(Exception ex)
-		{
-			throw new IllegalStateException("Failed to create converter of type: " + converterType.getName(), ex);
-		}
-		
-		typeToConverter.put(converterType, converter);
-		return converter;
-	}
-	
 	/**
 	 * Converts specified db object to matching java type
 	 * @param dbObject
@@ -94,7 +49,7 @@ public class ConversionService
 	public Object convertToJavaType(Object dbObject, FieldDetails fieldDetails)
 	{
 		//fetch field specific converter
-		IPersistenceConverter converter = getConverter(fieldDetails);
+		IPersistenceConverter converter = fieldDetails.getConverter();
 		
 		//if field specific converter is present
 		if(converter != null)
@@ -102,6 +57,12 @@ public class ConversionService
 			return converter.convertToJavaType(dbObject, fieldDetails.getDbDataType(), fieldDetails.getField().getType());
 		}
 		
+		//if db object can be set on field directly
+		if(dbObject == null || fieldDetails.getJavaType().isInstance(dbObject))
+		{
+			return dbObject;
+		}
+		
 		//try to convert using default converters and in generic way
 		return convert(dbObject, fieldDetails.getDbDataType(), fieldDetails.getField().getType());
 	}
@@ -121,7 +82,7 @@ public class ConversionService
 		}
 		
 		//fetch field specific converter
-		IPersistenceConverter fldConverter = getConverter(fieldDetails);
+		IPersistenceConverter fldConverter = fieldDetails.getConverter();
 		
 		//if field specific converter is present
 		if(fldConverter != null)
@@ -15,8 +15,17 @@ import freemarker.template.TemplateModel;
 
 public class ParamCollectorDirective implements TemplateDirectiveModel
 {
-	private List<Object> paramValues = new ArrayList<Object>(20);
-	private Map<String, Object> context;
+	/**
+	 * Context and collected param values of the query being built by current thread, so that
+	 * same directive can be used by concurrent query builds
+	 */
+	private static class State
+	{
+		private List<Object> paramValues = new ArrayList<Object>(20);
+		private Map<String, Object> context;
+	}
+	
+	private ThreadLocal<State> currentState = ThreadLocal.withInitial(State::new);
 	
 	@SuppressWarnings("rawtypes")
 	@Override
@@ -24,10 +33,11 @@ public class ParamCollectorDirective implements TemplateDirectiveModel
 	{
 		String name = params.get("name").toString();
 		//Object value = env.getVariable(name);
+		State state = currentState.get();
 		
 		try
 		{
-			paramValues.add(PropertyUtils.getProperty(context, name));
+			state.paramValues.add(PropertyUtils.getProperty(state.context, name));
 		}catch(Exception e)
 		{
 			throw new IllegalStateException(e);
@@ -38,12 +48,14 @@ public class ParamCollectorDirective implements TemplateDirectiveModel
 	
 	public void reset(Map<String, Object> context)
 	{
-		this.context = context;
-		paramValues.clear();
+		State state = currentState.get();
+		
+		state.context = context;
+		state.paramValues.clear();
 	}
 	
 	public List<Object> getParamValues()
 	{
-		return paramValues;
+		return currentState.get().paramValues;
 	}
 }
@@ -6,7 +6,8 @@ import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
 /**
- * Helps in marking a method as entity event handler
+ * Helps in marking a method as entity event handler. Target method can accept no arguments, {@link EntityEvent} 
+ * or list of {@link EntityEvent} (for batched delivery).
  * @author akiran
  */
 @Retention(RetentionPolicy.RUNTIME)
@@ -25,4 +26,13 @@ public @interface EntityEventHandler
 	 * @return
 	 */
 	public Class<?>[] entityTypes() default {};
+	
+	/**
+	 * If true, method will be invoked asynchronously by worker threads of listener manager, so that 
+	 * persisting thread is not blocked. Methods accepting list of events are always invoked asynchronously,
+	 * with events batched per entity type. Async and batched handlers are not supported for pre events
+	 * (PRE_SAVE, PRE_UPDATE and PRE_DELETE), as such handlers need to be completed before the operation.
+	 * @return
+	 */
+	public boolean async() default false;
 }
@@ -1,6 +1,10 @@
 package com.fw.persistence.listeners;
 
 import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Holds listener method details for event handling
@@ -22,12 +26,69 @@ public class EntityListener
 	 * Does listener method accept event object
 	 */
 	private boolean hasEventArg;
-
+	
+	/**
+	 * Does listener method accept list of events
+	 */
+	private boolean batched;
+	
+	/**
+	 * Should listener be invoked asynchronously
+	 */
+	private boolean async;
+	
+	/**
+	 * Pending events of batch listener, grouped by entity type
+	 */
+	private Map<Class<?>, EventBatch> batches = new ConcurrentHashMap<>();
+	
 	public EntityListener(Object listenerContainer, Method listenerMethod, boolean hasEventArg)
+	{
+		this(listenerContainer, listenerMethod, hasEventArg, false, false);
+	}
+	
+	public EntityListener(Object listenerContainer, Method listenerMethod, boolean hasEventArg, boolean batched, boolean async)
 	{
 		this.listenerContainer = listenerContainer;
 		this.listenerMethod = listenerMethod;
 		this.hasEventArg = hasEventArg;
+		this.batched = batched;
+		this.async = async;
+	}
+	
+	/**
+	 * @return the {@link #listenerContainer listenerContainer}
+	 */
+	public Object getListenerContainer()
+	{
+		return listenerContainer;
+	}
+	
+	/**
+	 * @return the {@link #batched batched}
+	 */
+	public boolean isBatched()
+	{
+		return batched;
+	}
+	
+	/**
+	 * @return the {@link #async async}
+	 */
+	public boolean isAsync()
+	{
+		return async;
+	}
+	
+	/**
+	 * Fetches pending event batch of specified entity type, creating one if required
+	 * @param entityType
+	 * @param capacity Capacity to be used for new batch
+	 * @return
+	 */
+	EventBatch getBatch(Class<?> entityType, int capacity)
+	{
+		return batches.computeIfAbsent(entityType, type -> new EventBatch(capacity));
 	}
 	
 	/**
@@ -38,6 +99,12 @@ public class EntityListener
 	{
 		try
 		{
+			if(batched)
+			{
+				listenerMethod.invoke(listenerContainer, Collections.singletonList(e));
+				return;
+			}
+			
 			if(hasEventArg)
 			{
 				listenerMethod.invoke(listenerContainer, e);
@@ -47,7 +114,22 @@ public class EntityListener
 			listenerMethod.invoke(listenerContainer);
 		}catch(Exception ex)
 		{
-			throw new IllegalStateException("An error occurred while invoking ");
+			throw new IllegalStateException("An error occurred while invoking listener: " + this, ex);
+		}
+	}
+	
+	/**
+	 * Invokes the batch listener method with specified events
+	 * @param events
+	 */
+	public void invoke(List<EntityEvent> events)
+	{
+		try
+		{
+			listenerMethod.invoke(listenerContainer, events);
+		}catch(Exception ex)
+		{
+			throw new IllegalStateException("An error occurred while invoking listener: " + this, ex);
 		}
 	}
 	
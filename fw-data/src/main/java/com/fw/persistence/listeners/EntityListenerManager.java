@@ -2,17 +2,29 @@ package com.fw.persistence.listeners;
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import com.fw.persistence.InvalidConfigurationException;
 import com.fw.persistence.repository.RepositoryFactory;
 
 /**
- * Manages registered listener methods and their invocations
+ * Manages registered listener methods and their invocations.
+ *
+ * Listeners marked as async (and batch listeners, which accept list of events) are invoked by a bounded pool of
+ * worker threads. When the pool queue is full, listeners are invoked on the persisting thread itself, which
+ * slows down the producers instead of dropping events.
  * @author akiran
  */
 public class EntityListenerManager
@@ -20,40 +32,170 @@ public class EntityListenerManager
 	private static Logger logger = LogManager.getLogger(EntityListenerManager.class);
 	
 	/**
-	 * Holds handlers grouped by entity-type and event-type
+	 * Default value for {@link #asyncThreadCount}
 	 */
-	private Map<String, List<EntityListener>> typeToListeners = new HashMap<>();
+	public static final int DEFAULT_ASYNC_THREAD_COUNT = 2;
 	
 	/**
-	 * Add listener details with specified key
-	 * @param key
+	 * Default value for {@link #asyncQueueSize}
+	 */
+	public static final int DEFAULT_ASYNC_QUEUE_SIZE = 10000;
+	
+	/**
+	 * Default value for {@link #maxBatchSize}
+	 */
+	public static final int DEFAULT_MAX_BATCH_SIZE = 100;
+	
+	/**
+	 * Holds entity specific handlers grouped by entity-type and event-type
+	 */
+	private Map<Class<?>, Map<EntityEventType, List<EntityListener>>> typeToListeners = new HashMap<>();
+	
+	/**
+	 * Holds handlers, which are applicable to all entity types, grouped by event-type
+	 */
+	private Map<EntityEventType, List<EntityListener>> genericListeners = new EnumMap<>(EntityEventType.class);
+	
+	/**
+	 * Entity specific and generic handlers combined, grouped by entity-type and event-type. Built on first
+	 * event of entity type and cleared on listener registration.
+	 */
+	private Map<Class<?>, Map<EntityEventType, List<EntityListener>>> resolvedListeners = new ConcurrentHashMap<>();
+	
+	/**
+	 * Number of worker threads to be used for async listeners
+	 */
+	private int asyncThreadCount = DEFAULT_ASYNC_THREAD_COUNT;
+	
+	/**
+	 * Maximum number of pending async invocations. Same size is used for pending events of a batch listener.
+	 */
+	private int asyncQueueSize = DEFAULT_ASYNC_QUEUE_SIZE;
+	
+	/**
+	 * Maximum number of events to be delivered to batch listener in single invocation
+	 */
+	private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+	
+	/**
+	 * Executor used to invoke async listeners. Created on first async event.
+	 */
+	private volatile ThreadPoolExecutor asyncExecutor;
+	
+	/**
+	 * @param asyncThreadCount the {@link #asyncThreadCount asyncThreadCount} to set
+	 */
+	public void setAsyncThreadCount(int asyncThreadCount)
+	{
+		if(asyncThreadCount <= 0)
+		{
+			throw new IllegalArgumentException("Invalid async thread count specified: " + asyncThreadCount);
+		}
+		
+		this.asyncThreadCount = asyncThreadCount;
+	}
+	
+	/**
+	 * @param asyncQueueSize the {@link #asyncQueueSize asyncQueueSize} to set
+	 */
+	public void setAsyncQueueSize(int asyncQueueSize)
+	{
+		if(asyncQueueSize <= 0)
+		{
+			throw new IllegalArgumentException("Invalid async queue size specified: " + asyncQueueSize);
+		}
+		
+		this.asyncQueueSize = asyncQueueSize;
+	}
+	
+	/**
+	 * @param maxBatchSize the {@link #maxBatchSize maxBatchSize} to set
+	 */
+	public void setMaxBatchSize(int maxBatchSize)
+	{
+		if(maxBatchSize <= 0)
+		{
+			throw new IllegalArgumentException("Invalid max batch size specified: " + maxBatchSize);
+		}
+		
+		this.maxBatchSize = maxBatchSize;
+	}
+	
+	/**
+	 * Adds specified listener to specified event-type map
+	 * @param eventToListeners
+	 * @param eventType
 	 * @param details
 	 */
-	private void addListenerDetails(String key, EntityListener details)
+	private void addListenerDetails(Map<EntityEventType, List<EntityListener>> eventToListeners, EntityEventType eventType, EntityListener details)
 	{
-		List<EntityListener> detailsLst = typeToListeners.get(key);
+		List<EntityListener> detailsLst = eventToListeners.get(eventType);
 		
-		//for specified key if list is not already existing
+		//for specified event type if list is not already existing
 		if(detailsLst == null)
 		{
 			detailsLst = new ArrayList<>();
-			typeToListeners.put(key, detailsLst);
+			eventToListeners.put(eventType, detailsLst);
 		}
 		
 		detailsLst.add(details);
 	}
 	
+	/**
+	 * Checks if specified event type is fired before the operation. Handlers of such events are expected to 
+	 * inspect or modify the entity before the operation, so they can not be invoked asynchronously.
+	 * @param eventType
+	 * @return
+	 */
+	private static boolean isPreEvent(EntityEventType eventType)
+	{
+		return (eventType == EntityEventType.PRE_SAVE || eventType == EntityEventType.PRE_UPDATE || eventType == EntityEventType.PRE_DELETE);
+	}
+	
+	/**
+	 * Ensures async or batched handlers of specified listener container are not handling pre events
+	 * @param listenerContainerObject
+	 */
+	private void validateHandlers(Object listenerContainerObject)
+	{
+		EntityEventHandler entityEventHandler = null;
+		Class<?> argTypes[] = null;
+		
+		for(Method method: listenerContainerObject.getClass().getMethods())
+		{
+			entityEventHandler = method.getAnnotation(EntityEventHandler.class);
+			
+			if(entityEventHandler == null || !isPreEvent(entityEventHandler.eventType()))
+			{
+				continue;
+			}
+			
+			argTypes = method.getParameterTypes();
+			
+			if(entityEventHandler.async() || (argTypes.length == 1 && List.class.equals(argTypes[0])))
+			{
+				throw new InvalidConfigurationException(String.format("Async/batched handler '%s.%s()' can not be registered for %s event", 
+						listenerContainerObject.getClass().getName(), method.getName(), entityEventHandler.eventType()));
+			}
+		}
+	}
+	
 	/**
 	 * Registers specified listener container object
 	 * @param listenerContainerObject
+	 * @throws InvalidConfigurationException If async or batched handler is specified for pre event
 	 */
-	public void registerListener(Object listenerContainerObject)
+	public synchronized void registerListener(Object listenerContainerObject)
 	{
+		validateHandlers(listenerContainerObject);
+		
 		Method methods[] = listenerContainerObject.getClass().getMethods();
 		Class<?> argTypes[] = null;
 		
 		EntityEventHandler entityEventHandler = null;
 		Class<?> entityTypes[] = null;
+		EntityListener listener = null;
+		boolean batched = false;
 		
 		//loop through accessible methods
 		for(Method method: methods)
@@ -75,30 +217,220 @@ public class EntityListenerManager
 				continue;
 			}
 			
-			//if the argument is available but is not of even type
-			if(argTypes.length == 1 && !EntityEvent.class.equals(argTypes[0]))
+			batched = (argTypes.length == 1 && List.class.equals(argTypes[0]));
+			
+			//if the argument is available but is not of event type
+			if(argTypes.length == 1 && !batched && !EntityEvent.class.equals(argTypes[0]))
 			{
 				logger.debug("Ignoring method '{}' as it is having non-event type argument", method.getName());
+				continue;
 			}
 			
+			listener = new EntityListener(listenerContainerObject, method, (argTypes.length == 1), batched, entityEventHandler.async() || batched);
 			entityTypes = entityEventHandler.entityTypes();
 			
 			//if no entity types are specified
 			if(entityTypes.length == 0)
 			{
-				logger.debug("Registering '{}.{}()' to handle {} event for all types of entities", 
+				logger.debug("Registering '{}.{}()' to handle {} event for all types of entities",
 							listenerContainerObject.getClass().getName(), method.getName(), entityEventHandler.eventType());
-				addListenerDetails(entityEventHandler.eventType().name(), new EntityListener(listenerContainerObject, method, (argTypes.length == 1) ));
+				addListenerDetails(genericListeners, entityEventHandler.eventType(), listener);
 				continue;
 			}
 			
 			//if entity types are specified over annotation, register for this entity types
 			for(Class<?> entityType: entityTypes)
 			{
-				logger.debug("Registering '{}.{}()' to handle {} event for entity type - {}", 
+				logger.debug("Registering '{}.{}()' to handle {} event for entity type - {}",
 						listenerContainerObject.getClass().getName(), method.getName(), entityEventHandler.eventType(), entityType.getName());
-				addListenerDetails(entityType.getName() + "@" + entityEventHandler.eventType(), 
-						new EntityListener(listenerContainerObject, method, (argTypes.length == 1)) );
+				addListenerDetails(typeToListeners.computeIfAbsent(entityType, type -> new EnumMap<>(EntityEventType.class)),
+						entityEventHandler.eventType(), listener);
+			}
+		}
+		
+		//listeners need to be resolved again as per new registrations
+		resolvedListeners.clear();
+	}
+	
+	/**
+	 * Removes handlers of specified listener container from specified event-type map
+	 * @param eventToListeners
+	 * @param listenerContainerObject
+	 */
+	private void removeListeners(Map<EntityEventType, List<EntityListener>> eventToListeners, Object listenerContainerObject)
+	{
+		for(List<EntityListener> listeners : eventToListeners.values())
+		{
+			listeners.removeIf(listener -> listener.getListenerContainer() == listenerContainerObject);
+		}
+	}
+	
+	/**
+	 * Unregisters handlers of specified listener container object, which was registered earlier using 
+	 * {@link #registerListener(Object)}
+	 * @param listenerContainerObject
+	 */
+	public synchronized void unregisterListener(Object listenerContainerObject)
+	{
+		removeListeners(genericListeners, listenerContainerObject);
+		
+		for(Map<EntityEventType, List<EntityListener>> eventToListeners : typeToListeners.values())
+		{
+			removeListeners(eventToListeners, listenerContainerObject);
+		}
+		
+		resolvedListeners.clear();
+	}
+	
+	/**
+	 * Combines entity specific and generic listeners of specified entity type
+	 * @param entityType
+	 * @return
+	 */
+	private synchronized Map<EntityEventType, List<EntityListener>> resolveListeners(Class<?> entityType)
+	{
+		Map<EntityEventType, List<EntityListener>> eventToListeners = new EnumMap<>(EntityEventType.class);
+		Map<EntityEventType, List<EntityListener>> specificListeners = typeToListeners.get(entityType);
+		List<EntityListener> listeners = null;
+		
+		for(EntityEventType eventType : EntityEventType.values())
+		{
+			listeners = new ArrayList<>();
+			
+			//entity specific handlers are invoked before generic handlers
+			if(specificListeners != null && specificListeners.get(eventType) != null)
+			{
+				listeners.addAll(specificListeners.get(eventType));
+			}
+			
+			if(genericListeners.get(eventType) != null)
+			{
+				listeners.addAll(genericListeners.get(eventType));
+			}
+			
+			eventToListeners.put(eventType, listeners.isEmpty() ? Collections.emptyList() : listeners);
+		}
+		
+		resolvedListeners.put(entityType, eventToListeners);
+		return eventToListeners;
+	}
+	
+	/**
+	 * Fetches listeners to be invoked for specified entity type and event type
+	 * @param entityType
+	 * @param eventType
+	 * @return
+	 */
+	private List<EntityListener> getListeners(Class<?> entityType, EntityEventType eventType)
+	{
+		Map<EntityEventType, List<EntityListener>> eventToListeners = resolvedListeners.get(entityType);
+		
+		if(eventToListeners == null)
+		{
+			eventToListeners = resolveListeners(entityType);
+		}
+		
+		return eventToListeners.get(eventType);
+	}
+	
+	/**
+	 * Fetches executor for async listeners, creating it if required
+	 * @return
+	 */
+	private ThreadPoolExecutor getAsyncExecutor()
+	{
+		ThreadPoolExecutor executor = asyncExecutor;
+		
+		if(executor != null)
+		{
+			return executor;
+		}
+		
+		synchronized(this)
+		{
+			if(asyncExecutor != null)
+			{
+				return asyncExecutor;
+			}
+			
+			AtomicInteger threadIndex = new AtomicInteger();
+			
+			executor = new ThreadPoolExecutor(asyncThreadCount, asyncThreadCount, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(asyncQueueSize),
+				runnable ->
+				{
+					Thread thread = new Thread(runnable, "entity-event-" + threadIndex.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				},
+				//when queue is full (or executor is shut down), invoke on current thread, so that events are not lost
+				(runnable, threadPoolExecutor) -> runnable.run());
+			
+			executor.allowCoreThreadTimeOut(true);
+			
+			asyncExecutor = executor;
+			return executor;
+		}
+	}
+	
+	/**
+	 * Invokes specified listener, logging errors if any
+	 * @param listener
+	 * @param event
+	 */
+	private void invoke(EntityListener listener, EntityEvent event)
+	{
+		try
+		{
+			listener.invoke(event);
+		}catch(Exception ex)
+		{
+			logger.error("An error occurred while invoking event handler - " + listener, ex);
+		}
+	}
+	
+	/**
+	 * Adds specified event to pending events of batch listener and schedules the flush, if not already scheduled
+	 * @param listener
+	 * @param entityType
+	 * @param event
+	 */
+	private void addToBatch(EntityListener listener, Class<?> entityType, EntityEvent event)
+	{
+		EventBatch batch = listener.getBatch(entityType, asyncQueueSize);
+		
+		//if batch is full, deliver pending events on current thread
+		while(!batch.add(event))
+		{
+			flushBatch(listener, batch);
+		}
+		
+		if(batch.scheduleFlush())
+		{
+			getAsyncExecutor().execute(() ->
+			{
+				batch.flushStarted();
+				flushBatch(listener, batch);
+			});
+		}
+	}
+	
+	/**
+	 * Delivers pending events of specified batch to specified listener
+	 * @param listener
+	 * @param batch
+	 */
+	private void flushBatch(EntityListener listener, EventBatch batch)
+	{
+		List<EntityEvent> events = null;
+		
+		while(!(events = batch.drain(maxBatchSize)).isEmpty())
+		{
+			try
+			{
+				listener.invoke(events);
+			}catch(Exception ex)
+			{
+				logger.error("An error occurred while invoking batch event handler - " + listener, ex);
 			}
 		}
 	}
@@ -109,68 +441,77 @@ public class EntityListenerManager
 	 * @param entity
 	 * @param eventType
 	 */
-	public void handleEventType(Class<?> entityType, RepositoryFactory factory, 
+	public void handleEventType(Class<?> entityType, RepositoryFactory factory,
 			Object key, Object entity, EntityEventType eventType)
 	{
-		List<EntityListener> listenerLst = typeToListeners.get(entityType.getName() + "@" + eventType);
-		List<EntityListener> genericListenerLst = typeToListeners.get(eventType.toString());
+		List<EntityListener> listenerLst = getListeners(entityType, eventType);
 		
 		//if no handlers are present
-		if(listenerLst == null && genericListenerLst == null)
+		if(listenerLst.isEmpty())
 		{
 			return;
 		}
 		
 		EntityEvent event = new EntityEvent(entity, eventType, factory);
 		
-		//if available, invoke entity specific handlers
-		if(listenerLst != null)
+		for(EntityListener listener : listenerLst)
 		{
-			for(EntityListener listener : listenerLst)
+			if(listener.isBatched())
 			{
-				try
-				{
-					listener.invoke(event);
-				}catch(Exception ex)
-				{
-					logger.error("An error occurred while invoking event handler - " + listener, ex);
-				}
+				addToBatch(listener, entityType, event);
 			}
-		}
-		
-		//if available, invoke generic handlers
-		if(genericListenerLst != null)
-		{
-			for(EntityListener listener : genericListenerLst)
+			else if(listener.isAsync())
 			{
-				try
-				{
-					listener.invoke(event);
-				}catch(Exception ex)
-				{
-					logger.error("An error occurred while invoking generic event handler - " + listener, ex);
-				}
+				getAsyncExecutor().execute(() -> invoke(listener, event));
+			}
+			else
+			{
+				invoke(listener, event);
 			}
 		}
 	}
 	
 	/**
-	 * Indicates whether listener is present for specified entity type and event type 
+	 * Indicates whether listener is present for specified entity type and event type
 	 * @param entityType
 	 * @param eventType
 	 * @return
 	 */
 	public boolean isListenerPresent(Class<?> entityType, EntityEventType eventType)
 	{
-		List<EntityListener> listenerLst = typeToListeners.get(entityType.getName() + "@" + eventType);
-		List<EntityListener> genericListenerLst = typeToListeners.get(eventType.toString());
+		return !getListeners(entityType, eventType).isEmpty();
+	}
+	
+	/**
+	 * Waits for pending async events to be delivered and stops the worker threads. Worker threads will be
+	 * started again on next async event.
+	 * @param timeout Max time to wait in millis
+	 * @return true if all pending events are delivered
+	 */
+	public boolean shutdown(long timeout)
+	{
+		ThreadPoolExecutor executor = null;
 		
-		//if no handlers are present
-		if(listenerLst == null && genericListenerLst == null)
+		synchronized(this)
 		{
-			return false;
+			executor = asyncExecutor;
+			asyncExecutor = null;
+		}
+		
+		if(executor == null)
+		{
+			return true;
 		}
 		
-		return true;
+		executor.shutdown();
+		
+		try
+		{
+			return executor.awaitTermination(timeout, TimeUnit.MILLISECONDS);
+		}catch(InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+			return false;
+		}
 	}
 }
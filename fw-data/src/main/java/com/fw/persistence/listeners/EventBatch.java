@@ -0,0 +1,69 @@
+package com.fw.persistence.listeners;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pending events of single entity type, to be delivered to a batch listener
+ * @author akiran
+ */
+class EventBatch
+{
+	/**
+	 * Events pending for delivery
+	 */
+	private BlockingQueue<EntityEvent> events;
+	
+	/**
+	 * Flag indicating if flush of this batch is already scheduled
+	 */
+	private AtomicBoolean flushScheduled = new AtomicBoolean(false);
+	
+	public EventBatch(int capacity)
+	{
+		this.events = new ArrayBlockingQueue<>(capacity);
+	}
+	
+	/**
+	 * Adds specified event to this batch
+	 * @param event
+	 * @return false, if batch is full
+	 */
+	public boolean add(EntityEvent event)
+	{
+		return events.offer(event);
+	}
+	
+	/**
+	 * Marks the flush as scheduled
+	 * @return true, if flush was not already scheduled
+	 */
+	public boolean scheduleFlush()
+	{
+		return flushScheduled.compareAndSet(false, true);
+	}
+	
+	/**
+	 * Should be called when scheduled flush starts, so that events added afterwards schedule a new flush
+	 */
+	public void flushStarted()
+	{
+		flushScheduled.set(false);
+	}
+	
+	/**
+	 * Removes and returns pending events, up to specified max size
+	 * @param maxSize
+	 * @return
+	 */
+	public List<EntityEvent> drain(int maxSize)
+	{
+		List<EntityEvent> res = new ArrayList<>();
+		events.drainTo(res, maxSize);
+		
+		return res;
+	}
+}
@@ -0,0 +1,88 @@
+package com.fw.persistence.monitor;
+
+/**
+ * Statistics of data store operations performed by current thread. Data stores report rows and query build time here,
+ * and repository method metrics attribute the difference observed during method execution to the method.
+ * @author akiran
+ */
+public class ExecutionStats
+{
+	/**
+	 * Statistics of current thread
+	 */
+	private static ThreadLocal<ExecutionStats> currentStats = ThreadLocal.withInitial(ExecutionStats::new);
+	
+	/**
+	 * Number of rows read
+	 */
+	private long rowsRead;
+	
+	/**
+	 * Number of rows inserted, updated or deleted
+	 */
+	private long rowsWritten;
+	
+	/**
+	 * Time spent in building queries, in nanos
+	 */
+	private long queryBuildTime;
+	
+	/**
+	 * @return Statistics of current thread
+	 */
+	public static ExecutionStats current()
+	{
+		return currentStats.get();
+	}
+	
+	/**
+	 * Adds specified count to rows read by current thread
+	 * @param count
+	 */
+	public static void addRowsRead(long count)
+	{
+		currentStats.get().rowsRead += count;
+	}
+	
+	/**
+	 * Adds specified count to rows written by current thread
+	 * @param count
+	 */
+	public static void addRowsWritten(long count)
+	{
+		currentStats.get().rowsWritten += count;
+	}
+	
+	/**
+	 * Adds specified time to query build time of current thread
+	 * @param nanos
+	 */
+	public static void addQueryBuildTime(long nanos)
+	{
+		currentStats.get().queryBuildTime += nanos;
+	}
+	
+	/**
+	 * @return the {@link #rowsRead rowsRead}
+	 */
+	public long getRowsRead()
+	{
+		return rowsRead;
+	}
+	
+	/**
+	 * @return the {@link #rowsWritten rowsWritten}
+	 */
+	public long getRowsWritten()
+	{
+		return rowsWritten;
+	}
+	
+	/**
+	 * @return the {@link #queryBuildTime queryBuildTime}
+	 */
+	public long getQueryBuildTime()
+	{
+		return queryBuildTime;
+	}
+}
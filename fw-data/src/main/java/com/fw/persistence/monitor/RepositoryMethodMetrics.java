@@ -0,0 +1,259 @@
+package com.fw.persistence.monitor;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Execution metrics of a repository method. Latencies are maintained in a histogram with power of two
+ * (microsecond) buckets, so percentiles are approximate (upper bound of the matching bucket, capped by max time).
+ * Recording is lock free, so that metrics can be left enabled in production.
+ * @author akiran
+ */
+public class RepositoryMethodMetrics implements RepositoryMethodMetricsMXBean
+{
+	/**
+	 * Number of latency buckets. Last bucket holds all latencies above ~18 minutes
+	 */
+	private static final int BUCKET_COUNT = 31;
+	
+	private static final double NANOS_PER_MILLI = 1000_000.0;
+	
+	/**
+	 * Repository type to which method belongs
+	 */
+	private String repositoryType;
+	
+	/**
+	 * Method signature
+	 */
+	private String method;
+	
+	private LongAdder callCount = new LongAdder();
+	private LongAdder errorCount = new LongAdder();
+	private LongAdder totalTime = new LongAdder();
+	private AtomicLong maxTime = new AtomicLong();
+	private LongAdder rowsRead = new LongAdder();
+	private LongAdder rowsWritten = new LongAdder();
+	private LongAdder queryBuildTime = new LongAdder();
+	
+	/**
+	 * Number of calls in each latency bucket. Bucket i holds latencies less than 2^i micros
+	 */
+	private AtomicLongArray latencyBuckets = new AtomicLongArray(BUCKET_COUNT);
+	
+	public RepositoryMethodMetrics(String repositoryType, String method)
+	{
+		this.repositoryType = repositoryType;
+		this.method = method;
+	}
+	
+	/**
+	 * Records single execution of the method
+	 * @param time Execution time in nanos
+	 * @param error Flag indicating if execution failed
+	 * @param rowsRead Number of rows read by the execution
+	 * @param rowsWritten Number of rows written by the execution
+	 * @param queryBuildTime Time spent in building queries, in nanos
+	 */
+	public void record(long time, boolean error, long rowsRead, long rowsWritten, long queryBuildTime)
+	{
+		callCount.increment();
+		
+		if(error)
+		{
+			errorCount.increment();
+		}
+		
+		totalTime.add(time);
+		this.rowsRead.add(rowsRead);
+		this.rowsWritten.add(rowsWritten);
+		this.queryBuildTime.add(queryBuildTime);
+		
+		long max = maxTime.get();
+		
+		while(time > max && !maxTime.compareAndSet(max, time))
+		{
+			max = maxTime.get();
+		}
+		
+		int bucket = 64 - Long.numberOfLeadingZeros(time / 1000);
+		latencyBuckets.incrementAndGet(Math.min(bucket, BUCKET_COUNT - 1));
+	}
+	
+	/**
+	 * Computes approximate latency at specified percentile
+	 * @param percentile Percentile in range 0 - 1
+	 * @return Latency in millis
+	 */
+	private double getPercentileTime(double percentile)
+	{
+		long counts[] = new long[BUCKET_COUNT];
+		long total = 0;
+		
+		for(int i = 0; i < BUCKET_COUNT; i++)
+		{
+			counts[i] = latencyBuckets.get(i);
+			total += counts[i];
+		}
+		
+		if(total == 0)
+		{
+			return 0;
+		}
+		
+		long target = (long)Math.ceil(percentile * total);
+		long count = 0;
+		long max = maxTime.get();
+		
+		for(int i = 0; i < BUCKET_COUNT; i++)
+		{
+			count += counts[i];
+			
+			if(count >= target)
+			{
+				return Math.min((1L << i) * 1000, max) / NANOS_PER_MILLI;
+			}
+		}
+		
+		return max / NANOS_PER_MILLI;
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.fw.persistence.monitor.RepositoryMethodMetricsMXBean#getRepositoryType()
+	 */
+	@Override
+	public String getRepositoryType()
+	{
+		return repositoryType;
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.fw.persistence.monitor.RepositoryMethodMetricsMXBean#getMethod()
+	 */
+	@Override
+	public String getMethod()
+	{
+		return method;
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.fw.persistence.monitor.RepositoryMethodMetricsMXBean#getCallCount()
+	 */
+	@Override
+	public long getCallCount()
+	{
+		return callCount.sum();
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.fw.persistence.monitor.RepositoryMethodMetricsMXBean#getErrorCount()
+	 */
+	@Override
+	public long getErrorCount()
+	{
+		return errorCount.sum();
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.fw.persistence.monitor.RepositoryMethodMetricsMXBean#getAverageTime()
+	 */
+	@Override
+	public double getAverageTime()
+	{
+		long count = callCount.sum();
+		return (count == 0) ? 0 : (totalTime.sum() / NANOS_PER_MILLI) / count;
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.fw.persistence.monitor.RepositoryMethodMetricsMXBean#getMaxTime()
+	 */
+	@Override
+	public double getMaxTime()
+	{
+		return maxTime.get() / NANOS_PER_MILLI;
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.fw.persistence.monitor.RepositoryMethodMetricsMXBean#getMedianTime()
+	 */
+	@Override
+	public double getMedianTime()
+	{
+		return getPercentileTime(0.5);
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.fw.persistence.monitor.RepositoryMethodMetricsMXBean#get99thPercentileTime()
+	 */
+	@Override
+	public double get99thPercentileTime()
+	{
+		return getPercentileTime(0.99);
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.fw.persistence.monitor.RepositoryMethodMetricsMXBean#getRowsRead()
+	 */
+	@Override
+	public long getRowsRead()
+	{
+		return rowsRead.sum();
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.fw.persistence.monitor.RepositoryMethodMetricsMXBean#getRowsWritten()
+	 */
+	@Override
+	public long getRowsWritten()
+	{
+		return rowsWritten.sum();
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.fw.persistence.monitor.RepositoryMethodMetricsMXBean#getQueryBuildTime()
+	 */
+	@Override
+	public double getQueryBuildTime()
+	{
+		return queryBuildTime.sum() / NANOS_PER_MILLI;
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.fw.persistence.monitor.RepositoryMethodMetricsMXBean#reset()
+	 */
+	@Override
+	public void reset()
+	{
+		callCount.reset();
+		errorCount.reset();
+		totalTime.reset();
+		maxTime.set(0);
+		rowsRead.reset();
+		rowsWritten.reset();
+		queryBuildTime.reset();
+		
+		for(int i = 0; i < BUCKET_COUNT; i++)
+		{
+			latencyBuckets.set(i, 0);
+		}
+	}
+	
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		StringBuilder builder = new StringBuilder(super.toString());
+		builder.append("[");
+		
+		builder.append("Method: ").append(repositoryType).append(".").append(method);
+		builder.append(",").append("Calls: ").append(getCallCount());
+		builder.append(",").append("Errors: ").append(getErrorCount());
+		builder.append(",").append("Avg Time: ").append(getAverageTime());
+		
+		builder.append("]");
+		return builder.toString();
+	}
+}
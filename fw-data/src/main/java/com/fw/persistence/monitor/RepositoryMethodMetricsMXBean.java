@@ -0,0 +1,25 @@
+package com.fw.persistence.monitor;
+
+/**
+ * Management interface exposing execution metrics of a repository method. Times are in millis.
+ * @author akiran
+ */
+public interface RepositoryMethodMetricsMXBean
+{
+	public String getRepositoryType();
+	public String getMethod();
+	
+	public long getCallCount();
+	public long getErrorCount();
+	
+	public double getAverageTime();
+	public double getMaxTime();
+	public double getMedianTime();
+	public double get99thPercentileTime();
+	
+	public long getRowsRead();
+	public long getRowsWritten();
+	public double getQueryBuildTime();
+	
+	public void reset();
+}
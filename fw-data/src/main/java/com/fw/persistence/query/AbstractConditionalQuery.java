@@ -138,6 +138,40 @@ public abstract class AbstractConditionalQuery extends Query implements IConditi
 		return tables;
 	}
 	
+	/* (non-Javadoc)
+	 * @see com.fw.persistence.query.Query#appendShape(java.lang.StringBuilder)
+	 */
+	@Override
+	protected void appendShape(StringBuilder builder)
+	{
+		builder.append("|");
+		
+		if(resultFields != null)
+		{
+			for(QueryResultField field : resultFields)
+			{
+				builder.append(field.getTableCode()).append(".").append(field.getColumn()).append(" ").append(field.getCode()).append(",");
+			}
+		}
+		
+		builder.append("|");
+		
+		for(QueryTable table : getTables())
+		{
+			builder.append(table.getTable()).append(" ").append(table.getTableCode()).append(",");
+		}
+		
+		builder.append("|");
+		
+		for(QueryJoinCondition condition : joinConditions)
+		{
+			builder.append(condition.getLeftTableCode()).append(".").append(condition.getLeftColumn()).append("=");
+			builder.append(condition.getRightTableCode()).append(".").append(condition.getRightColumn()).append(",");
+		}
+		
+		appendConditionsShape(conditions, builder);
+	}
+	
 	/* (non-Javadoc)
 	 * @see java.lang.Object#toString()
 	 */
@@ -90,6 +90,19 @@ public class ChildrenExistenceQuery extends Query implements IChildQuery
 		return parentColumns;
 	}
 	
+	/* (non-Javadoc)
+	 * @see com.fw.persistence.query.Query#appendShape(java.lang.StringBuilder)
+	 */
+	@Override
+	protected void appendShape(StringBuilder builder)
+	{
+		builder.append("|").append(getParentTableName());
+		builder.append("|").append(childColumns).append("|").append(parentColumns);
+		
+		appendConditionsShape(parentConditions, builder);
+		appendConditionsShape(childConditions, builder);
+	}
+	
 	/* (non-Javadoc)
 	 * @see java.lang.Object#toString()
 	 */
@@ -1,5 +1,7 @@
 package com.fw.persistence.query;
 
+import java.util.List;
+
 public class ColumnParam
 {
 	private String name;
@@ -55,6 +57,33 @@ public class ColumnParam
 		return sequence;
 	}
 	
+	/**
+	 * Appends the shape of specified columns (name and sequence if any) to specified builder
+	 * @param columns Columns whose shape needs to be appended
+	 * @param builder Builder to which shape needs to be appended
+	 */
+	static void appendShape(List<ColumnParam> columns, StringBuilder builder)
+	{
+		builder.append("|");
+		
+		if(columns == null)
+		{
+			return;
+		}
+		
+		for(ColumnParam column : columns)
+		{
+			builder.append(column.name);
+			
+			if(column.sequence != null)
+			{
+				builder.append(" ").append(column.sequence);
+			}
+			
+			builder.append(",");
+		}
+	}
+	
 	/* (non-Javadoc)
 	 * @see java.lang.Object#toString()
 	 */
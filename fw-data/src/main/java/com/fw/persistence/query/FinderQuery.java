@@ -1,11 +1,195 @@
 package com.fw.persistence.query;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import com.fw.persistence.EntityDetails;
 
 public class FinderQuery extends AbstractConditionalQuery
 {
+	/**
+	 * Fields to be used for ordering the results
+	 */
+	private List<QueryOrderByField> orderByFields = new ArrayList<>();
+
+	/**
+	 * Tables to be joined using outer joins
+	 */
+	private List<QueryOuterJoin> outerJoins = new ArrayList<>();
+
+	/**
+	 * Number of rows to skip, null if no rows should be skipped
+	 */
+	private Integer offset;
+
+	/**
+	 * Maximum number of rows to fetch, null if all rows should be fetched
+	 */
+	private Integer resultsLimit;
+
+	/**
+	 * Sort key values (matching with order by fields) after which rows should be fetched. Null if keyset
+	 * paging is not used.
+	 */
+	private List<Object> keysetValues;
+
 	public FinderQuery(EntityDetails entityDetails)
 	{
 		super(entityDetails);
 	}
+
+	/**
+	 * Adds value to {@link #orderByFields orderByFields}
+	 *
+	 * @param field
+	 *            field to be added
+	 */
+	public void addOrderByField(QueryOrderByField field)
+	{
+		orderByFields.add(field);
+	}
+
+	/**
+	 * @return the {@link #orderByFields orderByFields}
+	 */
+	public List<QueryOrderByField> getOrderByFields()
+	{
+		return orderByFields;
+	}
+
+	/**
+	 * Adds value to {@link #outerJoins outerJoins}
+	 *
+	 * @param outerJoin
+	 *            outer join to be added
+	 */
+	public void addOuterJoin(QueryOuterJoin outerJoin)
+	{
+		outerJoins.add(outerJoin);
+	}
+
+	/**
+	 * @return the {@link #outerJoins outerJoins}
+	 */
+	public List<QueryOuterJoin> getOuterJoins()
+	{
+		return outerJoins;
+	}
+
+	/**
+	 * @return the {@link #offset offset}
+	 */
+	public Integer getOffset()
+	{
+		return offset;
+	}
+
+	/**
+	 * @param offset the {@link #offset offset} to set
+	 */
+	public void setOffset(Integer offset)
+	{
+		this.offset = offset;
+	}
+
+	/**
+	 * @return the {@link #resultsLimit resultsLimit}
+	 */
+	public Integer getResultsLimit()
+	{
+		return resultsLimit;
+	}
+
+	/**
+	 * @param resultsLimit the {@link #resultsLimit resultsLimit} to set
+	 */
+	public void setResultsLimit(Integer resultsLimit)
+	{
+		this.resultsLimit = resultsLimit;
+	}
+
+	/**
+	 * @return the {@link #keysetValues keysetValues}
+	 */
+	public List<Object> getKeysetValues()
+	{
+		return keysetValues;
+	}
+
+	/**
+	 * @param keysetValues the {@link #keysetValues keysetValues} to set
+	 */
+	public void setKeysetValues(List<Object> keysetValues)
+	{
+		if(keysetValues != null && keysetValues.size() != orderByFields.size())
+		{
+			throw new IllegalArgumentException(String.format("Number of keyset values (%s) does not match with number of order by fields (%s)",
+					keysetValues.size(), orderByFields.size()));
+		}
+
+		this.keysetValues = keysetValues;
+	}
+
+	/**
+	 * Keyset condition is rendered as "(F1 > ?) OR (F1 = ? AND F2 > ?) OR ...", this method returns the
+	 * keyset values in the order of params in this expression
+	 * @return Keyset param values in expression order, empty list if keyset paging is not used
+	 */
+	public List<Object> getKeysetParams()
+	{
+		List<Object> params = new ArrayList<>();
+
+		if(keysetValues == null)
+		{
+			return params;
+		}
+
+		for(int i = 0; i < keysetValues.size(); i++)
+		{
+			params.addAll(keysetValues.subList(0, i + 1));
+		}
+
+		return params;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.fw.persistence.query.AbstractConditionalQuery#appendShape(java.lang.StringBuilder)
+	 */
+	@Override
+	protected void appendShape(StringBuilder builder)
+	{
+		super.appendShape(builder);
+
+		builder.append("|");
+
+		for(QueryOrderByField field : orderByFields)
+		{
+			builder.append(field.getTableCode()).append(".").append(field.getColumn()).append(field.isAscending() ? " A," : " D,");
+		}
+
+		builder.append("|");
+
+		for(QueryOuterJoin join : outerJoins)
+		{
+			builder.append(join.getTable()).append(" ").append(join.getTableCode()).append(":").append(join.getColumn());
+			builder.append("=").append(join.getParentTableCode()).append(".").append(join.getParentColumn()).append(",");
+		}
+
+		builder.append("|");
+
+		if(keysetValues != null)
+		{
+			builder.append("K");
+		}
+
+		if(offset != null)
+		{
+			builder.append("O");
+		}
+
+		if(resultsLimit != null)
+		{
+			builder.append("L");
+		}
+	}
 }
@@ -0,0 +1,70 @@
+package com.fw.persistence.query;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fw.persistence.EntityDetails;
+
+/**
+ * Combines multiple count queries, so that they can be executed in single round trip. Data stores
+ * are expected to return the counts in the order in which count queries are added.
+ * @author akiran
+ */
+public class MultiCountQuery extends Query
+{
+	/**
+	 * Count queries to be executed
+	 */
+	private List<CountQuery> countQueries = new ArrayList<>();
+
+	public MultiCountQuery(EntityDetails entityDetails)
+	{
+		super(entityDetails);
+	}
+
+	/**
+	 * Adds value to {@link #countQueries countQueries}
+	 *
+	 * @param countQuery
+	 *            count query to be added
+	 */
+	public void addCountQuery(CountQuery countQuery)
+	{
+		countQueries.add(countQuery);
+	}
+
+	/**
+	 * @return the {@link #countQueries countQueries}
+	 */
+	public List<CountQuery> getCountQueries()
+	{
+		return countQueries;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.fw.persistence.query.Query#appendShape(java.lang.StringBuilder)
+	 */
+	@Override
+	protected void appendShape(StringBuilder builder)
+	{
+		for(CountQuery query : countQueries)
+		{
+			builder.append("|{").append(query.getShapeKey()).append("}");
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		StringBuilder builder = new StringBuilder(super.toString());
+		builder.append("[");
+
+		builder.append("Count Queries: ").append(countQueries);
+
+		builder.append("]");
+		return builder.toString();
+	}
+}
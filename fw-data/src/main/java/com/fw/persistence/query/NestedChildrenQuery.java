@@ -0,0 +1,178 @@
+package com.fw.persistence.query;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fw.persistence.EntityDetails;
+
+/**
+ * Query on child table rows which are related to parent rows (matching parent conditions) through a chain
+ * of foreign keys. Chain is rendered as nested sub-queries, like
+ * 	CHILD_COL IN (SELECT ID FROM PARENT WHERE PARENT_COL IN (SELECT ID FROM ROOT WHERE [parent conditions])),
+ * so that children at any depth can be processed with single set based statement.
+ *
+ * @author akiran
+ */
+public class NestedChildrenQuery extends Query
+{
+	/**
+	 * Parent table in the chain of parent tables
+	 * @author akiran
+	 */
+	public static class ParentTable
+	{
+		/**
+		 * Name of the parent table
+		 */
+		private String tableName;
+
+		/**
+		 * Column of this table, referred by child table
+		 */
+		private String idColumn;
+
+		/**
+		 * Column of this table, which refers to next parent table in the chain. Null for root table.
+		 */
+		private String parentColumn;
+
+		public ParentTable(String tableName, String idColumn, String parentColumn)
+		{
+			this.tableName = tableName;
+			this.idColumn = idColumn;
+			this.parentColumn = parentColumn;
+		}
+
+		/**
+		 * @return the {@link #tableName tableName}
+		 */
+		public String getTableName()
+		{
+			return tableName;
+		}
+
+		/**
+		 * @return the {@link #idColumn idColumn}
+		 */
+		public String getIdColumn()
+		{
+			return idColumn;
+		}
+
+		/**
+		 * @return the {@link #parentColumn parentColumn}
+		 */
+		public String getParentColumn()
+		{
+			return parentColumn;
+		}
+	}
+
+	/**
+	 * Column of child table which refers to immediate parent table
+	 */
+	private String childColumn;
+
+	/**
+	 * Chain of parent tables, starting with immediate parent and ending with root table
+	 */
+	private List<ParentTable> parentTables;
+
+	/**
+	 * Conditions on root table
+	 */
+	private List<QueryCondition> parentConditions = new ArrayList<>();
+
+	public NestedChildrenQuery(EntityDetails childEntityDetails, String childColumn, List<ParentTable> parentTables)
+	{
+		super(childEntityDetails);
+
+		if(parentTables == null || parentTables.isEmpty())
+		{
+			throw new IllegalArgumentException("No parent tables specified for nested children query");
+		}
+
+		this.childColumn = childColumn;
+		this.parentTables = parentTables;
+	}
+
+	/**
+	 * @return Id column of child table
+	 */
+	public String getChildIdColumn()
+	{
+		return entityDetails.getIdField().getColumn();
+	}
+
+	/**
+	 * @return the {@link #childColumn childColumn}
+	 */
+	public String getChildColumn()
+	{
+		return childColumn;
+	}
+
+	/**
+	 * @return the {@link #parentTables parentTables}
+	 */
+	public List<ParentTable> getParentTables()
+	{
+		return parentTables;
+	}
+
+	/**
+	 * Adds value to {@link #parentConditions parent Conditions}
+	 *
+	 * @param condition condition to be added
+	 */
+	public void addParentCondition(QueryCondition condition)
+	{
+		parentConditions.add(condition);
+	}
+
+	/**
+	 * @return the {@link #parentConditions parentConditions}
+	 */
+	public List<QueryCondition> getParentConditions()
+	{
+		return parentConditions;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.fw.persistence.query.Query#appendShape(java.lang.StringBuilder)
+	 */
+	@Override
+	protected void appendShape(StringBuilder builder)
+	{
+		builder.append("|").append(childColumn).append("|");
+
+		for(ParentTable table : parentTables)
+		{
+			builder.append(table.tableName).append(".").append(table.idColumn).append(".").append(table.parentColumn).append(",");
+		}
+
+		appendConditionsShape(parentConditions, builder);
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		StringBuilder builder = new StringBuilder(super.toString());
+		builder.append("[Child: ").append(getTableName()).append(".").append(childColumn);
+		builder.append(" || Parents: ");
+
+		for(ParentTable table : parentTables)
+		{
+			builder.append(table.tableName).append(",");
+		}
+
+		builder.append(" || Parent Conditions: ");
+		toString(parentConditions, builder);
+
+		builder.append("]");
+		return builder.toString();
+	}
+}
@@ -23,6 +23,59 @@ public abstract class Query
 	{
 		return entityDetails.getTableName();
 	}
+	
+	/**
+	 * Builds the shape key of this query. Shape key includes only structural information
+	 * (query type, tables, columns and condition operators) which influences the query string
+	 * generated out of it. Values are not part of this key, so queries with same shape 
+	 * result in same query string.
+	 * @return Shape key of this query
+	 */
+	public String getShapeKey()
+	{
+		StringBuilder builder = new StringBuilder(getClass().getName());
+		builder.append("|").append(getTableName());
+		
+		appendShape(builder);
+		return builder.toString();
+	}
+	
+	/**
+	 * Expected to be overridden by child classes to append structural information
+	 * of the query to specified builder. 
+	 * @param builder Builder to which shape details needs to be appended
+	 */
+	protected void appendShape(StringBuilder builder)
+	{}
+	
+	/**
+	 * Appends the shape of specified conditions (table code, column and operator) to the builder 
+	 * @param conditions Conditions whose shape needs to be appended
+	 * @param builder Builder to which shape needs to be appended
+	 */
+	protected static void appendConditionsShape(List<QueryCondition> conditions, StringBuilder builder)
+	{
+		builder.append("|");
+		
+		if(conditions == null)
+		{
+			return;
+		}
+		
+		for(QueryCondition condition : conditions)
+		{
+			builder.append(condition.getTableCode()).append(".").append(condition.getColumn());
+			builder.append(" ").append(condition.getOperator().name());
+			
+			//number of params for multi valued conditions changes the query
+			if(condition.isMultiValued())
+			{
+				builder.append("#").append(condition.getValues().size());
+			}
+			
+			builder.append(",");
+		}
+	}
 
 	public static void toString(List<QueryCondition> conditions, StringBuilder builder)
 	{
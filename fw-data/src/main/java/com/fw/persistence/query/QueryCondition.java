@@ -1,5 +1,7 @@
 package com.fw.persistence.query;
 
+import java.util.Collection;
+
 import com.fw.persistence.Operator;
 
 /**
@@ -100,6 +102,24 @@ public class QueryCondition implements Cloneable
 		this.value = value;
 	}
 	
+	/**
+	 * Indicates whether the value of this condition is a collection of values (like for IN operator), 
+	 * in which case each value will be passed as separate query parameter.
+	 * @return true, if value is a collection
+	 */
+	public boolean isMultiValued()
+	{
+		return (value instanceof Collection);
+	}
+	
+	/**
+	 * @return Values of multi-valued condition (refer {@link #isMultiValued()})
+	 */
+	public Collection<?> getValues()
+	{
+		return (Collection<?>)value;
+	}
+	
 	@Override
 	public QueryCondition clone()
 	{
@@ -0,0 +1,68 @@
+package com.fw.persistence.query;
+
+/**
+ * Order by field of the finder query
+ * @author akiran
+ */
+public class QueryOrderByField
+{
+	/**
+	 * Table (code) to be used for this field
+	 */
+	private String tableCode;
+
+	/**
+	 * Column to be used for ordering
+	 */
+	private String column;
+
+	/**
+	 * Flag indicating if the ordering is ascending or descending
+	 */
+	private boolean ascending;
+
+	public QueryOrderByField(String tableCode, String column, boolean ascending)
+	{
+		this.tableCode = tableCode;
+		this.column = column;
+		this.ascending = ascending;
+	}
+
+	/**
+	 * @return the {@link #tableCode tableCode}
+	 */
+	public String getTableCode()
+	{
+		return tableCode;
+	}
+
+	/**
+	 * @return the {@link #column column}
+	 */
+	public String getColumn()
+	{
+		return column;
+	}
+
+	/**
+	 * @return the {@link #ascending ascending}
+	 */
+	public boolean isAscending()
+	{
+		return ascending;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		StringBuilder builder = new StringBuilder("[");
+
+		builder.append(tableCode).append(".").append(column).append(ascending ? " ASC" : " DESC");
+		builder.append("]");
+
+		return builder.toString();
+	}
+}
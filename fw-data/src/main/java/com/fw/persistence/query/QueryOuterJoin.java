@@ -0,0 +1,102 @@
+package com.fw.persistence.query;
+
+/**
+ * Represents a table that needs to be (left outer) joined to a table of the query, so that rows of the query
+ * table are fetched even if no matching row is found in joined table
+ * 
+ * @author akiran
+ */
+public class QueryOuterJoin
+{
+	/**
+	 * Table to be joined
+	 */
+	private String table;
+	
+	/**
+	 * Code of the table to be joined
+	 */
+	private String tableCode;
+	
+	/**
+	 * Column of joined table to be used in join condition
+	 */
+	private String column;
+	
+	/**
+	 * Code of query table to which the table should be joined
+	 */
+	private String parentTableCode;
+	
+	/**
+	 * Column of query table to be used in join condition
+	 */
+	private String parentColumn;
+	
+	public QueryOuterJoin(String table, String tableCode, String column, String parentTableCode, String parentColumn)
+	{
+		this.table = table;
+		this.tableCode = tableCode;
+		this.column = column;
+		this.parentTableCode = parentTableCode;
+		this.parentColumn = parentColumn;
+	}
+	
+	/**
+	 * @return the {@link #table table}
+	 */
+	public String getTable()
+	{
+		return table;
+	}
+	
+	/**
+	 * @return the {@link #tableCode tableCode}
+	 */
+	public String getTableCode()
+	{
+		return tableCode;
+	}
+	
+	/**
+	 * @return the {@link #column column}
+	 */
+	public String getColumn()
+	{
+		return column;
+	}
+	
+	/**
+	 * @return the {@link #parentTableCode parentTableCode}
+	 */
+	public String getParentTableCode()
+	{
+		return parentTableCode;
+	}
+	
+	/**
+	 * @return the {@link #parentColumn parentColumn}
+	 */
+	public String getParentColumn()
+	{
+		return parentColumn;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		StringBuilder builder = new StringBuilder("[");
+		
+		builder.append(table).append(" ").append(tableCode).append(" ON ");
+		builder.append(tableCode).append(".").append(column);
+		builder.append(" = ").append(parentTableCode).append(".").append(parentColumn);
+		builder.append("]");
+		
+		return builder.toString();
+	}
+}
@@ -0,0 +1,113 @@
+package com.fw.persistence.query;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fw.persistence.EntityDetails;
+
+/**
+ * Query to insert an entity row or to update it, if row with same id already exists, using single statement.
+ * Templates are expected to use id and column values one or more times (in the order - id followed by columns), 
+ * followed by insert column values, which are used only while inserting new row.
+ * @author akiran
+ */
+public class SaveOrUpdateQuery extends Query
+{
+	/**
+	 * Id column, used to match existing row
+	 */
+	private ColumnParam idColumn;
+	
+	/**
+	 * Non-id columns to be inserted or updated
+	 */
+	private List<ColumnParam> columns;
+	
+	/**
+	 * Columns which are populated only when new row is inserted, and are retained when existing row is updated
+	 */
+	private List<ColumnParam> insertColumns = new ArrayList<>();
+	
+	public SaveOrUpdateQuery(EntityDetails entityDetails, ColumnParam idColumn)
+	{
+		super(entityDetails);
+		this.idColumn = idColumn;
+	}
+	
+	/**
+	 * @return the {@link #idColumn idColumn}
+	 */
+	public ColumnParam getIdColumn()
+	{
+		return idColumn;
+	}
+	
+	/** 
+	 * Adds value to {@link #columns Columns}
+	 *
+	 * @param column column to be added
+	 */
+	public void addColumn(ColumnParam column)
+	{
+		if(columns == null)
+		{
+			columns = new ArrayList<ColumnParam>();
+		}
+		
+		columns.add(column);
+	}
+	
+	/**
+	 * @return the {@link #columns columns}
+	 */
+	public List<ColumnParam> getColumns()
+	{
+		return columns;
+	}
+	
+	/** 
+	 * Adds value to {@link #insertColumns insertColumns}
+	 *
+	 * @param column column to be added
+	 */
+	public void addInsertColumn(ColumnParam column)
+	{
+		insertColumns.add(column);
+	}
+	
+	/**
+	 * @return the {@link #insertColumns insertColumns}
+	 */
+	public List<ColumnParam> getInsertColumns()
+	{
+		return insertColumns;
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.fw.persistence.query.Query#appendShape(java.lang.StringBuilder)
+	 */
+	@Override
+	protected void appendShape(StringBuilder builder)
+	{
+		builder.append("|").append(idColumn.getName());
+		ColumnParam.appendShape(columns, builder);
+		ColumnParam.appendShape(insertColumns, builder);
+	}
+	
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		StringBuilder builder = new StringBuilder(super.toString());
+		builder.append("[");
+		
+		builder.append("Id: ").append(idColumn);
+		builder.append(",").append("Columns: ").append(columns);
+		builder.append(",").append("Insert Columns: ").append(insertColumns);
+		
+		builder.append("]");
+		return builder.toString();
+	}
+}
@@ -34,6 +34,15 @@ public class SaveQuery extends Query
 		return columns;
 	}
 	
+	/* (non-Javadoc)
+	 * @see com.fw.persistence.query.Query#appendShape(java.lang.StringBuilder)
+	 */
+	@Override
+	protected void appendShape(StringBuilder builder)
+	{
+		ColumnParam.appendShape(columns, builder);
+	}
+	
 	/* (non-Javadoc)
 	 * @see java.lang.Object#toString()
 	 */
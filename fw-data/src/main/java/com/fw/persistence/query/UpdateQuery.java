@@ -33,5 +33,14 @@ public class UpdateQuery extends AbstractConditionalQuery
 	{
 		return columns;
 	}
-
+	
+	/* (non-Javadoc)
+	 * @see com.fw.persistence.query.Query#appendShape(java.lang.StringBuilder)
+	 */
+	@Override
+	protected void appendShape(StringBuilder builder)
+	{
+		super.appendShape(builder);
+		ColumnParam.appendShape(columns, builder);
+	}
 }
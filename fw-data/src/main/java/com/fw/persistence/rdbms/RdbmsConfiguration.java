@@ -2,14 +2,20 @@ package com.fw.persistence.rdbms;
 
 import java.io.StringWriter;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.fw.ccg.core.ValidateException;
 import com.fw.ccg.core.Validateable;
 import com.fw.ccg.util.CCGUtility;
 import com.fw.persistence.freemarker.ParamCollectorDirective;
 import com.fw.persistence.freemarker.TrimDirective;
+import com.fw.persistence.monitor.ExecutionStats;
+import com.fw.persistence.query.Query;
 
 import freemarker.template.Configuration;
 import freemarker.template.Template;
@@ -26,27 +32,82 @@ public class RdbmsConfiguration implements Validateable
 	public static final String DELETE_QUERY = "deleteTemplate";
 	public static final String FINDER_QUERY = "finderTemplate";
 	public static final String COUNT_QUERY = "countTemplate";
+	public static final String MULTI_COUNT_QUERY = "multiCountTemplate";
 	public static final String CHILDREN_EXISTENCE_QUERY = "childrenExistenceTemplate";
 	public static final String FETCH_CHILDREN_IDS_QUERY = "fetchChildrenIdsTemplate";
+	public static final String NESTED_CHILDREN_EXISTENCE_QUERY = "nestedChildrenExistenceTemplate";
+	public static final String FETCH_NESTED_CHILDREN_IDS_QUERY = "fetchNestedChildrenIdsTemplate";
+	public static final String DELETE_NESTED_CHILDREN_QUERY = "deleteNestedChildrenTemplate";
 	public static final String DROP_QUERY = "dropTableTemplate";
 
 	public static final String MANDATORY_QUERIES[] = {
 		CREATE_QUERY, CREATE_INDEX,
 		
-		SAVE_QUERY, UPDATE_QUERY, DELETE_QUERY, FINDER_QUERY, COUNT_QUERY, 
+		SAVE_QUERY, UPDATE_QUERY, DELETE_QUERY, FINDER_QUERY, COUNT_QUERY, MULTI_COUNT_QUERY, 
 		
 		CHILDREN_EXISTENCE_QUERY, FETCH_CHILDREN_IDS_QUERY,
 		
+		NESTED_CHILDREN_EXISTENCE_QUERY, FETCH_NESTED_CHILDREN_IDS_QUERY, DELETE_NESTED_CHILDREN_QUERY,
+		
 		DROP_QUERY
 	};
 
 	private Map<String, String> queryMap = new HashMap<>();
-	private Map<String, Template> templateMap = new HashMap<>();
+	private Map<String, Template> templateMap = new ConcurrentHashMap<>();
 	
 	private Configuration configuration = new Configuration();
 	
 	private ParamCollectorDirective paramCollectorDirective = new ParamCollectorDirective();
 	
+	/**
+	 * Default value for {@link #maxCachedQueries}
+	 */
+	public static final int DEFAULT_MAX_CACHED_QUERIES = 1000;
+	
+	/**
+	 * Maximum number of query strings that will be cached. Once this limit is reached
+	 * least recently used query strings are evicted.
+	 */
+	private volatile int maxCachedQueries = DEFAULT_MAX_CACHED_QUERIES;
+	
+	/**
+	 * Number of times id and column values are bound (in that order) to the params of save-update template. Insert 
+	 * column values are bound once, after these
+	 */
+	private int saveUpdateParamSets = 1;
+	
+	/**
+	 * Flag indicating if unique constraints should always be checked before executing save-update template. Needs 
+	 * to be set when the template resolves conflicts on any unique key (and not only on id) by updating the conflicting row
+	 */
+	private boolean saveUpdateUniqueCheckRequired = false;
+	
+	/**
+	 * Cache of query strings built from templates. Key is template name and shape key of the query.
+	 * Access ordered, so that least recently used entry is evicted when {@link #maxCachedQueries} is
+	 * exceeded. Access should be synchronized on the map itself.
+	 */
+	private Map<String, String> queryCache = new LinkedHashMap<String, String>(16, 0.75f, true)
+	{
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, String> eldest)
+		{
+			return size() > maxCachedQueries;
+		}
+	};
+	
+	/**
+	 * Number of times query string was served from {@link #queryCache}
+	 */
+	private AtomicLong queryCacheHits = new AtomicLong();
+	
+	/**
+	 * Number of times query string has to be built from template
+	 */
+	private AtomicLong queryCacheMisses = new AtomicLong();
+	
 	public RdbmsConfiguration()
 	{
 		configuration.setSharedVariable("trim", new TrimDirective());
@@ -86,6 +147,42 @@ public class RdbmsConfiguration implements Validateable
 		return queryMap.containsKey(name);
 	}
 	
+	/**
+	 * Builds the query string for specified query using specified template. Built query strings 
+	 * are cached by the shape of the query (see {@link Query#getShapeKey()}), so this method
+	 * should be used only for templates which do not depend on query values.
+	 * @param name Name of the template to use
+	 * @param query Query for which query string needs to be built
+	 * @return Built query string
+	 */
+	public String buildQuery(String name, Query query)
+	{
+		String cacheKey = name + "#" + query.getShapeKey();
+		String queryStr = null;
+		
+		synchronized(queryCache)
+		{
+			queryStr = queryCache.get(cacheKey);
+		}
+		
+		if(queryStr != null)
+		{
+			queryCacheHits.incrementAndGet();
+			return queryStr;
+		}
+		
+		//build the query outside the lock, concurrent builds of same shape result in same string
+		queryCacheMisses.incrementAndGet();
+		queryStr = buildQuery(name, null, CCGUtility.buildMap("query", query));
+		
+		synchronized(queryCache)
+		{
+			queryCache.put(cacheKey, queryStr);
+		}
+		
+		return queryStr;
+	}
+	
 	public String buildQuery(String name, Object... contextEntries)
 	{
 		return buildQuery(name, null, CCGUtility.buildMap(contextEntries));
@@ -96,21 +193,22 @@ public class RdbmsConfiguration implements Validateable
 		return buildQuery(name, paramValues, CCGUtility.buildMap(contextEntries));
 	}
 	
-	public String buildQuery(String name, List<Object> paramValues, Map<String, Object> context)
+	private Template loadTemplate(String name)
 	{
-		Template template = templateMap.get(name);
-		
-		if(template == null)
+		try
 		{
-			try
-			{
-				template = new Template(name, queryMap.get(name), configuration);
-				templateMap.put(name, template);
-			}catch(Exception ex)
-			{
-				throw new IllegalStateException("An error occurred while loading delete query template", ex);
-			}
+			return new Template(name, queryMap.get(name), configuration);
+		}catch(Exception ex)
+		{
+			throw new IllegalStateException("An error occurred while loading query template: " + name, ex);
 		}
+	}
+	
+	public String buildQuery(String name, List<Object> paramValues, Map<String, Object> context)
+	{
+		Template template = templateMap.computeIfAbsent(name, this::loadTemplate);
+		
+		long startTime = System.nanoTime();
 		
 		try
 		{
@@ -129,6 +227,110 @@ public class RdbmsConfiguration implements Validateable
 		}catch(Exception ex)
 		{
 			throw new IllegalStateException("An exception occurred while building query: " + name, ex);
+		}finally
+		{
+			ExecutionStats.addQueryBuildTime(System.nanoTime() - startTime);
+		}
+	}
+	
+	/**
+	 * @return the {@link #maxCachedQueries maxCachedQueries}
+	 */
+	public int getMaxCachedQueries()
+	{
+		return maxCachedQueries;
+	}
+
+	/**
+	 * @param maxCachedQueries the {@link #maxCachedQueries maxCachedQueries} to set
+	 */
+	public void setMaxCachedQueries(int maxCachedQueries)
+	{
+		this.maxCachedQueries = maxCachedQueries;
+		
+		//evict the entries exceeding the new limit
+		synchronized(queryCache)
+		{
+			Iterator<String> it = queryCache.keySet().iterator();
+			
+			while(queryCache.size() > maxCachedQueries && it.hasNext())
+			{
+				it.next();
+				it.remove();
+			}
 		}
 	}
+	
+	/**
+	 * @return the {@link #saveUpdateParamSets saveUpdateParamSets}
+	 */
+	public int getSaveUpdateParamSets()
+	{
+		return saveUpdateParamSets;
+	}
+
+	/**
+	 * @param saveUpdateParamSets the {@link #saveUpdateParamSets saveUpdateParamSets} to set
+	 */
+	public void setSaveUpdateParamSets(int saveUpdateParamSets)
+	{
+		this.saveUpdateParamSets = saveUpdateParamSets;
+	}
+
+	/**
+	 * @return the {@link #saveUpdateUniqueCheckRequired saveUpdateUniqueCheckRequired}
+	 */
+	public boolean isSaveUpdateUniqueCheckRequired()
+	{
+		return saveUpdateUniqueCheckRequired;
+	}
+
+	/**
+	 * @param saveUpdateUniqueCheckRequired the {@link #saveUpdateUniqueCheckRequired saveUpdateUniqueCheckRequired} to set
+	 */
+	public void setSaveUpdateUniqueCheckRequired(boolean saveUpdateUniqueCheckRequired)
+	{
+		this.saveUpdateUniqueCheckRequired = saveUpdateUniqueCheckRequired;
+	}
+	
+	/**
+	 * @return Number of times query string was served from cache
+	 */
+	public long getQueryCacheHits()
+	{
+		return queryCacheHits.get();
+	}
+	
+	/**
+	 * @return Number of times query string has to be built from template
+	 */
+	public long getQueryCacheMisses()
+	{
+		return queryCacheMisses.get();
+	}
+	
+	/**
+	 * @return Number of query strings currently cached
+	 */
+	public int getQueryCacheSize()
+	{
+		synchronized(queryCache)
+		{
+			return queryCache.size();
+		}
+	}
+	
+	/**
+	 * Clears the cached query strings and resets hit/miss counters
+	 */
+	public void clearQueryCache()
+	{
+		synchronized(queryCache)
+		{
+			queryCache.clear();
+		}
+		
+		queryCacheHits.set(0);
+		queryCacheMisses.set(0);
+	}
 }
@@ -2,6 +2,9 @@ package com.fw.persistence.rdbms;
 
 import java.io.ByteArrayOutputStream;
 import java.io.CharArrayWriter;
+import java.io.FilterInputStream;
+import java.io.FilterReader;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
 import java.sql.Blob;
@@ -14,10 +17,19 @@ import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import javax.sql.DataSource;
 
@@ -31,9 +43,11 @@ import com.fw.persistence.ITransaction;
 import com.fw.persistence.ITransactionManager;
 import com.fw.persistence.PersistenceException;
 import com.fw.persistence.Record;
+import com.fw.persistence.RecordSchema;
 import com.fw.persistence.TransactionWrapper;
 import com.fw.persistence.UnsupportedOperationException;
 import com.fw.persistence.conversion.ConversionService;
+import com.fw.persistence.monitor.ExecutionStats;
 import com.fw.persistence.query.ChildrenExistenceQuery;
 import com.fw.persistence.query.ColumnParam;
 import com.fw.persistence.query.QueryCondition;
@@ -44,6 +58,10 @@ import com.fw.persistence.query.DeleteQuery;
 import com.fw.persistence.query.DropTableQuery;
 import com.fw.persistence.query.FetchChildrenIdsQuery;
 import com.fw.persistence.query.FinderQuery;
+import com.fw.persistence.query.MultiCountQuery;
+import com.fw.persistence.query.NestedChildrenQuery;
+import com.fw.persistence.query.Query;
+import com.fw.persistence.query.SaveOrUpdateQuery;
 import com.fw.persistence.query.SaveQuery;
 import com.fw.persistence.query.UpdateQuery;
 import com.fw.persistence.rdbms.converters.BlobConverter;
@@ -57,12 +75,61 @@ public class RdbmsDataStore implements IDataStore
 	
 	private static Logger logger = LogManager.getLogger(RdbmsDataStore.class);
 	
+	/**
+	 * Default value for {@link #batchSize}
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 1000;
+	
+	/**
+	 * Default value for {@link #fetchSize}
+	 */
+	public static final int DEFAULT_FETCH_SIZE = 100;
+	
+	/**
+	 * Binds the parameters of a query to prepared statement, used during batch execution
+	 * @param <Q> Type of query
+	 */
+	private static interface IParamBinder<Q extends Query>
+	{
+		public void bind(PreparedStatement pstmt, Q query, List<Object> params) throws SQLException;
+	}
+	
+	/**
+	 * Reads LOB column of current row of result set as stream
+	 * @param <T> Type of stream
+	 */
+	private static interface ILobReader<T>
+	{
+		public T read(ResultSet rs) throws SQLException;
+	}
+	
 	private RdbmsConfiguration templates;
 	private ConversionService conversionService = new ConversionService();
 	private RdbmsTransactionManager transactionManager = new RdbmsTransactionManager();
 	
 	private String templatesName;
 	
+	/**
+	 * Maximum number of statements to be executed in single JDBC batch
+	 */
+	private int batchSize = DEFAULT_BATCH_SIZE;
+	
+	/**
+	 * JDBC fetch size used by streamed finder queries. Zero indicates driver default should be used
+	 */
+	private int fetchSize = DEFAULT_FETCH_SIZE;
+	
+	/**
+	 * Flag indicating if unique constraints should be validated explicitly before save/update, so that
+	 * violations are reported with constraint names and messages configured on entities
+	 */
+	private boolean explicitUniqueCheckRequired = false;
+	
+	/**
+	 * Flag indicating if foreign constraints should be validated explicitly
+	 */
+	private boolean explicitForeignCheckRequired = false;
+	
 	public RdbmsDataStore(String templatesName)
 	{
 		templates = new RdbmsConfiguration();
@@ -100,6 +167,99 @@ public class RdbmsDataStore implements IDataStore
 		transactionManager.setDataSource(dataSource);
 	}
 	
+	/**
+	 * @return Number of times query string was served from query cache, instead of building from template
+	 */
+	public long getQueryCacheHits()
+	{
+		return templates.getQueryCacheHits();
+	}
+	
+	/**
+	 * @return Number of times query string has to be built from template
+	 */
+	public long getQueryCacheMisses()
+	{
+		return templates.getQueryCacheMisses();
+	}
+	
+	/**
+	 * Sets the maximum number of query strings to be cached by this data store
+	 * @param maxCachedQueries Maximum number of query strings to cache
+	 */
+	public void setMaxCachedQueries(int maxCachedQueries)
+	{
+		templates.setMaxCachedQueries(maxCachedQueries);
+	}
+	
+	/**
+	 * Sets the maximum number of prepared statements to be cached per transaction. Zero or
+	 * negative value disables the statement caching.
+	 * @param statementCacheSize Number of statements to cache per transaction
+	 */
+	public void setStatementCacheSize(int statementCacheSize)
+	{
+		transactionManager.setStatementCacheSize(statementCacheSize);
+	}
+	
+	/**
+	 * @return Number of times cached prepared statement was reused instead of preparing new one
+	 */
+	public long getPreparesAvoided()
+	{
+		return transactionManager.getPreparesAvoided();
+	}
+	
+	/**
+	 * @return Number of prepared statements evicted from transaction statement caches
+	 */
+	public long getStatementEvictions()
+	{
+		return transactionManager.getStatementEvictions();
+	}
+	
+	/**
+	 * @return the {@link #batchSize batchSize}
+	 */
+	public int getBatchSize()
+	{
+		return batchSize;
+	}
+
+	/**
+	 * @param batchSize the {@link #batchSize batchSize} to set
+	 */
+	public void setBatchSize(int batchSize)
+	{
+		if(batchSize <= 0)
+		{
+			throw new IllegalArgumentException("Invalid batch size specified: " + batchSize);
+		}
+		
+		this.batchSize = batchSize;
+	}
+	
+	/**
+	 * @return the {@link #fetchSize fetchSize}
+	 */
+	public int getFetchSize()
+	{
+		return fetchSize;
+	}
+
+	/**
+	 * @param fetchSize the {@link #fetchSize fetchSize} to set
+	 */
+	public void setFetchSize(int fetchSize)
+	{
+		if(fetchSize < 0)
+		{
+			throw new IllegalArgumentException("Invalid fetch size specified: " + fetchSize);
+		}
+		
+		this.fetchSize = fetchSize;
+	}
+	
 	@Override
 	public ITransactionManager<? extends ITransaction> getTransactionManager()
 	{
@@ -117,7 +277,7 @@ public class RdbmsDataStore implements IDataStore
 			
 			if(statement != null)
 			{
-				statement.close();
+				transactionManager.releaseStatement(statement);
 			}
 		}catch(Exception ex)
 		{
@@ -125,6 +285,133 @@ public class RdbmsDataStore implements IDataStore
 		}
 	}
 
+	/**
+	 * Sets the values of specified conditions as parameters on specified statement. Values of multi-valued
+	 * conditions are set as separate parameters.
+	 * @param pstmt Statement on which params needs to be set
+	 * @param index Index from which params needs to be set
+	 * @param conditions Conditions whose values needs to be set
+	 * @param params Collects the values being set
+	 * @return Next param index
+	 * @throws SQLException
+	 */
+	private int setConditionParams(PreparedStatement pstmt, int index, List<QueryCondition> conditions, List<Object> params) throws SQLException
+	{
+		if(conditions == null)
+		{
+			return index;
+		}
+		
+		for(QueryCondition condition: conditions)
+		{
+			if(!condition.isMultiValued())
+			{
+				pstmt.setObject(index, condition.getValue());
+				params.add(condition.getValue());
+				
+				index++;
+				continue;
+			}
+			
+			for(Object value : condition.getValues())
+			{
+				pstmt.setObject(index, value);
+				params.add(value);
+				
+				index++;
+			}
+		}
+		
+		return index;
+	}
+	
+	/**
+	 * Sets the params of specified finder query on specified statement. Conditions params are followed by keyset 
+	 * params, offset and limit, which is the order in which they are rendered by finder template.
+	 * @param pstmt Statement on which params needs to be set
+	 * @param findQuery Query whose params needs to be set
+	 * @param params Collects the values being set
+	 * @throws SQLException
+	 */
+	private void setFinderParams(PreparedStatement pstmt, FinderQuery findQuery, List<Object> params) throws SQLException
+	{
+		int index = setConditionParams(pstmt, 1, findQuery.getConditions(), params);
+		
+		for(Object value : findQuery.getKeysetParams())
+		{
+			pstmt.setObject(index, value);
+			params.add(value);
+			
+			index++;
+		}
+		
+		if(findQuery.getOffset() != null)
+		{
+			pstmt.setInt(index, findQuery.getOffset());
+			params.add(findQuery.getOffset());
+			
+			index++;
+		}
+		
+		if(findQuery.getResultsLimit() != null)
+		{
+			pstmt.setInt(index, findQuery.getResultsLimit());
+			params.add(findQuery.getResultsLimit());
+		}
+	}
+	
+	/**
+	 * Sets the values of specified columns as parameters on specified statement. Sequence generated columns
+	 * will be skipped.
+	 * @param pstmt Statement on which params needs to be set
+	 * @param index Index from which params needs to be set
+	 * @param columns Columns whose values needs to be set
+	 * @param params Collects the values being set
+	 * @return Next param index
+	 * @throws SQLException
+	 */
+	private int setColumnParams(PreparedStatement pstmt, int index, List<ColumnParam> columns, List<Object> params) throws SQLException
+	{
+		for(ColumnParam column: columns)
+		{
+			if(column.isSequenceGenerated())
+			{
+				continue;
+			}
+			
+			setColumnValue(pstmt, index, column.getValue());
+			params.add(column.getValue());
+			
+			index++;
+		}
+		
+		return index;
+	}
+	
+	/**
+	 * Sets specified column value as parameter on specified statement. Streams (used for LOB columns) are
+	 * set as streams, so that the content is not materialized in memory.
+	 * @param pstmt Statement on which param needs to be set
+	 * @param index Index of the param
+	 * @param value Value to set
+	 * @throws SQLException
+	 */
+	private void setColumnValue(PreparedStatement pstmt, int index, Object value) throws SQLException
+	{
+		if(value instanceof InputStream)
+		{
+			pstmt.setBinaryStream(index, (InputStream)value);
+		}
+		else if(value instanceof Reader)
+		{
+			pstmt.setCharacterStream(index, (Reader)value);
+		}
+		else
+		{
+			pstmt.setObject(index, value);
+		}
+	}
+
 	@Override
 	public Set<String> getColumnNames(String tableName)
 	{
@@ -161,6 +448,91 @@ public class RdbmsDataStore implements IDataStore
 		}
 	}
 
+	/* (non-Javadoc)
+	 * @see com.fw.persistence.IDataStore#getTableNames()
+	 */
+	@Override
+	public Set<String> getTableNames()
+	{
+		logger.trace("Started method: getTableNames");
+		
+		try(TransactionWrapper<RdbmsTransaction> transaction = transactionManager.newOrExistingTransaction())
+		{
+			Set<String> tables = fetchTableNames(transaction.getTransaction().getConnection());
+			
+			transaction.commit();
+			return tables;
+		}catch(Exception ex)
+		{
+			throw new PersistenceException("An error occurred while fetching table names", ex);
+		}
+	}
+	
+	/**
+	 * Fetches names of all tables, accessible using specified connection
+	 * @param connection
+	 * @return
+	 * @throws SQLException
+	 */
+	private Set<String> fetchTableNames(Connection connection) throws SQLException
+	{
+		Set<String> tables = new HashSet<>();
+		
+		try(ResultSet rs = connection.getMetaData().getTables(null, null, "%", new String[] {"TABLE"}))
+		{
+			while(rs.next())
+			{
+				tables.add(rs.getString("TABLE_NAME"));
+			}
+		}
+		
+		return tables;
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.fw.persistence.IDataStore#getAllColumnNames()
+	 */
+	@Override
+	public Map<String, Set<String>> getAllColumnNames()
+	{
+		logger.trace("Started method: getAllColumnNames");
+		
+		try(TransactionWrapper<RdbmsTransaction> transaction = transactionManager.newOrExistingTransaction())
+		{
+			Connection connection = transaction.getTransaction().getConnection();
+			Map<String, Set<String>> tableColumns = new HashMap<>();
+			
+			//fetch table names first, so that columns of views and system tables are ignored
+			for(String table : fetchTableNames(connection))
+			{
+				tableColumns.put(table, new HashSet<>());
+			}
+			
+			Set<String> columns = null;
+			
+			try(ResultSet rs = connection.getMetaData().getColumns(null, null, "%", null))
+			{
+				while(rs.next())
+				{
+					columns = tableColumns.get(rs.getString("TABLE_NAME"));
+					
+					if(columns != null)
+					{
+						columns.add(rs.getString("COLUMN_NAME"));
+					}
+				}
+			}
+			
+			logger.debug("Fetched columns of {} tables", tableColumns.size());
+			
+			transaction.commit();
+			return tableColumns;
+		}catch(Exception ex)
+		{
+			throw new PersistenceException("An error occurred while fetching column names of tables", ex);
+		}
+	}
+
 	@Override
 	public void checkAndCreateSequence(String name)
 	{
@@ -289,25 +661,14 @@ public class RdbmsDataStore implements IDataStore
 		
 		try(TransactionWrapper<RdbmsTransaction> transaction = transactionManager.newOrExistingTransaction())
 		{
-			String query = templates.buildQuery(RdbmsConfiguration.COUNT_QUERY, "query", countQuery);
+			String query = templates.buildQuery(RdbmsConfiguration.COUNT_QUERY, countQuery);
 			
 			logger.debug("Built existence query as: \n\t{}", query);
 			
-			Connection connection = transaction.getTransaction().getConnection();
-			pstmt = connection.prepareStatement(query);
-			int index = 1;
+			pstmt = transaction.getTransaction().prepareStatement(query);
 			List<Object> params = new ArrayList<>();
 			
-			if(conditions != null)
-			{
-				for(QueryCondition condition: conditions)
-				{
-					pstmt.setObject(index, condition.getValue());
-					params.add(condition.getValue());
-					
-					index++;
-				}
-			}
+			setConditionParams(pstmt, 1, conditions, params);
 			
 			logger.debug("Executing using params: {}", params);
 			
@@ -337,47 +698,81 @@ public class RdbmsDataStore implements IDataStore
 		}
 	}
 	
+	/* (non-Javadoc)
+	 * @see com.fw.persistence.IDataStore#getCounts(com.fw.persistence.query.MultiCountQuery)
+	 */
 	@Override
-	public int checkChildrenExistence(ChildrenExistenceQuery childrenExistenceQuery)
+	public long[] getCounts(MultiCountQuery multiCountQuery)
 	{
-		logger.trace("Started method: checkChildrenExistence");
-		logger.debug("Checking children records from table '{}' using query: {}", childrenExistenceQuery.getChildTableName(), childrenExistenceQuery);
+		logger.trace("Started method: getCounts");
+		logger.debug("Fetching multiple counts using query: {}", multiCountQuery);
 		
 		PreparedStatement pstmt = null;
 		ResultSet rs = null;
 		
 		try(TransactionWrapper<RdbmsTransaction> transaction = transactionManager.newOrExistingTransaction())
 		{
-			String query = templates.buildQuery(RdbmsConfiguration.CHILDREN_EXISTENCE_QUERY, "query", childrenExistenceQuery);
+			String query = templates.buildQuery(RdbmsConfiguration.MULTI_COUNT_QUERY, multiCountQuery);
 			
-			logger.debug("Built children-existence query as: \n\t{}", query);
+			logger.debug("Built multi-count query as: \n\t{}", query);
 			
-			Connection connection = transaction.getTransaction().getConnection();
-			pstmt = connection.prepareStatement(query);
-			int index = 1;
+			pstmt = transaction.getTransaction().prepareStatement(query);
 			List<Object> params = new ArrayList<>();
+			int index = 1;
 			
-			if(childrenExistenceQuery.getParentConditions() != null)
+			for(CountQuery countQuery : multiCountQuery.getCountQueries())
 			{
-				for(QueryCondition condition: childrenExistenceQuery.getParentConditions())
-				{
-					pstmt.setObject(index, condition.getValue());
-					params.add(condition.getValue());
-					
-					index++;
-				}
+				index = setConditionParams(pstmt, index, countQuery.getConditions(), params);
 			}
-
-			if(childrenExistenceQuery.getChildConditions() != null)
+			
+			logger.debug("Executing using params: {}", params);
+			
+			rs = pstmt.executeQuery();
+			
+			long counts[] = new long[multiCountQuery.getCountQueries().size()];
+			
+			if(rs.next())
 			{
-				for(QueryCondition condition: childrenExistenceQuery.getChildConditions())
+				for(int i = 0; i < counts.length; i++)
 				{
-					pstmt.setObject(index, condition.getValue());
-					params.add(condition.getValue());
-					
-					index++;
+					counts[i] = rs.getLong(i + 1);
 				}
 			}
+			
+			transaction.commit();
+			return counts;
+		}catch(Exception ex)
+		{
+			logger.error("An error occurred while fetching counts using query: " + multiCountQuery, ex);
+			throw new PersistenceException("An error occurred while fetching counts using query: " + multiCountQuery, ex);
+		}finally
+		{
+			closeResources(rs, pstmt);
+		}
+	}
+	
+	@Override
+	public int checkChildrenExistence(ChildrenExistenceQuery childrenExistenceQuery)
+	{
+		logger.trace("Started method: checkChildrenExistence");
+		logger.debug("Checking children records from table '{}' using query: {}", childrenExistenceQuery.getChildTableName(), childrenExistenceQuery);
+		
+		PreparedStatement pstmt = null;
+		ResultSet rs = null;
+		
+		try(TransactionWrapper<RdbmsTransaction> transaction = transactionManager.newOrExistingTransaction())
+		{
+			String query = templates.buildQuery(RdbmsConfiguration.CHILDREN_EXISTENCE_QUERY, childrenExistenceQuery);
+			
+			logger.debug("Built children-existence query as: \n\t{}", query);
+			
+			pstmt = transaction.getTransaction().prepareStatement(query);
+			int index = 1;
+			List<Object> params = new ArrayList<>();
+			
+			index = setConditionParams(pstmt, index, childrenExistenceQuery.getParentConditions(), params);
+
+			setConditionParams(pstmt, index, childrenExistenceQuery.getChildConditions(), params);
 
 			logger.debug("Executing using params: " + params);
 			
@@ -417,36 +812,17 @@ public class RdbmsDataStore implements IDataStore
 		
 		try(TransactionWrapper<RdbmsTransaction> transaction = transactionManager.newOrExistingTransaction())
 		{
-			String query = templates.buildQuery(RdbmsConfiguration.FETCH_CHILDREN_IDS_QUERY, "query", fetchChildrenIdsQuery);
+			String query = templates.buildQuery(RdbmsConfiguration.FETCH_CHILDREN_IDS_QUERY, fetchChildrenIdsQuery);
 			
 			logger.debug("Built children-fetch query as: \n\t{}", query);
 			
-			Connection connection = transaction.getTransaction().getConnection();
-			pstmt = connection.prepareStatement(query);
+			pstmt = transaction.getTransaction().prepareStatement(query);
 			int index = 1;
 			List<Object> params = new ArrayList<>();
 			
-			if(fetchChildrenIdsQuery.getParentConditions() != null)
-			{
-				for(QueryCondition condition: fetchChildrenIdsQuery.getParentConditions())
-				{
-					pstmt.setObject(index, condition.getValue());
-					params.add(condition.getValue());
-					
-					index++;
-				}
-			}
+			index = setConditionParams(pstmt, index, fetchChildrenIdsQuery.getParentConditions(), params);
 
-			if(fetchChildrenIdsQuery.getChildConditions() != null)
-			{
-				for(QueryCondition condition: fetchChildrenIdsQuery.getChildConditions())
-				{
-					pstmt.setObject(index, condition.getValue());
-					params.add(condition.getValue());
-					
-					index++;
-				}
-			}
+			setConditionParams(pstmt, index, fetchChildrenIdsQuery.getChildConditions(), params);
 
 			logger.debug("Executing using params: " + params);
 			
@@ -475,39 +851,163 @@ public class RdbmsDataStore implements IDataStore
 		}
 	}
 
+	/* (non-Javadoc)
+	 * @see com.fw.persistence.IDataStore#checkChildrenExistence(com.fw.persistence.query.NestedChildrenQuery)
+	 */
 	@Override
-	public int save(SaveQuery saveQuery, EntityDetails entityDetails, ObjectWrapper<Object> idGenerated)
+	public int checkChildrenExistence(NestedChildrenQuery nestedChildrenQuery)
 	{
-		logger.trace("Started method: save");
-		logger.debug("Trying to save entity to table '{}' using query: {}", saveQuery.getTableName(), saveQuery);
+		logger.trace("Started method: checkChildrenExistence");
+		logger.debug("Checking nested children records from table '{}' using query: {}", nestedChildrenQuery.getTableName(), nestedChildrenQuery);
 		
 		PreparedStatement pstmt = null;
-		ResultSet keysRs = null;
+		ResultSet rs = null;
 		
 		try(TransactionWrapper<RdbmsTransaction> transaction = transactionManager.newOrExistingTransaction())
 		{
-			String query = templates.buildQuery(RdbmsConfiguration.SAVE_QUERY, "query", saveQuery);
+			String query = templates.buildQuery(RdbmsConfiguration.NESTED_CHILDREN_EXISTENCE_QUERY, nestedChildrenQuery);
 			
-			logger.debug("Built save query as: \n\t{}", query);
+			logger.debug("Built nested children-existence query as: \n\t{}", query);
 			
-			Connection connection = transaction.getTransaction().getConnection();
-			pstmt = connection.prepareStatement(query);
-			int index = 1;
+			pstmt = transaction.getTransaction().prepareStatement(query);
 			List<Object> params = new ArrayList<>();
 			
-			for(ColumnParam column: saveQuery.getColumns())
+			setConditionParams(pstmt, 1, nestedChildrenQuery.getParentConditions(), params);
+
+			logger.debug("Executing using params: {}", params);
+			
+			rs = pstmt.executeQuery();
+			int res = rs.next() ? rs.getInt(1) : 0;
+			
+			logger.debug("Found {} child record(s)", res);
+			
+			transaction.commit();
+			return res;
+		}catch(Exception ex)
+		{
+			logger.error("An error occurred while checking child rows existence from table '" 
+					+ nestedChildrenQuery.getTableName() + "' using query: " + nestedChildrenQuery, ex);
+			throw new PersistenceException("An error occurred while checking child rows existence from table '" 
+						+ nestedChildrenQuery.getTableName() + "' using query: " + nestedChildrenQuery, ex);
+		}finally
+		{
+			closeResources(rs, pstmt);
+		}
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.fw.persistence.IDataStore#fetchChildrenIds(com.fw.persistence.query.NestedChildrenQuery)
+	 */
+	@Override
+	public List<Object> fetchChildrenIds(NestedChildrenQuery nestedChildrenQuery)
+	{
+		logger.trace("Started method: fetchChildrenIds");
+		logger.debug("Fetching nested children ids from table '{}' using query: {}", nestedChildrenQuery.getTableName(), nestedChildrenQuery);
+		
+		PreparedStatement pstmt = null;
+		ResultSet rs = null;
+		
+		try(TransactionWrapper<RdbmsTransaction> transaction = transactionManager.newOrExistingTransaction())
+		{
+			String query = templates.buildQuery(RdbmsConfiguration.FETCH_NESTED_CHILDREN_IDS_QUERY, nestedChildrenQuery);
+			
+			logger.debug("Built nested children-fetch query as: \n\t{}", query);
+			
+			pstmt = transaction.getTransaction().prepareStatement(query);
+			List<Object> params = new ArrayList<>();
+			
+			setConditionParams(pstmt, 1, nestedChildrenQuery.getParentConditions(), params);
+
+			logger.debug("Executing using params: {}", params);
+			
+			rs = pstmt.executeQuery();
+			
+			List<Object> ids = new ArrayList<>();
+			
+			while(rs.next())
 			{
-				if(column.isSequenceGenerated())
-				{
-					continue;
-				}
-				
-				pstmt.setObject(index, column.getValue());
-				params.add(column.getValue());
-				
-				index++;
+				ids.add(rs.getObject(1));
 			}
 			
+			logger.debug("Found {} child record(s)", ids.size());
+			
+			transaction.commit();
+			return ids;
+		}catch(Exception ex)
+		{
+			logger.error("An error occurred while fetching child row ids from table '" 
+					+ nestedChildrenQuery.getTableName() + "' using query: " + nestedChildrenQuery, ex);
+			throw new PersistenceException("An error occurred while fetching child row ids from table '" 
+						+ nestedChildrenQuery.getTableName() + "' using query: " + nestedChildrenQuery, ex);
+		}finally
+		{
+			closeResources(rs, pstmt);
+		}
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.fw.persistence.IDataStore#deleteChildren(com.fw.persistence.query.NestedChildrenQuery)
+	 */
+	@Override
+	public int deleteChildren(NestedChildrenQuery nestedChildrenQuery)
+	{
+		logger.trace("Started method: deleteChildren");
+		logger.debug("Deleting nested children rows from table '{}' using query: {}", nestedChildrenQuery.getTableName(), nestedChildrenQuery);
+		
+		PreparedStatement pstmt = null;
+		
+		try(TransactionWrapper<RdbmsTransaction> transaction = transactionManager.newOrExistingTransaction())
+		{
+			String query = templates.buildQuery(RdbmsConfiguration.DELETE_NESTED_CHILDREN_QUERY, nestedChildrenQuery);
+			
+			logger.debug("Built nested children-delete query as: \n\t{}", query);
+			
+			pstmt = transaction.getTransaction().prepareStatement(query);
+			List<Object> params = new ArrayList<>();
+			
+			setConditionParams(pstmt, 1, nestedChildrenQuery.getParentConditions(), params);
+			
+			logger.debug("Executing using params: {}", params);
+			
+			int deleteCount = pstmt.executeUpdate();
+			
+			logger.debug("Deleted {} child records from table: {}", deleteCount, nestedChildrenQuery.getTableName());
+			
+			transaction.commit();
+			ExecutionStats.addRowsWritten(deleteCount);
+			return deleteCount;
+		}catch(Exception ex)
+		{
+			logger.error("An error occurred while deleting child rows from table '" 
+					+ nestedChildrenQuery.getTableName() + "' using query: " + nestedChildrenQuery, ex);
+			throw new PersistenceException("An error occurred while deleting child rows from table '" 
+						+ nestedChildrenQuery.getTableName() + "' using query: " + nestedChildrenQuery, ex);
+		}finally
+		{
+			closeResources(null, pstmt);
+		}
+	}
+
+	@Override
+	public int save(SaveQuery saveQuery, EntityDetails entityDetails, ObjectWrapper<Object> idGenerated)
+	{
+		logger.trace("Started method: save");
+		logger.debug("Trying to save entity to table '{}' using query: {}", saveQuery.getTableName(), saveQuery);
+		
+		PreparedStatement pstmt = null;
+		ResultSet keysRs = null;
+		
+		try(TransactionWrapper<RdbmsTransaction> transaction = transactionManager.newOrExistingTransaction())
+		{
+			String query = templates.buildQuery(RdbmsConfiguration.SAVE_QUERY, saveQuery);
+			
+			logger.debug("Built save query as: \n\t{}", query);
+			
+			pstmt = transaction.getTransaction().prepareStatement(query);
+			List<Object> params = new ArrayList<>();
+			
+			setColumnParams(pstmt, 1, saveQuery.getColumns(), params);
+			
 			logger.debug("Executing using params: {}", params);
 			
 			int count = pstmt.executeUpdate();
@@ -532,6 +1032,7 @@ public class RdbmsDataStore implements IDataStore
 			logger.debug("Saved {} records into table: {}", count, saveQuery.getTableName());
 			
 			transaction.commit();
+			ExecutionStats.addRowsWritten(count);
 			return count;
 		}catch(Exception ex)
 		{
@@ -555,30 +1056,16 @@ public class RdbmsDataStore implements IDataStore
 		
 		try(TransactionWrapper<RdbmsTransaction> transaction = transactionManager.newOrExistingTransaction())
 		{
-			String query = templates.buildQuery(RdbmsConfiguration.UPDATE_QUERY, "query", updateQuery);
+			String query = templates.buildQuery(RdbmsConfiguration.UPDATE_QUERY, updateQuery);
 			
 			logger.debug("Built update query as: \n\t{}", query);
 			
-			Connection connection = transaction.getTransaction().getConnection();
-			pstmt = connection.prepareStatement(query);
+			pstmt = transaction.getTransaction().prepareStatement(query);
 			int index = 1;
 			List<Object> params = new ArrayList<>();
 			
-			for(ColumnParam column: updateQuery.getColumns())
-			{
-				pstmt.setObject(index, column.getValue());
-				params.add(column.getValue());
-				
-				index++;
-			}
-			
-			for(QueryCondition condition: updateQuery.getConditions())
-			{
-				pstmt.setObject(index, condition.getValue());
-				params.add(condition.getValue());
-				
-				index++;
-			}
+			index = setColumnParams(pstmt, index, updateQuery.getColumns(), params);
+			setConditionParams(pstmt, index, updateQuery.getConditions(), params);
 			
 			logger.debug("Executing using params: {}", params);
 			
@@ -587,6 +1074,7 @@ public class RdbmsDataStore implements IDataStore
 			logger.debug("Updated " + count + " records in table: " + updateQuery.getTableName());
 			
 			transaction.commit();
+			ExecutionStats.addRowsWritten(count);
 			return count;
 		}catch(Exception ex)
 		{
@@ -611,22 +1099,14 @@ public class RdbmsDataStore implements IDataStore
 		
 		try(TransactionWrapper<RdbmsTransaction> transaction = transactionManager.newOrExistingTransaction())
 		{
-			String query = templates.buildQuery(RdbmsConfiguration.DELETE_QUERY, "query", deleteQuery);
+			String query = templates.buildQuery(RdbmsConfiguration.DELETE_QUERY, deleteQuery);
 			
 			logger.debug("Built delete query as: \n\t{}", query);
 			
-			Connection connection = transaction.getTransaction().getConnection();
-			pstmt = connection.prepareStatement(query);
-			int index = 1;
+			pstmt = transaction.getTransaction().prepareStatement(query);
 			List<Object> params = new ArrayList<>();
 			
-			for(QueryCondition condition: deleteQuery.getConditions())
-			{
-				pstmt.setObject(index, condition.getValue());
-				params.add(condition.getValue());
-				
-				index++;
-			}
+			setConditionParams(pstmt, 1, deleteQuery.getConditions(), params);
 			
 			logger.debug("Executing using params: {}", params);
 			
@@ -635,6 +1115,7 @@ public class RdbmsDataStore implements IDataStore
 			logger.debug("Deleted " + deleteCount + " records from table: " + deleteQuery.getTableName());
 			
 			transaction.commit();
+			ExecutionStats.addRowsWritten(deleteCount);
 			return deleteCount;
 		}catch(Exception ex)
 		{
@@ -646,6 +1127,262 @@ public class RdbmsDataStore implements IDataStore
 		}
 	}
 	
+	/**
+	 * Executes specified queries using JDBC batches. Queries are grouped by the query string built
+	 * from specified template, and each group is executed in batches of {@link #batchSize}.
+	 * @param templateName Template to be used to build query string
+	 * @param queries Queries to be executed
+	 * @param binder Binder to set query params
+	 * @param operation Operation being performed, used for logging
+	 * @return Number of rows affected by each query, in the order of specified queries
+	 */
+	private <Q extends Query> int[] executeBatch(String templateName, List<Q> queries, IParamBinder<Q> binder, String operation)
+	{
+		int result[] = new int[queries.size()];
+		
+		if(queries.isEmpty())
+		{
+			return result;
+		}
+		
+		String tableName = queries.get(0).getTableName();
+		
+		//group the queries by query string, so that each group can be executed as batch
+		Map<String, List<Integer>> queryToIndexes = new LinkedHashMap<>();
+		String query = null;
+		List<Integer> indexes = null;
+		
+		for(int i = 0; i < result.length; i++)
+		{
+			query = templates.buildQuery(templateName, queries.get(i));
+			indexes = queryToIndexes.get(query);
+			
+			if(indexes == null)
+			{
+				indexes = new ArrayList<>();
+				queryToIndexes.put(query, indexes);
+			}
+			
+			indexes.add(i);
+		}
+		
+		PreparedStatement pstmt = null;
+		List<Object> params = new ArrayList<>();
+		int counts[] = null;
+		int batchStart = 0;
+		
+		try(TransactionWrapper<RdbmsTransaction> transaction = transactionManager.newOrExistingTransaction())
+		{
+			for(Map.Entry<String, List<Integer>> entry : queryToIndexes.entrySet())
+			{
+				indexes = entry.getValue();
+				logger.debug("Executing {} {} queries in batch using query: \n\t{}", indexes.size(), operation, entry.getKey());
+				
+				pstmt = transaction.getTransaction().prepareStatement(entry.getKey());
+				batchStart = 0;
+				
+				for(int i = 0; i < indexes.size(); i++)
+				{
+					params.clear();
+					binder.bind(pstmt, queries.get(indexes.get(i)), params);
+					pstmt.addBatch();
+					
+					logger.trace("Added to batch with params: {}", params);
+					
+					//execute the batch when batch size is reached or at the end of group
+					if((i - batchStart + 1) < batchSize && i < (indexes.size() - 1))
+					{
+						continue;
+					}
+					
+					counts = pstmt.executeBatch();
+					
+					for(int j = 0; j < counts.length; j++)
+					{
+						result[indexes.get(batchStart + j)] = (counts[j] == Statement.SUCCESS_NO_INFO) ? 1 : counts[j];
+					}
+					
+					batchStart = i + 1;
+				}
+				
+				closeResources(null, pstmt);
+				pstmt = null;
+			}
+			
+			logger.debug("Completed batch {} of {} queries on table: {}", operation, result.length, tableName);
+			
+			transaction.commit();
+			ExecutionStats.addRowsWritten(IntStream.of(result).sum());
+			return result;
+		}catch(Exception ex)
+		{
+			logger.error("An error occurred while executing batch " + operation + " on table: " + tableName, ex);
+			
+			//ensure statement is not released with pending batch
+			clearBatch(pstmt);
+			
+			throw new PersistenceException("An error occurred while executing batch " + operation + " on table: " + tableName, ex);
+		}finally
+		{
+			closeResources(null, pstmt);
+		}
+	}
+	
+	private void clearBatch(PreparedStatement pstmt)
+	{
+		if(pstmt == null)
+		{
+			return;
+		}
+		
+		try
+		{
+			//statement would be closed, if the transaction is already closed
+			if(!pstmt.isClosed())
+			{
+				pstmt.clearBatch();
+			}
+		}catch(Exception ex)
+		{
+			logger.warn("An error occurred while clearing statement batch", ex);
+		}
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.fw.persistence.IDataStore#saveAll(java.util.List, com.fw.persistence.EntityDetails)
+	 */
+	@Override
+	public int[] saveAll(List<SaveQuery> saveQueries, EntityDetails entityDetails)
+	{
+		logger.trace("Started method: saveAll");
+		
+		return executeBatch(RdbmsConfiguration.SAVE_QUERY, saveQueries, (pstmt, query, params) -> {
+			setColumnParams(pstmt, 1, query.getColumns(), params);
+		}, "save");
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.fw.persistence.IDataStore#updateAll(java.util.List, com.fw.persistence.EntityDetails)
+	 */
+	@Override
+	public int[] updateAll(List<UpdateQuery> updateQueries, EntityDetails entityDetails)
+	{
+		logger.trace("Started method: updateAll");
+		
+		return executeBatch(RdbmsConfiguration.UPDATE_QUERY, updateQueries, (pstmt, query, params) -> {
+			int index = setColumnParams(pstmt, 1, query.getColumns(), params);
+			setConditionParams(pstmt, index, query.getConditions(), params);
+		}, "update");
+	}
+	
+	/**
+	 * Sets the params of specified save-or-update query on specified statement. Id and column values are
+	 * set as many times as expected by save-update template (see {@link RdbmsConfiguration#getSaveUpdateParamSets()}),
+	 * followed by insert column values.
+	 * @param pstmt Statement on which params needs to be set
+	 * @param query Query whose params needs to be set
+	 * @param params Collects the values being set
+	 * @throws SQLException
+	 */
+	private void setSaveOrUpdateParams(PreparedStatement pstmt, SaveOrUpdateQuery query, List<Object> params) throws SQLException
+	{
+		int index = 1;
+		int paramSets = templates.getSaveUpdateParamSets();
+		
+		for(int i = 0; i < paramSets; i++)
+		{
+			pstmt.setObject(index, query.getIdColumn().getValue());
+			params.add(query.getIdColumn().getValue());
+			
+			index = setColumnParams(pstmt, index + 1, query.getColumns(), params);
+		}
+		
+		setColumnParams(pstmt, index, query.getInsertColumns(), params);
+	}
+	
+	/**
+	 * Ensures save-update template is configured for this data store
+	 */
+	private void checkSaveOrUpdateSupported()
+	{
+		if(!templates.hasQuery(RdbmsConfiguration.SAVE_UPDATE_QUERY))
+		{
+			throw new UnsupportedOperationException("Save-or-update is not supported by current data store, as no '" 
+						+ RdbmsConfiguration.SAVE_UPDATE_QUERY + "' template is configured");
+		}
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.fw.persistence.IDataStore#saveOrUpdate(com.fw.persistence.query.SaveOrUpdateQuery, com.fw.persistence.EntityDetails)
+	 */
+	@Override
+	public int saveOrUpdate(SaveOrUpdateQuery saveOrUpdateQuery, EntityDetails entityDetails)
+	{
+		logger.trace("Started method: saveOrUpdate");
+		logger.debug("Trying to save or update entity in table '{}' using query: {}", saveOrUpdateQuery.getTableName(), saveOrUpdateQuery);
+		
+		checkSaveOrUpdateSupported();
+		
+		PreparedStatement pstmt = null;
+		
+		try(TransactionWrapper<RdbmsTransaction> transaction = transactionManager.newOrExistingTransaction())
+		{
+			String query = templates.buildQuery(RdbmsConfiguration.SAVE_UPDATE_QUERY, saveOrUpdateQuery);
+			
+			logger.debug("Built save-update query as: \n\t{}", query);
+			
+			pstmt = transaction.getTransaction().prepareStatement(query);
+			List<Object> params = new ArrayList<>();
+			
+			setSaveOrUpdateParams(pstmt, saveOrUpdateQuery, params);
+			
+			logger.debug("Executing using params: {}", params);
+			
+			int count = pstmt.executeUpdate();
+			
+			logger.debug("Saved/updated {} records in table: {}", count, saveOrUpdateQuery.getTableName());
+			
+			transaction.commit();
+			ExecutionStats.addRowsWritten(count);
+			return count;
+		}catch(Exception ex)
+		{
+			logger.error("An error occurred while saving/updating entity in table '{}' using query: {}", saveOrUpdateQuery.getTableName(), saveOrUpdateQuery, ex);
+			
+			throw new PersistenceException("An error occurred while saving/updating entity in table '" 
+						+ saveOrUpdateQuery.getTableName() + "' using query: " + saveOrUpdateQuery, ex);
+		}finally
+		{
+			closeResources(null, pstmt);
+		}
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.fw.persistence.IDataStore#saveOrUpdateAll(java.util.List, com.fw.persistence.EntityDetails)
+	 */
+	@Override
+	public int[] saveOrUpdateAll(List<SaveOrUpdateQuery> saveOrUpdateQueries, EntityDetails entityDetails)
+	{
+		logger.trace("Started method: saveOrUpdateAll");
+		
+		checkSaveOrUpdateSupported();
+		
+		return executeBatch(RdbmsConfiguration.SAVE_UPDATE_QUERY, saveOrUpdateQueries, this::setSaveOrUpdateParams, "save-or-update");
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.fw.persistence.IDataStore#deleteAll(java.util.List, com.fw.persistence.EntityDetails)
+	 */
+	@Override
+	public int[] deleteAll(List<DeleteQuery> deleteQueries, EntityDetails entityDetails)
+	{
+		logger.trace("Started method: deleteAll");
+		
+		return executeBatch(RdbmsConfiguration.DELETE_QUERY, deleteQueries, (pstmt, query, params) -> {
+			setConditionParams(pstmt, 1, query.getConditions(), params);
+		}, "delete");
+	}
+	
 	protected PreparedStatement buildPreparedStatement(RdbmsTransaction transaction, String queryName, Object... params) throws SQLException
 	{
 		List<Object> paramValues = new ArrayList<>();
@@ -654,8 +1391,7 @@ public class RdbmsDataStore implements IDataStore
 		
 		logger.debug("Built query as: \n\t{}", query);
 		
-		Connection connection = transaction.getConnection();
-		PreparedStatement pstmt = connection.prepareStatement(query);
+		PreparedStatement pstmt = transaction.prepareStatement(query);
 		int index = 1;
 		
 		for(Object value: paramValues)
@@ -680,6 +1416,7 @@ public class RdbmsDataStore implements IDataStore
 			int count = pstmt.executeUpdate();
 			
 			transaction.commit();
+			ExecutionStats.addRowsWritten(count);
 			return count;
 		}catch(Exception ex)
 		{
@@ -704,51 +1441,24 @@ public class RdbmsDataStore implements IDataStore
 			rs = pstmt.executeQuery();
 			
 			List<Record> records = new ArrayList<>();
-			ResultSetMetaData metaData = rs.getMetaData();
-			Record  rec = null;
-			int colCount = metaData.getColumnCount();
-			String colNames[] = null;
-			Object cellValue = null;
+			RecordSchema schema = null;
 			
 			while(rs.next())
 			{
-				//if records are available fetch columns names, so that same name objects
-				//are shared across the records
-				if(colNames == null)
+				//if records are available fetch schema, so that same schema 
+				//is shared across the records
+				if(schema == null)
 				{
-					colNames = new String[colCount];
-					
-					for(int i = 0 ; i < colCount ; i++)
-					{
-						colNames[i] = metaData.getColumnLabel(i + 1);
-					}
+					schema = getRecordSchema(rs);
 				}
 				
-				rec = new Record(colCount);
-				
-				//fetch column values for each record
-				for(int i = 0 ; i < colCount ; i++)
-				{
-					cellValue = rs.getObject(i + 1);
-					
-					if(cellValue instanceof Clob)
-					{
-						cellValue = convertClob((Clob)cellValue);
-					}
-					else if(cellValue instanceof Blob)
-					{
-						cellValue = convertBlob((Blob)cellValue);
-					}
-					
-					rec.set(i, colNames[i], cellValue);
-				}
-				
-				records.add(rec);
+				records.add(readRecord(rs, schema));
 			}
 			
 			logger.debug("Found " + records.size() + " records found from table: " + tableName);
 			
 			transaction.commit();
+			ExecutionStats.addRowsRead(records.size());
 			return records;
 		}catch(Exception ex)
 		{
@@ -821,73 +1531,37 @@ public class RdbmsDataStore implements IDataStore
 		
 		try(TransactionWrapper<RdbmsTransaction> transaction = transactionManager.newOrExistingTransaction())
 		{
-			String query = templates.buildQuery(RdbmsConfiguration.FINDER_QUERY, "query", findQuery);
+			String query = templates.buildQuery(RdbmsConfiguration.FINDER_QUERY, findQuery);
 			
 			logger.debug("Built find query as: \n\t{}", query);
 			List<Object> params = new ArrayList<>();
 			
-			Connection connection = transaction.getTransaction().getConnection();
-			pstmt = connection.prepareStatement(query);
-			int index = 1;
-			
-			for(QueryCondition condition: findQuery.getConditions())
-			{
-				pstmt.setObject(index, condition.getValue());
-				params.add(condition.getValue());
-				
-				index++;
-			}
+			pstmt = transaction.getTransaction().prepareStatement(query);
+			setFinderParams(pstmt, findQuery, params);
 			
 			logger.debug("Executing using params: {}", params);
 			
 			rs = pstmt.executeQuery();
 			
 			List<Record> records = new ArrayList<>();
-			ResultSetMetaData metaData = rs.getMetaData();
-			Record  rec = null;
-			int colCount = metaData.getColumnCount();
-			String colNames[] = null;
-			Object cellValue = null;
+			RecordSchema schema = null;
 			
 			while(rs.next())
 			{
-				//if records are avialable fetch columns names, so taht same name objects
-				//are shared across the reocrds
-				if(colNames == null)
+				//if records are avialable fetch schema, so that same schema
+				//is shared across the reocrds
+				if(schema == null)
 				{
-					colNames = new String[colCount];
-					
-					for(int i = 0 ; i < colCount ; i++)
-					{
-						colNames[i] = metaData.getColumnLabel(i + 1);
-					}
+					schema = getRecordSchema(rs);
 				}
 				
-				rec = new Record(colCount);
-				
-				//fetch column values for each record
-				for(int i = 0 ; i < colCount ; i++)
-				{
-					cellValue = rs.getObject(i + 1);
-					
-					if(cellValue instanceof Clob)
-					{
-						cellValue = convertClob((Clob)cellValue);
-					}
-					else if(cellValue instanceof Blob)
-					{
-						cellValue = convertBlob((Blob)cellValue);
-					}
-					
-					rec.set(i, colNames[i], cellValue);
-				}
-				
-				records.add(rec);
+				records.add(readRecord(rs, schema));
 			}
 			
 			logger.debug("Found " + records.size() + " records found from table: " + findQuery.getTableName());
 			
 			transaction.commit();
+			ExecutionStats.addRowsRead(records.size());
 			return records;
 		}catch(Exception ex)
 		{
@@ -902,6 +1576,329 @@ public class RdbmsDataStore implements IDataStore
 		}
 	}
 
+	/**
+	 * Builds the record schema, using column labels of specified result set
+	 * @param rs Result set whose labels needs to be fetched
+	 * @return Record schema
+	 * @throws SQLException
+	 */
+	private RecordSchema getRecordSchema(ResultSet rs) throws SQLException
+	{
+		ResultSetMetaData metaData = rs.getMetaData();
+		String colNames[] = new String[metaData.getColumnCount()];
+		
+		for(int i = 0 ; i < colNames.length ; i++)
+		{
+			colNames[i] = metaData.getColumnLabel(i + 1);
+		}
+		
+		return new RecordSchema(colNames);
+	}
+	
+	/**
+	 * Reads the current row of specified result set as record
+	 * @param rs Result set to read
+	 * @param schema Schema of the result set
+	 * @return Record representing current row
+	 * @throws SQLException
+	 */
+	private Record readRecord(ResultSet rs, RecordSchema schema) throws SQLException
+	{
+		int colCount = schema.getColumnCount();
+		Record rec = new Record(schema);
+		Object cellValue = null;
+		
+		//fetch column values for each record
+		for(int i = 0 ; i < colCount ; i++)
+		{
+			cellValue = rs.getObject(i + 1);
+			
+			if(cellValue instanceof Clob)
+			{
+				cellValue = convertClob((Clob)cellValue);
+			}
+			else if(cellValue instanceof Blob)
+			{
+				cellValue = convertBlob((Blob)cellValue);
+			}
+			
+			rec.set(i, cellValue);
+		}
+		
+		return rec;
+	}
+	
+	/**
+	 * Cursor over the result set of a streamed finder query. Holds the statement and transaction (connection)
+	 * used by the query till the stream is closed.
+	 */
+	private class RecordCursor extends Spliterators.AbstractSpliterator<Record>
+	{
+		private TransactionWrapper<RdbmsTransaction> transaction;
+		private PreparedStatement pstmt;
+		private ResultSet rs;
+		private String tableName;
+		
+		/**
+		 * Schema of the result set, fetched lazily on first row
+		 */
+		private RecordSchema schema;
+		
+		/**
+		 * Indicates the end of result set is reached
+		 */
+		private boolean completed = false;
+		
+		private boolean closed = false;
+		
+		public RecordCursor(TransactionWrapper<RdbmsTransaction> transaction, PreparedStatement pstmt, ResultSet rs, String tableName)
+		{
+			super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+			
+			this.transaction = transaction;
+			this.pstmt = pstmt;
+			this.rs = rs;
+			this.tableName = tableName;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.util.Spliterator#tryAdvance(java.util.function.Consumer)
+		 */
+		@Override
+		public boolean tryAdvance(Consumer<? super Record> action)
+		{
+			if(completed || closed)
+			{
+				return false;
+			}
+			
+			try
+			{
+				if(!rs.next())
+				{
+					completed = true;
+					return false;
+				}
+				
+				if(schema == null)
+				{
+					schema = getRecordSchema(rs);
+				}
+				
+				ExecutionStats.addRowsRead(1);
+				action.accept(readRecord(rs, schema));
+				return true;
+			}catch(SQLException ex)
+			{
+				throw new PersistenceException("An error occurred while reading rows from table: " + tableName, ex);
+			}
+		}
+		
+		/**
+		 * Moves to first row and reads the LOB column using specified reader. If no row or LOB value is
+		 * found, this cursor is closed.
+		 * @param lobReader Reads the LOB stream from result set
+		 * @return LOB stream, null if no row or LOB value is found
+		 */
+		public <T> T readLob(ILobReader<T> lobReader)
+		{
+			try
+			{
+				T stream = rs.next() ? lobReader.read(rs) : null;
+				
+				if(stream == null)
+				{
+					close();
+				}
+				else
+				{
+					ExecutionStats.addRowsRead(1);
+				}
+				
+				return stream;
+			}catch(SQLException ex)
+			{
+				close();
+				throw new PersistenceException("An error occurred while reading LOB from table: " + tableName, ex);
+			}
+		}
+		
+		/**
+		 * Releases the statement held by this cursor. If the transaction was created for this stream,
+		 * the transaction is also closed. Existing transactions are left to their owners.
+		 */
+		public void close()
+		{
+			if(closed)
+			{
+				return;
+			}
+			
+			closed = true;
+			closeResources(rs, pstmt);
+			
+			if(transaction.isExistingTransaction())
+			{
+				return;
+			}
+			
+			try
+			{
+				//only reads are done by stream transaction, so commit even on partial read
+				transaction.commit();
+				transaction.close();
+			}catch(Exception ex)
+			{
+				logger.error("An error occurred while closing stream transaction", ex);
+			}
+		}
+	}
+
+	/**
+	 * Executes specified finder query and returns a stream over the resultant records. Records are read from the
+	 * underlying cursor (using {@link #fetchSize}) as the stream is consumed. The connection and statement used
+	 * by the query are held till the stream is closed, so callers should close the stream (preferably using
+	 * try-with-resources).
+	 * <BR/>
+	 * If no transaction is bound to current thread, new transaction is created for the stream, which will not
+	 * be bound to current thread. So operations performed during stream consumption will not be part of stream
+	 * transaction.
+	 */
+	@Override
+	public Stream<Record> streamFinder(FinderQuery findQuery, EntityDetails entityDetails)
+	{
+		logger.trace("Started method: streamFinder");
+		logger.debug("Streaming records from table '{}' using query: {}", findQuery.getTableName(), findQuery);
+		
+		RecordCursor cursor = openCursor(findQuery);
+		return StreamSupport.stream(cursor, false).onClose(cursor::close);
+	}
+	
+	/**
+	 * Executes specified finder query and returns cursor over the result set. If no transaction is bound
+	 * to current thread, new transaction is created for the cursor, which will not be bound to current thread.
+	 * @param findQuery Query to execute
+	 * @return Cursor, which should be closed by the caller
+	 */
+	private RecordCursor openCursor(FinderQuery findQuery)
+	{
+		PreparedStatement pstmt = null;
+		ResultSet rs = null;
+		TransactionWrapper<RdbmsTransaction> transaction = null;
+		
+		try
+		{
+			transaction = transactionManager.newOrExistingTransaction();
+			
+			//stream transaction should not be used by other operations of current thread
+			if(!transaction.isExistingTransaction())
+			{
+				transactionManager.removeTransaction(transaction.getTransaction());
+			}
+			
+			String query = templates.buildQuery(RdbmsConfiguration.FINDER_QUERY, findQuery);
+			
+			logger.debug("Built find query as: \n\t{}", query);
+			List<Object> params = new ArrayList<>();
+			
+			pstmt = transaction.getTransaction().prepareStatement(query);
+			setFinderParams(pstmt, findQuery, params);
+			
+			//as statements are cached, fetch size is reset on each execution
+			pstmt.setFetchSize(fetchSize);
+			
+			logger.debug("Executing using params: {}", params);
+			
+			rs = pstmt.executeQuery();
+		}catch(Exception ex)
+		{
+			closeResources(rs, pstmt);
+			
+			try
+			{
+				if(transaction != null)
+				{
+					transaction.close();
+				}
+			}catch(Exception closeEx)
+			{
+				logger.error("An error occurred while closing stream transaction", closeEx);
+			}
+			
+			logger.error("An error occurred while streaming rows from table '" 
+					+ findQuery.getTableName() + "' using query: " + findQuery, ex);
+			
+			throw new PersistenceException("An error occurred while streaming rows from table '" 
+						+ findQuery.getTableName() + "' using query: " + findQuery, ex);
+		}
+		
+		return new RecordCursor(transaction, pstmt, rs, findQuery.getTableName());
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.fw.persistence.IDataStore#readBlob(com.fw.persistence.query.FinderQuery, com.fw.persistence.EntityDetails)
+	 */
+	@Override
+	public InputStream readBlob(FinderQuery findQuery, EntityDetails entityDetails)
+	{
+		logger.trace("Started method: readBlob");
+		
+		RecordCursor cursor = openCursor(findQuery);
+		InputStream is = cursor.readLob(rs -> rs.getBinaryStream(1));
+		
+		if(is == null)
+		{
+			return null;
+		}
+		
+		return new FilterInputStream(is)
+		{
+			@Override
+			public void close() throws IOException
+			{
+				try
+				{
+					super.close();
+				}finally
+				{
+					cursor.close();
+				}
+			}
+		};
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.fw.persistence.IDataStore#readClob(com.fw.persistence.query.FinderQuery, com.fw.persistence.EntityDetails)
+	 */
+	@Override
+	public Reader readClob(FinderQuery findQuery, EntityDetails entityDetails)
+	{
+		logger.trace("Started method: readClob");
+		
+		RecordCursor cursor = openCursor(findQuery);
+		Reader reader = cursor.readLob(rs -> rs.getCharacterStream(1));
+		
+		if(reader == null)
+		{
+			return null;
+		}
+		
+		return new FilterReader(reader)
+		{
+			@Override
+			public void close() throws IOException
+			{
+				try
+				{
+					super.close();
+				}finally
+				{
+					cursor.close();
+				}
+			}
+		};
+	}
+
 	/* (non-Javadoc)
 	 * @see com.fw.persistence.IDataStore#dropTable(com.fw.persistence.query.DropTableQuery)
 	 */
@@ -957,7 +1954,24 @@ public class RdbmsDataStore implements IDataStore
 	@Override
 	public boolean isExplicitForeignCheckRequired()
 	{
-		return false;
+		return explicitForeignCheckRequired;
+	}
+	
+	/**
+	 * @param explicitForeignCheckRequired the {@link #explicitForeignCheckRequired explicitForeignCheckRequired} to set
+	 */
+	public void setExplicitForeignCheckRequired(boolean explicitForeignCheckRequired)
+	{
+		this.explicitForeignCheckRequired = explicitForeignCheckRequired;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.fw.persistence.IDataStore#isSaveOrUpdateUniqueCheckRequired()
+	 */
+	@Override
+	public boolean isSaveOrUpdateUniqueCheckRequired()
+	{
+		return templates.isSaveUpdateUniqueCheckRequired();
 	}
 
 	/* (non-Javadoc)
@@ -966,6 +1980,14 @@ public class RdbmsDataStore implements IDataStore
 	@Override
 	public boolean isExplicitUniqueCheckRequired()
 	{
-		return false;
+		return explicitUniqueCheckRequired;
+	}
+	
+	/**
+	 * @param explicitUniqueCheckRequired the {@link #explicitUniqueCheckRequired explicitUniqueCheckRequired} to set
+	 */
+	public void setExplicitUniqueCheckRequired(boolean explicitUniqueCheckRequired)
+	{
+		this.explicitUniqueCheckRequired = explicitUniqueCheckRequired;
 	}
 }
@@ -1,11 +1,17 @@
 package com.fw.persistence.rdbms;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import com.fw.persistence.EntityIdentityMap;
 import com.fw.persistence.ITransaction;
 import com.fw.persistence.TransactionException;
 
@@ -22,11 +28,59 @@ public class RdbmsTransaction implements ITransaction
 	
 	private Connection connection;
 	
-	RdbmsTransaction(RdbmsTransactionManager manager, Connection connection)
+	/**
+	 * LRU cache of prepared statements of this transaction connection, keyed by query string. 
+	 * Null if statement caching is disabled.
+	 */
+	private Map<String, PreparedStatement> statementCache;
+	
+	/**
+	 * Statements (cached and uncached) which are currently handed over for execution, mapped to their query
+	 */
+	private Map<PreparedStatement, String> statementsInUse = new IdentityHashMap<>();
+	
+	/**
+	 * Entities loaded as part of this transaction, created on first access
+	 */
+	private EntityIdentityMap identityMap;
+	
+	/**
+	 * Actions to be executed after commit, keyed by action key
+	 */
+	private Map<Object, Runnable> commitActions = new LinkedHashMap<>();
+	
+	RdbmsTransaction(RdbmsTransactionManager manager, Connection connection, final int statementCacheSize)
 	{
 		this.manager = manager;
 		this.connection = connection;
 		
+		if(statementCacheSize > 0)
+		{
+			this.statementCache = new LinkedHashMap<String, PreparedStatement>(statementCacheSize, 0.75f, true)
+			{
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest)
+				{
+					if(size() <= statementCacheSize)
+					{
+						return false;
+					}
+					
+					manager.statementEvicted();
+					
+					//statements in use will be closed when they are released
+					if(!statementsInUse.containsKey(eldest.getValue()))
+					{
+						closeStatement(eldest.getValue());
+					}
+					
+					return true;
+				}
+			};
+		}
+		
 		try
 		{
 			this.connection.setAutoCommit(false);
@@ -49,6 +103,25 @@ public class RdbmsTransaction implements ITransaction
 			}
 		}
 		
+		if(statementCache != null)
+		{
+			for(PreparedStatement statement : statementCache.values())
+			{
+				closeStatement(statement);
+			}
+			
+			statementCache.clear();
+		}
+		
+		statementsInUse.clear();
+		
+		if(identityMap != null)
+		{
+			identityMap.clear();
+		}
+		
+		commitActions.clear();
+		
 		try
 		{
 			connection.close();
@@ -58,7 +131,7 @@ public class RdbmsTransaction implements ITransaction
 		}
 		
 		
-		manager.removeTransaction();
+		manager.removeTransaction(this);
 		closed =  true;
 		logger.trace("Closed transaction");
 	}
@@ -83,6 +156,8 @@ public class RdbmsTransaction implements ITransaction
 			connection.commit();
 			committed = true;
 			logger.trace("committed transaction");
+			
+			executeCommitActions();
 		}catch(SQLException ex)
 		{
 			throw new TransactionException("An error occurred while commiting connection", ex);
@@ -91,6 +166,26 @@ public class RdbmsTransaction implements ITransaction
 			this.close();
 		}
 	}
+	
+	/**
+	 * Executes the actions registered to be executed after commit
+	 */
+	private void executeCommitActions()
+	{
+		for(Runnable action : commitActions.values())
+		{
+			try
+			{
+				action.run();
+			}catch(RuntimeException ex)
+			{
+				//commit is already done, so failure of an action should not fail the commit
+				logger.error("An error occurred while executing post commit action", ex);
+			}
+		}
+		
+		commitActions.clear();
+	}
 
 	@Override
 	public void rollback() throws TransactionException
@@ -115,4 +210,117 @@ public class RdbmsTransaction implements ITransaction
 	{
 		return connection;
 	}
+	
+	/* (non-Javadoc)
+	 * @see com.fw.persistence.ITransaction#getIdentityMap()
+	 */
+	@Override
+	public EntityIdentityMap getIdentityMap()
+	{
+		checkIfClosed();
+		
+		if(identityMap == null)
+		{
+			identityMap = new EntityIdentityMap();
+		}
+		
+		return identityMap;
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.fw.persistence.ITransaction#onCommit(java.lang.Object, java.lang.Runnable)
+	 */
+	@Override
+	public void onCommit(Object key, Runnable action)
+	{
+		checkIfClosed();
+		commitActions.putIfAbsent(key, action);
+	}
+	
+	/**
+	 * Fetches prepared statement for specified query. If caching is enabled and a free statement
+	 * is available in cache for the query, the same will be returned. Statements obtained using this 
+	 * method should be released using {@link #releaseStatement(Statement)}.
+	 * @param query Query for which statement is needed
+	 * @return Prepared statement for the query
+	 * @throws SQLException
+	 */
+	public PreparedStatement prepareStatement(String query) throws SQLException
+	{
+		checkIfClosed();
+		
+		PreparedStatement statement = null;
+		
+		if(statementCache != null)
+		{
+			statement = statementCache.get(query);
+			
+			if(statement != null && !statementsInUse.containsKey(statement))
+			{
+				manager.prepareAvoided();
+				statementsInUse.put(statement, query);
+				return statement;
+			}
+			
+			//if cached statement is in use (like nested execution of same query), use a non-cached statement
+			if(statement != null)
+			{
+				statement = connection.prepareStatement(query);
+				statementsInUse.put(statement, query);
+				return statement;
+			}
+		}
+		
+		statement = connection.prepareStatement(query);
+		statementsInUse.put(statement, query);
+		
+		if(statementCache != null)
+		{
+			statementCache.put(query, statement);
+		}
+		
+		return statement;
+	}
+	
+	/**
+	 * Releases the statement obtained from {@link #prepareStatement(String)}. If the statement is cached, it will be
+	 * retained for reuse, otherwise it will be closed.
+	 * @param statement Statement to release
+	 * @return true, if specified statement is obtained from this transaction and got released. 
+	 */
+	public boolean releaseStatement(Statement statement)
+	{
+		String query = statementsInUse.remove(statement);
+		
+		if(query == null)
+		{
+			return false;
+		}
+		
+		if(statementCache == null || statementCache.get(query) != statement)
+		{
+			closeStatement(statement);
+		}
+		
+		return true;
+	}
+	
+	private void closeStatement(Statement statement)
+	{
+		try
+		{
+			statement.close();
+		}catch(SQLException ex)
+		{
+			logger.warn("An error occurred while closing prepared statement", ex);
+		}
+	}
+	
+	/**
+	 * @return true, if this transaction is already closed
+	 */
+	public boolean isClosed()
+	{
+		return closed;
+	}
 }
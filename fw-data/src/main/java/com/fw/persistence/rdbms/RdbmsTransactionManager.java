@@ -1,8 +1,9 @@
 package com.fw.persistence.rdbms;
 
 import java.sql.SQLException;
-import java.util.HashMap;
-import java.util.Map;
+import java.sql.Statement;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.sql.DataSource;
 
@@ -17,36 +18,123 @@ public class RdbmsTransactionManager implements ITransactionManager<RdbmsTransac
 {
 	private static Logger logger = LogManager.getLogger(RdbmsTransactionManager.class);
 	
-	private Map<Thread, RdbmsTransaction> threadToTransaction = new HashMap<>();
+	/**
+	 * Holds the transaction bound to current thread. Being thread local, lookups are not shared
+	 * across threads and bindings are released along with the thread (including short lived
+	 * virtual threads), even if removal is missed.
+	 */
+	private ThreadLocal<RdbmsTransaction> currentTransaction = new ThreadLocal<>();
 	
 	private DataSource dataSource;
 	
+	/**
+	 * Default value for {@link #statementCacheSize}
+	 */
+	public static final int DEFAULT_STATEMENT_CACHE_SIZE = 50;
+	
+	/**
+	 * Maximum number of prepared statements to be cached per transaction (connection). Zero or negative 
+	 * value disables the caching.
+	 */
+	private int statementCacheSize = DEFAULT_STATEMENT_CACHE_SIZE;
+	
+	/**
+	 * Number of times cached prepared statement was reused
+	 */
+	private AtomicLong preparesAvoided = new AtomicLong();
+	
+	/**
+	 * Number of prepared statements evicted from transaction caches
+	 */
+	private AtomicLong statementEvictions = new AtomicLong();
+	
 	public void setDataSource(DataSource dataSource)
 	{
 		this.dataSource = dataSource;
 	}
 	
+	/**
+	 * @return the {@link #statementCacheSize statementCacheSize}
+	 */
+	public int getStatementCacheSize()
+	{
+		return statementCacheSize;
+	}
+
+	/**
+	 * @param statementCacheSize the {@link #statementCacheSize statementCacheSize} to set
+	 */
+	public void setStatementCacheSize(int statementCacheSize)
+	{
+		this.statementCacheSize = statementCacheSize;
+	}
+	
+	/**
+	 * @return Number of times cached prepared statement was reused instead of preparing new one
+	 */
+	public long getPreparesAvoided()
+	{
+		return preparesAvoided.get();
+	}
+	
+	/**
+	 * @return Number of prepared statements evicted from transaction caches
+	 */
+	public long getStatementEvictions()
+	{
+		return statementEvictions.get();
+	}
+	
+	void prepareAvoided()
+	{
+		preparesAvoided.incrementAndGet();
+	}
+	
+	void statementEvicted()
+	{
+		statementEvictions.incrementAndGet();
+	}
+	
 	private RdbmsTransaction createTransaction() throws TransactionException
 	{
 		RdbmsTransaction transaction = null;
 		
 		try
 		{
-			transaction = new RdbmsTransaction(this, dataSource.getConnection());
+			transaction = new RdbmsTransaction(this, dataSource.getConnection(), statementCacheSize);
 			logger.trace("Created new transaction: {}", transaction);
 		}catch(SQLException ex)
 		{
 			throw new TransactionException("An error occurred while opnening new DB connection", ex);
 		}
 		
-		threadToTransaction.put(Thread.currentThread(), transaction);
+		currentTransaction.set(transaction);
+		return transaction;
+	}
+	
+	/**
+	 * Fetches the open transaction bound to current thread. If the bound transaction
+	 * is already closed (possibly by a different thread to which it was propagated), the binding
+	 * is removed and null is returned.
+	 * @return Open transaction bound to current thread, if any
+	 */
+	private RdbmsTransaction getBoundTransaction()
+	{
+		RdbmsTransaction transaction = currentTransaction.get();
+		
+		if(transaction != null && transaction.isClosed())
+		{
+			currentTransaction.remove();
+			return null;
+		}
+		
 		return transaction;
 	}
 	
 	@Override
 	public RdbmsTransaction newTransaction() throws TransactionException
 	{
-		RdbmsTransaction transaction = threadToTransaction.get(Thread.currentThread());
+		RdbmsTransaction transaction = getBoundTransaction();
 		
 		if(transaction != null)
 		{
@@ -57,10 +145,19 @@ public class RdbmsTransactionManager implements ITransactionManager<RdbmsTransac
 		return createTransaction();
 	}
 	
+	/* (non-Javadoc)
+	 * @see com.fw.persistence.ITransactionManager#existingTransaction()
+	 */
+	@Override
+	public RdbmsTransaction existingTransaction()
+	{
+		return getBoundTransaction();
+	}
+	
 	@Override
 	public RdbmsTransaction currentTransaction() throws TransactionException
 	{
-		RdbmsTransaction transaction = threadToTransaction.get(Thread.currentThread());
+		RdbmsTransaction transaction = getBoundTransaction();
 		
 		if(transaction != null)
 		{
@@ -73,7 +170,7 @@ public class RdbmsTransactionManager implements ITransactionManager<RdbmsTransac
 	@Override
 	public TransactionWrapper<RdbmsTransaction> newOrExistingTransaction() throws TransactionException
 	{
-		RdbmsTransaction transaction = threadToTransaction.get(Thread.currentThread());
+		RdbmsTransaction transaction = getBoundTransaction();
 		
 		if(transaction != null)
 		{
@@ -83,10 +180,130 @@ public class RdbmsTransactionManager implements ITransactionManager<RdbmsTransac
 		
 		return new TransactionWrapper<RdbmsTransaction>(createTransaction(), false);
 	}
+	
+	/**
+	 * Binds specified transaction to current thread
+	 * @param transaction Transaction to bind
+	 * @return Transaction which was bound to current thread before this call, if any
+	 */
+	private RdbmsTransaction bind(RdbmsTransaction transaction)
+	{
+		RdbmsTransaction previousTransaction = currentTransaction.get();
+		currentTransaction.set(transaction);
+		
+		logger.trace("Propagated transaction {} to thread: {}", transaction, Thread.currentThread());
+		return previousTransaction;
+	}
+	
+	/**
+	 * Restores the binding which was present before {@link #bind(RdbmsTransaction)} call
+	 * @param previousTransaction Transaction returned by bind call
+	 */
+	private void restore(RdbmsTransaction previousTransaction)
+	{
+		if(previousTransaction != null)
+		{
+			currentTransaction.set(previousTransaction);
+		}
+		else
+		{
+			currentTransaction.remove();
+		}
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.fw.persistence.ITransactionManager#propagate(java.lang.Runnable)
+	 */
+	@Override
+	public Runnable propagate(final Runnable task)
+	{
+		final RdbmsTransaction transaction = getBoundTransaction();
+		
+		if(transaction == null)
+		{
+			logger.trace("No transaction is bound to current thread. Task will be executed without transaction propagation");
+			return task;
+		}
+		
+		return new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				RdbmsTransaction previousTransaction = bind(transaction);
+				
+				try
+				{
+					task.run();
+				}finally
+				{
+					restore(previousTransaction);
+				}
+			}
+		};
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.fw.persistence.ITransactionManager#propagate(java.util.concurrent.Callable)
+	 */
+	@Override
+	public <V> Callable<V> propagate(final Callable<V> task)
+	{
+		final RdbmsTransaction transaction = getBoundTransaction();
+		
+		if(transaction == null)
+		{
+			logger.trace("No transaction is bound to current thread. Task will be executed without transaction propagation");
+			return task;
+		}
+		
+		return new Callable<V>()
+		{
+			@Override
+			public V call() throws Exception
+			{
+				RdbmsTransaction previousTransaction = bind(transaction);
+				
+				try
+				{
+					return task.call();
+				}finally
+				{
+					restore(previousTransaction);
+				}
+			}
+		};
+	}
 
-	void removeTransaction()
+	/**
+	 * Releases specified statement to the transaction bound to current thread. If no transaction
+	 * is bound or the statement is not obtained from bound transaction, the statement will be closed.
+	 * @param statement Statement to be released
+	 * @throws SQLException
+	 */
+	void releaseStatement(Statement statement) throws SQLException
 	{
-		threadToTransaction.remove(Thread.currentThread());
+		RdbmsTransaction transaction = getBoundTransaction();
+		
+		if(transaction != null && transaction.releaseStatement(statement))
+		{
+			return;
+		}
+		
+		statement.close();
+	}
+
+	/**
+	 * Removes the binding of specified transaction from current thread. If current thread
+	 * is bound to different transaction, binding will not be altered.
+	 * @param transaction Transaction being closed
+	 */
+	void removeTransaction(RdbmsTransaction transaction)
+	{
+		if(currentTransaction.get() == transaction)
+		{
+			currentTransaction.remove();
+		}
 	}
 
 }
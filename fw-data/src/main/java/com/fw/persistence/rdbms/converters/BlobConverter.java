@@ -37,6 +37,37 @@ public class BlobConverter implements IPersistenceConverter
 		return res;
 	}
 	
+	/**
+	 * Converts specified db object into stream
+	 * @param dbObject
+	 * @return
+	 */
+	private InputStream toStream(Object dbObject)
+	{
+		if(dbObject == null)
+		{
+			return null;
+		}
+		
+		if(dbObject instanceof byte[])
+		{
+			return new ByteArrayInputStream((byte[])dbObject);
+		}
+		
+		if(dbObject instanceof Blob)
+		{
+			try
+			{
+				return ((Blob)dbObject).getBinaryStream();
+			}catch(Exception ex)
+			{
+				throw new IllegalStateException("An error occurred while reading blob", ex);
+			}
+		}
+		
+		throw new UnsupportedOperationException(String.format("Unsupported db object type '%s' encountered during BLOB to stream conversion", dbObject.getClass().getName()));
+	}
+	
 	/* (non-Javadoc)
 	 * @see com.fw.persistence.conversion.IPersistenceConverter#convertToJavaType(java.lang.Object, com.fw.persistence.annotations.DataType, java.lang.Class)
 	 */
@@ -49,6 +80,12 @@ public class BlobConverter implements IPersistenceConverter
 			return null;
 		}
 		
+		//stream fields are returned as streams over the content, without deserialization
+		if(InputStream.class.equals(javaType))
+		{
+			return toStream(dbObject);
+		}
+		
 		//if db object is char[] and target is string
 		if(dbObject instanceof byte[])
 		{
@@ -90,6 +127,12 @@ public class BlobConverter implements IPersistenceConverter
 			return null;
 		}
 		
+		//streams are passed as is, so that data store can stream the content
+		if(javaObject instanceof InputStream)
+		{
+			return javaObject;
+		}
+		
 		//convert java object into byte[]
 		try
 		{
@@ -1,6 +1,8 @@
 package com.fw.persistence.rdbms.converters;
 
+import java.io.CharArrayReader;
 import java.io.Reader;
+import java.io.StringReader;
 import java.sql.Clob;
 
 import org.apache.commons.io.IOUtils;
@@ -16,6 +18,42 @@ import com.fw.persistence.conversion.IPersistenceConverter;
  */
 public class ClobConverter implements IPersistenceConverter
 {
+	/**
+	 * Converts specified db object into reader
+	 * @param dbObject
+	 * @return
+	 */
+	private Reader toReader(Object dbObject)
+	{
+		if(dbObject == null)
+		{
+			return null;
+		}
+		
+		if(dbObject instanceof char[])
+		{
+			return new CharArrayReader((char[])dbObject);
+		}
+		
+		if(dbObject instanceof String)
+		{
+			return new StringReader((String)dbObject);
+		}
+		
+		if(dbObject instanceof Clob)
+		{
+			try
+			{
+				return ((Clob)dbObject).getCharacterStream();
+			}catch(Exception ex)
+			{
+				throw new IllegalStateException("An error occured while reading clob data.", ex);
+			}
+		}
+		
+		throw new UnsupportedOperationException(String.format("Unsupported db object type '%s' encountered during CLOB to reader conversion", dbObject.getClass().getName()));
+	}
+	
 	/* (non-Javadoc)
 	 * @see com.fw.persistence.conversion.IPersistenceConverter#convertToJavaType(java.lang.Object, com.fw.persistence.annotations.DataType, java.lang.Class)
 	 */
@@ -28,6 +66,24 @@ public class ClobConverter implements IPersistenceConverter
 			return null;
 		}
 		
+		//reader fields are returned as readers over the content
+		if(Reader.class.equals(javaType))
+		{
+			return toReader(dbObject);
+		}
+		
+		//some drivers return clob values as string
+		if(dbObject instanceof String)
+		{
+			return char[].class.equals(javaType) ? ((String)dbObject).toCharArray() : dbObject;
+		}
+		
+		//if db object is char[] and target is char[]
+		if(dbObject instanceof char[] && char[].class.equals(javaType))
+		{
+			return dbObject;
+		}
+		
 		//if db object is char[] and target is string
 		if(dbObject instanceof char[])
 		{
@@ -67,6 +123,17 @@ public class ClobConverter implements IPersistenceConverter
 			return null;
 		}
 		
+		//readers are passed as is, so that data store can stream the content
+		if(javaObject instanceof Reader)
+		{
+			return javaObject;
+		}
+		
+		if(javaObject instanceof char[])
+		{
+			return new String((char[])javaObject);
+		}
+		
 		//ensure java type is string
 		if(!(javaObject instanceof String))
 		{
@@ -15,6 +15,7 @@ import com.fw.persistence.repository.executors.DeleteQueryExecutor;
 import com.fw.persistence.repository.executors.FinderQueryExecutor;
 import com.fw.persistence.repository.executors.QueryExecutor;
 import com.fw.persistence.repository.executors.QueryExecutorPattern;
+import com.fw.persistence.repository.executors.SaveOrUpdateQueryExecutor;
 import com.fw.persistence.repository.executors.SaveQueryExecutor;
 import com.fw.persistence.repository.executors.SearchQueryExecutor;
 import com.fw.persistence.repository.executors.UpdateQueryExecutor;
@@ -151,6 +152,7 @@ public class ExecutorFactory
 		registerExecutor(FinderQueryExecutor.class);
 		registerExecutor(SearchQueryExecutor.class);
 		registerExecutor(SaveQueryExecutor.class);
+		registerExecutor(SaveOrUpdateQueryExecutor.class);
 		registerExecutor(DeleteQueryExecutor.class);
 		registerExecutor(UpdateQueryExecutor.class);
 	}
@@ -1,23 +1,51 @@
 package com.fw.persistence.repository;
 
+import java.io.Closeable;
+import java.io.File;
+import java.lang.management.ManagementFactory;
 import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Proxy;
 import java.lang.reflect.Type;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 import javax.persistence.Table;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
 import com.fw.persistence.EntityDetails;
 import com.fw.persistence.EntityDetailsFactory;
 import com.fw.persistence.ICrudRepository;
 import com.fw.persistence.IDataStore;
 import com.fw.persistence.IInternalRepository;
 import com.fw.persistence.InvalidMappingException;
+import com.fw.persistence.annotations.DirtyCheck;
+import com.fw.persistence.annotations.SharedCache;
+import com.fw.persistence.cache.EntityCache;
+import com.fw.persistence.cache.EntitySnapshots;
 import com.fw.persistence.listeners.EntityListenerManager;
+import com.fw.persistence.monitor.RepositoryMethodMetrics;
 
-public class RepositoryFactory
+public class RepositoryFactory implements Closeable
 {
+	/**
+	 * Default value for {@link #lazyLoadBatchSize}
+	 */
+	public static final int DEFAULT_LAZY_LOAD_BATCH_SIZE = 100;
+	
+	private static Logger logger = LogManager.getLogger(RepositoryFactory.class);
+	
+	/**
+	 * Counter used to generate unique default names for factories
+	 */
+	private static final AtomicInteger FACTORY_COUNTER = new AtomicInteger(0);
+	
 	private IDataStore dataStore;
 	
 	private Map<Class<?>, ICrudRepository<?>> typeToRepo = new HashMap<>();
@@ -34,6 +62,43 @@ public class RepositoryFactory
 	 */
 	private EntityListenerManager listenerManager = new EntityListenerManager();
 	
+	/**
+	 * Maximum number of lazy (proxy) entities to be loaded in single query, when 
+	 * proxies of a result are loaded together
+	 */
+	private int lazyLoadBatchSize = DEFAULT_LAZY_LOAD_BATCH_SIZE;
+	
+	/**
+	 * Shared caches of entity types, for which shared cache is enabled
+	 */
+	private Map<Class<?>, EntityCache> entityCaches = new ConcurrentHashMap<>();
+	
+	/**
+	 * Snapshots of loaded entities, for entity types for which dirty checking is enabled
+	 */
+	private Map<Class<?>, EntitySnapshots> entitySnapshots = new ConcurrentHashMap<>();
+	
+	/**
+	 * Name of this factory, used to distinguish metrics of multiple factories. Defaults
+	 * to a name unique within current JVM
+	 */
+	private String name = "default-" + FACTORY_COUNTER.incrementAndGet();
+	
+	/**
+	 * Flag indicating if execution metrics of repository methods should be maintained and published over JMX
+	 */
+	private boolean metricsEnabled = true;
+	
+	/**
+	 * Execution metrics of repository methods, keyed by repository type and method
+	 */
+	private Map<String, RepositoryMethodMetrics> methodMetrics = new ConcurrentHashMap<>();
+	
+	/**
+	 * Names of the mbeans registered by this factory, which are unregistered on {@link #close()}
+	 */
+	private Set<ObjectName> registeredMBeans = ConcurrentHashMap.newKeySet();
+	
 	public IDataStore getDataStore()
 	{
 		return dataStore;
@@ -54,6 +119,152 @@ public class RepositoryFactory
 		this.createTables = createTables;
 	}
 	
+	/**
+	 * @return the {@link #lazyLoadBatchSize lazyLoadBatchSize}
+	 */
+	public int getLazyLoadBatchSize()
+	{
+		return lazyLoadBatchSize;
+	}
+
+	/**
+	 * @param lazyLoadBatchSize the {@link #lazyLoadBatchSize lazyLoadBatchSize} to set
+	 */
+	public void setLazyLoadBatchSize(int lazyLoadBatchSize)
+	{
+		if(lazyLoadBatchSize <= 0)
+		{
+			throw new IllegalArgumentException("Invalid lazy load batch size specified: " + lazyLoadBatchSize);
+		}
+		
+		this.lazyLoadBatchSize = lazyLoadBatchSize;
+	}
+	
+	/**
+	 * @return the {@link #name name}
+	 */
+	public String getName()
+	{
+		return name;
+	}
+
+	/**
+	 * @param name the {@link #name name} to set
+	 */
+	public void setName(String name)
+	{
+		this.name = name;
+	}
+
+	/**
+	 * Sets the file, in which table metadata is persisted to speed up next start up. Should be set before repositories are created.
+	 * @param metadataSnapshotFile Path of snapshot file
+	 * @see EntityDetailsFactory#setSnapshotFile(File)
+	 */
+	public void setMetadataSnapshotFile(String metadataSnapshotFile)
+	{
+		entityDetailsFactory.setSnapshotFile(new File(metadataSnapshotFile));
+	}
+	
+	/**
+	 * @return the {@link #metricsEnabled metricsEnabled}
+	 */
+	public boolean isMetricsEnabled()
+	{
+		return metricsEnabled;
+	}
+
+	/**
+	 * Enables/disables metrics of repository methods. Should be set before repositories are created.
+	 * @param metricsEnabled the {@link #metricsEnabled metricsEnabled} to set
+	 */
+	public void setMetricsEnabled(boolean metricsEnabled)
+	{
+		this.metricsEnabled = metricsEnabled;
+	}
+	
+	/**
+	 * Fetches execution metrics of specified repository method, creating and registering it as MXBean, if required
+	 * @param repositoryType Repository type
+	 * @param method Method signature
+	 * @return Metrics of the method, null if metrics are disabled
+	 */
+	public RepositoryMethodMetrics getMethodMetrics(Class<?> repositoryType, String method)
+	{
+		if(!metricsEnabled)
+		{
+			return null;
+		}
+		
+		return methodMetrics.computeIfAbsent(repositoryType.getName() + "." + method, key -> 
+		{
+			RepositoryMethodMetrics metrics = new RepositoryMethodMetrics(repositoryType.getName(), method);
+			registerMBean(metrics);
+			
+			return metrics;
+		});
+	}
+	
+	/**
+	 * Registers specified metrics with platform mbean server
+	 * @param metrics
+	 */
+	private void registerMBean(RepositoryMethodMetrics metrics)
+	{
+		try
+		{
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName objectName = new ObjectName("com.fw.persistence:type=RepositoryMethod,factory=" + ObjectName.quote(name)
+					+ ",repository=" + metrics.getRepositoryType() + ",method=" + ObjectName.quote(metrics.getMethod()));
+			
+			//bean with same name is owned by other factory, which should not be replaced
+			if(server.isRegistered(objectName))
+			{
+				logger.warn("Skipping registration of repository method MBean as a bean already exists with name: " + objectName);
+				return;
+			}
+			
+			server.registerMBean(metrics, objectName);
+			registeredMBeans.add(objectName);
+		}catch(Exception ex)
+		{
+			//metrics are still maintained, even if they can not be published
+			logger.error("An error occurred while registering metrics bean of method: " + metrics.getRepositoryType() + "." + metrics.getMethod(), ex);
+		}
+	}
+	
+	/**
+	 * Fetches execution metrics of all repository methods executed so far
+	 * @return
+	 */
+	public Collection<RepositoryMethodMetrics> getMethodMetrics()
+	{
+		return methodMetrics.values();
+	}
+	
+	/**
+	 * Unregisters the metrics mbeans registered by this factory
+	 */
+	@Override
+	public void close()
+	{
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		
+		for(ObjectName objectName : registeredMBeans)
+		{
+			try
+			{
+				server.unregisterMBean(objectName);
+			}catch(Exception ex)
+			{
+				logger.error("An error occurred while unregistering metrics bean: " + objectName, ex);
+			}
+		}
+		
+		registeredMBeans.clear();
+		methodMetrics.clear();
+	}
+	
 	/**
 	 * Registers specified listener container 
 	 * @param listenerContainer
@@ -63,6 +274,15 @@ public class RepositoryFactory
 		listenerManager.registerListener(listenerContainer);
 	}
 	
+	/**
+	 * Unregisters specified listener container, which was registered earlier
+	 * @param listenerContainer
+	 */
+	public void unregisterListeners(Object listenerContainer)
+	{
+		listenerManager.unregisterListener(listenerContainer);
+	}
+	
 	public EntityListenerManager getEntityListenerManager()
 	{
 		return listenerManager;
@@ -127,6 +347,69 @@ public class RepositoryFactory
 		return entityDetailsFactory.getEntityDetails((Class)entityType, dataStore, createTables);
 	}
 	
+	/**
+	 * Creates shared cache for specified entity, if enabled for the entity and not created already
+	 * @param entityDetails
+	 */
+	private void createEntityCache(EntityDetails entityDetails)
+	{
+		SharedCache sharedCache = entityDetails.getEntityType().getAnnotation(SharedCache.class);
+		
+		if(sharedCache == null || entityCaches.containsKey(entityDetails.getEntityType()))
+		{
+			return;
+		}
+		
+		entityCaches.put(entityDetails.getEntityType(), new EntityCache(entityDetails, sharedCache));
+	}
+	
+	/**
+	 * Creates snapshots store for specified entity, if dirty checking is enabled for the entity and not created already
+	 * @param entityDetails
+	 */
+	private void createEntitySnapshots(EntityDetails entityDetails)
+	{
+		Class<?> entityType = entityDetails.getEntityType();
+		
+		if(entityType.getAnnotation(DirtyCheck.class) == null || entitySnapshots.containsKey(entityType))
+		{
+			return;
+		}
+		
+		entitySnapshots.put(entityType, new EntitySnapshots(entityDetails));
+	}
+	
+	/**
+	 * Fetches snapshots store of specified entity type, which maintains state of loaded entities
+	 * @param entityType
+	 * @return Snapshots of the entity type, null if dirty checking is not enabled for the type
+	 */
+	public EntitySnapshots getEntitySnapshots(Class<?> entityType)
+	{
+		return entitySnapshots.get(entityType);
+	}
+	
+	/**
+	 * Fetches shared cache of specified entity type, which can be used to fetch cache metrics
+	 * @param entityType
+	 * @return Shared cache of the entity type, null if shared cache is not enabled for the type
+	 */
+	public EntityCache getEntityCache(Class<?> entityType)
+	{
+		return entityCaches.get(entityType);
+	}
+	
+	/**
+	 * Invalidates shared caches of all entity types
+	 */
+	public void invalidateEntityCaches()
+	{
+		for(EntityCache cache : entityCaches.values())
+		{
+			cache.invalidate();
+		}
+	}
+	
 	@SuppressWarnings("unchecked")
 	public synchronized <R extends ICrudRepository<?>> R getRepository(Class<R> repositoryType)
 	{
@@ -138,9 +421,11 @@ public class RepositoryFactory
 		}
 		
 		EntityDetails entityDetails = fetchEntityDetails(repositoryType);
-		RepositoryProxy proxyImpl = new RepositoryProxy(dataStore, repositoryType, entityDetails, getExecutorFactory());
+		createEntityCache(entityDetails);
+		createEntitySnapshots(entityDetails);
+		RepositoryProxy proxyImpl = new RepositoryProxy(dataStore, repositoryType, entityDetails, getExecutorFactory(), this);
 		
-		repo = (R)Proxy.newProxyInstance(RepositoryFactory.class.getClassLoader(), new Class<?>[] {repositoryType, IInternalRepository.class}, proxyImpl);
+		repo = (R)proxyImpl.newRepository();
 		typeToRepo.put(repositoryType, repo);
 		entityTypeToRepo.put(entityDetails.getEntityType(), repo);
 		
@@ -158,10 +443,11 @@ public class RepositoryFactory
 		}
 
 		EntityDetails entityDetails = entityDetailsFactory.getEntityDetails((Class)entityType, dataStore, createTables);
-		RepositoryProxy proxyImpl = new RepositoryProxy(dataStore, (Class)ICrudRepository.class, entityDetails, getExecutorFactory());
+		createEntityCache(entityDetails);
+		createEntitySnapshots(entityDetails);
+		RepositoryProxy proxyImpl = new RepositoryProxy(dataStore, (Class)ICrudRepository.class, entityDetails, getExecutorFactory(), this);
 		
-		repo = (ICrudRepository)Proxy.newProxyInstance(RepositoryFactory.class.getClassLoader(), 
-							new Class<?>[] {ICrudRepository.class, IInternalRepository.class}, proxyImpl);
+		repo = (ICrudRepository)proxyImpl.newRepository();
 		entityTypeToRepo.put(entityType, repo);
 		
 		return repo;
@@ -196,6 +482,8 @@ public class RepositoryFactory
 	
 		//remove from local entity type cache
 		this.entityTypeToRepo.remove(entityType);
+		this.entityCaches.remove(entityType);
+		this.entitySnapshots.remove(entityType);
 		
 		//remove from local repository type cache
 		Class<?> actualRepoType = repository.getRepositoryType();
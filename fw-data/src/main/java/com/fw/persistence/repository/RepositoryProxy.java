@@ -1,9 +1,10 @@
 package com.fw.persistence.repository;
 
-import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 
@@ -11,92 +12,506 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import com.fw.persistence.EntityDetails;
+import com.fw.persistence.FieldDetails;
 import com.fw.persistence.ForeignConstraintDetails;
 import com.fw.persistence.ICrudRepository;
 import com.fw.persistence.IDataStore;
+import com.fw.persistence.IInternalRepository;
+import com.fw.persistence.ITransaction;
 import com.fw.persistence.JoinTableDetails;
+import com.fw.persistence.Operator;
 import com.fw.persistence.TransactionException;
+import com.fw.persistence.annotations.DataType;
+import com.fw.persistence.cache.EntityCache;
+import com.fw.persistence.monitor.ExecutionStats;
+import com.fw.persistence.monitor.RepositoryMethodMetrics;
+import com.fw.persistence.query.ColumnParam;
 import com.fw.persistence.query.DropTableQuery;
+import com.fw.persistence.query.FinderQuery;
+import com.fw.persistence.query.QueryCondition;
+import com.fw.persistence.query.QueryResultField;
+import com.fw.persistence.query.UpdateQuery;
+import com.fw.persistence.repository.annotations.NoIdentityMap;
+import com.fw.persistence.repository.executors.DeleteQueryExecutor;
+import com.fw.persistence.repository.executors.FinderQueryExecutor;
 import com.fw.persistence.repository.executors.QueryExecutor;
+import com.fw.persistence.repository.executors.SaveOrUpdateQueryExecutor;
+import com.fw.persistence.repository.executors.SaveQueryExecutor;
+import com.fw.persistence.repository.executors.UpdateQueryExecutor;
+import com.fw.utils.ConvertUtils;
 
-class RepositoryProxy implements InvocationHandler
+import net.sf.cglib.proxy.Callback;
+import net.sf.cglib.proxy.CallbackFilter;
+import net.sf.cglib.proxy.Enhancer;
+import net.sf.cglib.proxy.MethodInterceptor;
+import net.sf.cglib.proxy.MethodProxy;
+import net.sf.cglib.proxy.NoOp;
+
+/**
+ * Builds repository implementation for a repository interface. Implementation class is generated (and cached by cglib), 
+ * with each repository method bound to its own callback, which invokes corresponding query executor directly. This 
+ * avoids method lookups on every call and supports overloaded repository methods.
+ * @author akiran
+ */
+class RepositoryProxy
 {
 	private static Logger logger = LogManager.getLogger(RepositoryProxy.class);
 	
+	private static final String FIND_BY_ID = "findById";
+	
+	/**
+	 * Callback index used for methods which are not repository methods (like Object methods)
+	 */
+	private static final int NO_OP_INDEX = 0;
+	
+	/**
+	 * Maps repository methods to index of callback handling the method. Filters with same mapping are equal, 
+	 * so that generated class can be reused by cglib for same repository type.
+	 * @author akiran
+	 */
+	private static class MethodCallbackFilter implements CallbackFilter
+	{
+		/**
+		 * Method signature to callback index mapping
+		 */
+		private Map<String, Integer> signatureToIndex;
+		
+		public MethodCallbackFilter(Map<String, Integer> signatureToIndex)
+		{
+			this.signatureToIndex = signatureToIndex;
+		}
+		
+		/* (non-Javadoc)
+		 * @see net.sf.cglib.proxy.CallbackFilter#accept(java.lang.reflect.Method)
+		 */
+		@Override
+		public int accept(Method method)
+		{
+			Integer index = signatureToIndex.get(toSignature(method));
+			return (index != null) ? index : NO_OP_INDEX;
+		}
+		
+		/* (non-Javadoc)
+		 * @see java.lang.Object#equals(java.lang.Object)
+		 */
+		@Override
+		public boolean equals(Object obj)
+		{
+			if(obj == this)
+			{
+				return true;
+			}
+
+			if(!(obj instanceof MethodCallbackFilter))
+			{
+				return false;
+			}
+
+			return signatureToIndex.equals(((MethodCallbackFilter)obj).signatureToIndex);
+		}
+		
+		/* (non-Javadoc)
+		 * @see java.lang.Object#hashCode()
+		 */
+		@Override
+		public int hashCode()
+		{
+			return signatureToIndex.hashCode();
+		}
+	}
+	
+	/**
+	 * Callback for methods which are implemented by this class itself
+	 * @author akiran
+	 */
+	private static class DefaultMethodCallback implements MethodInterceptor
+	{
+		private Function<Object[], Object> method;
+		
+		public DefaultMethodCallback(Function<Object[], Object> method)
+		{
+			this.method = method;
+		}
+
+		/* (non-Javadoc)
+		 * @see net.sf.cglib.proxy.MethodInterceptor#intercept(java.lang.Object, java.lang.reflect.Method, java.lang.Object[], net.sf.cglib.proxy.MethodProxy)
+		 */
+		@Override
+		public Object intercept(Object obj, Method method, Object[] args, MethodProxy proxy)
+		{
+			return this.method.apply(args);
+		}
+	}
+	
+	/**
+	 * Callback for repository method, which invokes the query executor of the method
+	 * @author akiran
+	 */
+	private class ExecutorMethodCallback implements MethodInterceptor
+	{
+		/**
+		 * Name of the method, used in logs and as shared cache key
+		 */
+		private String methodName;
+		
+		/**
+		 * Executor of the method
+		 */
+		private QueryExecutor queryExecutor;
+		
+		/**
+		 * Flag indicating if this is find-by-id method, whose results can be maintained in identity map 
+		 */
+		private boolean findById;
+		
+		/**
+		 * Flag indicating if results of this method can be maintained in shared cache
+		 */
+		private boolean finder;
+		
+		/**
+		 * Execution metrics of this method, null if metrics are disabled
+		 */
+		private RepositoryMethodMetrics metrics;
+		
+		public ExecutorMethodCallback(String methodName, QueryExecutor queryExecutor, boolean findById, RepositoryMethodMetrics metrics)
+		{
+			this.methodName = methodName;
+			this.queryExecutor = queryExecutor;
+			this.findById = findById;
+			this.finder = (queryExecutor instanceof FinderQueryExecutor);
+			this.metrics = metrics;
+		}
+
+		/* (non-Javadoc)
+		 * @see net.sf.cglib.proxy.MethodInterceptor#intercept(java.lang.Object, java.lang.reflect.Method, java.lang.Object[], net.sf.cglib.proxy.MethodProxy)
+		 */
+		@Override
+		public Object intercept(Object obj, Method method, Object[] args, MethodProxy proxy)
+		{
+			if(logger.isDebugEnabled())
+			{
+				logger.debug("Executing method '" + methodName + "' with arguments: " + Arrays.toString(args));
+			}
+			
+			if(metrics == null)
+			{
+				return execute(args);
+			}
+			
+			//stats of nested repository calls are included in this method stats also
+			ExecutionStats stats = ExecutionStats.current();
+			long rowsRead = stats.getRowsRead();
+			long rowsWritten = stats.getRowsWritten();
+			long queryBuildTime = stats.getQueryBuildTime();
+			long startTime = System.nanoTime();
+			boolean error = true;
+			
+			try
+			{
+				Object result = execute(args);
+				error = false;
+				
+				return result;
+			}finally
+			{
+				metrics.record(System.nanoTime() - startTime, error, stats.getRowsRead() - rowsRead, 
+						stats.getRowsWritten() - rowsWritten, stats.getQueryBuildTime() - queryBuildTime);
+			}
+		}
+		
+		/**
+		 * Executes the method using query executor
+		 * @param args
+		 * @return
+		 */
+		private Object execute(Object args[])
+		{
+			try
+			{
+				ITransaction transaction = dataStore.getTransactionManager().existingTransaction();
+				
+				//if transaction is in progress, use identity map for find-by-id calls
+				if(findById && identityMapEnabled && transaction != null && args[0] != null)
+				{
+					return findById(transaction, queryExecutor, args);
+				}
+				
+				//shared cache is used only outside transactions, so that uncommitted data will not get cached
+				if(finder && entityCache != null && transaction == null && entityCache.isCacheableArguments(args))
+				{
+					return findWithSharedCache(methodName, queryExecutor, args);
+				}
+				
+				Object result = queryExecutor.execute(dataStore, dataStore.getConversionService(), args);
+				
+				if(identityMapEnabled && transaction != null)
+				{
+					invalidateIdentityMap(transaction, queryExecutor);
+				}
+				
+				invalidateSharedCache(transaction, queryExecutor);
+				return result;
+			}catch(RuntimeException ex)
+			{
+				logger.error("An error occurred while executing method: " + methodName, ex);
+				throw ex;
+			}
+		}
+	}
+	
 	private IDataStore dataStore;
-	private Map<String, QueryExecutor> methodToExecutor = new HashMap<>();
 	private EntityDetails entityDetails;
 
 	private Map<String, Function<Object[], Object>> defaultedMethods = new HashMap<>();
 	private Class<? extends ICrudRepository<?>> repositoryType;
 	
-	public RepositoryProxy(IDataStore dataStore, Class<? extends ICrudRepository<?>> repositoryType, EntityDetails entityDetails, ExecutorFactory executorFactory)
+	/**
+	 * Indicates whether entities fetched by id should be maintained in transaction identity map
+	 */
+	private boolean identityMapEnabled;
+	
+	/**
+	 * Factory which created this repository
+	 */
+	private RepositoryFactory repositoryFactory;
+	
+	/**
+	 * Shared cache of the entity, null if shared cache is not enabled for the entity
+	 */
+	private EntityCache entityCache;
+	
+	/**
+	 * Callbacks of the repository methods, indexed as per {@link #callbackFilter}
+	 */
+	private List<Callback> callbacks = new ArrayList<>();
+	
+	/**
+	 * Filter to map repository methods to callbacks
+	 */
+	private MethodCallbackFilter callbackFilter;
+	
+	public RepositoryProxy(IDataStore dataStore, Class<? extends ICrudRepository<?>> repositoryType, EntityDetails entityDetails, 
+			ExecutorFactory executorFactory, RepositoryFactory repositoryFactory)
 	{
 		defaultedMethods.put("getEntityDetails", this::getEntityDetails);
 		defaultedMethods.put("newTransaction", this::newTransaction);
 		defaultedMethods.put("currentTransaction", this::currentTransaction);
 		defaultedMethods.put("dropEntityTable", this::dropEntityTable);
 		defaultedMethods.put("getRepositoryType", this::getRepositoryType);
+		defaultedMethods.put("readBlob", args -> dataStore.readBlob(buildLobQuery(args, DataType.BLOB), entityDetails));
+		defaultedMethods.put("readClob", args -> dataStore.readClob(buildLobQuery(args, DataType.CLOB), entityDetails));
+		defaultedMethods.put("writeBlob", args -> writeLob(args, DataType.BLOB));
+		defaultedMethods.put("writeClob", args -> writeLob(args, DataType.CLOB));
 
 		this.dataStore = dataStore;
 		this.entityDetails = entityDetails;
 		this.repositoryType = repositoryType;
+		this.identityMapEnabled = (repositoryType.getAnnotation(NoIdentityMap.class) == null);
+		this.repositoryFactory = repositoryFactory;
+		this.entityCache = repositoryFactory.getEntityCache(entityDetails.getEntityType());
+		
+		Map<String, Integer> signatureToIndex = new HashMap<>();
+		callbacks.add(NoOp.INSTANCE);
+		
+		for(Method method : IInternalRepository.class.getMethods())
+		{
+			signatureToIndex.put(toSignature(method), callbacks.size());
+			callbacks.add(new DefaultMethodCallback(defaultedMethods.get(method.getName())));
+		}
 		
 		Method methods[] = repositoryType.getMethods();
+		Map<String, Integer> nameCounts = new HashMap<>();
+		
+		for(Method method : methods)
+		{
+			nameCounts.merge(method.getName(), 1, Integer::sum);
+		}
+		
 		String methodName = null;
+		String signature = null;
 		QueryExecutor queryExecutor = null;
 		
 		for(Method method: methods)
 		{
 			methodName = method.getName();
+			signature = toSignature(method);
 			
-			if(defaultedMethods.containsKey(methodName))
+			//same method can be inherited from multiple interfaces
+			if(signatureToIndex.containsKey(signature))
 			{
 				continue;
 			}
 			
-			if(methodToExecutor.containsKey(method.getName()))
+			if(defaultedMethods.containsKey(methodName))
 			{
-				throw new InvalidRepositoryException("Duplicate method '" + method.getName() + "' encouneted in repository: " + repositoryType.getName());
+				signatureToIndex.put(signature, callbacks.size());
+				callbacks.add(new DefaultMethodCallback(defaultedMethods.get(methodName)));
+				continue;
 			}
-
+			
 			queryExecutor = executorFactory.getQueryExecutor(repositoryType, method, entityDetails);
 			
-			if(queryExecutor != null)
+			if(queryExecutor == null)
 			{
-				methodToExecutor.put(methodName, queryExecutor);
-				continue;
+				throw new InvalidRepositoryException("Invalid CRUD method '" + methodName + "' is specified for entity - " + entityDetails.getEntityType().getName());
 			}
 			
-			
-			throw new InvalidRepositoryException("Invalid CRUD method '" + methodName + "' is specified for entity - " + entityDetails.getEntityType().getName());
+			signatureToIndex.put(signature, callbacks.size());
+			callbacks.add(new ExecutorMethodCallback( (nameCounts.get(methodName) > 1) ? signature : methodName, 
+					queryExecutor, FIND_BY_ID.equals(methodName) && method.getParameterTypes().length == 1, 
+					repositoryFactory.getMethodMetrics(repositoryType, signature)) );
 		}
 		
+		this.callbackFilter = new MethodCallbackFilter(signatureToIndex);
 	}
 	
-	@Override
-	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+	/**
+	 * Converts specified method into signature string, consisting of method name and parameter types
+	 * @param method
+	 * @return
+	 */
+	private static String toSignature(Method method)
 	{
-		String methodName = method.getName();
-				
-		if(defaultedMethods.containsKey(methodName))
+		StringBuilder builder = new StringBuilder(method.getName()).append("(");
+		Class<?> paramTypes[] = method.getParameterTypes();
+		
+		for(int i = 0; i < paramTypes.length; i++)
 		{
-			logger.debug("Executing default-method '" + method.getName() + "' with arguments: " + Arrays.toString(args));
+			if(i > 0)
+			{
+				builder.append(",");
+			}
 			
-			return defaultedMethods.get(methodName).apply(args);
+			builder.append(paramTypes[i].getName());
 		}
 		
-		logger.debug("Executing method '" + method.getName() + "' with arguments: " + Arrays.toString(args));
+		return builder.append(")").toString();
+	}
+	
+	/**
+	 * Creates repository instance, which implements repository type and {@link IInternalRepository}
+	 * @return
+	 */
+	public Object newRepository()
+	{
+		Enhancer enhancer = new Enhancer();
+		enhancer.setClassLoader(repositoryType.getClassLoader());
+		enhancer.setInterfaces(new Class<?>[] {repositoryType, IInternalRepository.class});
+		enhancer.setCallbackFilter(callbackFilter);
+		enhancer.setCallbacks(callbacks.toArray(new Callback[0]));
 		
-		try
+		return enhancer.create();
+	}
+
+	/**
+	 * Fetches the entity with specified id from identity map of specified transaction. If not found in identity map, 
+	 * the entity will be fetched using specified executor and will be added to identity map.
+	 * @param transaction Current transaction
+	 * @param queryExecutor Find-by-id executor
+	 * @param args Arguments with id
+	 * @return Matching entity
+	 */
+	private Object findById(ITransaction transaction, QueryExecutor queryExecutor, Object args[])
+	{
+		Class<?> entityType = entityDetails.getEntityType();
+		Object id = ConvertUtils.convert(args[0], entityDetails.getIdField().getField().getType());
+		Object entity = transaction.getIdentityMap().get(entityType, id);
+		
+		if(entity != null)
+		{
+			logger.trace("Found entity of type {} with id {} in identity map", entityType.getName(), id);
+			return entity;
+		}
+		
+		entity = queryExecutor.execute(dataStore, dataStore.getConversionService(), args);
+		
+		if(entity != null)
+		{
+			transaction.getIdentityMap().put(entityType, id, entity);
+		}
+		
+		return entity;
+	}
+	
+	/**
+	 * Removes the entities from identity map which might be modified by specified executor
+	 * @param transaction Current transaction
+	 * @param queryExecutor Executor which was executed
+	 */
+	private void invalidateIdentityMap(ITransaction transaction, QueryExecutor queryExecutor)
+	{
+		if(queryExecutor instanceof UpdateQueryExecutor || queryExecutor instanceof SaveOrUpdateQueryExecutor)
+		{
+			transaction.getIdentityMap().clear(entityDetails.getEntityType());
+		}
+		//as deletes may cascade to other entity types, remove all entities
+		else if(queryExecutor instanceof DeleteQueryExecutor)
+		{
+			transaction.getIdentityMap().clear();
+		}
+	}
+
+	/**
+	 * Fetches the result of specified finder from shared cache. If not found, result will be fetched using
+	 * specified executor and will be cached.
+	 * @param methodName Finder method name
+	 * @param queryExecutor Finder executor
+	 * @param args Finder arguments
+	 * @return Finder result
+	 */
+	private Object findWithSharedCache(String methodName, QueryExecutor queryExecutor, Object args[])
+	{
+		Object result = entityCache.getResult(methodName, args);
+		
+		if(result != null)
 		{
-			QueryExecutor queryExecutor = methodToExecutor.get(method.getName());
-			return queryExecutor.execute(dataStore, dataStore.getConversionService(), args);
-		}catch(RuntimeException ex)
+			return result;
+		}
+		
+		long version = entityCache.getVersion();
+		result = queryExecutor.execute(dataStore, dataStore.getConversionService(), args);
+		
+		entityCache.putResult(methodName, args, result, version);
+		return result;
+	}
+	
+	/**
+	 * Invalidates the shared cache(s) which might be affected by specified executor. When a transaction is in progress,
+	 * invalidation is done on commit, so that results read by other threads before commit do not remain in the cache.
+	 * @param transaction Current transaction, null if no transaction is in progress
+	 * @param queryExecutor Executor which was executed
+	 */
+	private void invalidateSharedCache(ITransaction transaction, QueryExecutor queryExecutor)
+	{
+		Object cacheKey = null;
+		Runnable invalidation = null;
+		
+		//as deletes may cascade to other entity types, invalidate all caches
+		if(queryExecutor instanceof DeleteQueryExecutor)
+		{
+			cacheKey = repositoryFactory;
+			invalidation = repositoryFactory::invalidateEntityCaches;
+		}
+		else if(entityCache != null && (queryExecutor instanceof SaveQueryExecutor || queryExecutor instanceof UpdateQueryExecutor 
+				|| queryExecutor instanceof SaveOrUpdateQueryExecutor))
+		{
+			cacheKey = entityCache;
+			invalidation = entityCache::invalidate;
+		}
+		
+		if(invalidation == null)
+		{
+			return;
+		}
+		
+		if(transaction != null)
 		{
-			logger.error("An error occurred while executing method: " + method.getName(), ex);
-			throw ex;
+			transaction.onCommit(cacheKey, invalidation);
+			return;
 		}
+		
+		invalidation.run();
 	}
 
 	private Object getEntityDetails(Object args[])
@@ -157,6 +572,79 @@ class RepositoryProxy implements InvocationHandler
 		return null;
 	}
 	
+	/**
+	 * Fetches details of specified LOB field
+	 * @param field Name of the field
+	 * @param lobType Expected LOB type of the field
+	 * @return Matching field details
+	 */
+	private FieldDetails getLobField(String field, DataType lobType)
+	{
+		FieldDetails fieldDetails = entityDetails.getFieldDetailsByField(field);
+		
+		if(fieldDetails == null || !fieldDetails.isTableOwned())
+		{
+			throw new IllegalArgumentException("Invalid field '" + field + "' specified for entity - " + entityDetails.getEntityType().getName());
+		}
+		
+		if(fieldDetails.getDbDataType() != lobType)
+		{
+			throw new IllegalArgumentException("Field '" + field + "' of entity " + entityDetails.getEntityType().getName() + " is not mapped to " + lobType);
+		}
+		
+		return fieldDetails;
+	}
+	
+	/**
+	 * Builds query to fetch LOB field value, using id and field name from specified arguments
+	 * @param args Id and field name
+	 * @param lobType Expected LOB type of the field
+	 * @return Query selecting field value
+	 */
+	private FinderQuery buildLobQuery(Object args[], DataType lobType)
+	{
+		FieldDetails fieldDetails = getLobField((String)args[1], lobType);
+		FieldDetails idField = entityDetails.getIdField();
+		
+		FinderQuery findQuery = new FinderQuery(entityDetails);
+		findQuery.addResultField(new QueryResultField(null, fieldDetails.getColumn(), null));
+		findQuery.addCondition(new QueryCondition(null, idField.getColumn(), Operator.EQ, ConvertUtils.convert(args[0], idField.getField().getType())));
+		
+		return findQuery;
+	}
+	
+	/**
+	 * Writes the stream content, from specified arguments, as LOB field value
+	 * @param args Id, field name and content stream
+	 * @param lobType Expected LOB type of the field
+	 * @return true if entity is updated
+	 */
+	private Object writeLob(Object args[], DataType lobType)
+	{
+		FieldDetails fieldDetails = getLobField((String)args[1], lobType);
+		FieldDetails idField = entityDetails.getIdField();
+		
+		UpdateQuery query = new UpdateQuery(entityDetails);
+		query.addColumn(new ColumnParam(fieldDetails.getColumn(), args[2], -1));
+		query.addCondition(new QueryCondition(null, idField.getColumn(), Operator.EQ, ConvertUtils.convert(args[0], idField.getField().getType())));
+		
+		int res = dataStore.update(query, entityDetails);
+		ITransaction transaction = dataStore.getTransactionManager().existingTransaction();
+		
+		//entities loaded earlier may hold old field value
+		if(identityMapEnabled && transaction != null)
+		{
+			transaction.getIdentityMap().clear(entityDetails.getEntityType());
+		}
+		
+		if(entityCache != null)
+		{
+			entityCache.invalidate();
+		}
+		
+		return (res > 0);
+	}
+	
 	/**
 	 * Gets actual repository type of this instance
 	 * @param args
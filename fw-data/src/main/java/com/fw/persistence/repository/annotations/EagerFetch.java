@@ -0,0 +1,19 @@
+package com.fw.persistence.repository.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Specifies relation fields to be fetched eagerly by an entity finder method. Parent entities of specified fields are
+ * fetched along with the entities using outer join (in the same query), instead of lazy proxies. Only relation fields
+ * whose foreign key column is owned by entity table (many-to-one or owning one-to-one) are supported.
+ * @author akiran
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD})
+public @interface EagerFetch
+{
+	public String[] value();
+}
@@ -0,0 +1,17 @@
+package com.fw.persistence.repository.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the repository whose findById() calls should always read from data store, instead of
+ * using entities already loaded in current transaction identity map
+ * @author akiran
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE})
+public @interface NoIdentityMap
+{
+}
@@ -0,0 +1,18 @@
+package com.fw.persistence.repository.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Specifies ordering of finder method results. Each value should be an entity field expression optionally followed
+ * by ASC or DESC, like "name" or "parent.name DESC".
+ * @author akiran
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD})
+public @interface OrderBy
+{
+	public String[] value();
+}
@@ -1,7 +1,15 @@
 package com.fw.persistence.repository.executors;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -12,17 +20,114 @@ import com.fw.persistence.FieldDetails;
 import com.fw.persistence.ForeignConstraintDetails;
 import com.fw.persistence.ForeignConstraintViolationException;
 import com.fw.persistence.IDataStore;
+import com.fw.persistence.JoinTableDetails;
 import com.fw.persistence.Operator;
+import com.fw.persistence.Record;
 import com.fw.persistence.UniqueConstraintDetails;
 import com.fw.persistence.UniqueConstraintViolationException;
 import com.fw.persistence.conversion.ConversionService;
+import com.fw.persistence.query.ColumnParam;
 import com.fw.persistence.query.QueryCondition;
 import com.fw.persistence.query.CountQuery;
+import com.fw.persistence.query.FinderQuery;
+import com.fw.persistence.query.MultiCountQuery;
+import com.fw.persistence.query.QueryResultField;
+import com.fw.persistence.query.SaveQuery;
 
 public abstract class AbstractPersistQueryExecutor extends QueryExecutor
 {
 	private static Logger logger = LogManager.getLogger(AbstractPersistQueryExecutor.class);
 	
+	/**
+	 * Maximum number of count queries to be combined into single multi count query
+	 */
+	private static final int MAX_CHECKS_PER_QUERY = 100;
+	
+	/**
+	 * Maximum number of query parameters to be used by single multi count query
+	 */
+	private static final int MAX_PARAMS_PER_QUERY = 5000;
+	
+	/**
+	 * Existence check of a constraint, which is executed as part of multi count query
+	 * @author akiran
+	 */
+	private static class ConstraintCheck
+	{
+		/**
+		 * Query to fetch count of matching records
+		 */
+		private CountQuery countQuery;
+		
+		/**
+		 * Unique constraint being checked, null in case of foreign constraint check
+		 */
+		private UniqueConstraintDetails uniqueConstraint;
+		
+		/**
+		 * Field values being checked for unique constraint. Null if values of multiple entities are checked together.
+		 */
+		private Map<String, Object> fieldValues;
+		
+		/**
+		 * Foreign constraint being checked, null in case of unique constraint check
+		 */
+		private ForeignConstraintDetails foreignConstraint;
+		
+		/**
+		 * Number of parent records expected to exist, for foreign constraint check
+		 */
+		private int expectedCount;
+		
+		/**
+		 * Number of query parameters used by {@link #countQuery}
+		 */
+		private int paramCount;
+		
+		public ConstraintCheck(CountQuery countQuery, UniqueConstraintDetails uniqueConstraint, Map<String, Object> fieldValues)
+		{
+			this.countQuery = countQuery;
+			this.uniqueConstraint = uniqueConstraint;
+			this.fieldValues = fieldValues;
+			this.paramCount = getParamCount(countQuery);
+		}
+		
+		public ConstraintCheck(CountQuery countQuery, ForeignConstraintDetails foreignConstraint, int expectedCount)
+		{
+			this.countQuery = countQuery;
+			this.foreignConstraint = foreignConstraint;
+			this.expectedCount = expectedCount;
+			this.paramCount = getParamCount(countQuery);
+		}
+		
+		private static int getParamCount(CountQuery countQuery)
+		{
+			int count = 0;
+			
+			for(QueryCondition condition : countQuery.getConditions())
+			{
+				count += condition.isMultiValued() ? condition.getValues().size() : 1;
+			}
+			
+			return count;
+		}
+		
+		/**
+		 * Checks if the constraint is violated based on specified count fetched using {@link #countQuery}
+		 * @param count
+		 * @return
+		 */
+		public boolean isViolated(long count)
+		{
+			if(uniqueConstraint != null)
+			{
+				return (count > 0);
+			}
+			
+			return (count < expectedCount);
+		}
+	}
+	
 	private String formatMessage(String messageTemplate, Map<String, Object> context)
 	{
 		if(messageTemplate == null || messageTemplate.trim().length() == 0)
@@ -33,102 +138,568 @@ public abstract class AbstractPersistQueryExecutor extends QueryExecutor
 		return StringUtil.getPatternString(messageTemplate, context);
 	}
 	
-	protected void checkForUniqueConstraints(IDataStore dataStore, ConversionService conversionService, Object entity, boolean excludeId)
+	/**
+	 * Fetches db values of unique constraint fields from specified entity
+	 * @param uniqueConstraint Constraint whose field values needs to be fetched
+	 * @param entity Entity from which values needs to be fetched
+	 * @param conversionService Conversion service to convert values to db type
+	 * @return Field name to value map
+	 */
+	private Map<String, Object> getUniqueFieldValues(UniqueConstraintDetails uniqueConstraint, Object entity, ConversionService conversionService)
 	{
-		logger.trace("Started method: checkForUniqueConstraints");
-		
-		CountQuery existenceQuery = new CountQuery(entityDetails);
+		Map<String, Object> fieldValues = new HashMap<>();
 		FieldDetails fieldDetails = null;
 		Object value = null;
-		String message = null;
-		Map<String, Object> fieldValues = new HashMap<>();
 		
-		//validate unique constraint violation is not happening
+		for(String field: uniqueConstraint.getFields())
+		{
+			fieldDetails = entityDetails.getFieldDetailsByField(field);
+			
+			value = fieldDetails.getValue(entity);
+			value = conversionService.convertToDBType(value, fieldDetails);
+			
+			fieldValues.put(field, value);
+		}
+		
+		return fieldValues;
+	}
+	
+	private UniqueConstraintViolationException newUniqueConstraintViolation(UniqueConstraintDetails uniqueConstraint, Map<String, Object> fieldValues)
+	{
+		String message = formatMessage(uniqueConstraint.getMessage(), fieldValues);
+		message = (message != null) ? message : "Unique constraint violated: " + uniqueConstraint.getName();
+		
+		return new UniqueConstraintViolationException(uniqueConstraint.getName(), message);
+	}
+	
+	/**
+	 * Creates check for specified unique constraint against specified entity
+	 */
+	private ConstraintCheck newUniqueCheck(ConversionService conversionService, UniqueConstraintDetails uniqueConstraint, Object entity, boolean excludeId)
+	{
+		CountQuery existenceQuery = new CountQuery(entityDetails);
+		Map<String, Object> fieldValues = getUniqueFieldValues(uniqueConstraint, entity, conversionService);
+		
+		for(String field: uniqueConstraint.getFields())
+		{
+			existenceQuery.addCondition(new QueryCondition(null, entityDetails.getFieldDetailsByField(field).getColumn(), Operator.EQ, fieldValues.get(field)));
+		}
+		
+		if(excludeId)
+		{
+			existenceQuery.addCondition(new QueryCondition(null, entityDetails.getIdField().getColumn(), Operator.NE, entityDetails.getIdField().getValue(entity)));
+		}
+		
+		return new ConstraintCheck(existenceQuery, uniqueConstraint, fieldValues);
+	}
+	
+	/**
+	 * Creates check for specified foreign constraint, which ensures all specified parent keys exist
+	 */
+	private ConstraintCheck newForeignCheck(ForeignConstraintDetails foreignConstraint, List<Object> values)
+	{
+		EntityDetails foreignEntityDetails = foreignConstraint.getTargetEntityDetails();
+		String idColumn = foreignEntityDetails.getIdField().getColumn();
+		
+		//create existence query that needs to be executed against parent table
+		CountQuery existenceQuery = new CountQuery(foreignEntityDetails);
+		
+		if(values.size() == 1)
+		{
+			existenceQuery.addCondition(new QueryCondition(null, idColumn, Operator.EQ, values.get(0)));
+		}
+		else
+		{
+			existenceQuery.addCondition(new QueryCondition(null, idColumn, Operator.IN, values));
+		}
+		
+		return new ConstraintCheck(existenceQuery, foreignConstraint, values.size());
+	}
+	
+	/**
+	 * Splits specified checks into chunks, each of which can be executed as single multi count query without
+	 * exceeding {@link #MAX_CHECKS_PER_QUERY} checks or {@link #MAX_PARAMS_PER_QUERY} parameters
+	 * @param checks
+	 * @return
+	 */
+	private List<List<ConstraintCheck>> partitionChecks(List<ConstraintCheck> checks)
+	{
+		List<List<ConstraintCheck>> result = new ArrayList<>();
+		List<ConstraintCheck> current = null;
+		int paramCount = 0;
+		
+		for(ConstraintCheck check : checks)
+		{
+			if(current == null || current.size() >= MAX_CHECKS_PER_QUERY || (paramCount + check.paramCount) > MAX_PARAMS_PER_QUERY)
+			{
+				current = new ArrayList<>();
+				result.add(current);
+				paramCount = 0;
+			}
+			
+			current.add(check);
+			paramCount += check.paramCount;
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Executes specified checks using multi count queries and returns first violated check
+	 * @param dataStore Data store to use
+	 * @param checks Checks to execute
+	 * @return First violated check, null if none of the checks are violated
+	 */
+	private ConstraintCheck findViolation(IDataStore dataStore, List<ConstraintCheck> checks)
+	{
+		MultiCountQuery multiCountQuery = null;
+		long counts[] = null;
+		
+		for(List<ConstraintCheck> checksChunk : partitionChecks(checks))
+		{
+			multiCountQuery = new MultiCountQuery(entityDetails);
+			
+			for(ConstraintCheck check : checksChunk)
+			{
+				multiCountQuery.addCountQuery(check.countQuery);
+			}
+			
+			counts = dataStore.getCounts(multiCountQuery);
+			
+			for(int i = 0; i < counts.length; i++)
+			{
+				if(checksChunk.get(i).isViolated(counts[i]))
+				{
+					return checksChunk.get(i);
+				}
+			}
+		}
+		
+		return null;
+	}
+	
+	private RuntimeException newViolation(ConstraintCheck check)
+	{
+		if(check.uniqueConstraint != null)
+		{
+			return newUniqueConstraintViolation(check.uniqueConstraint, check.fieldValues);
+		}
+		
+		return newForeignConstraintViolation(check.foreignConstraint);
+	}
+	
+	/**
+	 * Builds save query of join table entry, which relates specified owner and target entity ids
+	 * @param joinTableDetails Join table details
+	 * @param joinEntityDetails Entity details representing join table
+	 * @param ownerId Owner entity id, converted to join column type
+	 * @param targetId Target entity id, converted to inverse join column type
+	 * @return Save query of join table entry
+	 */
+	protected SaveQuery newJoinTableEntryQuery(JoinTableDetails joinTableDetails, EntityDetails joinEntityDetails, Object ownerId, Object targetId)
+	{
+		SaveQuery query = new SaveQuery(joinEntityDetails);
+		query.addColumn(new ColumnParam(joinTableDetails.getJoinColumn(), ownerId, -1));
+		query.addColumn(new ColumnParam(joinTableDetails.getInverseJoinColumn(), targetId, -1));
+		
+		return query;
+	}
+	
+	/**
+	 * Indicates if unique constraints should be checked explicitly by this executor
+	 * @param dataStore Data store in use
+	 * @return true if unique constraints should be checked
+	 */
+	protected boolean isUniqueCheckRequired(IDataStore dataStore)
+	{
+		return dataStore.isExplicitUniqueCheckRequired();
+	}
+	
+	/**
+	 * Checks unique constraints are not violated and parent entities exist for specified entity, as per explicit 
+	 * checks required by data store. All the checks are executed together in single round trip.
+	 * 
+	 * @param dataStore Data store to use
+	 * @param conversionService Conversion service to convert values
+	 * @param entity Entity to be checked
+	 * @param excludeId If true, entity with same id (being updated) is excluded during unique check
+	 */
+	protected void checkForConstraints(IDataStore dataStore, ConversionService conversionService, Object entity, boolean excludeId)
+	{
+		checkForConstraints(dataStore, conversionService, entity, excludeId, null);
+	}
+	
+	/**
+	 * Checks if specified constraint fields are touched by modification
+	 * @param fields Fields of the constraint
+	 * @param modifiedFields Modified fields, null if all fields are considered as modified
+	 * @return
+	 */
+	private boolean isTouched(Collection<String> fields, Set<String> modifiedFields)
+	{
+		if(modifiedFields == null)
+		{
+			return true;
+		}
+		
+		for(String field : fields)
+		{
+			if(modifiedFields.contains(field))
+			{
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Same as {@link #checkForConstraints(IDataStore, ConversionService, Object, boolean)}, but checks only the
+	 * constraints involving specified modified fields.
+	 * 
+	 * @param dataStore Data store to use
+	 * @param conversionService Conversion service to convert values
+	 * @param entity Entity to be checked
+	 * @param excludeId If true, entity with same id (being updated) is excluded during unique check
+	 * @param modifiedFields Names of modified fields, null if all constraints needs to be checked
+	 */
+	protected void checkForConstraints(IDataStore dataStore, ConversionService conversionService, Object entity, boolean excludeId, Set<String> modifiedFields)
+	{
+		List<ConstraintCheck> checks = new ArrayList<>();
+		
+		if(isUniqueCheckRequired(dataStore))
+		{
+			logger.trace("Adding unique constraint checks");
+			
+			for(UniqueConstraintDetails uniqueConstraint: entityDetails.getUniqueConstraints())
+			{
+				if(!uniqueConstraint.isValidate() || !isTouched(uniqueConstraint.getFields(), modifiedFields))
+				{
+					continue;
+				}
+				
+				checks.add(newUniqueCheck(conversionService, uniqueConstraint, entity, excludeId));
+			}
+		}
+		
+		if(dataStore.isExplicitForeignCheckRequired())
+		{
+			logger.trace("Adding foreign constraint checks");
+			
+			Object value = null;
+			
+			for(ForeignConstraintDetails foreignConstraint: entityDetails.getForeignConstraints())
+			{
+				//if current entity does not own this relation, or relation is maintained by join table
+				if(foreignConstraint.isMappedRelation() || foreignConstraint.getJoinTableDetails() != null)
+				{
+					continue;
+				}
+				
+				//if relation is not modified
+				if(!isTouched(Arrays.asList(foreignConstraint.getOwnerField().getName()), modifiedFields))
+				{
+					continue;
+				}
+				
+				value = getForeignKeyValue(foreignConstraint, entity, conversionService);
+				
+				//if no value is defined for relationship
+				if(value == null)
+				{
+					continue;
+				}
+				
+				checks.add(newForeignCheck(foreignConstraint, Arrays.asList(value)));
+			}
+		}
+		
+		if(checks.isEmpty())
+		{
+			return;
+		}
+		
+		ConstraintCheck violation = findViolation(dataStore, checks);
+		
+		if(violation != null)
+		{
+			throw newViolation(violation);
+		}
+	}
+	
+	/**
+	 * Batch version of {@link #checkForConstraints(IDataStore, ConversionService, Object, boolean)}. Checks unique constraints are not 
+	 * violated among specified entities. And for single field constraints and foreign constraints, check against existing data is done for 
+	 * all entities together, using IN conditions. All the checks are combined into minimal number of multi count queries.
+	 * 
+	 * @param dataStore Data store to use
+	 * @param conversionService Conversion service to convert values
+	 * @param entities Entities to be checked
+	 * @param excludeId If true, entities with same ids (being updated) are excluded during check
+	 */
+	protected void checkForConstraints(IDataStore dataStore, ConversionService conversionService, Collection<?> entities, boolean excludeId)
+	{
+		checkForConstraints(dataStore, conversionService, entities, excludeId, null);
+	}
+	
+	/**
+	 * Same as {@link #checkForConstraints(IDataStore, ConversionService, Collection, boolean)}, but checks only the
+	 * constraints involving specified modified fields.
+	 * 
+	 * @param dataStore Data store to use
+	 * @param conversionService Conversion service to convert values
+	 * @param entities Entities to be checked
+	 * @param excludeId If true, entities with same ids (being updated) are excluded during check
+	 * @param modifiedFields Names of fields modified in any of the entities, null if all constraints needs to be checked
+	 */
+	protected void checkForConstraints(IDataStore dataStore, ConversionService conversionService, Collection<?> entities, boolean excludeId, Set<String> modifiedFields)
+	{
+		List<ConstraintCheck> checks = new ArrayList<>();
+		
+		if(isUniqueCheckRequired(dataStore))
+		{
+			addUniqueChecks(dataStore, conversionService, entities, excludeId, modifiedFields, checks);
+		}
+		
+		if(dataStore.isExplicitForeignCheckRequired())
+		{
+			addForeignChecks(conversionService, entities, modifiedFields, checks);
+		}
+		
+		if(checks.isEmpty())
+		{
+			return;
+		}
+		
+		ConstraintCheck violation = findViolation(dataStore, checks);
+		
+		if(violation == null)
+		{
+			return;
+		}
+		
+		//if violation is found with values of multiple entities, check entities one by one to find the violating entity, for proper error message
+		if(violation.uniqueConstraint != null && violation.fieldValues == null)
+		{
+			List<ConstraintCheck> entityChecks = new ArrayList<>(entities.size());
+			
+			for(Object entity : entities)
+			{
+				entityChecks.add(newUniqueCheck(conversionService, violation.uniqueConstraint, entity, excludeId));
+			}
+			
+			ConstraintCheck entityViolation = findViolation(dataStore, entityChecks);
+			
+			//when data got changed in between
+			if(entityViolation == null)
+			{
+				throw new UniqueConstraintViolationException(violation.uniqueConstraint.getName(), "Unique constraint violated: " + violation.uniqueConstraint.getName());
+			}
+			
+			violation = entityViolation;
+		}
+		
+		throw newViolation(violation);
+	}
+	
+	/**
+	 * Ensures specified entities are not violating unique constraints among themselves and adds the checks required 
+	 * against existing data to specified checks. When entities being updated are excluded, single field constraints 
+	 * are checked immediately (see {@link #checkUniqueConflicts(IDataStore, ConversionService, UniqueConstraintDetails, List, Set)}).
+	 */
+	private void addUniqueChecks(IDataStore dataStore, ConversionService conversionService, Collection<?> entities, boolean excludeId, Set<String> modifiedFields, List<ConstraintCheck> checks)
+	{
+		logger.trace("Started method: addUniqueChecks");
+		
+		FieldDetails idFieldDetails = entityDetails.getIdField();
+		Set<Map<String, Object>> batchValues = new HashSet<>();
+		Map<String, Object> fieldValues = null;
+		CountQuery existenceQuery = null;
+		
+		//values of single field constraint
+		List<Object> values = new ArrayList<>();
+		
+		//ids of all the entities in the batch, including the ones without constraint values
+		Set<Object> batchIds = new HashSet<>();
+		
+		if(excludeId)
+		{
+			for(Object entity : entities)
+			{
+				batchIds.add(idFieldDetails.getValue(entity));
+			}
+		}
+		
 		for(UniqueConstraintDetails uniqueConstraint: entityDetails.getUniqueConstraints())
 		{
-			if(!uniqueConstraint.isValidate())
+			if(!uniqueConstraint.isValidate() || !isTouched(uniqueConstraint.getFields(), modifiedFields))
 			{
 				continue;
 			}
 			
-			existenceQuery.clearConditions();
-			fieldValues.clear();
+			batchValues.clear();
+			values.clear();
+			
+			String field = uniqueConstraint.getFields().get(0);
 			
-			for(String field: uniqueConstraint.getFields())
+			//ensure specified entities are not violating the constraint among themselves
+			for(Object entity : entities)
 			{
-				fieldDetails = entityDetails.getFieldDetailsByField(field);
+				fieldValues = getUniqueFieldValues(uniqueConstraint, entity, conversionService);
+				
+				if(fieldValues.containsValue(null))
+				{
+					continue;
+				}
+				
+				if(!batchValues.add(fieldValues))
+				{
+					throw newUniqueConstraintViolation(uniqueConstraint, fieldValues);
+				}
 				
-				value = fieldDetails.getValue(entity);
-				value = conversionService.convertToDBType(value, fieldDetails);
+				values.add(fieldValues.get(field));
+			}
+			
+			//multi field constraints are checked per entity
+			if(uniqueConstraint.getFields().size() > 1)
+			{
+				for(Object entity : entities)
+				{
+					checks.add(newUniqueCheck(conversionService, uniqueConstraint, entity, excludeId));
+				}
 				
-				existenceQuery.addCondition(new QueryCondition(null, fieldDetails.getColumn(), Operator.EQ, value));
-				fieldValues.put(field, value);
+				continue;
 			}
 			
 			if(excludeId)
 			{
-				existenceQuery.addCondition(new QueryCondition(null, entityDetails.getIdField().getColumn(), Operator.NE, entityDetails.getIdField().getValue(entity)));
+				checkUniqueConflicts(dataStore, conversionService, uniqueConstraint, values, batchIds);
+				continue;
 			}
 			
-			if(dataStore.getCount(existenceQuery, entityDetails) > 0)
+			String column = entityDetails.getFieldDetailsByField(field).getColumn();
+			
+			for(List<Object> valuesChunk : partition(values, MAX_IN_VALUES))
 			{
-				message = formatMessage(uniqueConstraint.getMessage(), fieldValues);
-				message = (message != null) ? message : "Unique constraint violated: " + uniqueConstraint.getName();
+				existenceQuery = new CountQuery(entityDetails);
+				existenceQuery.addCondition(new QueryCondition(null, column, Operator.IN, valuesChunk));
 				
-				throw new UniqueConstraintViolationException(uniqueConstraint.getName(), message);
+				checks.add(new ConstraintCheck(existenceQuery, uniqueConstraint, null));
 			}
 		}
 	}
 	
-	protected void checkForForeignConstraints(IDataStore dataStore, ConversionService conversionService, Object entity)
+	/**
+	 * Checks specified values of single field unique constraint are not used by rows other than the rows of current
+	 * batch. Instead of excluding batch ids in the query (which would make parameters grow with batch size), ids of 
+	 * the rows having the values are fetched chunk by chunk and rows of current batch are ignored. So the result does 
+	 * not depend on how the batch gets chunked.
+	 * @param dataStore Data store to use
+	 * @param conversionService Conversion service to convert fetched ids
+	 * @param uniqueConstraint Single field unique constraint being checked
+	 * @param values Db values of the constraint field, of the entities in the batch
+	 * @param batchIds Ids of all the entities in the batch
+	 */
+	private void checkUniqueConflicts(IDataStore dataStore, ConversionService conversionService, UniqueConstraintDetails uniqueConstraint, 
+			List<Object> values, Set<Object> batchIds)
 	{
-		//if explicit foreign key validation is not required
-		if(!dataStore.isExplicitForeignCheckRequired())
+		FieldDetails idFieldDetails = entityDetails.getIdField();
+		String field = uniqueConstraint.getFields().get(0);
+		String column = entityDetails.getFieldDetailsByField(field).getColumn();
+		FinderQuery findQuery = null;
+		Object id = null;
+		
+		for(List<Object> valuesChunk : partition(values, MAX_IN_VALUES))
 		{
-			return;
+			findQuery = new FinderQuery(entityDetails);
+			findQuery.addResultField(new QueryResultField(null, idFieldDetails.getColumn(), null));
+			findQuery.addResultField(new QueryResultField(null, column, null));
+			
+			findQuery.addCondition(new QueryCondition(null, column, Operator.IN, valuesChunk));
+			
+			for(Record record : dataStore.executeFinder(findQuery, entityDetails))
+			{
+				id = conversionService.convertToJavaType(record.getObject(0), idFieldDetails);
+				
+				//rows of current batch get updated with new values
+				if(batchIds.contains(id))
+				{
+					continue;
+				}
+				
+				throw newUniqueConstraintViolation(uniqueConstraint, Collections.singletonMap(field, record.getObject(1)));
+			}
 		}
+	}
+	
+	/**
+	 * Fetches the foreign key value from specified entity, for specified foreign constraint
+	 */
+	private Object getForeignKeyValue(ForeignConstraintDetails foreignConstraint, Object entity, ConversionService conversionService)
+	{
+		FieldDetails ownerFieldDetails = entityDetails.getFieldDetailsByField(foreignConstraint.getOwnerField().getName());
+		Object value = ownerFieldDetails.getValue(entity);
 		
-		logger.trace("Started method: checkForForeignConstraints");
+		if(value == null)
+		{
+			return null;
+		}
 		
-		CountQuery existenceQuery = null;
-		Object value = null;
-		String message = null;
-		EntityDetails foreignEntityDetails = null;
+		//foreign key value is the id of the related entity
+		FieldDetails targetIdField = foreignConstraint.getTargetEntityDetails().getIdField();
+		return conversionService.convertToDBType(targetIdField.getValue(value), targetIdField);
+	}
+	
+	private ForeignConstraintViolationException newForeignConstraintViolation(ForeignConstraintDetails foreignConstraint)
+	{
+		String message = "Foreign constraint violated: " + foreignConstraint.getConstraintName();
 		
-		FieldDetails ownerFieldDetails = null;
+		logger.error(message);
+		return new ForeignConstraintViolationException(foreignConstraint.getConstraintName(), message);
+	}
+	
+	/**
+	 * Adds checks for foreign constraints of specified entities to specified checks. For each foreign constraint
+	 * distinct parent keys of all entities are checked together using IN conditions.
+	 */
+	private void addForeignChecks(ConversionService conversionService, Collection<?> entities, Set<String> modifiedFields, List<ConstraintCheck> checks)
+	{
+		logger.trace("Started method: addForeignChecks");
+		
+		Object value = null;
+		Set<Object> values = new LinkedHashSet<>();
 		
-		//validate foreign constraint violation is not happening
 		for(ForeignConstraintDetails foreignConstraint: entityDetails.getForeignConstraints())
 		{
-			//if current entity does not own this relation
-			if(foreignConstraint.isMappedRelation())
+			//if current entity does not own this relation, or relation is maintained by join table
+			if(foreignConstraint.isMappedRelation() || foreignConstraint.getJoinTableDetails() != null)
 			{
 				continue;
 			}
 			
-			//create existence query that needs to be executed against parent table
-			existenceQuery = new CountQuery(foreignConstraint.getTargetEntityDetails());
-
-			foreignEntityDetails = foreignConstraint.getTargetEntityDetails();
-			ownerFieldDetails = foreignEntityDetails.getFieldDetailsByField(foreignConstraint.getOwnerField().getName());
-
-			value = ownerFieldDetails.getValue(entity);
-			value = conversionService.convertToDBType(value, ownerFieldDetails);
-
-			//if no value is defined for relationship
-			if(value == null)
+			//if relation is not modified
+			if(!isTouched(Arrays.asList(foreignConstraint.getOwnerField().getName()), modifiedFields))
 			{
 				continue;
 			}
 			
-			existenceQuery.addCondition(new QueryCondition(null, foreignEntityDetails.getIdField().getColumn(), Operator.EQ, value));
+			values.clear();
 			
-			if(dataStore.getCount(existenceQuery, foreignEntityDetails) <= 0)
+			for(Object entity : entities)
 			{
-				message = "Foreign constraint violated: " + foreignConstraint.getConstraintName();
-				
-				logger.error(message);
-				throw new ForeignConstraintViolationException(foreignConstraint.getConstraintName(), message);
+				value = getForeignKeyValue(foreignConstraint, entity, conversionService);
+
+				//if no value is defined for relationship
+				if(value != null)
+				{
+					values.add(value);
+				}
+			}
+			
+			//all the distinct parent keys should exist
+			for(List<Object> valuesChunk : partition(values, MAX_IN_VALUES))
+			{
+				checks.add(newForeignCheck(foreignConstraint, valuesChunk));
 			}
 		}
 	}
@@ -6,7 +6,10 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Stream;
 
 import org.apache.commons.beanutils.PropertyUtils;
 import org.apache.logging.log4j.LogManager;
@@ -14,11 +17,15 @@ import org.apache.logging.log4j.Logger;
 
 import com.fw.persistence.FieldDetails;
 import com.fw.persistence.ICrudRepository;
+import com.fw.persistence.IDataStore;
 import com.fw.persistence.InvalidMappingException;
+import com.fw.persistence.conversion.ConversionService;
+import com.fw.persistence.query.FinderQuery;
 import com.fw.persistence.repository.InvalidRepositoryException;
 import com.fw.persistence.repository.annotations.Field;
 import com.fw.persistence.repository.annotations.ResultMapping;
 import com.fw.persistence.repository.annotations.SearchResult;
+import com.fw.persistence.repository.executors.proxy.LazyFieldsEntityCreator;
 
 /**
  * Provides common base functionality for search query type executors - Finder and Search queries
@@ -30,6 +37,12 @@ public abstract class AbstractSearchQuery extends QueryExecutor
 	
 	protected Class<?> returnType;
 	protected Class<?> collectionReturnType = null;
+	
+	/**
+	 * Indicates the method returns {@link Stream} of results, in which case results are read
+	 * lazily as the stream is consumed
+	 */
+	protected boolean streamReturnType = false;
 
 	/**
 	 * Keeps track of different parts required by query
@@ -85,11 +98,15 @@ public abstract class AbstractSearchQuery extends QueryExecutor
 	{
 		logger.trace("Started method: setFullEntityDetails");
 		
+		//LOB fields which can be loaded lazily are excluded from result fields
+		LazyFieldsEntityCreator lazyEntityCreator = LazyFieldsEntityCreator.newCreator(entityDetails);
+		List<FieldDetails> lazyFields = (lazyEntityCreator != null) ? lazyEntityCreator.getLazyFields() : Collections.emptyList();
+		
 		//loop through entity details
 		for(FieldDetails field: entityDetails.getFieldDetails())
 		{
 			//if the field is not owned by this table
-			if(!field.isTableOwned())
+			if(!field.isTableOwned() || lazyFields.contains(field))
 			{
 				continue;
 			}
@@ -98,6 +115,8 @@ public abstract class AbstractSearchQuery extends QueryExecutor
 			conditionQueryBuilder.addResultField(field.getName(), field.getField().getType(), field.getName(), methodDesc);
 		}
 		
+		conditionQueryBuilder.setLazyEntityCreator(lazyEntityCreator);
+		conditionQueryBuilder.setEntityResult(true);
 		this.returnType = entityDetails.getEntityType();
 	}
 	
@@ -113,9 +132,13 @@ public abstract class AbstractSearchQuery extends QueryExecutor
 		}
 
 		//TODO: Support map types
-		if(Collection.class.isAssignableFrom(returnType))
+		if(Collection.class.isAssignableFrom(returnType) || Stream.class.equals(returnType))
 		{
-			if(returnType.isAssignableFrom(ArrayList.class))
+			if(Stream.class.equals(returnType))
+			{
+				this.streamReturnType = true;
+			}
+			else if(returnType.isAssignableFrom(ArrayList.class))
 			{
 				this.collectionReturnType = ArrayList.class;
 			}
@@ -208,5 +231,21 @@ public abstract class AbstractSearchQuery extends QueryExecutor
 			throw new UnsupportedOperationException("Failed to determine return details of finder method: " + method.getName());
 		}
 	}
+	
+	/**
+	 * Executes specified finder query as stream and converts the streamed records into return type
+	 * @param dataStore Data store to use
+	 * @param finderQuery Query to execute
+	 * @param queryBuilder Query builder to be used for parsing records
+	 * @param conversionService Conversion service to use
+	 * @return Stream of results, which holds underlying resources till closed
+	 */
+	protected Stream<Object> streamResults(IDataStore dataStore, FinderQuery finderQuery, ConditionQueryBuilder queryBuilder, ConversionService conversionService)
+	{
+		Class<?> resultType = this.returnType;
+		
+		return dataStore.streamFinder(finderQuery, entityDetails)
+				.map(record -> queryBuilder.parseRecord(record, resultType, conversionService, persistenceExecutionContext));
+	}
 
 }
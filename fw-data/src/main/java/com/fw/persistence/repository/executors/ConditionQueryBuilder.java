@@ -1,16 +1,14 @@
 package com.fw.persistence.repository.executors;
 
-import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-import org.apache.commons.beanutils.PropertyUtils;
-
 import com.fw.persistence.EntityDetails;
 import com.fw.persistence.FieldDetails;
 import com.fw.persistence.ForeignConstraintDetails;
@@ -18,15 +16,24 @@ import com.fw.persistence.InvalidMappingException;
 import com.fw.persistence.JoinTableDetails;
 import com.fw.persistence.Operator;
 import com.fw.persistence.Record;
+import com.fw.persistence.UniqueConstraintDetails;
+import com.fw.persistence.cache.EntitySnapshots;
 import com.fw.persistence.conversion.ConversionService;
+import com.fw.persistence.query.FinderQuery;
 import com.fw.persistence.query.IConditionalQuery;
 import com.fw.persistence.query.QueryCondition;
 import com.fw.persistence.query.QueryJoinCondition;
+import com.fw.persistence.query.QueryOrderByField;
+import com.fw.persistence.query.QueryOuterJoin;
 import com.fw.persistence.query.QueryResultField;
 import com.fw.persistence.query.QueryTable;
 import com.fw.persistence.repository.PersistenceExecutionContext;
 import com.fw.persistence.repository.RepositoryFactory;
+import com.fw.persistence.repository.executors.proxy.LazyFieldsEntityCreator;
+import com.fw.persistence.repository.executors.proxy.ProxyBatchLoader;
 import com.fw.persistence.repository.executors.proxy.ProxyEntityCreator;
+import com.fw.persistence.repository.search.PageRequest;
+import com.fw.utils.CommonUtils;
 import com.fw.utils.ConvertUtils;
 import com.fw.utils.ObjectWrapper;
 
@@ -124,6 +131,11 @@ public class ConditionQueryBuilder implements Cloneable
 		 * Field details (with column name) that can be used for condition
 		 */
 		private FieldDetails fieldDetails;
+		
+		/**
+		 * Compiled accessor of embedded property, if any
+		 */
+		private PropertyAccessor embeddedAccessor;
 
 		public Condition(Operator operator, int index, String embeddedProperty, String fieldExpression)
 		{
@@ -131,6 +143,26 @@ public class ConditionQueryBuilder implements Cloneable
 			this.index = index;
 			this.embeddedProperty = embeddedProperty;
 			this.fieldExpression = fieldExpression;
+			
+			if(embeddedProperty != null)
+			{
+				this.embeddedAccessor = new PropertyAccessor(embeddedProperty);
+			}
+		}
+		
+		/**
+		 * Fetches the value of this condition from specified method parameters
+		 * @param params
+		 * @return
+		 */
+		public Object getValue(Object params[])
+		{
+			if(embeddedAccessor == null)
+			{
+				return params[index];
+			}
+			
+			return embeddedAccessor.getValue(params[index]);
 		}
 		
 		
@@ -181,12 +213,49 @@ public class ConditionQueryBuilder implements Cloneable
 		 * Type of result field
 		 */
 		private Class<?> fieldType;
+		
+		/**
+		 * Wrapper type of result field type, used to check if conversion is needed
+		 */
+		private Class<?> wrapperType;
+		
+		/**
+		 * Compiled accessor of result property, null for direct return field
+		 */
+		private PropertyAccessor accessor;
+		
+		/**
+		 * Eager fetch details, if parent entity of this relation field is fetched eagerly
+		 */
+		private EagerFetchField eagerFetchField;
 
 		public ResultField(String property, String code, Class<?> fieldType)
 		{
 			this.property = property;
 			this.code = code;
 			this.fieldType = fieldType;
+			this.wrapperType = fieldType.isPrimitive() ? CommonUtils.getWrapperType(fieldType) : fieldType;
+			
+			if(property != null)
+			{
+				this.accessor = new PropertyAccessor(property);
+			}
+		}
+		
+		/**
+		 * Converts specified value into field type, if required
+		 * @param value
+		 * @return
+		 */
+		public Object convert(Object value)
+		{
+			//avoid conversion if value is already of required type
+			if(value != null && wrapperType.isInstance(value))
+			{
+				return value;
+			}
+			
+			return ConvertUtils.convert(value, fieldType);
 		}
 	}
 	
@@ -194,21 +263,67 @@ public class ConditionQueryBuilder implements Cloneable
 	 * Bean context that can be used to parse/process expressions
 	 * @author akiran
 	 */
-	public static class ParameterContext
+	/**
+	 * Ordering field of the query
+	 * @author akiran
+	 */
+	private static class OrderByField
 	{
-		private Object parameters[];
-
-		public ParameterContext(Object[] parameters)
-		{
-			this.parameters = parameters;
-		}
+		/**
+		 * Table to which this field belongs
+		 */
+		private TableInfo table;
+		
+		/**
+		 * Entity field details used for ordering
+		 */
+		private FieldDetails fieldDetails;
 		
-		public Object[] getParameters()
+		/**
+		 * Flag indicating if ordering is ascending or descending
+		 */
+		private boolean ascending;
+		
+		public OrderByField(TableInfo table, FieldDetails fieldDetails, boolean ascending)
 		{
-			return parameters;
+			this.table = table;
+			this.fieldDetails = fieldDetails;
+			this.ascending = ascending;
 		}
 	}
-
+	
+	/**
+	 * Relation field whose parent entity is fetched eagerly, using outer join
+	 * @author akiran
+	 */
+	private static class EagerFetchField
+	{
+		/**
+		 * Outer joined table of parent entity
+		 */
+		private TableInfo table;
+		
+		/**
+		 * Creator to be used for creating parent entities, when parent entity has lazy fields
+		 */
+		private LazyFieldsEntityCreator lazyEntityCreator;
+		
+		/**
+		 * Start index (inclusive) of parent entity fields in eager result fields
+		 */
+		private int start;
+		
+		/**
+		 * End index (exclusive) of parent entity fields in eager result fields
+		 */
+		private int end;
+		
+		/**
+		 * Index of parent entity id field in eager result fields
+		 */
+		private int idIndex;
+	}
+	
 	/**
 	 * Entity details on which this query is going to be executed
 	 */
@@ -223,6 +338,28 @@ public class ConditionQueryBuilder implements Cloneable
 	 * List of result fields of this query
 	 */
 	private List<ResultField> resultFields = new ArrayList<>();
+	
+	/**
+	 * Codes of {@link #resultFields resultFields} followed by codes of {@link #eagerResultFields eagerResultFields}. Used to resolve
+	 * column indexes of result fields from record schema. Built lazily and reset whenever result fields are changed.
+	 */
+	private String resultCodes[];
+	
+	/**
+	 * List of ordering fields of this query
+	 */
+	private List<OrderByField> orderByFields = new ArrayList<>();
+	
+	/**
+	 * Relation fields whose parent entities are fetched eagerly
+	 */
+	private List<EagerFetchField> eagerFetchFields = new ArrayList<>();
+	
+	/**
+	 * Result fields of eagerly fetched parent entities. Values of these fields are parsed into parent entities
+	 * instead of result.
+	 */
+	private List<ResultField> eagerResultFields = new ArrayList<>();
 
 	/**
 	 * Mapping from property name to table
@@ -250,6 +387,16 @@ public class ConditionQueryBuilder implements Cloneable
 	 */
 	private boolean isSingleFieldReturn;
 	
+	/**
+	 * Creator to be used for creating result entities, when lazy fields are excluded from result fields
+	 */
+	private LazyFieldsEntityCreator lazyEntityCreator;
+	
+	/**
+	 * Indicates whether results are full entities, whose state should be captured when dirty checking is enabled
+	 */
+	private boolean entityResult;
+	
 	public ConditionQueryBuilder(EntityDetails entityDetails)
 	{
 		this.entityDetails = entityDetails;
@@ -456,6 +603,41 @@ public class ConditionQueryBuilder implements Cloneable
 		conditions.add(condition);
 	}
 
+	/**
+	 * Adds the ordering field with specified details to this builder. This method evaluates the required table joins
+	 * if the field is nested field
+	 * @param entityFieldExpression
+	 * @param ascending
+	 * @param methodDesc
+	 */
+	public void addOrderByField(String entityFieldExpression, boolean ascending, String methodDesc)
+	{
+		//split the entity field expression
+		String entityFieldParts[] = entityFieldExpression.trim().split("\\s*\\.\\s*");
+		
+		//if this mapping is for direct property mapping
+		if(entityFieldParts.length == 1)
+		{
+			FieldDetails fieldDetails = entityDetails.getFieldDetailsByField(entityFieldParts[0]);
+			
+			//if the field mapping is wrong or a relation field is used for ordering
+			if(fieldDetails == null || fieldDetails.isRelationField())
+			{
+				throw new InvalidMappingException( String.format("Invalid field mapping '%1s' found as order-by field of %2s", 
+							entityFieldExpression, methodDesc) );
+			}
+			
+			orderByFields.add(new OrderByField(codeToTable.get(DEF_TABLE_CODE), fieldDetails, ascending));
+			return;
+		}
+		
+		//if the mapping is for nested entity field (with foreign key relationships)
+		ObjectWrapper<FieldDetails> fieldDetailsHolder = new ObjectWrapper<>();
+		TableInfo tableInfo = getTableInfo(entityDetails, entityFieldParts, "order-by", entityFieldExpression, methodDesc, fieldDetailsHolder);
+		
+		orderByFields.add(new OrderByField(tableInfo, fieldDetailsHolder.getValue(), ascending));
+	}
+
 	/**
 	 * Adds a result field of the query to this builder
 	 * @param resultProperty
@@ -495,6 +677,7 @@ public class ConditionQueryBuilder implements Cloneable
 			
 			resultField.table = codeToTable.get(DEF_TABLE_CODE);
 			resultFields.add(resultField);
+			resultCodes = null;
 
 			if(resultProperty == null)
 			{
@@ -514,6 +697,7 @@ public class ConditionQueryBuilder implements Cloneable
 		//		Note - Reverse mapping property has to be created for such properies
 		
 		resultFields.add(resultField);
+		resultCodes = null;
 
 		//if this direct return field
 		if(resultProperty == null)
@@ -522,6 +706,78 @@ public class ConditionQueryBuilder implements Cloneable
 		}
 	}
 	
+	/**
+	 * Marks specified relation field (of entity result) to be fetched eagerly. Parent entity table is outer joined
+	 * and parent entity fields are added as result fields, so that parent entity is parsed from the same record.
+	 * @param field Relation field name
+	 * @param methodDesc
+	 */
+	public void addEagerFetchField(String field, String methodDesc)
+	{
+		ResultField relationResultField = null;
+		
+		for(ResultField resultField : this.resultFields)
+		{
+			if(resultField.table.tableCode.equals(DEF_TABLE_CODE) && field.equals(resultField.property))
+			{
+				relationResultField = resultField;
+				break;
+			}
+		}
+		
+		//only relation fields with foreign key column in entity table can be fetched eagerly
+		if(relationResultField == null || !relationResultField.fieldDetails.isRelationField() 
+				|| relationResultField.fieldDetails.getForeignConstraintDetails().isMappedRelation()
+				|| relationResultField.fieldDetails.getForeignConstraintDetails().getJoinTableDetails() != null)
+		{
+			throw new InvalidMappingException(String.format("Invalid eager fetch field '%s' specified for %s", field, methodDesc));
+		}
+		
+		if(relationResultField.eagerFetchField != null)
+		{
+			throw new InvalidMappingException(String.format("Eager fetch field '%s' is specified multiple times for %s", field, methodDesc));
+		}
+		
+		FieldDetails fieldDetails = relationResultField.fieldDetails;
+		EntityDetails targetEntityDetails = fieldDetails.getForeignConstraintDetails().getTargetEntityDetails();
+		
+		EagerFetchField eagerFetchField = new EagerFetchField();
+		eagerFetchField.table = new TableInfo(nextTableCode(), targetEntityDetails.getTableName(), targetEntityDetails, DEF_TABLE_CODE, 
+				fieldDetails.getColumn(), targetEntityDetails.getIdField().getColumn());
+		
+		//lob fields of parent entity are loaded lazily, same as that of entity
+		eagerFetchField.lazyEntityCreator = LazyFieldsEntityCreator.newCreator(targetEntityDetails);
+		List<FieldDetails> lazyFields = (eagerFetchField.lazyEntityCreator != null) ? eagerFetchField.lazyEntityCreator.getLazyFields() : Collections.emptyList();
+		
+		ResultField resultField = null;
+		eagerFetchField.start = eagerResultFields.size();
+		
+		for(FieldDetails targetField : targetEntityDetails.getFieldDetails())
+		{
+			if(!targetField.isTableOwned() || lazyFields.contains(targetField))
+			{
+				continue;
+			}
+			
+			if(targetField.isIdField())
+			{
+				eagerFetchField.idIndex = eagerResultFields.size();
+			}
+			
+			resultField = new ResultField(targetField.getName(), nextFieldCode(), targetField.getField().getType());
+			resultField.table = eagerFetchField.table;
+			resultField.fieldDetails = targetField;
+			
+			eagerResultFields.add(resultField);
+		}
+		
+		eagerFetchField.end = eagerResultFields.size();
+		
+		relationResultField.eagerFetchField = eagerFetchField;
+		eagerFetchFields.add(eagerFetchField);
+		resultCodes = null;
+	}
+	
 	/**
 	 * Adds specified table and its dependency tables to the specified conditional query
 	 * @param query
@@ -563,8 +819,18 @@ public class ConditionQueryBuilder implements Cloneable
 	 */
 	public void loadConditionalQuery(IConditionalQuery query, Object params[])
 	{
-		ParameterContext context = new ParameterContext(params);
-		Set<String> includedTables = new HashSet<>();
+		loadConditionalQuery(query, params, new HashSet<>());
+	}
+	
+	/**
+	 * Loads the conditions, tables and fields to the specified query. Tables added to query are
+	 * added to specified included tables
+	 * @param query
+	 * @param params
+	 * @param includedTables
+	 */
+	private void loadConditionalQuery(IConditionalQuery query, Object params[], Set<String> includedTables)
+	{
 		Object value = null;
 		
 		//load the result fields to specified query
@@ -584,7 +850,7 @@ public class ConditionQueryBuilder implements Cloneable
 			//fetch the value for current condition
 			try
 			{
-				value = PropertyUtils.getProperty(context, condition.getConditionExpression());
+				value = condition.getValue(params);
 			}catch(Exception ex)
 			{
 				throw new IllegalStateException("An error occurred while fetching condition value for expression -" + condition.getConditionExpression(), ex);
@@ -602,6 +868,143 @@ public class ConditionQueryBuilder implements Cloneable
 		}
 	}
 	
+	/**
+	 * Checks if the ordering fields are unique in combination, that is if they include entity id or all
+	 * fields of an unique constraint of the entity
+	 * @return
+	 */
+	private boolean isUniqueOrdering()
+	{
+		Set<String> fields = new HashSet<>();
+		
+		for(OrderByField field : this.orderByFields)
+		{
+			//fields of related entities does not identify the entity rows
+			if(!DEF_TABLE_CODE.equals(field.table.tableCode))
+			{
+				continue;
+			}
+			
+			if(field.fieldDetails.isIdField())
+			{
+				return true;
+			}
+			
+			fields.add(field.fieldDetails.getName());
+		}
+		
+		for(UniqueConstraintDetails uniqueConstraint : entityDetails.getUniqueConstraints())
+		{
+			if(fields.containsAll(uniqueConstraint.getFields()))
+			{
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Loads the conditions, tables, fields and ordering to specified finder query. If page request is specified, 
+	 * the page details are also loaded. In case of paging, when ordering fields are not unique (or no ordering is
+	 * specified), entity id is used as last ordering field so that pages are deterministic. In such case, keyset
+	 * of page request is expected to end with entity id.
+	 * @param query
+	 * @param params
+	 * @param pageRequest Page to be fetched, can be null
+	 * @param conversionService Conversion service used to convert keyset values to db type
+	 */
+	public void loadFinderQuery(FinderQuery query, Object params[], PageRequest pageRequest, ConversionService conversionService)
+	{
+		Set<String> includedTables = new HashSet<>();
+		loadConditionalQuery(query, params, includedTables);
+		
+		//outer join the tables of eagerly fetched parent entities, to the entity table
+		if(!eagerFetchFields.isEmpty())
+		{
+			addTables(query, DEF_TABLE_CODE, includedTables);
+			TableInfo table = null;
+			
+			for(EagerFetchField field : this.eagerFetchFields)
+			{
+				table = field.table;
+				query.addOuterJoin(new QueryOuterJoin(table.tableName, table.tableCode, table.column, table.joinTableCode, table.joinTableColumn));
+			}
+			
+			for(ResultField field : this.eagerResultFields)
+			{
+				query.addResultField(new QueryResultField(field.table.tableCode, field.fieldDetails.getColumn(), field.code));
+			}
+		}
+		
+		for(OrderByField field : this.orderByFields)
+		{
+			addTables(query, field.table.tableCode, includedTables);
+			query.addOrderByField(new QueryOrderByField(field.table.tableCode, field.fieldDetails.getColumn(), field.ascending));
+		}
+		
+		if(pageRequest == null)
+		{
+			return;
+		}
+		
+		//use entity id as tie breaker, so that rows with same ordering values are not skipped or repeated across pages
+		FieldDetails idField = entityDetails.getIdField();
+		boolean idOrdering = !isUniqueOrdering();
+		
+		if(idOrdering)
+		{
+			query.addOrderByField(new QueryOrderByField(DEF_TABLE_CODE, idField.getColumn(), true));
+		}
+		
+		if(pageRequest.getOffset() > 0)
+		{
+			query.setOffset(pageRequest.getOffset());
+		}
+		
+		if(pageRequest.getPageSize() > 0)
+		{
+			query.setResultsLimit(pageRequest.getPageSize());
+		}
+		
+		if(pageRequest.getAfterKey() != null)
+		{
+			query.setKeysetValues(toKeysetValues(pageRequest.getAfterKey(), idOrdering, conversionService));
+		}
+	}
+	
+	/**
+	 * Converts specified keyset values into db types of corresponding ordering fields
+	 * @param afterKey Keyset values of page request
+	 * @param idOrdering Flag indicating if entity id is added as last ordering field
+	 * @param conversionService
+	 * @return Converted keyset values
+	 */
+	private List<Object> toKeysetValues(List<Object> afterKey, boolean idOrdering, ConversionService conversionService)
+	{
+		int expectedSize = orderByFields.size() + (idOrdering ? 1 : 0);
+		
+		if(afterKey.size() != expectedSize)
+		{
+			throw new IllegalArgumentException(String.format("Expected %s keyset values but found %s. When ordering fields are not unique "
+					+ "entity id of last row should be specified as last keyset value", expectedSize, afterKey.size()));
+		}
+		
+		List<Object> values = new ArrayList<>(expectedSize);
+		
+		for(int i = 0; i < orderByFields.size(); i++)
+		{
+			values.add(conversionService.convertToDBType(afterKey.get(i), orderByFields.get(i).fieldDetails));
+		}
+		
+		if(idOrdering)
+		{
+			values.add(conversionService.convertToDBType(afterKey.get(expectedSize - 1), entityDetails.getIdField()));
+		}
+		
+		return values;
+	}
+	
 	/**
 	 * Creates a collection of specified type
 	 * @param type
@@ -639,51 +1042,60 @@ public class ConditionQueryBuilder implements Cloneable
 	 * @param resultType
 	 * @param conversionService
 	 * @param persistenceExecutionContext
+	 * @param batchLoader Batch loader to which relation proxies should be registered, can be null
 	 * @return
 	 * @throws IllegalAccessException
 	 * @throws InstantiationException
-	 * @throws NoSuchMethodException 
-	 * @throws InvocationTargetException 
 	 */
 	@SuppressWarnings({ "unchecked", "rawtypes" })
-	private <T> T parseResult(Record record, Class<T> resultType, ConversionService conversionService, PersistenceExecutionContext persistenceExecutionContext) throws IllegalAccessException, InstantiationException, InvocationTargetException, NoSuchMethodException
+	private <T> T parseResult(Record record, Class<T> resultType, ConversionService conversionService, 
+			PersistenceExecutionContext persistenceExecutionContext, ProxyBatchLoader batchLoader) throws IllegalAccessException, InstantiationException
 	{
+		//column indexes of result fields, resolved once per result
+		int indexes[] = record.getSchema().getIndexes(getResultCodes());
+		
 		if(isSingleFieldReturn)
 		{
 			ResultField resField = this.resultFields.get(0);
-			Object res = conversionService.convertToJavaType(record.getObject(resField.code), resField.fieldDetails);
+			Object res = conversionService.convertToJavaType(getValue(record, indexes[0]), resField.fieldDetails);
 			
-			return (T)ConvertUtils.convert(res, resField.fieldType);
+			return (T)resField.convert(res);
 		}
 		
-		T result = resultType.newInstance();
-		Object value = null;
-		ProxyEntityCreator proxyEntityCreator = null;
-		ForeignConstraintDetails foreignConstraint = null;
-		EntityDetails foreignEntityDetails = null;
+		T result = (lazyEntityCreator != null) ? (T)lazyEntityCreator.newEntity(persistenceExecutionContext) : resultType.newInstance();
+		Object value = null, parentEntity = null;
 		
 		RepositoryFactory repositoryFactory = persistenceExecutionContext.getRepositoryFactory();
+		ResultField resultField = null;
+		int fieldCount = this.resultFields.size();
 		
-		for(ResultField resultField : this.resultFields)
+		for(int i = 0; i < fieldCount; i++)
 		{
-			value = record.getObject(resultField.code);
+			resultField = this.resultFields.get(i);
+			value = getValue(record, indexes[i]);
 			
 			//as only table owned properties are maintained under returnColumnToField
 			//		this would be parent (target entity) that needs to be loaded
 			if(resultField.fieldDetails.isRelationField())
 			{
-				foreignConstraint = resultField.fieldDetails.getForeignConstraintDetails();
-				foreignEntityDetails = foreignConstraint.getTargetEntityDetails();
+				//if no parent entity is associated
+				if(value == null)
+				{
+					continue;
+				}
 				
-				proxyEntityCreator = new ProxyEntityCreator(foreignEntityDetails, 
-						repositoryFactory.getRepositoryForEntity((Class)foreignEntityDetails.getEntityType()), value);
-				value = proxyEntityCreator.getProxyEntity();
+				//if parent entity is fetched eagerly, parse it from the same record
+				parentEntity = (resultField.eagerFetchField != null) ? 
+						parseEagerEntity(record, indexes, resultField.eagerFetchField, conversionService, persistenceExecutionContext, batchLoader) : null;
+				
+				//parent entity is loaded lazily, when not fetched eagerly (or when parent row is not found)
+				value = (parentEntity != null) ? parentEntity : newProxyEntity(resultField.fieldDetails, value, repositoryFactory, batchLoader);
 			}
 			//if current field is a simple field (non relation field)
 			else
 			{
 				value = conversionService.convertToJavaType(value, resultField.fieldDetails);
-				value = ConvertUtils.convert(value, resultField.fieldType);
+				value = resultField.convert(value);
 			}
 		
 			if(value == null)
@@ -691,14 +1103,200 @@ public class ConditionQueryBuilder implements Cloneable
 				continue;
 			}
 			
-			PropertyUtils.setProperty(result, resultField.property, value);
+			resultField.accessor.setValue(result, value);
+		}
+		
+		//capture loaded state of the entity, if dirty checking is enabled for the entity
+		if(entityResult)
+		{
+			captureSnapshot(entityDetails, result, conversionService, repositoryFactory);
 		}
 		
 		return result;
 	}
 	
 	/**
-	 * Converts specified records into specified return type beans
+	 * Creates lazy proxy of parent entity of specified relation field
+	 * @param fieldDetails Relation field
+	 * @param foreignKey Foreign key value (parent entity id)
+	 * @param repositoryFactory
+	 * @param batchLoader Batch loader to which proxy should be registered, can be null
+	 * @return
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private Object newProxyEntity(FieldDetails fieldDetails, Object foreignKey, RepositoryFactory repositoryFactory, ProxyBatchLoader batchLoader)
+	{
+		EntityDetails foreignEntityDetails = fieldDetails.getForeignConstraintDetails().getTargetEntityDetails();
+		
+		ProxyEntityCreator proxyEntityCreator = new ProxyEntityCreator(foreignEntityDetails, 
+				repositoryFactory.getRepositoryForEntity((Class)foreignEntityDetails.getEntityType()), foreignKey, batchLoader);
+		return proxyEntityCreator.getProxyEntity();
+	}
+	
+	/**
+	 * Captures loaded state of specified entity, if dirty checking is enabled for the entity type
+	 * @param entityDetails
+	 * @param entity
+	 * @param conversionService
+	 * @param repositoryFactory
+	 */
+	private void captureSnapshot(EntityDetails entityDetails, Object entity, ConversionService conversionService, RepositoryFactory repositoryFactory)
+	{
+		EntitySnapshots entitySnapshots = repositoryFactory.getEntitySnapshots(entityDetails.getEntityType());
+		
+		if(entitySnapshots != null)
+		{
+			entitySnapshots.capture(entity, conversionService);
+		}
+	}
+	
+	/**
+	 * Parses eagerly fetched parent entity from specified record
+	 * @param record
+	 * @param indexes Column indexes of result codes
+	 * @param eagerFetchField Relation field whose parent needs to be parsed
+	 * @param conversionService
+	 * @param persistenceExecutionContext
+	 * @param batchLoader Batch loader to which relation proxies of parent should be registered, can be null
+	 * @return Parent entity, null if parent row is not found
+	 * @throws IllegalAccessException
+	 * @throws InstantiationException
+	 */
+	private Object parseEagerEntity(Record record, int indexes[], EagerFetchField eagerFetchField, ConversionService conversionService, 
+			PersistenceExecutionContext persistenceExecutionContext, ProxyBatchLoader batchLoader) throws IllegalAccessException, InstantiationException
+	{
+		//eager result fields are placed after result fields, in result codes
+		int offset = this.resultFields.size();
+		
+		if(getValue(record, indexes[offset + eagerFetchField.idIndex]) == null)
+		{
+			return null;
+		}
+		
+		EntityDetails parentEntityDetails = eagerFetchField.table.entityDetails;
+		Object parentEntity = (eagerFetchField.lazyEntityCreator != null) ? 
+				eagerFetchField.lazyEntityCreator.newEntity(persistenceExecutionContext) : parentEntityDetails.getEntityType().newInstance();
+		
+		RepositoryFactory repositoryFactory = persistenceExecutionContext.getRepositoryFactory();
+		ResultField resultField = null;
+		Object value = null;
+		
+		for(int i = eagerFetchField.start; i < eagerFetchField.end; i++)
+		{
+			resultField = this.eagerResultFields.get(i);
+			value = getValue(record, indexes[offset + i]);
+			
+			if(value == null)
+			{
+				continue;
+			}
+			
+			//relations of parent entity are loaded lazily
+			if(resultField.fieldDetails.isRelationField())
+			{
+				value = newProxyEntity(resultField.fieldDetails, value, repositoryFactory, batchLoader);
+			}
+			else
+			{
+				value = conversionService.convertToJavaType(value, resultField.fieldDetails);
+				value = resultField.convert(value);
+			}
+			
+			if(value == null)
+			{
+				continue;
+			}
+			
+			resultField.accessor.setValue(parentEntity, value);
+		}
+		
+		captureSnapshot(parentEntityDetails, parentEntity, conversionService, repositoryFactory);
+		return parentEntity;
+	}
+	
+	/**
+	 * Sets the creator to be used for creating result entities. Result fields are expected to exclude the lazy
+	 * fields of the creator.
+	 * @param lazyEntityCreator
+	 */
+	public void setLazyEntityCreator(LazyFieldsEntityCreator lazyEntityCreator)
+	{
+		this.lazyEntityCreator = lazyEntityCreator;
+	}
+	
+	/**
+	 * Sets flag indicating results are full entities, whose state should be captured when dirty checking is enabled
+	 * @param entityResult
+	 */
+	public void setEntityResult(boolean entityResult)
+	{
+		this.entityResult = entityResult;
+	}
+	
+	/**
+	 * Fetches codes of result fields, which would be used as column labels in the result
+	 * @return
+	 */
+	private String[] getResultCodes()
+	{
+		String codes[] = this.resultCodes;
+		
+		if(codes != null)
+		{
+			return codes;
+		}
+		
+		int fieldCount = resultFields.size();
+		codes = new String[fieldCount + eagerResultFields.size()];
+		
+		for(int i = 0; i < fieldCount; i++)
+		{
+			codes[i] = resultFields.get(i).code;
+		}
+		
+		//codes of eager result fields follow the codes of result fields
+		for(int i = fieldCount; i < codes.length; i++)
+		{
+			codes[i] = eagerResultFields.get(i - fieldCount).code;
+		}
+		
+		this.resultCodes = codes;
+		return codes;
+	}
+	
+	/**
+	 * Fetches value at specified index from specified record
+	 * @param record
+	 * @param index
+	 * @return Value at specified index, null if index is negative (column not present in result)
+	 */
+	private Object getValue(Record record, int index)
+	{
+		return (index < 0) ? null : record.getObject(index);
+	}
+	
+	/**
+	 * Converts specified record into specified return type bean
+	 * @param record
+	 * @param returnType
+	 * @param conversionService
+	 * @param persistenceExecutionContext
+	 * @return Converted bean
+	 */
+	public <T> T parseRecord(Record record, Class<T> returnType, ConversionService conversionService, PersistenceExecutionContext persistenceExecutionContext)
+	{
+		try
+		{
+			return parseResult(record, returnType, conversionService, persistenceExecutionContext, null);
+		}catch(Exception ex)
+		{
+			throw new IllegalArgumentException("An error occurred while parsing record - " + record, ex);
+		}
+	}
+	
+	/**
+	 * Converts specified records into specified return type beans. Relation proxies created for the records
+	 * share a batch loader, so that on access proxies of same type are loaded together.
 	 * @param records
 	 * @param returnType
 	 * @param resultCollection
@@ -708,11 +1306,14 @@ public class ConditionQueryBuilder implements Cloneable
 	public <T> void parseResults(List<Record> records, Class<T> returnType, Collection<T> resultCollection, 
 			ConversionService conversionService, PersistenceExecutionContext persistenceExecutionContext)
 	{
+		ProxyBatchLoader batchLoader = (records.size() > 1) ? 
+				new ProxyBatchLoader(persistenceExecutionContext.getRepositoryFactory().getLazyLoadBatchSize()) : null;
+		
 		for(Record record : records)
 		{
 			try
 			{
-				resultCollection.add(parseResult(record, returnType, conversionService, persistenceExecutionContext));
+				resultCollection.add(parseResult(record, returnType, conversionService, persistenceExecutionContext, batchLoader));
 			}catch(Exception ex)
 			{
 				throw new IllegalArgumentException("An error occurred while parsing record - " + record, ex);
@@ -725,7 +1326,19 @@ public class ConditionQueryBuilder implements Cloneable
 	{
 		try
 		{
-			return (ConditionQueryBuilder)super.clone();
+			ConditionQueryBuilder clone = (ConditionQueryBuilder)super.clone();
+			
+			//copy the collections, so that conditions/tables added to clone does not affect this builder
+			clone.conditions = new ArrayList<>(conditions);
+			clone.resultFields = new ArrayList<>(resultFields);
+			clone.resultCodes = null;
+			clone.orderByFields = new ArrayList<>(orderByFields);
+			clone.eagerFetchFields = new ArrayList<>(eagerFetchFields);
+			clone.eagerResultFields = new ArrayList<>(eagerResultFields);
+			clone.propToTable = new HashMap<>(propToTable);
+			clone.codeToTable = new HashMap<>(codeToTable);
+			
+			return clone;
 		} catch(CloneNotSupportedException ex)
 		{
 			throw new IllegalStateException("An error occurred while cloning", ex);
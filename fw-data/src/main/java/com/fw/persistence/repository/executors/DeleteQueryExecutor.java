@@ -1,8 +1,14 @@
 package com.fw.persistence.repository.executors;
 
-import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.logging.log4j.LogManager;
@@ -15,15 +21,16 @@ import com.fw.persistence.ForeignConstraintDetails;
 import com.fw.persistence.ICrudRepository;
 import com.fw.persistence.IDataStore;
 import com.fw.persistence.ITransaction;
+import com.fw.persistence.Operator;
 import com.fw.persistence.PersistenceException;
 import com.fw.persistence.conversion.ConversionService;
 import com.fw.persistence.listeners.EntityEventType;
-import com.fw.persistence.query.ChildrenExistenceQuery;
-import com.fw.persistence.query.QueryCondition;
 import com.fw.persistence.query.DeleteQuery;
-import com.fw.persistence.query.FetchChildrenIdsQuery;
-import com.fw.persistence.query.IChildQuery;
+import com.fw.persistence.query.NestedChildrenQuery;
+import com.fw.persistence.query.QueryCondition;
 import com.fw.persistence.repository.InvalidRepositoryException;
+import com.fw.persistence.repository.search.SearchCondition;
+import com.fw.persistence.repository.search.SearchQuery;
 
 /**
  * Conditions are not mandatory for delete query
@@ -40,6 +47,10 @@ public class DeleteQueryExecutor extends AbstractPersistQueryExecutor
 	private ConditionQueryBuilder conditionQueryBuilder;
 	private String methodDesc;
 	
+	/**
+	 * Indicates whether this executor deletes entities in batch, using collection of condition values
+	 */
+	private boolean batchDelete;
 	
 	public DeleteQueryExecutor(Class<?> repositoryType, Method method, EntityDetails entityDetails)
 	{
@@ -56,6 +67,10 @@ public class DeleteQueryExecutor extends AbstractPersistQueryExecutor
 			super.fetchConditionsByName(method, conditionQueryBuilder, methodDesc);
 		}
 		
+		//single collection parameter method, like deleteAllById(), deletes entities for each value in batch 
+		Class<?> paramTypes[] = method.getParameterTypes();
+		batchDelete = (paramTypes.length == 1 && Collection.class.isAssignableFrom(paramTypes[0]));
+		
 		returnType = method.getReturnType();
 		
 		if(!boolean.class.equals(returnType) && !void.class.equals(returnType) && !int.class.equals(returnType))
@@ -64,33 +79,15 @@ public class DeleteQueryExecutor extends AbstractPersistQueryExecutor
 		}
 	}
 	
-	private void populateChildQuery(ForeignConstraintDetails childConstraint, DeleteQuery deleteQuery, IChildQuery childQuery, 
-			IDataStore dataStore, ConversionService conversionService, Object... params)
-	{
-		logger.trace("Started method: populateChildQuery");
-		
-		//add conditions from main delete query as parent conditions
-		if(deleteQuery.getConditions() != null)
-		{
-			for(QueryCondition condition: deleteQuery.getConditions())
-			{
-				childQuery.addParentCondition(condition.clone());
-			}
-		}
-		
-		//add parent to child mappings
-		Field ownerField = childConstraint.getOwnerField();
-		FieldDetails ownerFieldDetails = childConstraint.getOwnerEntityDetails().getFieldDetailsByField(ownerField.getName());
-		EntityDetails childTargetEntity = childConstraint.getTargetEntityDetails();
-		
-		childQuery.addMapping( ownerFieldDetails.getColumn(), childTargetEntity.getIdField().getColumn());
-	}
-	
 	/**
 	 * Based on the "deleteCascade" enabled on child tables, child entities will be deleted recursively. 
 	 * If deleteCascade is false, then this method ensures no child entities are refering the entity being deleted. If not an error will be thrown.
+	 * 
+	 * Cascades are executed as set based statements (one delete per child table, using nested sub-queries on parent tables),
+	 * walking the child constraints bottom-up, so that deepest children are deleted first.
 	 * Note - This functionality is mainly required for NO SQL DBs.
 	 * @param dataStore
+	 * @param deleteQuery
 	 * @param conversionService
 	 * @param params
 	 */
@@ -98,7 +95,27 @@ public class DeleteQueryExecutor extends AbstractPersistQueryExecutor
 	{
 		logger.trace("Started method: processChildConstraints");
 		
-		List<ForeignConstraintDetails> childConstraints = entityDetails.getChildConstraints();
+		List<NestedChildrenQuery.ParentTable> parentTables = new ArrayList<>();
+		parentTables.add(new NestedChildrenQuery.ParentTable(entityDetails.getTableName(), entityDetails.getIdField().getColumn(), null));
+		
+		Set<Class<?>> pathTypes = new HashSet<>();
+		pathTypes.add(entityDetails.getEntityType());
+		
+		processChildConstraints(dataStore, deleteQuery, entityDetails, parentTables, pathTypes);
+	}
+	
+	/**
+	 * Processes child constraints of specified parent entity, whose rows are identified by specified chain of parent tables
+	 * @param dataStore
+	 * @param deleteQuery Main delete query, whose conditions identify root rows
+	 * @param parentEntityDetails Parent entity whose child constraints needs to be processed
+	 * @param parentTables Chain of parent tables, starting with parent entity table and ending with root table
+	 * @param pathTypes Entity types in the chain, used to detect cyclic relations
+	 */
+	private void processChildConstraints(IDataStore dataStore, DeleteQuery deleteQuery, EntityDetails parentEntityDetails, 
+			List<NestedChildrenQuery.ParentTable> parentTables, Set<Class<?>> pathTypes)
+	{
+		List<ForeignConstraintDetails> childConstraints = parentEntityDetails.getChildConstraints();
 		
 		//if no child constraints are defined
 		if(childConstraints == null || childConstraints.isEmpty())
@@ -106,48 +123,215 @@ public class DeleteQueryExecutor extends AbstractPersistQueryExecutor
 			return;
 		}
 		
-		//DeleteChildrenQuery deleteChildQuery = null;
-		ChildrenExistenceQuery childrenExistenceQuery = null;
+		EntityDetails childEntityDetails = null;
+		String childColumn = null;
+		NestedChildrenQuery childrenQuery = null;
 		
 		//loop through child constraints
 		for(ForeignConstraintDetails childConstraint: childConstraints)
 		{
-			//if delete cascade is enabled
-			if(childConstraint.isDeleteCascaded())
+			//mapped and join table relations do not maintain foreign key in child table
+			if(childConstraint.isMappedRelation() || childConstraint.getJoinTableDetails() != null)
+			{
+				continue;
+			}
+			
+			childEntityDetails = childConstraint.getOwnerEntityDetails();
+			childColumn = childEntityDetails.getFieldDetailsByField(childConstraint.getOwnerField().getName()).getColumn();
+			childrenQuery = newChildrenQuery(deleteQuery, childEntityDetails, childColumn, parentTables);
+			
+			//if delete cascade is not enabled
+			if(!childConstraint.isDeleteCascaded())
 			{
-				//fetch child entity ids referring to current entity
-				//  This is needed to perform delete recursively
-				FetchChildrenIdsQuery fetchChildrenIdsQuery = new FetchChildrenIdsQuery(childConstraint.getOwnerEntityDetails(), entityDetails);
-				populateChildQuery(childConstraint, deleteQuery, fetchChildrenIdsQuery, dataStore, conversionService, params);
+				//check if any child entities are referring to entities being deleted
+				if(dataStore.checkChildrenExistence(childrenQuery) > 0)
+				{
+					throw new ChildConstraintViolationException(childConstraint.getConstraintName(), "Found child items of type '" 
+									+ childEntityDetails.getEntityType().getName() + "'");
+				}
 				
-				List<Object> childrenIds = dataStore.fetchChildrenIds(fetchChildrenIdsQuery);
+				continue;
+			}
+			
+			//for cyclic relations, set based delete can not be used, so delete children one by one
+			if(pathTypes.contains(childEntityDetails.getEntityType()))
+			{
+				ICrudRepository<?> childRepository = super.getCrudRepository(childEntityDetails.getEntityType());
 				
-				//if child entities are present
-				if(childrenIds != null)
+				for(Object childId : dataStore.fetchChildrenIds(childrenQuery))
 				{
-					//execute delete on child entities recursively 
-					ICrudRepository<?> childRepository = super.getCrudRepository(childConstraint.getOwnerEntityDetails().getEntityType());
-					
-					for(Object childId: childrenIds)
-					{
-						childRepository.deleteById(childId);
-					}
+					childRepository.deleteById(childId);
 				}
+				
+				continue;
 			}
-			//if delete cascade is not enabled
-			else
+			
+			//delete grand children first
+			List<NestedChildrenQuery.ParentTable> childParentTables = new ArrayList<>(parentTables.size() + 1);
+			childParentTables.add(new NestedChildrenQuery.ParentTable(childEntityDetails.getTableName(), childEntityDetails.getIdField().getColumn(), childColumn));
+			childParentTables.addAll(parentTables);
+			
+			pathTypes.add(childEntityDetails.getEntityType());
+			processChildConstraints(dataStore, deleteQuery, childEntityDetails, childParentTables, pathTypes);
+			pathTypes.remove(childEntityDetails.getEntityType());
+			
+			deleteChildren(dataStore, childrenQuery, childEntityDetails);
+		}
+	}
+	
+	/**
+	 * Creates query on child table rows, related to rows being deleted by specified delete query
+	 * @param deleteQuery
+	 * @param childEntityDetails
+	 * @param childColumn
+	 * @param parentTables
+	 * @return
+	 */
+	private NestedChildrenQuery newChildrenQuery(DeleteQuery deleteQuery, EntityDetails childEntityDetails, String childColumn, 
+			List<NestedChildrenQuery.ParentTable> parentTables)
+	{
+		NestedChildrenQuery childrenQuery = new NestedChildrenQuery(childEntityDetails, childColumn, parentTables);
+		
+		//add conditions from main delete query as parent conditions
+		if(deleteQuery.getConditions() != null)
+		{
+			for(QueryCondition condition: deleteQuery.getConditions())
+			{
+				childrenQuery.addParentCondition(condition.clone());
+			}
+		}
+		
+		return childrenQuery;
+	}
+	
+	/**
+	 * Deletes child rows matching with specified query using single statement. If delete listeners are registered
+	 * for child entity type, child entities are loaded and listeners are invoked for each of them.
+	 * @param dataStore
+	 * @param childrenQuery
+	 * @param childEntityDetails
+	 */
+	private void deleteChildren(IDataStore dataStore, NestedChildrenQuery childrenQuery, EntityDetails childEntityDetails)
+	{
+		Class<?> childType = childEntityDetails.getEntityType();
+		boolean preListener = super.isListenerAvailable(childType, EntityEventType.PRE_DELETE);
+		boolean postListener = super.isListenerAvailable(childType, EntityEventType.POST_DELETE);
+		
+		//when no listeners are registered, avoid loading the children
+		if(!preListener && !postListener)
+		{
+			dataStore.deleteChildren(childrenQuery);
+			return;
+		}
+		
+		ICrudRepository<?> childRepository = super.getCrudRepository(childType);
+		List<Object> childrenIds = dataStore.fetchChildrenIds(childrenQuery);
+		
+		ConversionService conversionService = dataStore.getConversionService();
+		FieldDetails idField = childEntityDetails.getIdField();
+		Map<Object, Object> idToChild = new HashMap<>();
+		
+		//load the children using IN queries, instead of loading them one by one
+		for(List<Object> idsChunk : partition(childrenIds, MAX_IN_VALUES))
+		{
+			for(Object child : childRepository.search(new SearchQuery(new SearchCondition(idField.getName(), Operator.IN, idsChunk))))
 			{
-				//check if any child entities are referring to current entity
-				childrenExistenceQuery = new ChildrenExistenceQuery(childConstraint.getOwnerEntityDetails(), entityDetails);
+				idToChild.put(idField.getValue(child), child);
+			}
+		}
+		
+		Map<Object, Object> children = new LinkedHashMap<>();
+		
+		for(Object childId : childrenIds)
+		{
+			children.put(childId, idToChild.get(conversionService.convertToJavaType(childId, idField)));
+		}
+		
+		if(preListener)
+		{
+			for(Map.Entry<Object, Object> entry : children.entrySet())
+			{
+				super.notifyEntityEvent(childType, entry.getKey(), entry.getValue(), EntityEventType.PRE_DELETE);
+			}
+		}
+		
+		dataStore.deleteChildren(childrenQuery);
+		
+		if(postListener)
+		{
+			for(Map.Entry<Object, Object> entry : children.entrySet())
+			{
+				super.notifyEntityEvent(childType, entry.getKey(), entry.getValue(), EntityEventType.POST_DELETE);
+			}
+		}
+	}
+	
+	/**
+	 * Deletes entities matching with each value of specified collection, using batch execution
+	 * @param dataStore
+	 * @param conversionService
+	 * @param values
+	 * @return
+	 */
+	private Object deleteAll(IDataStore dataStore, ConversionService conversionService, Collection<?> values)
+	{
+		logger.trace("Started method: deleteAll");
+		
+		if(values == null)
+		{
+			throw new NullPointerException("Values can not be null");
+		}
+		
+		queryLock.lock();
+		
+		try(ITransaction transaction = dataStore.getTransactionManager().newOrExistingTransaction())
+		{
+			List<DeleteQuery> deleteQueries = new ArrayList<>(values.size());
+			DeleteQuery deleteQuery = null;
+			
+			for(Object value : values)
+			{
+				if(value == null)
+				{
+					throw new NullPointerException("Values can not contain null");
+				}
 				
-				populateChildQuery(childConstraint, deleteQuery, childrenExistenceQuery, dataStore, conversionService, params);
+				deleteQuery = new DeleteQuery(entityDetails);
+				conditionQueryBuilder.loadConditionalQuery(deleteQuery, new Object[] {value});
 				
-				if(dataStore.checkChildrenExistence(childrenExistenceQuery) > 0)
+				//if datastore requires explicit child delete handling (like NOSQL DBs)
+				if(dataStore.isExplicitForeignCheckRequired())
 				{
-					throw new ChildConstraintViolationException(childConstraint.getConstraintName(), "Found child items of type '" 
-									+ childConstraint.getOwnerEntityDetails().getEntityType().getName() + "'");
+					processChildConstraints(dataStore, deleteQuery, conversionService, value);
 				}
+				
+				deleteQueries.add(deleteQuery);
+			}
+			
+			int res[] = dataStore.deleteAll(deleteQueries, entityDetails);
+			int count = 0;
+			
+			for(int deleteCount : res)
+			{
+				count += deleteCount;
+			}
+			
+			transaction.commit();
+			
+			if(int.class.equals(returnType))
+			{
+				return count;
 			}
+			
+			return (boolean.class.equals(returnType)) ? (count > 0) : null;
+		}catch(PersistenceException ex){
+			throw ex;
+		}catch(Exception ex)
+		{
+			throw new PersistenceException("An error occured while deleting entities", ex);
+		}finally
+		{
+			queryLock.unlock();
 		}
 	}
 	
@@ -156,6 +340,11 @@ public class DeleteQueryExecutor extends AbstractPersistQueryExecutor
 	{
 		logger.trace("Started method: execute");
 		
+		if(batchDelete)
+		{
+			return deleteAll(dataStore, conversionService, (Collection<?>)params[0]);
+		}
+		
 		queryLock.lock();
 		
 		try(ITransaction transaction = dataStore.getTransactionManager().newOrExistingTransaction())
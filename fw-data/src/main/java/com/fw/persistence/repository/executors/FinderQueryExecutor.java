@@ -19,6 +19,9 @@ import com.fw.persistence.RecordCountMistmatchException;
 import com.fw.persistence.conversion.ConversionService;
 import com.fw.persistence.query.FinderQuery;
 import com.fw.persistence.repository.InvalidRepositoryException;
+import com.fw.persistence.repository.annotations.EagerFetch;
+import com.fw.persistence.repository.annotations.OrderBy;
+import com.fw.persistence.repository.search.PageRequest;
 
 @QueryExecutorPattern(prefixes = {"find", "fetch"})
 public class FinderQueryExecutor extends AbstractSearchQuery
@@ -27,6 +30,11 @@ public class FinderQueryExecutor extends AbstractSearchQuery
 	
 	private ReentrantLock queryLock = new ReentrantLock();
 	
+	/**
+	 * Index of page request parameter, -1 if method does not support paging
+	 */
+	private int pageRequestIndex = -1;
+	
 	public FinderQueryExecutor(Class<?> repositoryType, Method method, EntityDetails entityDetails)
 	{
 		super.repositoryType = repositoryType;
@@ -43,6 +51,23 @@ public class FinderQueryExecutor extends AbstractSearchQuery
 		}
 		
 		fetchReturnDetails(method);
+		fetchOrderByFields(method);
+		fetchEagerFetchFields(method);
+		
+		for(int i = 0; i < paramTypes.length; i++)
+		{
+			if(!PageRequest.class.equals(paramTypes[i]))
+			{
+				continue;
+			}
+			
+			if(pageRequestIndex >= 0)
+			{
+				throw new InvalidRepositoryException("Multiple page request parameters found in " + methodDesc);
+			}
+			
+			pageRequestIndex = i;
+		}
 		
 		if(!fetchConditonsByAnnotations(method, true, conditionQueryBuilder, methodDesc, true) && 
 				!fetchConditionsByName(method, conditionQueryBuilder, methodDesc))
@@ -52,6 +77,60 @@ public class FinderQueryExecutor extends AbstractSearchQuery
 		}
 	}
 
+	/**
+	 * Fetches the ordering fields from {@link OrderBy} annotation of specified method, if any
+	 * @param method
+	 */
+	private void fetchOrderByFields(Method method)
+	{
+		OrderBy orderBy = method.getAnnotation(OrderBy.class);
+		
+		if(orderBy == null)
+		{
+			return;
+		}
+		
+		String parts[] = null;
+		boolean ascending = true;
+		
+		for(String field : orderBy.value())
+		{
+			parts = field.trim().split("\\s+");
+			
+			if(parts.length > 2 || (parts.length == 2 && !"ASC".equalsIgnoreCase(parts[1]) && !"DESC".equalsIgnoreCase(parts[1])))
+			{
+				throw new InvalidRepositoryException(String.format("Invalid @OrderBy field '%s' specified on %s", field, methodDesc));
+			}
+			
+			ascending = (parts.length == 1) || "ASC".equalsIgnoreCase(parts[1]);
+			conditionQueryBuilder.addOrderByField(parts[0], ascending, methodDesc);
+		}
+	}
+
+	/**
+	 * Fetches the relation fields to be fetched eagerly from {@link EagerFetch} annotation of specified method, if any
+	 * @param method
+	 */
+	private void fetchEagerFetchFields(Method method)
+	{
+		EagerFetch eagerFetch = method.getAnnotation(EagerFetch.class);
+		
+		if(eagerFetch == null)
+		{
+			return;
+		}
+		
+		if(!entityDetails.getEntityType().equals(returnType))
+		{
+			throw new InvalidRepositoryException(String.format("@EagerFetch is specified on non-entity %s", methodDesc));
+		}
+		
+		for(String field : eagerFetch.value())
+		{
+			conditionQueryBuilder.addEagerFetchField(field.trim(), methodDesc);
+		}
+	}
+
 	@SuppressWarnings({"unchecked", "rawtypes"})
 	@Override
 	public Object execute(IDataStore dataStore, ConversionService conversionService, Object... params)
@@ -63,9 +142,16 @@ public class FinderQueryExecutor extends AbstractSearchQuery
 		try
 		{
 			FinderQuery finderQuery = new FinderQuery(entityDetails);
+			PageRequest pageRequest = (pageRequestIndex >= 0) ? (PageRequest)params[pageRequestIndex] : null;
 
-			//set the result fields, conditions and tables details on finder query
-			conditionQueryBuilder.loadConditionalQuery(finderQuery, params);
+			//set the result fields, conditions, tables and page details on finder query
+			conditionQueryBuilder.loadFinderQuery(finderQuery, params, pageRequest, conversionService);
+			
+			//if stream is expected, records are parsed as they are read
+			if(streamReturnType)
+			{
+				return streamResults(dataStore, finderQuery, conditionQueryBuilder, conversionService);
+			}
 			
 			//execute the query and fetch records
 			List<Record> records = dataStore.executeFinder(finderQuery, entityDetails);
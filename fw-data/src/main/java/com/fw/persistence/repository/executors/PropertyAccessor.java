@@ -0,0 +1,251 @@
+package com.fw.persistence.repository.executors;
+
+import java.beans.BeanInfo;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiled accessor for a nested (dot separated) bean property path. The path is parsed once and the
+ * getter/setter method handles of each bean type are resolved once and reused on further calls. This
+ * avoids introspection and expression parsing on every access, which happens with PropertyUtils.
+ *
+ * @author akiran
+ */
+public class PropertyAccessor
+{
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+	/**
+	 * Method handles of a single property of a bean type
+	 * @author akiran
+	 */
+	private static class PropertyHandles
+	{
+		/**
+		 * Bean type to which these handles belong
+		 */
+		private final Class<?> beanType;
+
+		/**
+		 * Read method handle, null if property is not readable
+		 */
+		private final MethodHandle getter;
+
+		/**
+		 * Write method handle, null if property is not writeable
+		 */
+		private final MethodHandle setter;
+
+		public PropertyHandles(Class<?> beanType, MethodHandle getter, MethodHandle setter)
+		{
+			this.beanType = beanType;
+			this.getter = getter;
+			this.setter = setter;
+		}
+	}
+
+	/**
+	 * Resolved property handles of bean types. Shared across accessors.
+	 */
+	private static Map<Class<?>, Map<String, PropertyHandles>> typeToHandles = new ConcurrentHashMap<>();
+
+	/**
+	 * Property path represented by this accessor
+	 */
+	private String propertyPath;
+
+	/**
+	 * Parsed property names of the path
+	 */
+	private String properties[];
+
+	/**
+	 * Handles used by last access of each property in the path. Bean types at each level generally
+	 * stays the same, so this avoids map lookups on every access.
+	 */
+	private PropertyHandles lastHandles[];
+
+	public PropertyAccessor(String propertyPath)
+	{
+		this.propertyPath = propertyPath;
+		this.properties = propertyPath.trim().split("\\s*\\.\\s*");
+		this.lastHandles = new PropertyHandles[properties.length];
+	}
+
+	/**
+	 * @return the {@link #propertyPath propertyPath}
+	 */
+	public String getPropertyPath()
+	{
+		return propertyPath;
+	}
+
+	/**
+	 * Converts specified method into method handle of specified type
+	 * @param method
+	 * @param type
+	 * @return
+	 * @throws IllegalAccessException
+	 */
+	private static MethodHandle toHandle(Method method, MethodType type) throws IllegalAccessException
+	{
+		if(method == null)
+		{
+			return null;
+		}
+
+		//public methods of non-public types needs to be made accessible
+		if(!method.isAccessible())
+		{
+			method.setAccessible(true);
+		}
+
+		return MethodHandles.lookup().unreflect(method).asType(type);
+	}
+
+	/**
+	 * Resolves the property handles of specified bean type
+	 * @param beanType
+	 * @return
+	 */
+	private static Map<String, PropertyHandles> resolveHandles(Class<?> beanType)
+	{
+		try
+		{
+			BeanInfo beanInfo = Introspector.getBeanInfo(beanType);
+			Map<String, PropertyHandles> handles = new HashMap<>();
+
+			for(PropertyDescriptor descriptor : beanInfo.getPropertyDescriptors())
+			{
+				handles.put(descriptor.getName(), new PropertyHandles(beanType,
+						toHandle(descriptor.getReadMethod(), GETTER_TYPE), toHandle(descriptor.getWriteMethod(), SETTER_TYPE)));
+			}
+
+			return Collections.unmodifiableMap(handles);
+		}catch(Exception ex)
+		{
+			throw new IllegalStateException("An error occurred while resolving properties of type - " + beanType.getName(), ex);
+		}
+	}
+
+	/**
+	 * Fetches handles of the property at specified index of the path, for specified bean
+	 * @param bean
+	 * @param index
+	 * @return
+	 */
+	private PropertyHandles getHandles(Object bean, int index)
+	{
+		PropertyHandles handles = lastHandles[index];
+		Class<?> beanType = bean.getClass();
+
+		if(handles != null && handles.beanType == beanType)
+		{
+			return handles;
+		}
+
+		handles = typeToHandles.computeIfAbsent(beanType, PropertyAccessor::resolveHandles).get(properties[index]);
+
+		if(handles == null)
+		{
+			throw new IllegalArgumentException("Unknown property '" + properties[index] + "' specified in path '"
+					+ propertyPath + "' for bean type - " + beanType.getName());
+		}
+
+		lastHandles[index] = handles;
+		return handles;
+	}
+
+	/**
+	 * Fetches the bean (parent of last property) on which final property of the path should be accessed
+	 * @param bean
+	 * @return
+	 * @throws Throwable
+	 */
+	private Object getLeafBean(Object bean) throws Throwable
+	{
+		MethodHandle getter = null;
+
+		for(int i = 0; i < properties.length - 1; i++)
+		{
+			getter = getHandles(bean, i).getter;
+
+			if(getter == null)
+			{
+				throw new IllegalArgumentException("Non-readable property '" + properties[i] + "' specified in path: " + propertyPath);
+			}
+
+			bean = (Object)getter.invokeExact(bean);
+
+			if(bean == null)
+			{
+				throw new IllegalArgumentException("Null value encountered for property '" + properties[i] + "' in path: " + propertyPath);
+			}
+		}
+
+		return bean;
+	}
+
+	/**
+	 * Fetches the value of this accessor property path from specified bean
+	 * @param bean
+	 * @return
+	 */
+	public Object getValue(Object bean)
+	{
+		try
+		{
+			Object leafBean = getLeafBean(bean);
+			MethodHandle getter = getHandles(leafBean, properties.length - 1).getter;
+
+			if(getter == null)
+			{
+				throw new IllegalArgumentException("Non-readable property specified in path: " + propertyPath);
+			}
+
+			return (Object)getter.invokeExact(leafBean);
+		}catch(RuntimeException ex)
+		{
+			throw ex;
+		}catch(Throwable ex)
+		{
+			throw new IllegalStateException("An error occurred while fetching property '" + propertyPath + "' from bean - " + bean, ex);
+		}
+	}
+
+	/**
+	 * Sets specified value on specified bean, for this accessor property path
+	 * @param bean
+	 * @param value
+	 */
+	public void setValue(Object bean, Object value)
+	{
+		try
+		{
+			Object leafBean = getLeafBean(bean);
+			MethodHandle setter = getHandles(leafBean, properties.length - 1).setter;
+
+			if(setter == null)
+			{
+				throw new IllegalArgumentException("Non-writeable property specified in path: " + propertyPath);
+			}
+
+			setter.invokeExact(leafBean, value);
+		}catch(RuntimeException ex)
+		{
+			throw ex;
+		}catch(Throwable ex)
+		{
+			throw new IllegalStateException("An error occurred while setting property '" + propertyPath + "' on bean - " + bean, ex);
+		}
+	}
+}
@@ -3,6 +3,9 @@ package com.fw.persistence.repository.executors;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -20,10 +23,16 @@ import com.fw.persistence.repository.PersistenceExecutionContext;
 import com.fw.persistence.repository.RepositoryFactory;
 import com.fw.persistence.repository.annotations.Condition;
 import com.fw.persistence.repository.annotations.ConditionBean;
+import com.fw.persistence.repository.search.PageRequest;
 
 public abstract class QueryExecutor
 {
 	private static Logger logger = LogManager.getLogger(QueryExecutor.class);
+	
+	/**
+	 * Maximum number of values to be used in single IN condition
+	 */
+	protected static final int MAX_IN_VALUES = 500;
 
 	protected EntityDetails entityDetails;
 	protected Class<?> repositoryType;
@@ -46,9 +55,21 @@ public abstract class QueryExecutor
 	 * @param eventType
 	 */
 	protected void notifyEntityEvent(Object key, Object entity, EntityEventType eventType)
+	{
+		notifyEntityEvent(entityDetails.getEntityType(), key, entity, eventType);
+	}
+	
+	/**
+	 * Notifies entity listeners of specified entity type, if any, about the specified event 
+	 * @param entityType
+	 * @param key
+	 * @param entity
+	 * @param eventType
+	 */
+	protected void notifyEntityEvent(Class<?> entityType, Object key, Object entity, EntityEventType eventType)
 	{
 		RepositoryFactory factory = persistenceExecutionContext.getRepositoryFactory();
-		factory.getEntityListenerManager().handleEventType(entityDetails.getEntityType(), factory, key, entity, eventType);
+		factory.getEntityListenerManager().handleEventType(entityType, factory, key, entity, eventType);
 	}
 	
 	/**
@@ -57,13 +78,49 @@ public abstract class QueryExecutor
 	 * @return
 	 */
 	protected boolean isListenerAvailable(EntityEventType eventType)
+	{
+		return isListenerAvailable(entityDetails.getEntityType(), eventType);
+	}
+	
+	/**
+	 * Checks if listener is available for specified entity type and event
+	 * @param entityType
+	 * @param eventType
+	 * @return
+	 */
+	protected boolean isListenerAvailable(Class<?> entityType, EntityEventType eventType)
 	{
 		RepositoryFactory factory = persistenceExecutionContext.getRepositoryFactory();
-		return factory.getEntityListenerManager().isListenerPresent(entityDetails.getEntityType(), eventType);
+		return factory.getEntityListenerManager().isListenerPresent(entityType, eventType);
 	}
 	
 	public abstract Object execute(IDataStore dataStore, ConversionService conversionService, Object... params);
 	
+	/**
+	 * Splits the specified values into lists of specified max size
+	 * @param values Values to split
+	 * @param size Max size of each list
+	 * @return Split lists
+	 */
+	protected static <T> List<List<T>> partition(Collection<T> values, int size)
+	{
+		List<List<T>> result = new ArrayList<>();
+		List<T> current = null;
+		
+		for(T value : values)
+		{
+			if(current == null || current.size() >= size)
+			{
+				current = new ArrayList<>(size);
+				result.add(current);
+			}
+			
+			current.add(value);
+		}
+		
+		return result;
+	}
+	
 	@SuppressWarnings("unchecked")
 	protected <A extends Annotation> A getAnnotation(Annotation annotations[], Class<A> type)
 	{
@@ -158,6 +215,12 @@ public abstract class QueryExecutor
 		//fetch conditions for each argument
 		for(int i = 0; i < paramTypes.length; i++)
 		{
+			//page request parameter is not a condition
+			if(PageRequest.class.equals(paramTypes[i]))
+			{
+				continue;
+			}
+			
 			condition = getAnnotation(paramAnnotations[i], Condition.class);
 			
 			//if condition is not found on attr
@@ -225,8 +288,16 @@ public abstract class QueryExecutor
 		
 		name = name.substring(idx + 2);
 		String fieldNames[] = name.split("And");
+		Class<?> paramTypes[] = method.getParameterTypes();
+		int paramCount = paramTypes.length;
+		
+		//page request is expected as last parameter, when conditions are specified by name
+		if(paramCount > 0 && PageRequest.class.equals(paramTypes[paramCount - 1]))
+		{
+			paramCount--;
+		}
 		
-		if(method.getParameterTypes().length != fieldNames.length)
+		if(paramCount != fieldNames.length)
 		{
 			throw new InvalidRepositoryException("Unable to find sufficient fields names from " + methodDesc);
 		}
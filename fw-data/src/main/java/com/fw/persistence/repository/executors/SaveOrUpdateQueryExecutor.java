@@ -0,0 +1,309 @@
+package com.fw.persistence.repository.executors;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import javax.persistence.GenerationType;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.fw.persistence.EntityDetails;
+import com.fw.persistence.FieldDetails;
+import com.fw.persistence.ICrudRepository;
+import com.fw.persistence.IDataStore;
+import com.fw.persistence.ITransaction;
+import com.fw.persistence.conversion.ConversionService;
+import com.fw.persistence.listeners.EntityEventType;
+import com.fw.persistence.query.ColumnParam;
+import com.fw.persistence.query.SaveOrUpdateQuery;
+import com.fw.persistence.repository.InvalidRepositoryException;
+import com.fw.persistence.repository.executors.proxy.LazyFieldsEntityCreator;
+
+/**
+ * Executor for save-or-update methods, which inserts the entity or updates it if an entity with same id already
+ * exists, using single statement (see {@link IDataStore#saveOrUpdate(SaveOrUpdateQuery, EntityDetails)}).
+ * <BR/>
+ * Single statement execution is used only when it is equivalent to update-or-save. For entities without id value, 
+ * entities with identity ids (which can not be inserted with specified id), entities with relations not maintained 
+ * by entity table and when save/update listeners are registered, entities are updated (or saved if update fails) 
+ * using repository.
+ * @author akiran
+ */
+@QueryExecutorPattern(prefixes = {"saveOrUpdate"})
+public class SaveOrUpdateQueryExecutor extends AbstractPersistQueryExecutor
+{
+	private static Logger logger = LogManager.getLogger(SaveOrUpdateQueryExecutor.class);
+	private static final String COL_UQ_ENTITY_ID = "UQ_ENTITY_ID";
+	
+	private Class<?> returnType;
+	
+	/**
+	 * Indicates whether this executor saves/updates collection of entities
+	 */
+	private boolean batchSave;
+	
+	public SaveOrUpdateQueryExecutor(Class<?> repositoryType, Method method, EntityDetails entityDetails)
+	{
+		super.entityDetails = entityDetails;
+		super.repositoryType = repositoryType;
+		
+		Class<?> paramTypes[] = method.getParameterTypes();
+		boolean isCoreInterface = ICrudRepository.class.equals(method.getDeclaringClass());
+		
+		if(paramTypes.length != 1)
+		{
+			throw new InvalidRepositoryException("Non-single parameter save-or-update method '" + method.getName() + "' in repository: " + repositoryType.getName());
+		}
+		
+		batchSave = Collection.class.isAssignableFrom(paramTypes[0]);
+		
+		if(!entityDetails.getEntityType().equals(paramTypes[0]) && !batchSave && !isCoreInterface)
+		{
+			throw new InvalidRepositoryException("Save-or-update method '" + method.getName() + "' found with non-entity parameter in repository: " + repositoryType.getName());
+		}
+		
+		returnType = method.getReturnType();
+		
+		if(batchSave)
+		{
+			if(!boolean.class.equals(returnType) && !void.class.equals(returnType) && !int.class.equals(returnType))
+			{
+				throw new InvalidRepositoryException("Save-or-update method '" + method.getName() + "' found with non-boolean, non-void and non-int return type in repository: " + repositoryType.getName());
+			}
+		}
+		else if(!boolean.class.equals(returnType) && !void.class.equals(returnType))
+		{
+			throw new InvalidRepositoryException("Save-or-update method '" + method.getName() + "' found with non-boolean and non-void return type in repository: " + repositoryType.getName());
+		}
+	}
+	
+	/**
+	 * Checks if specified entity should be saved/updated using repository save and update methods, instead
+	 * of single statement
+	 * @param entity
+	 * @return
+	 */
+	private boolean isRepositorySaveRequired(Object entity)
+	{
+		//listeners should get proper save or update events
+		if(isListenerAvailable(EntityEventType.PRE_SAVE) || isListenerAvailable(EntityEventType.POST_SAVE) 
+				|| isListenerAvailable(EntityEventType.PRE_UPDATE) || isListenerAvailable(EntityEventType.POST_UPDATE))
+		{
+			return true;
+		}
+		
+		FieldDetails idField = entityDetails.getIdField();
+		
+		if(idField.getGenerationType() == GenerationType.IDENTITY)
+		{
+			return true;
+		}
+		
+		Object id = idField.getValue(entity);
+		
+		//if id is not set
+		if(id == null || (idField.getGenerationType() != null && (id instanceof Number) && ((Number)id).longValue() == 0))
+		{
+			return true;
+		}
+		
+		//relations maintained by child or join tables are handled only by save
+		for(FieldDetails field : entityDetails.getFieldDetails())
+		{
+			if(field.isRelationField() && !field.isTableOwned() && field.getValue(entity) != null)
+			{
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Updates specified entity using repository, if update fails saves the entity
+	 * @param entity
+	 * @return true if entity is updated or saved
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private boolean updateOrSave(Object entity)
+	{
+		ICrudRepository repository = super.getCrudRepository(entityDetails.getEntityType());
+		
+		if(entityDetails.getIdField().getValue(entity) != null && repository.update(entity))
+		{
+			return true;
+		}
+		
+		return repository.save(entity);
+	}
+	
+	/**
+	 * Native save-or-update of some data stores updates the conflicting row on any unique key violation, in such
+	 * cases unique constraints are checked irrespective of explicit checks configuration
+	 */
+	@Override
+	protected boolean isUniqueCheckRequired(IDataStore dataStore)
+	{
+		return dataStore.isExplicitUniqueCheckRequired() || dataStore.isSaveOrUpdateUniqueCheckRequired();
+	}
+	
+	/**
+	 * Builds save-or-update query for specified entity
+	 * @param entity
+	 * @param conversionService
+	 * @return
+	 */
+	private SaveOrUpdateQuery buildQuery(Object entity, ConversionService conversionService)
+	{
+		FieldDetails idField = entityDetails.getIdField();
+		Object value = conversionService.convertToDBType(idField.getValue(entity), idField);
+		
+		SaveOrUpdateQuery query = new SaveOrUpdateQuery(entityDetails, new ColumnParam(idField.getColumn(), value, -1));
+		
+		for(FieldDetails field : entityDetails.getFieldDetails())
+		{
+			if(field.isIdField() || !field.isTableOwned())
+			{
+				continue;
+			}
+			
+			//lazy fields which are never loaded or set, should not be overwritten with null
+			if(!LazyFieldsEntityCreator.isFieldLoaded(entity, field.getName()))
+			{
+				continue;
+			}
+			
+			value = field.getValue(entity);
+			
+			//for relations, store the id of related entity
+			if(field.isRelationField())
+			{
+				value = (value != null) ? field.getForeignConstraintDetails().getTargetEntityDetails().getIdField().getValue(value) : null;
+			}
+			
+			value = conversionService.convertToDBType(value, field);
+			query.addColumn(new ColumnParam(field.getColumn(), value, -1));
+		}
+		
+		//unique entity id column is populated for new rows, same as save
+		query.addInsertColumn(new ColumnParam(COL_UQ_ENTITY_ID, UUID.randomUUID().toString(), -1));
+		return query;
+	}
+	
+	@Override
+	public Object execute(IDataStore dataStore, ConversionService conversionService, Object... params)
+	{
+		logger.trace("Started method: execute");
+		
+		if(batchSave)
+		{
+			return saveOrUpdateAll(dataStore, conversionService, (Collection<?>)params[0]);
+		}
+		
+		Object entity = params[0];
+		
+		if(entity == null)
+		{
+			throw new NullPointerException("Entity can not be null");
+		}
+		
+		if(isRepositorySaveRequired(entity))
+		{
+			boolean res = updateOrSave(entity);
+			return (boolean.class.equals(returnType)) ? res : null;
+		}
+		
+		//check unique constraints are not violated by other entities and foreign parent keys are available
+		checkForConstraints(dataStore, conversionService, entity, true);
+		
+		int res = dataStore.saveOrUpdate(buildQuery(entity, conversionService), entityDetails);
+		return (boolean.class.equals(returnType)) ? (res > 0) : null;
+	}
+	
+	/**
+	 * Saves or updates specified entities using batch execution of data store
+	 * @param dataStore Data store to use
+	 * @param conversionService Conversion service to use
+	 * @param entities Entities to save or update
+	 * @return Result as per return type
+	 */
+	private Object saveOrUpdateAll(IDataStore dataStore, ConversionService conversionService, Collection<?> entities)
+	{
+		logger.trace("Started method: saveOrUpdateAll");
+		
+		if(entities == null)
+		{
+			throw new NullPointerException("Entities can not be null");
+		}
+		
+		if(entities.contains(null))
+		{
+			throw new NullPointerException("Entities can not contain null");
+		}
+		
+		List<Object> batchEntities = new ArrayList<>(entities.size());
+		List<Object> repositoryEntities = new ArrayList<>();
+		
+		for(Object entity : entities)
+		{
+			if(isRepositorySaveRequired(entity))
+			{
+				repositoryEntities.add(entity);
+			}
+			else
+			{
+				batchEntities.add(entity);
+			}
+		}
+		
+		int count = 0;
+		
+		try(ITransaction transaction = dataStore.getTransactionManager().newOrExistingTransaction())
+		{
+			if(!batchEntities.isEmpty())
+			{
+				//check unique constraints are not violated by other entities and foreign parent keys are available
+				checkForConstraints(dataStore, conversionService, batchEntities, true);
+				
+				List<SaveOrUpdateQuery> queries = new ArrayList<>(batchEntities.size());
+				
+				for(Object entity : batchEntities)
+				{
+					queries.add(buildQuery(entity, conversionService));
+				}
+				
+				for(int res : dataStore.saveOrUpdateAll(queries, entityDetails))
+				{
+					count += (res > 0) ? 1 : 0;
+				}
+			}
+			
+			for(Object entity : repositoryEntities)
+			{
+				count += updateOrSave(entity) ? 1 : 0;
+			}
+			
+			transaction.commit();
+		}catch(Exception ex)
+		{
+			//rethrow the catched exception
+			if(ex instanceof RuntimeException)
+			{
+				throw (RuntimeException)ex;
+			}
+			
+			throw new IllegalStateException(ex);
+		}
+		
+		if(int.class.equals(returnType))
+		{
+			return count;
+		}
+		
+		return (boolean.class.equals(returnType)) ? (count == entities.size()) : null;
+	}
+}
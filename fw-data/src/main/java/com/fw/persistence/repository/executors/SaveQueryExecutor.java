@@ -1,9 +1,11 @@
 package com.fw.persistence.repository.executors;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -33,14 +35,61 @@ import com.fw.persistence.query.SaveQuery;
 import com.fw.persistence.repository.InvalidRepositoryException;
 import com.fw.utils.ObjectWrapper;
 
-@QueryExecutorPattern(prefixes = {"save"})
+@QueryExecutorPattern(prefixes = {"save"}, excludePrefixes = {"saveOrUpdate"})
 public class SaveQueryExecutor extends AbstractPersistQueryExecutor
 {
 	private static Logger logger = LogManager.getLogger(SaveQueryExecutor.class);
 	private static final String COL_UQ_ENTITY_ID = "UQ_ENTITY_ID";
 	
+	/**
+	 * Details of single entity being saved
+	 * @author akiran
+	 */
+	private static class EntitySaveDetails
+	{
+		/**
+		 * Entity being saved
+		 */
+		private Object entity;
+		
+		/**
+		 * Save query for the entity
+		 */
+		private SaveQuery query;
+		
+		/**
+		 * Holds id of the entity
+		 */
+		private ObjectWrapper<Object> idWrapper = new ObjectWrapper<>();
+		
+		/**
+		 * Unique id used to fetch generated id of the entity
+		 */
+		private String entityUid = UUID.randomUUID().toString();
+		
+		/**
+		 * Relation fields whose relation is maintained by join table
+		 */
+		private Map<FieldDetails, Object> tableJoinedFields = new HashMap<>();
+		
+		/**
+		 * Relation fields whose relation is maintained by child entities
+		 */
+		private Map<FieldDetails, Object> childFields = new HashMap<>();
+		
+		public EntitySaveDetails(Object entity)
+		{
+			this.entity = entity;
+		}
+	}
+	
 	private Class<?> returnType;
 	
+	/**
+	 * Indicates whether this executor saves collection of entities
+	 */
+	private boolean batchSave;
+	
 	public SaveQueryExecutor(Class<?> repositoryType, Method method, EntityDetails entityDetails)
 	{
 		super.entityDetails = entityDetails;
@@ -54,54 +103,42 @@ public class SaveQueryExecutor extends AbstractPersistQueryExecutor
 			throw new InvalidRepositoryException("Non-single parameter save method '" + method.getName() + "' in repository: " + repositoryType.getName());
 		}
 		
-		if(!entityDetails.getEntityType().equals(paramTypes[0]) && !isCoreInterface)
+		batchSave = Collection.class.isAssignableFrom(paramTypes[0]);
+		
+		if(!entityDetails.getEntityType().equals(paramTypes[0]) && !batchSave && !isCoreInterface)
 		{
 			throw new InvalidRepositoryException("Save method '" + method.getName() + "' found with non-entity parameter in repository: " + repositoryType.getName());
 		}
 		
 		returnType = method.getReturnType();
 		
-		if(!boolean.class.equals(returnType) && !void.class.equals(returnType))
+		if(batchSave)
+		{
+			if(!boolean.class.equals(returnType) && !void.class.equals(returnType) && !int.class.equals(returnType))
+			{
+				throw new InvalidRepositoryException("Save method '" + method.getName() + "' found with non-boolean, non-void and non-int return type in repository: " + repositoryType.getName());
+			}
+		}
+		else if(!boolean.class.equals(returnType) && !void.class.equals(returnType))
 		{
 			throw new InvalidRepositoryException("Save method '" + method.getName() + "' found with non-boolean and non-void return type in repository: " + repositoryType.getName());
 		}
 	}
 	
-	@Override
-	public Object execute(IDataStore dataStore, ConversionService conversionService, Object... params)
+	/**
+	 * Builds the save query and collects the relation details of specified entity
+	 * @param entity Entity to be saved
+	 * @param conversionService Conversion service to be used
+	 * @return Save details of the entity
+	 */
+	private EntitySaveDetails buildSaveDetails(Object entity, ConversionService conversionService)
 	{
-		logger.trace("Started method: execute");
-		
-		Object entity = params[0];
-
-		if(entity == null)
-		{
-			throw new NullPointerException("Entity can not be null");
-		}
-		
-		if(dataStore.isExplicitUniqueCheckRequired())
-		{
-			//check if unique constraints are getting violated
-			checkForUniqueConstraints(dataStore, conversionService, entity, false);
-		}
-		
-		if(dataStore.isExplicitForeignCheckRequired())
-		{
-			//check if all foreign parent keys are available
-			checkForForeignConstraints(dataStore, conversionService, entity);
-		}
-
+		EntitySaveDetails saveDetails = new EntitySaveDetails(entity);
 		SaveQuery query = new SaveQuery(entityDetails);
 		Object value = null;
 		
-		//wrapper object to hold id value
-		ObjectWrapper<Object> idWrapper = new ObjectWrapper<>();
 		ForeignConstraintDetails foreignConstraint = null;
 		
-		//keep track of the fields that needs to be added after main entity is saved
-		Map<FieldDetails, Object> tableJoinedFields = new HashMap<>();
-		Map<FieldDetails, Object> childFields = new HashMap<>();
-		
 		for(FieldDetails field: entityDetails.getFieldDetails())
 		{
 			if(field.isIdField())
@@ -141,7 +178,7 @@ public class SaveQueryExecutor extends AbstractPersistQueryExecutor
 				//if the relation is maintained by using intermediate table
 				else if(field.isTableJoined())
 				{
-					tableJoinedFields.put(field, value);
+					saveDetails.tableJoinedFields.put(field, value);
 					continue;
 				}
 				//if the relation is mapped relation
@@ -163,7 +200,7 @@ public class SaveQueryExecutor extends AbstractPersistQueryExecutor
 						continue;
 					}
 					
-					childFields.put(field, value);
+					saveDetails.childFields.put(field, value);
 					continue;
 				}
 			}
@@ -176,58 +213,173 @@ public class SaveQueryExecutor extends AbstractPersistQueryExecutor
 			//if field is id field and value was set manually
 			if(field.isIdField())
 			{
-				idWrapper.setValue(value);
+				saveDetails.idWrapper.setValue(value);
 			}
 		}
 		
 		//add random unique id while persisting entity, which in turn can be used to fetch primary key value
-		String entityUid = UUID.randomUUID().toString();
-		query.addColumn(new ColumnParam(COL_UQ_ENTITY_ID, entityUid, -1));
+		query.addColumn(new ColumnParam(COL_UQ_ENTITY_ID, saveDetails.entityUid, -1));
+		
+		saveDetails.query = query;
+		return saveDetails;
+	}
+	
+	@Override
+	public Object execute(IDataStore dataStore, ConversionService conversionService, Object... params)
+	{
+		logger.trace("Started method: execute");
+		
+		if(batchSave)
+		{
+			return saveAll(dataStore, conversionService, (Collection<?>)params[0]);
+		}
+		
+		Object entity = params[0];
+
+		if(entity == null)
+		{
+			throw new NullPointerException("Entity can not be null");
+		}
+		
+		//check unique constraints are not violated and foreign parent keys are available
+		checkForConstraints(dataStore, conversionService, entity, false);
+
+		EntitySaveDetails saveDetails = buildSaveDetails(entity, conversionService);
 		
 		//save the entity
 		try(ITransaction transaction = dataStore.getTransactionManager().newOrExistingTransaction())
 		{
 			super.notifyEntityEvent(null, entity, EntityEventType.PRE_SAVE);
 
-			int res = dataStore.save(query, entityDetails, idWrapper);
+			int res = dataStore.save(saveDetails.query, entityDetails, saveDetails.idWrapper);
 			
 			//if insertion was successful
 			if(res > 0)
 			{
 				//if id value is found from statement or was explicitly specified
-				if(idWrapper.getValue() == null)
+				if(saveDetails.idWrapper.getValue() == null)
 				{
 					//fetch the newly save entry id and populate it to entity
-					idWrapper.setValue( fetchId(entity, dataStore, entityUid, conversionService) );
+					saveDetails.idWrapper.setValue( fetchId(entity, dataStore, saveDetails.entityUid, conversionService) );
 				}
 				else
 				{
 					//set the id value on entity
-					entityDetails.getIdField().setValue(entity, idWrapper.getValue());
+					entityDetails.getIdField().setValue(entity, saveDetails.idWrapper.getValue());
 				}
 				
-				//save child entities, if any
-				for(FieldDetails field : childFields.keySet())
+				saveRelations(Arrays.asList(saveDetails), conversionService, dataStore);
+				
+				super.notifyEntityEvent(null, entity, EntityEventType.POST_SAVE);
+			}
+			
+			transaction.commit();
+			return (boolean.class.equals(returnType)) ? (res > 0) : null;
+		}catch(Exception ex)
+		{
+			//rethrow the catched exception
+			if(ex instanceof RuntimeException)
+			{
+				throw (RuntimeException)ex;
+			}
+			
+			throw new IllegalStateException(ex);
+		}
+	}
+	
+	/**
+	 * Saves specified entities using batch execution of data store
+	 * @param dataStore Data store to use
+	 * @param conversionService Conversion service to use
+	 * @param entities Entities to save
+	 * @return Result as per return type
+	 */
+	private Object saveAll(IDataStore dataStore, ConversionService conversionService, Collection<?> entities)
+	{
+		logger.trace("Started method: saveAll");
+		
+		if(entities == null)
+		{
+			throw new NullPointerException("Entities can not be null");
+		}
+		
+		if(entities.contains(null))
+		{
+			throw new NullPointerException("Entities can not contain null");
+		}
+		
+		//check unique constraints are not violated and foreign parent keys are available
+		checkForConstraints(dataStore, conversionService, entities, false);
+		
+		List<EntitySaveDetails> saveDetailsLst = new ArrayList<>(entities.size());
+		List<SaveQuery> queries = new ArrayList<>(entities.size());
+		EntitySaveDetails saveDetails = null;
+		
+		for(Object entity : entities)
+		{
+			saveDetails = buildSaveDetails(entity, conversionService);
+			
+			saveDetailsLst.add(saveDetails);
+			queries.add(saveDetails.query);
+		}
+		
+		try(ITransaction transaction = dataStore.getTransactionManager().newOrExistingTransaction())
+		{
+			for(EntitySaveDetails details : saveDetailsLst)
+			{
+				super.notifyEntityEvent(null, details.entity, EntityEventType.PRE_SAVE);
+			}
+			
+			int res[] = dataStore.saveAll(queries, entityDetails);
+			
+			List<EntitySaveDetails> savedDetails = new ArrayList<>(saveDetailsLst.size());
+			Map<String, EntitySaveDetails> uidToDetails = new LinkedHashMap<>();
+			int count = 0;
+			
+			for(int i = 0; i < res.length; i++)
+			{
+				//if insertion failed
+				if(res[i] <= 0)
 				{
-					/*
-					 * Child fields are fields with mapped relation under current entity.
-					 * Saving child entity with inverse relation will take care of populating join 
-					 * table update, if required
-					 */
-					saveChildEntities(field, childFields.get(field), entity);
+					continue;
 				}
 				
-				//save join table entries if any
-				for(FieldDetails field : tableJoinedFields.keySet())
+				count += res[i];
+				saveDetails = saveDetailsLst.get(i);
+				savedDetails.add(saveDetails);
+				
+				//if id value was explicitly specified
+				if(saveDetails.idWrapper.getValue() != null)
 				{
-					saveJoinTableEntry(field, entity, tableJoinedFields.get(field), conversionService, dataStore);
+					entityDetails.getIdField().setValue(saveDetails.entity, saveDetails.idWrapper.getValue());
 				}
-				
-				super.notifyEntityEvent(null, entity, EntityEventType.POST_SAVE);
+				else
+				{
+					uidToDetails.put(saveDetails.entityUid, saveDetails);
+				}
+			}
+			
+			//fetch the generated ids
+			if(!uidToDetails.isEmpty())
+			{
+				fetchIds(uidToDetails, dataStore, conversionService);
+			}
+			
+			saveRelations(savedDetails, conversionService, dataStore);
+			
+			for(EntitySaveDetails details : savedDetails)
+			{
+				super.notifyEntityEvent(null, details.entity, EntityEventType.POST_SAVE);
 			}
 			
 			transaction.commit();
-			return (boolean.class.equals(returnType)) ? (res > 0) : null;
+			
+			if(int.class.equals(returnType))
+			{
+				return count;
+			}
+			
+			return (boolean.class.equals(returnType)) ? (count == entities.size()) : null;
 		}catch(Exception ex)
 		{
 			//rethrow the catched exception
@@ -241,13 +393,90 @@ public class SaveQueryExecutor extends AbstractPersistQueryExecutor
 	}
 	
 	/**
-	 * Saves entry in join table with specified entity and inverse entity (parent entity)
+	 * Saves child entities and join table entries of specified saved entities. Child entities of 
+	 * same relation field and join table entries of same join table are saved in batches.
+	 * @param savedDetails Save details of saved entities
+	 * @param conversionService Conversion service to use
+	 * @param dataStore Data store to use
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private void saveRelations(List<EntitySaveDetails> savedDetails, ConversionService conversionService, IDataStore dataStore)
+	{
+		Map<FieldDetails, List<Object>> fieldToChildEntities = new LinkedHashMap<>();
+		Map<FieldDetails, List<SaveQuery>> fieldToJoinQueries = new LinkedHashMap<>();
+		List<Object> childEntities = null;
+		List<SaveQuery> joinQueries = null;
+		
+		for(EntitySaveDetails saveDetails : savedDetails)
+		{
+			/*
+			 * Child fields are fields with mapped relation under current entity.
+			 * Saving child entity with inverse relation will take care of populating join 
+			 * table update, if required
+			 */
+			for(FieldDetails field : saveDetails.childFields.keySet())
+			{
+				childEntities = fieldToChildEntities.get(field);
+				
+				if(childEntities == null)
+				{
+					childEntities = new ArrayList<>();
+					fieldToChildEntities.put(field, childEntities);
+				}
+				
+				populateChildEntities(field, saveDetails.childFields.get(field), saveDetails.entity, childEntities);
+			}
+			
+			//build join table entries if any
+			for(FieldDetails field : saveDetails.tableJoinedFields.keySet())
+			{
+				joinQueries = fieldToJoinQueries.get(field);
+				
+				if(joinQueries == null)
+				{
+					joinQueries = new ArrayList<>();
+					fieldToJoinQueries.put(field, joinQueries);
+				}
+				
+				buildJoinTableQueries(field, saveDetails.entity, saveDetails.tableJoinedFields.get(field), conversionService, joinQueries);
+			}
+		}
+		
+		//save child entities, if any
+		for(FieldDetails field : fieldToChildEntities.keySet())
+		{
+			ICrudRepository childRepository = super.getCrudRepository(field.getForeignConstraintDetails().getTargetEntityDetails().getEntityType());
+			childRepository.saveAll(fieldToChildEntities.get(field));
+		}
+		
+		//save join table entries if any
+		for(FieldDetails field : fieldToJoinQueries.keySet())
+		{
+			joinQueries = fieldToJoinQueries.get(field);
+			
+			int res[] = dataStore.saveAll(joinQueries, field.getForeignConstraintDetails().getJoinTableDetails().toEntityDetails());
+			
+			for(int count : res)
+			{
+				//if insert failed
+				if(count <= 0)
+				{
+					throw new IllegalStateException("Failed to save join table entry");
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Builds queries for entries in join table with specified entity and inverse entity (parent entity)
 	 * @param field
 	 * @param entity
 	 * @param targetEntity
+	 * @param conversionService
+	 * @param queries Collection to which built queries will be added
 	 */
 	@SuppressWarnings({ "unchecked", "rawtypes" })
-	private void saveJoinTableEntry(FieldDetails field, Object entity, Object targetEntity, ConversionService conversionService, IDataStore dataStore)
+	private void buildJoinTableQueries(FieldDetails field, Object entity, Object targetEntity, ConversionService conversionService, List<SaveQuery> queries)
 	{
 		JoinTableDetails joinTableDetails = field.getForeignConstraintDetails().getJoinTableDetails();
 		EntityDetails joinEntityDetails = joinTableDetails.toEntityDetails();
@@ -257,6 +486,8 @@ public class SaveQueryExecutor extends AbstractPersistQueryExecutor
 		
 		//get ids of child and parent
 		Object ownerId = ownerIdFieldDetails.getValue(entity);
+		ownerId = conversionService.convertToDBType(ownerId, joinEntityDetails.getFieldDetailsByField(JoinTableEntity.FIELD_JOIN_COLUMN));
+		
 		Collection<Object> targetEntityList = null;
 		
 		//if target is collection (ex- many to many relation)
@@ -271,83 +502,49 @@ public class SaveQueryExecutor extends AbstractPersistQueryExecutor
 		
 		Object targetId = null;
 		
-		try(ITransaction transaction = dataStore.getTransactionManager().newOrExistingTransaction())
-		{
-			//loop through the targets
-			for(Object target : targetEntityList)
-			{
-				//fetch target id
-				targetId = targetIdFieldDetails.getValue(target);
-				
-				ownerId = conversionService.convertToDBType(ownerId, joinEntityDetails.getFieldDetailsByField(JoinTableEntity.FIELD_JOIN_COLUMN));
-				targetId = conversionService.convertToDBType(targetId, joinEntityDetails.getFieldDetailsByField(JoinTableEntity.FIELD_INV_JOIN_COLUMN));
-				
-				//build save query
-				SaveQuery query = new SaveQuery(joinEntityDetails);
-				query.addColumn(new ColumnParam(joinTableDetails.getJoinColumn(), ownerId, -1));
-				query.addColumn(new ColumnParam(joinTableDetails.getInverseJoinColumn(), targetId, -1));
-		
-				//save the entity
-				int res = dataStore.save(query, entityDetails, new ObjectWrapper<>());
-	
-				//if insert failed
-				if(res <= 0)
-				{
-					throw new IllegalStateException("Failed to save join table entry");
-				}
-			}
-			
-			transaction.commit();
-		}catch(Exception ex)
+		//loop through the targets
+		for(Object target : targetEntityList)
 		{
-			//rethrow the catched exception
-			if(ex instanceof RuntimeException)
-			{
-				throw (RuntimeException)ex;
-			}
+			//fetch target id
+			targetId = targetIdFieldDetails.getValue(target);
+			targetId = conversionService.convertToDBType(targetId, joinEntityDetails.getFieldDetailsByField(JoinTableEntity.FIELD_INV_JOIN_COLUMN));
 			
-			throw new IllegalStateException(ex);
+			queries.add(newJoinTableEntryQuery(joinTableDetails, joinEntityDetails, ownerId, targetId));
 		}
 	}
 	
 	/**
-	 * Saves the child entities represented by "value" using specified field details relation
+	 * Sets the inverse relation on child entities represented by "value" using specified field details relation, and 
+	 * adds them to specified child entity list
 	 * @param field
 	 * @param value
+	 * @param parentEntity
+	 * @param childEntities List to which child entities should be added
 	 */
-	@SuppressWarnings({ "unchecked", "rawtypes" })
-	private void saveChildEntities(FieldDetails field, Object value, Object parentEntity)
+	private void populateChildEntities(FieldDetails field, Object value, Object parentEntity, List<Object> childEntities)
 	{
 		//get child entity details
 		ForeignConstraintDetails foreignConstraint = field.getForeignConstraintDetails();
 		
 		//fetch child entity details
 		EntityDetails childEntityDetails = foreignConstraint.getTargetEntityDetails();
-
-		ICrudRepository childRepository = super.getCrudRepository(childEntityDetails.getEntityType());
-		
 		FieldDetails childFieldDetails = childEntityDetails.getFieldDetailsByField(foreignConstraint.getMappedBy());
 		
 		//if value is collection of entities
 		if(value instanceof Collection)
 		{
-			Collection<?> childEntities = (Collection<?>)value;
-			
-			//save all child entities
-			for(Object childEntity : childEntities)
+			for(Object childEntity : (Collection<?>)value)
 			{
 				//set inverse relation on child to parent
 				childFieldDetails.setValue(childEntity, parentEntity);
-				
-				childRepository.save(childEntity);
+				childEntities.add(childEntity);
 			}
 		}
 		else
 		{
 			//set inverse relation on child to parent
-			childEntityDetails.getFieldDetailsByField(foreignConstraint.getMappedBy()).setValue(value, parentEntity);
-
-			childRepository.save(value);
+			childFieldDetails.setValue(value, parentEntity);
+			childEntities.add(value);
 		}
 	}
 	
@@ -388,5 +585,43 @@ public class SaveQueryExecutor extends AbstractPersistQueryExecutor
 		
 		return idValue;
 	}
-
+	
+	/**
+	 * Fetches ids of entities based on uuids (generated for entities) and populates them
+	 * on the entities. Ids are fetched using IN queries.
+	 * @param uidToDetails Uuid to entity save details
+	 * @param dataStore
+	 * @param conversionService
+	 */
+	private void fetchIds(Map<String, EntitySaveDetails> uidToDetails, IDataStore dataStore, ConversionService conversionService)
+	{
+		logger.trace("Started method: fetchIds");
+		
+		FieldDetails idFieldDetails = entityDetails.getIdField();
+		FinderQuery findQuery = null;
+		List<Record> records = null;
+		EntitySaveDetails saveDetails = null;
+		Object idValue = null;
+		
+		for(List<String> uids : partition(uidToDetails.keySet(), MAX_IN_VALUES))
+		{
+			//build finder query
+			findQuery = new FinderQuery(entityDetails);
+			findQuery.addResultField(new QueryResultField(null, idFieldDetails.getColumn(), null));
+			findQuery.addResultField(new QueryResultField(null, COL_UQ_ENTITY_ID, null));
+			
+			findQuery.addCondition(new QueryCondition(null, COL_UQ_ENTITY_ID, Operator.IN, uids));
+			
+			records = dataStore.executeFinder(findQuery, entityDetails);
+			
+			for(Record record : records)
+			{
+				saveDetails = uidToDetails.get(record.getString(1));
+				
+				idValue = conversionService.convertToJavaType(record.getObject(0), idFieldDetails);
+				idFieldDetails.setValue(saveDetails.entity, idValue);
+				saveDetails.idWrapper.setValue(idValue);
+			}
+		}
+	}
 }
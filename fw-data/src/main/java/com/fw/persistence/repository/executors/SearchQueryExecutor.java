@@ -20,6 +20,7 @@ import com.fw.persistence.conversion.ConversionService;
 import com.fw.persistence.query.FinderQuery;
 import com.fw.persistence.repository.InvalidRepositoryException;
 import com.fw.persistence.repository.search.SearchCondition;
+import com.fw.persistence.repository.search.SearchOrderBy;
 import com.fw.persistence.repository.search.SearchQuery;
 
 @QueryExecutorPattern(prefixes = {"search"})
@@ -73,8 +74,20 @@ public class SearchQueryExecutor extends AbstractSearchQuery
 				conditionParams.add(condition.getValue());
 			}
 			
-			//load condition values
-			conditionQueryBuilder.loadConditionalQuery(finderQuery, conditionParams.toArray());
+			//add ordering fields to query builder, so that required joins are evaluated
+			for(SearchOrderBy orderBy : searchQuery.getOrderByFields())
+			{
+				conditionQueryBuilder.addOrderByField(orderBy.getField(), orderBy.isAscending(), methodDesc);
+			}
+			
+			//load condition values and page details
+			conditionQueryBuilder.loadFinderQuery(finderQuery, conditionParams.toArray(), searchQuery.getPageRequest(), conversionService);
+			
+			//if stream is expected, records are parsed as they are read
+			if(streamReturnType)
+			{
+				return streamResults(dataStore, finderQuery, conditionQueryBuilder, conversionService);
+			}
 			
 			//execute the query and fetch records
 			List<Record> records = dataStore.executeFinder(finderQuery, entityDetails);
@@ -2,6 +2,17 @@ package com.fw.persistence.repository.executors;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.logging.log4j.LogManager;
@@ -12,14 +23,23 @@ import com.fw.persistence.FieldDetails;
 import com.fw.persistence.ICrudRepository;
 import com.fw.persistence.IDataStore;
 import com.fw.persistence.ITransaction;
+import com.fw.persistence.JoinTableDetails;
+import com.fw.persistence.JoinTableEntity;
 import com.fw.persistence.Operator;
+import com.fw.persistence.Record;
+import com.fw.persistence.cache.EntitySnapshots;
 import com.fw.persistence.conversion.ConversionService;
 import com.fw.persistence.listeners.EntityEventType;
 import com.fw.persistence.query.ColumnParam;
+import com.fw.persistence.query.DeleteQuery;
+import com.fw.persistence.query.FinderQuery;
 import com.fw.persistence.query.QueryCondition;
+import com.fw.persistence.query.QueryResultField;
+import com.fw.persistence.query.SaveQuery;
 import com.fw.persistence.query.UpdateQuery;
 import com.fw.persistence.repository.InvalidRepositoryException;
 import com.fw.persistence.repository.annotations.Field;
+import com.fw.persistence.repository.executors.proxy.LazyFieldsEntityCreator;
 
 @QueryExecutorPattern(prefixes = {"update"})
 public class UpdateQueryExecutor extends AbstractPersistQueryExecutor
@@ -29,11 +49,21 @@ public class UpdateQueryExecutor extends AbstractPersistQueryExecutor
 	private Class<?> returnType;
 	private ReentrantLock queryLock = new ReentrantLock();
 	private boolean entityUpdate = false;
+	
+	/**
+	 * Indicates whether this executor updates collection of entities
+	 */
+	private boolean batchUpdate = false;
 	private ConditionQueryBuilder conditionQueryBuilder;
 	private String methodDesc;
 	
 	private UpdateQuery updateQuery;
 	
+	/**
+	 * Relation fields of entity which are maintained using join table, owned by this entity
+	 */
+	private List<FieldDetails> joinTableFields = new ArrayList<>();
+	
 	public UpdateQueryExecutor(Class<?> repositoryType, Method method, EntityDetails entityDetails)
 	{
 		super.entityDetails = entityDetails;
@@ -52,7 +82,11 @@ public class UpdateQueryExecutor extends AbstractPersistQueryExecutor
 		
 		boolean isCoreInterface = ICrudRepository.class.equals(method.getDeclaringClass());
 		
-		if( ( paramTypes.length == 1 && entityDetails.getEntityType().equals(paramTypes[0]) ) || isCoreInterface)
+		if(paramTypes.length == 1 && Collection.class.isAssignableFrom(paramTypes[0]))
+		{
+			batchUpdate = true;
+		}
+		else if( ( paramTypes.length == 1 && entityDetails.getEntityType().equals(paramTypes[0]) ) || isCoreInterface)
 		{
 			entityUpdate = true;
 		}
@@ -73,6 +107,15 @@ public class UpdateQueryExecutor extends AbstractPersistQueryExecutor
 		
 		returnType = method.getReturnType();
 		
+		for(FieldDetails field : entityDetails.getFieldDetails())
+		{
+			if(field.isRelationField() && !field.getForeignConstraintDetails().isMappedRelation() 
+					&& field.getForeignConstraintDetails().getJoinTableDetails() != null)
+			{
+				joinTableFields.add(field);
+			}
+		}
+		
 		if(!boolean.class.equals(returnType) && !void.class.equals(returnType) && !int.class.equals(returnType))
 		{
 			throw new InvalidRepositoryException("Update method '" + method.getName() + "' found with non-boolean, non-void and non-int return type in repository: " + repositoryType.getName());
@@ -120,6 +163,291 @@ public class UpdateQueryExecutor extends AbstractPersistQueryExecutor
 		return found;
 	}
 	
+	/**
+	 * Builds update query which updates specified non-id fields of specified entity
+	 * @param conversionService
+	 * @param entity
+	 * @param fields Fields to be updated
+	 * @return
+	 */
+	private UpdateQuery buildUpdateQuery(ConversionService conversionService, Object entity, Collection<FieldDetails> fields)
+	{
+		UpdateQuery query = new UpdateQuery(entityDetails);
+		Object value = null;
+		
+		for(FieldDetails field: fields)
+		{
+			//relations not owned by this table are maintained separately
+			if(field.isIdField() || !field.isTableOwned())
+			{
+				continue;
+			}
+			
+			//lazy fields which are never loaded or set, should not be overwritten with null
+			if(!LazyFieldsEntityCreator.isFieldLoaded(entity, field.getName()))
+			{
+				continue;
+			}
+			
+			value = conversionService.convertToDBType(field.getValue(entity), field);
+			
+			query.addColumn(new ColumnParam(field.getColumn(), value, -1));
+		}
+		
+		query.addCondition(new QueryCondition(null, entityDetails.getIdField().getColumn(), Operator.EQ, entityDetails.getIdField().getValue(entity)));
+		return query;
+	}
+	
+	/**
+	 * Fetches snapshots of entity type, which are used to find modified fields of entities
+	 * @return Snapshots of entity type, null if dirty checking is not enabled for entity type
+	 */
+	private EntitySnapshots getEntitySnapshots()
+	{
+		return persistenceExecutionContext.getRepositoryFactory().getEntitySnapshots(entityDetails.getEntityType());
+	}
+	
+	/**
+	 * Fetches names of specified fields
+	 * @param fields
+	 * @return Field names, null if fields is null
+	 */
+	private Set<String> getFieldNames(List<FieldDetails> fields)
+	{
+		if(fields == null)
+		{
+			return null;
+		}
+		
+		Set<String> names = new HashSet<>();
+		
+		for(FieldDetails field : fields)
+		{
+			names.add(field.getName());
+		}
+		
+		return names;
+	}
+	
+	/**
+	 * Refreshes snapshot of specified updated entity. When update is done as part of outer transaction, the state
+	 * after commit is not known, so snapshot is removed, which results in full update next time.
+	 * @param entitySnapshots
+	 * @param entity
+	 * @param conversionService
+	 * @param outerTransaction Flag indicating if update is done in outer transaction
+	 */
+	private void refreshSnapshot(EntitySnapshots entitySnapshots, Object entity, ConversionService conversionService, boolean outerTransaction)
+	{
+		if(outerTransaction)
+		{
+			entitySnapshots.remove(entity);
+			return;
+		}
+		
+		entitySnapshots.capture(entity, conversionService);
+	}
+	
+	/**
+	 * Converts specified update count to return type of the method
+	 * @param count
+	 * @return
+	 */
+	private Object toResult(int count)
+	{
+		if(int.class.equals(returnType))
+		{
+			return count;
+		}
+		
+		return (boolean.class.equals(returnType)) ? (count > 0) : null;
+	}
+	
+	/**
+	 * Checks if any of join table relation fields of specified entity has value. Null values of such fields are
+	 * considered as not loaded and are not updated.
+	 * @param entity
+	 * @return
+	 */
+	private boolean hasJoinTableValues(Object entity)
+	{
+		for(FieldDetails field : joinTableFields)
+		{
+			if(field.getValue(entity) != null)
+			{
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Fetches existing join table entries of specified owner ids
+	 * @param dataStore
+	 * @param conversionService
+	 * @param field Join table relation field
+	 * @param ownerIds Owner ids, converted to join column type
+	 * @return Owner id to target ids (converted to inverse join column type) mapping
+	 */
+	private Map<Object, Set<Object>> fetchJoinTableEntries(IDataStore dataStore, ConversionService conversionService, FieldDetails field, Collection<Object> ownerIds)
+	{
+		JoinTableDetails joinTableDetails = field.getForeignConstraintDetails().getJoinTableDetails();
+		EntityDetails joinEntityDetails = joinTableDetails.toEntityDetails();
+		
+		FieldDetails joinFieldDetails = joinEntityDetails.getFieldDetailsByField(JoinTableEntity.FIELD_JOIN_COLUMN);
+		FieldDetails inverseJoinFieldDetails = joinEntityDetails.getFieldDetailsByField(JoinTableEntity.FIELD_INV_JOIN_COLUMN);
+		
+		Map<Object, Set<Object>> ownerToTargets = new HashMap<>();
+		FinderQuery query = null;
+		Object ownerId = null, targetId = null;
+		
+		for(List<Object> ownerIdsChunk : partition(ownerIds, MAX_IN_VALUES))
+		{
+			query = new FinderQuery(joinEntityDetails);
+			query.addResultField(new QueryResultField(null, joinTableDetails.getJoinColumn(), null));
+			query.addResultField(new QueryResultField(null, joinTableDetails.getInverseJoinColumn(), null));
+			query.addCondition(new QueryCondition(null, joinTableDetails.getJoinColumn(), Operator.IN, ownerIdsChunk));
+			
+			for(Record record : dataStore.executeFinder(query, joinEntityDetails))
+			{
+				//convert the values read, the same way as entity values are converted, so that they can be compared
+				ownerId = conversionService.convertToDBType(conversionService.convertToJavaType(record.getObject(0), entityDetails.getIdField()), joinFieldDetails);
+				targetId = conversionService.convertToJavaType(record.getObject(1), field.getForeignConstraintDetails().getTargetEntityDetails().getIdField());
+				targetId = conversionService.convertToDBType(targetId, inverseJoinFieldDetails);
+				
+				ownerToTargets.computeIfAbsent(ownerId, key -> new HashSet<>()).add(targetId);
+			}
+		}
+		
+		return ownerToTargets;
+	}
+	
+	/**
+	 * Updates join table entries of specified entities, as per current values of their join table relation fields. 
+	 * Instead of rewriting the entries, only the difference is applied - entries of added targets are inserted and
+	 * entries of removed targets are deleted, using batch execution. Relation fields with null value are skipped.
+	 * @param dataStore
+	 * @param conversionService
+	 * @param entities
+	 */
+	@SuppressWarnings("unchecked")
+	private void updateJoinTableRelations(IDataStore dataStore, ConversionService conversionService, List<Object> entities)
+	{
+		logger.trace("Started method: updateJoinTableRelations");
+		
+		JoinTableDetails joinTableDetails = null;
+		EntityDetails joinEntityDetails = null;
+		FieldDetails joinFieldDetails = null, inverseJoinFieldDetails = null, targetIdField = null;
+		
+		Map<Object, Set<Object>> ownerToTargets = null, existingEntries = null;
+		Set<Object> targetIds = null, existingTargetIds = null;
+		List<Object> removedTargetIds = null;
+		
+		List<SaveQuery> saveQueries = new ArrayList<>();
+		List<DeleteQuery> deleteQueries = new ArrayList<>();
+		DeleteQuery deleteQuery = null;
+		Object value = null, ownerId = null;
+		
+		for(FieldDetails field : joinTableFields)
+		{
+			joinTableDetails = field.getForeignConstraintDetails().getJoinTableDetails();
+			joinEntityDetails = joinTableDetails.toEntityDetails();
+			joinFieldDetails = joinEntityDetails.getFieldDetailsByField(JoinTableEntity.FIELD_JOIN_COLUMN);
+			inverseJoinFieldDetails = joinEntityDetails.getFieldDetailsByField(JoinTableEntity.FIELD_INV_JOIN_COLUMN);
+			targetIdField = field.getForeignConstraintDetails().getTargetEntityDetails().getIdField();
+			
+			//collect the expected target ids of each entity
+			ownerToTargets = new LinkedHashMap<>();
+			
+			for(Object entity : entities)
+			{
+				value = field.getValue(entity);
+				
+				if(value == null)
+				{
+					continue;
+				}
+				
+				ownerId = conversionService.convertToDBType(entityDetails.getIdField().getValue(entity), joinFieldDetails);
+				targetIds = new LinkedHashSet<>();
+				
+				for(Object target : (value instanceof Collection) ? (Collection<Object>)value : Arrays.asList(value))
+				{
+					targetIds.add(conversionService.convertToDBType(targetIdField.getValue(target), inverseJoinFieldDetails));
+				}
+				
+				ownerToTargets.put(ownerId, targetIds);
+			}
+			
+			if(ownerToTargets.isEmpty())
+			{
+				continue;
+			}
+			
+			existingEntries = fetchJoinTableEntries(dataStore, conversionService, field, ownerToTargets.keySet());
+			saveQueries.clear();
+			deleteQueries.clear();
+			
+			for(Map.Entry<Object, Set<Object>> entry : ownerToTargets.entrySet())
+			{
+				ownerId = entry.getKey();
+				targetIds = entry.getValue();
+				existingTargetIds = existingEntries.getOrDefault(ownerId, Collections.emptySet());
+				
+				//insert entries of added targets
+				for(Object targetId : targetIds)
+				{
+					if(!existingTargetIds.contains(targetId))
+					{
+						saveQueries.add(newJoinTableEntryQuery(joinTableDetails, joinEntityDetails, ownerId, targetId));
+					}
+				}
+				
+				//delete entries of removed targets
+				removedTargetIds = new ArrayList<>();
+				
+				for(Object targetId : existingTargetIds)
+				{
+					if(!targetIds.contains(targetId))
+					{
+						removedTargetIds.add(targetId);
+					}
+				}
+				
+				for(List<Object> targetIdsChunk : partition(removedTargetIds, MAX_IN_VALUES))
+				{
+					deleteQuery = new DeleteQuery(joinEntityDetails);
+					deleteQuery.addCondition(new QueryCondition(null, joinTableDetails.getJoinColumn(), Operator.EQ, ownerId));
+					deleteQuery.addCondition(new QueryCondition(null, joinTableDetails.getInverseJoinColumn(), Operator.IN, targetIdsChunk));
+					
+					deleteQueries.add(deleteQuery);
+				}
+			}
+			
+			logger.debug("Updating join table '{}' with {} insertions and {} deletions", joinTableDetails.getTableName(), saveQueries.size(), deleteQueries.size());
+			
+			if(!deleteQueries.isEmpty())
+			{
+				dataStore.deleteAll(deleteQueries, joinEntityDetails);
+			}
+			
+			if(saveQueries.isEmpty())
+			{
+				continue;
+			}
+			
+			for(int count : dataStore.saveAll(saveQueries, joinEntityDetails))
+			{
+				//if insert failed
+				if(count <= 0)
+				{
+					throw new IllegalStateException("Failed to save join table entry");
+				}
+			}
+		}
+	}
+	
 	private Object updateFullEntity(IDataStore dataStore, ConversionService conversionService, Object entity)
 	{
 		logger.trace("Started method: updateFullEntity");
@@ -129,51 +457,213 @@ public class UpdateQueryExecutor extends AbstractPersistQueryExecutor
 			throw new NullPointerException("Entity can not be null");
 		}
 		
-		if(dataStore.isExplicitUniqueCheckRequired())
+		EntitySnapshots entitySnapshots = getEntitySnapshots();
+		List<FieldDetails> modifiedFields = (entitySnapshots != null) ? entitySnapshots.getModifiedFields(entity, conversionService) : null;
+		
+		boolean rowModified = (modifiedFields == null || !modifiedFields.isEmpty());
+		boolean joinTableValues = hasJoinTableValues(entity);
+		
+		//if entity is not modified after it is loaded, there is nothing to update
+		if(!rowModified && !joinTableValues)
 		{
-			//check if unique constraints are getting violated
-			checkForUniqueConstraints(dataStore, conversionService, entity, true);//TODO: Read only fields should be skipped
+			logger.debug("Skipping update of unmodified entity of type: {}", entityDetails.getEntityType().getName());
+			return toResult(1);
 		}
 		
-		if(dataStore.isExplicitForeignCheckRequired())
+		//check unique constraints are not violated and foreign parent keys are available
+		if(rowModified)
 		{
-			//check if all foreign parent keys are available
-			checkForForeignConstraints(dataStore, conversionService, entity);
+			checkForConstraints(dataStore, conversionService, entity, true, getFieldNames(modifiedFields));//TODO: Read only fields should be skipped
 		}
 
-		UpdateQuery query = new UpdateQuery(entityDetails);
-		Object value = null;
+		boolean outerTransaction = (dataStore.getTransactionManager().existingTransaction() != null);
 		
-		for(FieldDetails field: entityDetails.getFieldDetails())
+		try(ITransaction transaction = dataStore.getTransactionManager().newOrExistingTransaction())
 		{
-			if(field.isIdField())
+			super.notifyEntityEvent(null, entity, EntityEventType.PRE_UPDATE);
+			
+			//when only join table relations are set on unmodified entity, entity row need not be updated
+			int res = 1;
+			
+			if(rowModified)
 			{
-				continue;
+				res = dataStore.update(buildUpdateQuery(conversionService, entity, (modifiedFields != null) ? modifiedFields : entityDetails.getFieldDetails()), entityDetails);
 			}
 			
-			value = conversionService.convertToDBType(field.getValue(entity), field);
+			if(res > 0)
+			{
+				if(joinTableValues)
+				{
+					updateJoinTableRelations(dataStore, conversionService, Arrays.asList(entity));
+				}
+				
+				super.notifyEntityEvent(null, entity, EntityEventType.POST_UPDATE);
+			}
 			
-			query.addColumn(new ColumnParam(field.getColumn(), value, -1));
+			transaction.commit();
+			
+			if(res > 0 && entitySnapshots != null)
+			{
+				refreshSnapshot(entitySnapshots, entity, conversionService, outerTransaction);
+			}
+			
+			return toResult(res);
+		}catch(Exception ex)
+		{
+			//rethrow the catched exception
+			if(ex instanceof RuntimeException)
+			{
+				throw (RuntimeException)ex;
+			}
+			
+			throw new IllegalStateException(ex);
 		}
+	}
+	
+	/**
+	 * Updates specified entities using batch execution of data store. When dirty checking is enabled, unmodified
+	 * entities are skipped and only modified columns of other entities are updated.
+	 * @param dataStore
+	 * @param conversionService
+	 * @param entities
+	 * @return
+	 */
+	private Object updateAll(IDataStore dataStore, ConversionService conversionService, Collection<?> entities)
+	{
+		logger.trace("Started method: updateAll");
 		
-		query.addCondition(new QueryCondition(null, entityDetails.getIdField().getColumn(), Operator.EQ, entityDetails.getIdField().getValue(entity)));
+		if(entities == null)
+		{
+			throw new NullPointerException("Entities can not be null");
+		}
+		
+		if(entities.contains(null))
+		{
+			throw new NullPointerException("Entities can not contain null");
+		}
 		
-		super.notifyEntityEvent(null, entity, EntityEventType.PRE_UPDATE);
+		EntitySnapshots entitySnapshots = getEntitySnapshots();
+		List<Object> entityLst = new ArrayList<>(entities.size());
+		List<UpdateQuery> queries = new ArrayList<>(entities.size());
+		Set<String> modifiedFieldNames = (entitySnapshots != null) ? new HashSet<>() : null;
+		List<FieldDetails> modifiedFields = null;
+		int unmodifiedCount = 0;
 		
-		int res = dataStore.update(query, entityDetails);
+		//unmodified entities, whose join table relations needs to be updated
+		List<Object> joinOnlyEntities = new ArrayList<>();
 		
-		if(res > 0)
+		for(Object entity : entities)
 		{
-			super.notifyEntityEvent(null, entity, EntityEventType.POST_UPDATE);
+			modifiedFields = (entitySnapshots != null) ? entitySnapshots.getModifiedFields(entity, conversionService) : null;
+			
+			//if entity is not modified after it is loaded, there is nothing to update in entity row
+			if(modifiedFields != null && modifiedFields.isEmpty())
+			{
+				if(hasJoinTableValues(entity))
+				{
+					joinOnlyEntities.add(entity);
+				}
+				else
+				{
+					unmodifiedCount++;
+				}
+				
+				continue;
+			}
+			
+			//when state of any entity is not known, all constraints needs to be checked
+			if(modifiedFields == null)
+			{
+				modifiedFieldNames = null;
+			}
+			else if(modifiedFieldNames != null)
+			{
+				modifiedFieldNames.addAll(getFieldNames(modifiedFields));
+			}
+			
+			entityLst.add(entity);
+			queries.add(buildUpdateQuery(conversionService, entity, (modifiedFields != null) ? modifiedFields : entityDetails.getFieldDetails()));
 		}
 		
-		if(boolean.class.equals(returnType))
+		if(unmodifiedCount > 0)
 		{
-			return (res > 0);
+			logger.debug("Skipping update of {} unmodified entities of type: {}", unmodifiedCount, entityDetails.getEntityType().getName());
 		}
 		
-		return (int.class.equals(returnType)) ? res : null;
+		if(entityLst.isEmpty() && joinOnlyEntities.isEmpty())
+		{
+			return toResult(unmodifiedCount);
+		}
+		
+		//check unique constraints are not violated and foreign parent keys are available
+		if(!entityLst.isEmpty())
+		{
+			checkForConstraints(dataStore, conversionService, entityLst, true, modifiedFieldNames);
+		}
 		
+		boolean outerTransaction = (dataStore.getTransactionManager().existingTransaction() != null);
+		
+		try(ITransaction transaction = dataStore.getTransactionManager().newOrExistingTransaction())
+		{
+			for(Object entity : entityLst)
+			{
+				super.notifyEntityEvent(null, entity, EntityEventType.PRE_UPDATE);
+			}
+			
+			int res[] = dataStore.updateAll(queries, entityDetails);
+			int count = unmodifiedCount + joinOnlyEntities.size();
+			
+			//join table relations of updated entities are updated together
+			List<Object> joinEntities = new ArrayList<>(joinOnlyEntities);
+			
+			for(int i = 0; i < res.length; i++)
+			{
+				if(res[i] > 0 && hasJoinTableValues(entityLst.get(i)))
+				{
+					joinEntities.add(entityLst.get(i));
+				}
+			}
+			
+			if(!joinEntities.isEmpty())
+			{
+				updateJoinTableRelations(dataStore, conversionService, joinEntities);
+			}
+			
+			for(int i = 0; i < res.length; i++)
+			{
+				if(res[i] <= 0)
+				{
+					continue;
+				}
+				
+				count += res[i];
+				super.notifyEntityEvent(null, entityLst.get(i), EntityEventType.POST_UPDATE);
+			}
+			
+			transaction.commit();
+			
+			if(entitySnapshots != null)
+			{
+				for(int i = 0; i < res.length; i++)
+				{
+					if(res[i] > 0)
+					{
+						refreshSnapshot(entitySnapshots, entityLst.get(i), conversionService, outerTransaction);
+					}
+				}
+			}
+			
+			return toResult(count);
+		}catch(Exception ex)
+		{
+			//rethrow the catched exception
+			if(ex instanceof RuntimeException)
+			{
+				throw (RuntimeException)ex;
+			}
+			
+			throw new IllegalStateException(ex);
+		}
 	}
 
 	
@@ -182,6 +672,11 @@ public class UpdateQueryExecutor extends AbstractPersistQueryExecutor
 	{
 		logger.trace("Started method: execute");
 		
+		if(batchUpdate)
+		{
+			return updateAll(dataStore, conversionService, (Collection<?>)params[0]);
+		}
+		
 		if(entityUpdate)
 		{
 			return updateFullEntity(dataStore, conversionService, params[0]);
@@ -0,0 +1,345 @@
+package com.fw.persistence.repository.executors.proxy;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.beanutils.PropertyUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.fw.persistence.EntityDetails;
+import com.fw.persistence.FieldDetails;
+import com.fw.persistence.IDataStore;
+import com.fw.persistence.Operator;
+import com.fw.persistence.Record;
+import com.fw.persistence.query.FinderQuery;
+import com.fw.persistence.query.QueryCondition;
+import com.fw.persistence.query.QueryResultField;
+import com.fw.persistence.repository.PersistenceExecutionContext;
+
+import net.sf.cglib.proxy.Callback;
+import net.sf.cglib.proxy.CallbackFilter;
+import net.sf.cglib.proxy.Enhancer;
+import net.sf.cglib.proxy.Factory;
+import net.sf.cglib.proxy.MethodInterceptor;
+import net.sf.cglib.proxy.MethodProxy;
+import net.sf.cglib.proxy.NoOp;
+
+/**
+ * Creates entities whose LOB (BLOB/CLOB) fields are loaded lazily. Such entities are instances of generated sub class
+ * of entity type, whose getters of lazy fields load the field value from data store on first access. Lazy fields
+ * are expected to be accessed only using getters.
+ * @author akiran
+ */
+public class LazyFieldsEntityCreator
+{
+	private static Logger logger = LogManager.getLogger(LazyFieldsEntityCreator.class);
+	
+	/**
+	 * Index of callback handling non lazy field methods
+	 */
+	private static final int NO_OP_CALLBACK = 0;
+	
+	/**
+	 * Index of callback handling getters/setters of lazy fields
+	 */
+	private static final int LAZY_FIELD_CALLBACK = 1;
+	
+	/**
+	 * Proxy class details of an entity type, shared by all creators of the entity type
+	 * @author akiran
+	 */
+	private static class LazyType
+	{
+		/**
+		 * Proxy instance used as factory to create new instances, null if entity type has no lazy fields
+		 */
+		private Factory factory;
+		
+		/**
+		 * Getter and setter methods of lazy fields, mapped to corresponding field names
+		 */
+		private Map<Method, String> methodToField = new HashMap<>();
+	}
+	
+	/**
+	 * Proxy class details of entity types
+	 */
+	private static Map<Class<?>, LazyType> lazyTypes = new ConcurrentHashMap<>();
+	
+	/**
+	 * Entity details of the entity type
+	 */
+	private EntityDetails entityDetails;
+	
+	/**
+	 * Proxy class details of the entity type
+	 */
+	private LazyType lazyType;
+	
+	/**
+	 * Fields which will be loaded lazily
+	 */
+	private List<FieldDetails> lazyFields = new ArrayList<>();
+	
+	/**
+	 * Names of {@link #lazyFields lazyFields}
+	 */
+	private Set<String> lazyFieldNames = new HashSet<>();
+	
+	private LazyFieldsEntityCreator(EntityDetails entityDetails, LazyType lazyType)
+	{
+		this.entityDetails = entityDetails;
+		this.lazyType = lazyType;
+		
+		for(String field : new HashSet<>(lazyType.methodToField.values()))
+		{
+			lazyFields.add(entityDetails.getFieldDetailsByField(field));
+			lazyFieldNames.add(field);
+		}
+	}
+	
+	/**
+	 * Creates lazy entity creator for specified entity type. Table owned LOB fields with non final getters will be
+	 * loaded lazily.
+	 * @param entityDetails
+	 * @return Creator for entity type, null if entity type does not have any LOB field that can be loaded lazily
+	 */
+	public static LazyFieldsEntityCreator newCreator(EntityDetails entityDetails)
+	{
+		LazyType lazyType = lazyTypes.computeIfAbsent(entityDetails.getEntityType(), type -> createLazyType(entityDetails));
+		
+		if(lazyType.factory == null)
+		{
+			return null;
+		}
+		
+		return new LazyFieldsEntityCreator(entityDetails, lazyType);
+	}
+	
+	/**
+	 * Finds the lazy fields of specified entity type and generates proxy class for the same
+	 * @param entityDetails
+	 * @return
+	 */
+	private static LazyType createLazyType(EntityDetails entityDetails)
+	{
+		Class<?> entityType = entityDetails.getEntityType();
+		LazyType lazyType = new LazyType();
+		
+		if(Modifier.isFinal(entityType.getModifiers()))
+		{
+			return lazyType;
+		}
+		
+		PropertyDescriptor propertyDescriptor = null;
+		
+		for(FieldDetails field : entityDetails.getFieldDetails())
+		{
+			if(!field.isLob() || !field.isTableOwned())
+			{
+				continue;
+			}
+			
+			propertyDescriptor = getPropertyDescriptor(entityType, field.getName());
+			
+			//if getter is not available, field value can not be loaded lazily
+			if(propertyDescriptor == null || propertyDescriptor.getReadMethod() == null || Modifier.isFinal(propertyDescriptor.getReadMethod().getModifiers()))
+			{
+				logger.debug("Field {}.{} will be loaded eagerly, as non-final getter is not found", entityType.getName(), field.getName());
+				continue;
+			}
+			
+			lazyType.methodToField.put(propertyDescriptor.getReadMethod(), field.getName());
+			
+			if(propertyDescriptor.getWriteMethod() != null)
+			{
+				lazyType.methodToField.put(propertyDescriptor.getWriteMethod(), field.getName());
+			}
+		}
+		
+		if(lazyType.methodToField.isEmpty())
+		{
+			return lazyType;
+		}
+		
+		Enhancer enhancer = new Enhancer();
+		enhancer.setSuperclass(entityType);
+		enhancer.setCallbackFilter(new CallbackFilter()
+		{
+			@Override
+			public int accept(Method method)
+			{
+				return lazyType.methodToField.containsKey(method) ? LAZY_FIELD_CALLBACK : NO_OP_CALLBACK;
+			}
+		});
+		enhancer.setCallbacks(new Callback[] {NoOp.INSTANCE, new LazyFieldsInterceptor(null, null)});
+		
+		lazyType.factory = (Factory)enhancer.create();
+		return lazyType;
+	}
+	
+	private static PropertyDescriptor getPropertyDescriptor(Class<?> entityType, String property)
+	{
+		for(PropertyDescriptor descriptor : PropertyUtils.getPropertyDescriptors(entityType))
+		{
+			if(descriptor.getName().equals(property))
+			{
+				return descriptor;
+			}
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * @return the {@link #lazyFields lazyFields}
+	 */
+	public List<FieldDetails> getLazyFields()
+	{
+		return Collections.unmodifiableList(lazyFields);
+	}
+	
+	/**
+	 * Creates new entity instance, whose lazy fields are loaded using data store of specified context
+	 * @param persistenceExecutionContext
+	 * @return
+	 */
+	public Object newEntity(PersistenceExecutionContext persistenceExecutionContext)
+	{
+		return lazyType.factory.newInstance(new Callback[] {NoOp.INSTANCE, new LazyFieldsInterceptor(this, persistenceExecutionContext)});
+	}
+	
+	/**
+	 * Checks if specified field of specified entity is loaded. For entities not created by this class, this always returns true.
+	 * @param entity
+	 * @param field
+	 * @return
+	 */
+	public static boolean isFieldLoaded(Object entity, String field)
+	{
+		if(!(entity instanceof Factory))
+		{
+			return true;
+		}
+		
+		for(Callback callback : ((Factory)entity).getCallbacks())
+		{
+			if(callback instanceof LazyFieldsInterceptor)
+			{
+				return ((LazyFieldsInterceptor)callback).isLoaded(field);
+			}
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Handles getters and setters of lazy fields of single entity
+	 * @author akiran
+	 */
+	private static class LazyFieldsInterceptor implements MethodInterceptor
+	{
+		private LazyFieldsEntityCreator creator;
+		
+		private PersistenceExecutionContext persistenceExecutionContext;
+		
+		/**
+		 * Names of lazy fields, which are already loaded or set
+		 */
+		private Set<String> loadedFields;
+		
+		public LazyFieldsInterceptor(LazyFieldsEntityCreator creator, PersistenceExecutionContext persistenceExecutionContext)
+		{
+			this.creator = creator;
+			this.persistenceExecutionContext = persistenceExecutionContext;
+		}
+		
+		public synchronized boolean isLoaded(String field)
+		{
+			if(!creator.lazyFieldNames.contains(field))
+			{
+				return true;
+			}
+			
+			return (loadedFields != null && loadedFields.contains(field));
+		}
+		
+		/* (non-Javadoc)
+		 * @see net.sf.cglib.proxy.MethodInterceptor#intercept(java.lang.Object, java.lang.reflect.Method, java.lang.Object[], net.sf.cglib.proxy.MethodProxy)
+		 */
+		@Override
+		public Object intercept(Object entity, Method method, Object[] args, MethodProxy methodProxy) throws Throwable
+		{
+			//template instance used as factory, does not load any values
+			if(creator == null)
+			{
+				return methodProxy.invokeSuper(entity, args);
+			}
+			
+			FieldDetails field = creator.entityDetails.getFieldDetailsByField(creator.lazyType.methodToField.get(method));
+			
+			synchronized(this)
+			{
+				if(loadedFields == null)
+				{
+					loadedFields = new HashSet<>();
+				}
+				
+				//load the value on first getter call, setter calls simply mark the field as loaded
+				if(!loadedFields.contains(field.getName()) && args.length == 0)
+				{
+					field.setValue(entity, loadValue(entity, field));
+				}
+				
+				loadedFields.add(field.getName());
+			}
+			
+			return methodProxy.invokeSuper(entity, args);
+		}
+		
+		/**
+		 * Fetches value of specified field of specified entity from data store
+		 * @param entity
+		 * @param field
+		 * @return
+		 */
+		private Object loadValue(Object entity, FieldDetails field)
+		{
+			EntityDetails entityDetails = creator.entityDetails;
+			FieldDetails idField = entityDetails.getIdField();
+			Object id = idField.getValue(entity);
+			
+			if(id == null)
+			{
+				return null;
+			}
+			
+			IDataStore dataStore = persistenceExecutionContext.getRepositoryFactory().getDataStore();
+			
+			logger.trace("Loading lazy field {}.{}", entityDetails.getEntityType().getName(), field.getName());
+			
+			FinderQuery findQuery = new FinderQuery(entityDetails);
+			findQuery.addResultField(new QueryResultField(null, field.getColumn(), null));
+			findQuery.addCondition(new QueryCondition(null, idField.getColumn(), Operator.EQ, id));
+			
+			List<Record> records = dataStore.executeFinder(findQuery, entityDetails);
+			
+			if(records == null || records.isEmpty())
+			{
+				return null;
+			}
+			
+			return dataStore.getConversionService().convertToJavaType(records.get(0).getObject(0), field);
+		}
+	}
+}
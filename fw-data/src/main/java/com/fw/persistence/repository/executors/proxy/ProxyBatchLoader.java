@@ -0,0 +1,162 @@
+package com.fw.persistence.repository.executors.proxy;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.fw.persistence.Operator;
+import com.fw.persistence.repository.search.SearchCondition;
+import com.fw.persistence.repository.search.SearchQuery;
+import com.fw.utils.ConvertUtils;
+
+/**
+ * Batch loading context shared by the proxies created for a single result. When a proxy is accessed first time,
+ * all pending proxies of same entity type are loaded together using IN queries, instead of loading each proxy
+ * with separate query.
+ *
+ * @author akiran
+ */
+public class ProxyBatchLoader
+{
+	private static Logger logger = LogManager.getLogger(ProxyBatchLoader.class);
+
+	/**
+	 * Maximum number of ids to be used in single query
+	 */
+	private int batchSize;
+
+	/**
+	 * Proxies which are not loaded yet, grouped by entity type
+	 */
+	private Map<Class<?>, List<ProxyEntityCreator>> pendingProxies = new HashMap<>();
+
+	public ProxyBatchLoader(int batchSize)
+	{
+		if(batchSize <= 0)
+		{
+			throw new IllegalArgumentException("Invalid batch size specified: " + batchSize);
+		}
+
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Registers specified proxy creator for batch loading
+	 * @param proxyCreator
+	 */
+	synchronized void register(ProxyEntityCreator proxyCreator)
+	{
+		List<ProxyEntityCreator> proxies = pendingProxies.get(proxyCreator.getEntityType());
+
+		if(proxies == null)
+		{
+			proxies = new ArrayList<>();
+			pendingProxies.put(proxyCreator.getEntityType(), proxies);
+		}
+
+		proxies.add(proxyCreator);
+	}
+
+	/**
+	 * Converts specified id into type of entity id, so that ids from different sources can be compared
+	 * @param id
+	 * @param idType
+	 * @return
+	 */
+	private Object toIdKey(Object id, Class<?> idType)
+	{
+		if(id == null)
+		{
+			return null;
+		}
+
+		return ConvertUtils.convert(id, idType);
+	}
+
+	/**
+	 * Loads all pending proxies of entity type of specified proxy creator (including specified one). If specified
+	 * proxy creator is not pending (already loaded), this method returns without loading anything.
+	 * @param proxyCreator
+	 */
+	synchronized void load(ProxyEntityCreator proxyCreator)
+	{
+		List<ProxyEntityCreator> proxies = pendingProxies.get(proxyCreator.getEntityType());
+
+		if(proxies == null || !proxies.contains(proxyCreator))
+		{
+			return;
+		}
+
+		pendingProxies.remove(proxyCreator.getEntityType());
+
+		Class<?> idType = proxyCreator.getIdGetter().getReturnType();
+		Map<Object, List<ProxyEntityCreator>> idToProxies = new HashMap<>();
+		Object idKey = null;
+
+		//group the proxies by id, so that duplicate ids are fetched once
+		for(ProxyEntityCreator proxy : proxies)
+		{
+			idKey = toIdKey(proxy.getEntityId(), idType);
+
+			if(!idToProxies.containsKey(idKey))
+			{
+				idToProxies.put(idKey, new ArrayList<>());
+			}
+
+			idToProxies.get(idKey).add(proxy);
+		}
+
+		logger.debug("Loading {} proxies of entity type {} with {} distinct ids", proxies.size(), proxyCreator.getEntityType().getName(), idToProxies.size());
+
+		List<Object> ids = new ArrayList<>(idToProxies.keySet());
+		List<Object> batchIds = null;
+		Set<Object> notFoundIds = null;
+
+		for(int start = 0; start < ids.size(); start += batchSize)
+		{
+			batchIds = ids.subList(start, Math.min(start + batchSize, ids.size()));
+			notFoundIds = new LinkedHashSet<>(batchIds);
+
+			List<?> entities = proxyCreator.getRepository().search(new SearchQuery(
+					new SearchCondition(proxyCreator.getIdFieldName(), Operator.IN, new ArrayList<>(batchIds))
+			));
+
+			for(Object entity : entities)
+			{
+				try
+				{
+					idKey = toIdKey(proxyCreator.getIdGetter().invoke(entity), idType);
+				}catch(Exception ex)
+				{
+					throw new IllegalStateException("An error occurred while fetching id of entity - " + entity, ex);
+				}
+
+				//ignore entities which are not requested
+				if(!notFoundIds.remove(idKey))
+				{
+					continue;
+				}
+
+				for(ProxyEntityCreator proxy : idToProxies.get(idKey))
+				{
+					proxy.setActualEntity(entity);
+				}
+			}
+
+			//mark proxies whose entities are not found as loaded, with null entity
+			for(Object id : notFoundIds)
+			{
+				for(ProxyEntityCreator proxy : idToProxies.get(id))
+				{
+					proxy.setActualEntity(null);
+				}
+			}
+		}
+	}
+}
@@ -3,6 +3,8 @@ package com.fw.persistence.repository.executors.proxy;
 import java.beans.PropertyDescriptor;
 import java.lang.reflect.Method;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.beanutils.PropertyUtils;
 
@@ -13,6 +15,7 @@ import com.fw.persistence.repository.search.SearchCondition;
 import com.fw.persistence.repository.search.SearchQuery;
 
 import net.sf.cglib.proxy.Enhancer;
+import net.sf.cglib.proxy.Factory;
 import net.sf.cglib.proxy.InvocationHandler;
 
 /**
@@ -21,6 +24,35 @@ import net.sf.cglib.proxy.InvocationHandler;
  */
 public class ProxyEntityCreator
 {
+	/**
+	 * Proxy class details of an entity type, which are shared by all proxies of the entity type
+	 * @author akiran
+	 */
+	private static class ProxyType
+	{
+		/**
+		 * Proxy instance used as factory to create new proxy instances with different callbacks. This avoids
+		 * generating/looking up proxy class for every proxy instance
+		 */
+		private Factory factory;
+		
+		/**
+		 * Id getter method of entity, null if not found
+		 */
+		private Method idGetter;
+
+		public ProxyType(Factory factory, Method idGetter)
+		{
+			this.factory = factory;
+			this.idGetter = idGetter;
+		}
+	}
+	
+	/**
+	 * Proxy class details of entity types
+	 */
+	private static Map<Class<?>, ProxyType> proxyTypes = new ConcurrentHashMap<>();
+	
 	/**
 	 * The actual entity which would be loaded lazily on need basis 
 	 */
@@ -56,15 +88,44 @@ public class ProxyEntityCreator
 	 */
 	private Object proxyEntity;
 	
+	/**
+	 * Entity details of the entity being proxied
+	 */
+	private EntityDetails entityDetails;
+	
+	/**
+	 * Batch loader with which this proxy is registered, if any
+	 */
+	private ProxyBatchLoader batchLoader;
+	
 	public ProxyEntityCreator(EntityDetails entityDetails, ICrudRepository<?> repository, Object entityId)
 	{
-		this(entityDetails, repository, entityId, null);
+		this(entityDetails, repository, entityId, (SearchCondition)null);
 	}
 
 	public ProxyEntityCreator(EntityDetails entityDetails, ICrudRepository<?> repository, SearchCondition condition)
 	{
 		this(entityDetails, repository, null, condition);
 	}
+	
+	/**
+	 * Creates a proxy for specified entity id, which gets registered with specified batch loader. So that
+	 * on access, the entity gets loaded along with other pending proxies of the batch loader.
+	 * @param entityDetails
+	 * @param repository
+	 * @param entityId
+	 * @param batchLoader
+	 */
+	public ProxyEntityCreator(EntityDetails entityDetails, ICrudRepository<?> repository, Object entityId, ProxyBatchLoader batchLoader)
+	{
+		this(entityDetails, repository, entityId, (SearchCondition)null);
+		
+		if(batchLoader != null)
+		{
+			this.batchLoader = batchLoader;
+			batchLoader.register(this);
+		}
+	}
 
 	/**
 	 * Creates a proxy for specified entity type
@@ -82,10 +143,49 @@ public class ProxyEntityCreator
 		this.repository = repository;
 		this.entityId = entityId;
 		this.searchCondition = condition;
+		this.entityDetails = entityDetails;
 		
 		Class<?> entityType = entityDetails.getEntityType();
+		ProxyType proxyType = proxyTypes.computeIfAbsent(entityType, type -> createProxyType(entityDetails));
+		
+		if(entityId != null)
+		{
+			this.idGetter = proxyType.idGetter;
+			
+			//if unable to find id getter throw error
+			if(this.idGetter == null)
+			{
+				throw new IllegalStateException("Failed to fetch id getter for entity type - " + entityType.getName());
+			}
+		}
 		
-		//create ccg lib handler which will handle method calls on proxy
+		//create proxy instance using the cached proxy class, with callback handling method calls on proxy
+		this.proxyEntity = proxyType.factory.newInstance((InvocationHandler)this::invoke);
+	}
+	
+	/**
+	 * Generates the proxy class for specified entity type and fetches the id getter of the entity
+	 * @param entityDetails
+	 * @return
+	 */
+	private static ProxyType createProxyType(EntityDetails entityDetails)
+	{
+		Class<?> entityType = entityDetails.getEntityType();
+		Method idGetter = null;
+		
+		//fetch the id getter method
+		try
+		{
+			String idFieldName = entityDetails.getIdField().getName();
+			PropertyDescriptor propertyDesc = PropertyUtils.getPropertyDescriptor(entityType.newInstance(), idFieldName);
+			
+			idGetter = propertyDesc != null ? propertyDesc.getReadMethod() : null;
+		}catch(Exception ex)
+		{
+			throw new IllegalStateException("An error occurred while fetch id getter for entity type - " + entityType.getName(), ex);
+		}
+
+		//create ccg lib proxy, which is used as factory for further proxies of this type
 		Enhancer enhancer = new Enhancer();
 		enhancer.setSuperclass(entityType);
 		
@@ -94,32 +194,11 @@ public class ProxyEntityCreator
 			@Override
 			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
 			{
-				return ProxyEntityCreator.this.invoke(proxy, method, args);
+				throw new IllegalStateException("Factory proxy instance is invoked for entity type - " + entityType.getName());
 			}
 		});
 		
-		if(entityId != null)
-		{
-			//fetch the id getter method
-			try
-			{
-				String idFieldName = entityDetails.getIdField().getName();
-				PropertyDescriptor propertyDesc = PropertyUtils.getPropertyDescriptor(entityType.newInstance(), idFieldName);
-				
-				this.idGetter = propertyDesc != null ? propertyDesc.getReadMethod() : null;
-			}catch(Exception ex)
-			{
-				throw new IllegalStateException("An error occurred while fetch id getter for entity type - " + entityType.getName(), ex);
-			}
-			
-			//if unable to find id getter throw error
-			if(this.idGetter == null)
-			{
-				throw new IllegalStateException("Failed to fetch id getter for entity type - " + entityType.getName());
-			}
-		}
-		
-		this.proxyEntity = enhancer.create();
+		return new ProxyType((Factory)enhancer.create(), idGetter);
 	}
 	
 	/**
@@ -130,6 +209,69 @@ public class ProxyEntityCreator
 		return proxyEntity;
 	}
 	
+	/**
+	 * @return Type of entity being proxied
+	 */
+	Class<?> getEntityType()
+	{
+		return entityDetails.getEntityType();
+	}
+	
+	/**
+	 * @return Name of the id field of entity
+	 */
+	String getIdFieldName()
+	{
+		return entityDetails.getIdField().getName();
+	}
+	
+	/**
+	 * @return the {@link #idGetter idGetter}
+	 */
+	Method getIdGetter()
+	{
+		return idGetter;
+	}
+	
+	/**
+	 * @return the {@link #entityId entityId}
+	 */
+	Object getEntityId()
+	{
+		return entityId;
+	}
+	
+	/**
+	 * @return the {@link #repository repository}
+	 */
+	ICrudRepository<?> getRepository()
+	{
+		return repository;
+	}
+	
+	/**
+	 * Sets the actual entity loaded by batch loader. Ignored, if the entity is already loaded.
+	 * @param actualEntity Loaded entity, null if entity is not found
+	 */
+	synchronized void setActualEntity(Object actualEntity)
+	{
+		if(actualEntityLoaded)
+		{
+			return;
+		}
+		
+		this.actualEntity = actualEntity;
+		this.actualEntityLoaded = true;
+	}
+	
+	/**
+	 * @return true if actual entity is loaded
+	 */
+	private synchronized boolean isActualEntityLoaded()
+	{
+		return actualEntityLoaded;
+	}
+	
 	/**
 	 * Proxy method invocation handler method
 	 * @param proxy
@@ -145,6 +287,13 @@ public class ProxyEntityCreator
 		{
 			return entityId;
 		}
+		
+		//load the pending proxies of the batch together, this should be done without locking current proxy
+		//	as batch loader locks the proxies being loaded
+		if(batchLoader != null && !isActualEntityLoaded())
+		{
+			batchLoader.load(this);
+		}
 
 		synchronized(this)
 		{
@@ -0,0 +1,139 @@
+package com.fw.persistence.repository.search;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Page details to be fetched by search queries and finder methods. Supports two types of paging:
+ * <ul>
+ * 	<li>Offset paging - where specified number of rows are skipped before fetching the page</li>
+ * 	<li>Keyset paging - where page rows are fetched after specified sort key (ordering field values of last row of
+ * previous page). This avoids scanning the skipped rows and is preferred for large tables.</li>
+ * </ul>
+ *
+ * When ordering fields are not unique in combination (or no ordering is specified), entity id is used as last
+ * ordering field, so that pages are deterministic. In case of keyset paging, ordering fields are expected to be
+ * non-null and in such case the key should end with entity id of the last row.
+ *
+ * @author akiran
+ */
+public class PageRequest
+{
+	/**
+	 * Number of rows to skip
+	 */
+	private int offset;
+
+	/**
+	 * Maximum number of rows to fetch, zero indicates no limit
+	 */
+	private int pageSize;
+
+	/**
+	 * Values of ordering fields, after which rows should be fetched
+	 */
+	private List<Object> afterKey;
+
+	public PageRequest()
+	{}
+
+	public PageRequest(int offset, int pageSize)
+	{
+		setOffset(offset);
+		setPageSize(pageSize);
+	}
+
+	/**
+	 * Creates page request for keyset paging
+	 * @param pageSize Maximum number of rows to fetch
+	 * @param afterKey Ordering field values of last row of previous page, in the order of ordering fields, followed
+	 * by entity id when ordering fields are not unique
+	 * @return Keyset page request
+	 */
+	public static PageRequest after(int pageSize, Object... afterKey)
+	{
+		PageRequest pageRequest = new PageRequest(0, pageSize);
+		pageRequest.setAfterKey(Arrays.asList(afterKey));
+
+		return pageRequest;
+	}
+
+	/**
+	 * @return the {@link #offset offset}
+	 */
+	public int getOffset()
+	{
+		return offset;
+	}
+
+	/**
+	 * @param offset the {@link #offset offset} to set
+	 */
+	public void setOffset(int offset)
+	{
+		if(offset < 0)
+		{
+			throw new IllegalArgumentException("Invalid offset specified: " + offset);
+		}
+
+		this.offset = offset;
+	}
+
+	/**
+	 * @return the {@link #pageSize pageSize}
+	 */
+	public int getPageSize()
+	{
+		return pageSize;
+	}
+
+	/**
+	 * @param pageSize the {@link #pageSize pageSize} to set
+	 */
+	public void setPageSize(int pageSize)
+	{
+		if(pageSize < 0)
+		{
+			throw new IllegalArgumentException("Invalid page size specified: " + pageSize);
+		}
+
+		this.pageSize = pageSize;
+	}
+
+	/**
+	 * @return the {@link #afterKey afterKey}
+	 */
+	public List<Object> getAfterKey()
+	{
+		return afterKey;
+	}
+
+	/**
+	 * @param afterKey the {@link #afterKey afterKey} to set
+	 */
+	public void setAfterKey(List<Object> afterKey)
+	{
+		this.afterKey = afterKey;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		StringBuilder builder = new StringBuilder(super.toString());
+		builder.append("[");
+
+		builder.append("Offset: ").append(offset);
+		builder.append(",").append("Page Size: ").append(pageSize);
+
+		if(afterKey != null)
+		{
+			builder.append(",").append("After: ").append(afterKey);
+		}
+
+		builder.append("]");
+		return builder.toString();
+	}
+}
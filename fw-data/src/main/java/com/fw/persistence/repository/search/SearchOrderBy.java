@@ -0,0 +1,68 @@
+package com.fw.persistence.repository.search;
+
+/**
+ * Ordering field for search query
+ * @author akiran
+ */
+public class SearchOrderBy
+{
+	/**
+	 * Entity field expression
+	 */
+	private String field;
+
+	/**
+	 * Flag indicating if ordering should be ascending or descending
+	 */
+	private boolean ascending = true;
+
+	public SearchOrderBy()
+	{}
+
+	public SearchOrderBy(String field, boolean ascending)
+	{
+		this.field = field;
+		this.ascending = ascending;
+	}
+
+	/**
+	 * @return the {@link #field field}
+	 */
+	public String getField()
+	{
+		return field;
+	}
+
+	/**
+	 * @param field the {@link #field field} to set
+	 */
+	public void setField(String field)
+	{
+		this.field = field;
+	}
+
+	/**
+	 * @return the {@link #ascending ascending}
+	 */
+	public boolean isAscending()
+	{
+		return ascending;
+	}
+
+	/**
+	 * @param ascending the {@link #ascending ascending} to set
+	 */
+	public void setAscending(boolean ascending)
+	{
+		this.ascending = ascending;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		return field + (ascending ? " ASC" : " DESC");
+	}
+}
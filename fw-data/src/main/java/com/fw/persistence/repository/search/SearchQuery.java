@@ -12,6 +12,16 @@ public class SearchQuery
 {
 	private List<SearchCondition> conditions = new ArrayList<>();
 	
+	/**
+	 * Fields to be used for ordering the results
+	 */
+	private List<SearchOrderBy> orderByFields = new ArrayList<>();
+	
+	/**
+	 * Page to be fetched, null if all results should be fetched
+	 */
+	private PageRequest pageRequest;
+	
 	public SearchQuery()
 	{}
 	
@@ -44,6 +54,48 @@ public class SearchQuery
 		return conditions;
 	}
 	
+	/**
+	 * Adds ordering field to {@link #orderByFields orderByFields}
+	 * @param field Entity field expression
+	 * @param ascending true for ascending order, false for descending order
+	 */
+	public void addOrderBy(String field, boolean ascending)
+	{
+		orderByFields.add(new SearchOrderBy(field, ascending));
+	}
+	
+	/**
+	 * @return the {@link #orderByFields orderByFields}
+	 */
+	public List<SearchOrderBy> getOrderByFields()
+	{
+		return orderByFields;
+	}
+
+	/**
+	 * @param orderByFields the {@link #orderByFields orderByFields} to set
+	 */
+	public void setOrderByFields(List<SearchOrderBy> orderByFields)
+	{
+		this.orderByFields = orderByFields;
+	}
+
+	/**
+	 * @return the {@link #pageRequest pageRequest}
+	 */
+	public PageRequest getPageRequest()
+	{
+		return pageRequest;
+	}
+
+	/**
+	 * @param pageRequest the {@link #pageRequest pageRequest} to set
+	 */
+	public void setPageRequest(PageRequest pageRequest)
+	{
+		this.pageRequest = pageRequest;
+	}
+	
 	/* (non-Javadoc)
 	 * @see java.lang.Object#toString()
 	 */
@@ -54,6 +106,16 @@ public class SearchQuery
 		builder.append("[");
 
 		builder.append("Conditions: ").append(conditions);
+		
+		if(!orderByFields.isEmpty())
+		{
+			builder.append(",").append("Order By: ").append(orderByFields);
+		}
+		
+		if(pageRequest != null)
+		{
+			builder.append(",").append("Page: ").append(pageRequest);
+		}
 
 		builder.append("]");
 		return builder.toString();
@@ -1,14 +1,51 @@
 package com.fw.test.persitence;
 
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.commons.io.IOUtils;
 import org.testng.Assert;
 import org.testng.ITestResult;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.Test;
 
+import com.fw.persistence.ITransaction;
+import com.fw.persistence.PersistenceException;
+import com.fw.persistence.TransactionWrapper;
 import com.fw.persistence.UniqueConstraintViolationException;
+import com.fw.persistence.cache.EntityCache;
+import com.fw.persistence.rdbms.RdbmsConfiguration;
+import com.fw.persistence.rdbms.RdbmsDataStore;
+import com.fw.persistence.rdbms.RdbmsTransaction;
 import com.fw.persistence.repository.RepositoryFactory;
+import com.fw.persistence.repository.executors.proxy.LazyFieldsEntityCreator;
+import com.fw.test.persitence.entity.Country;
+import com.fw.test.persitence.entity.Currency;
+import com.fw.test.persitence.entity.Document;
+import com.fw.test.persitence.entity.ICountryRepository;
+import com.fw.test.persitence.entity.ICurrencyRepository;
+import com.fw.test.persitence.entity.IDocumentRepository;
 import com.fw.test.persitence.entity.Employee;
 import com.fw.test.persitence.entity.IEmployeeRepository;
+import com.fw.test.persitence.entity.ISettingRepository;
+import com.fw.test.persitence.entity.Setting;
 
 /**
  * Test cases to test basic CRUD functionality
@@ -64,25 +101,34 @@ public class TCrudFunctionality extends TestSuiteBase
 	@Test(dataProvider = "repositoryFactories")
 	public void testUniquenessDuringUpdate(RepositoryFactory factory)
 	{
-		IEmployeeRepository empRepository = factory.getRepository(IEmployeeRepository.class);
-		
-		Employee emp = new Employee("12345", "kranthi@kk.com", "kranthi", "90232333", 28);
-		empRepository.save(emp);
+		RdbmsDataStore dataStore = (RdbmsDataStore)factory.getDataStore();
+		dataStore.setExplicitUniqueCheckRequired(true);
 		
-		Employee emp1 = new Employee("123452", "kiran@kk.com", "kiran", "90232333", 28);
-		empRepository.save(emp1);
-
 		try
 		{
-			Employee empForUpdate = new Employee("1234523", "kiran@kk.com", "kranthi12", "12390232333", 28);
-			empForUpdate.setId(emp.getId());
+			IEmployeeRepository empRepository = factory.getRepository(IEmployeeRepository.class);
 			
-			empRepository.update(empForUpdate);
-			Assert.fail("Employee got updated with duplicate mail");
-		}catch(UniqueConstraintViolationException ex)
+			Employee emp = new Employee("12345", "kranthi@kk.com", "kranthi", "90232333", 28);
+			empRepository.save(emp);
+			
+			Employee emp1 = new Employee("123452", "kiran@kk.com", "kiran", "90232333", 28);
+			empRepository.save(emp1);
+
+			try
+			{
+				Employee empForUpdate = new Employee("1234523", "kiran@kk.com", "kranthi12", "12390232333", 28);
+				empForUpdate.setId(emp.getId());
+				
+				empRepository.update(empForUpdate);
+				Assert.fail("Employee got updated with duplicate mail");
+			}catch(UniqueConstraintViolationException ex)
+			{
+				Assert.assertEquals("EmailId", ex.getConstraintName());
+				Assert.assertTrue(ex.getMessage().contains("kiran@kk.com"));
+			}
+		}finally
 		{
-			Assert.assertEquals("EmailId", ex.getConstraintName());
-			Assert.assertTrue(ex.getMessage().contains("kiran@kk.com"));
+			dataStore.setExplicitUniqueCheckRequired(false);
 		}
 		
 		//cleanup the emp table
@@ -155,6 +201,772 @@ public class TCrudFunctionality extends TestSuiteBase
 		factory.dropRepository(Employee.class);
 	}
 	
+	/**
+	 * Tests query strings are reused for queries with same shape
+	 * @param factory
+	 */
+	@Test(dataProvider = "repositoryFactories")
+	public void testQueryCache(RepositoryFactory factory)
+	{
+		IEmployeeRepository empRepository = factory.getRepository(IEmployeeRepository.class);
+		RdbmsDataStore dataStore = (RdbmsDataStore)factory.getDataStore();
+		
+		Employee emp = new Employee("12345", "kranthi@kk.com", "kranthi", "90232333", 28);
+		empRepository.save(emp);
+		
+		Employee emp1 = new Employee("123452", "kiran@kk.com", "kiran", "90232333", 28);
+		empRepository.save(emp1);
+		
+		empRepository.findById(emp.getId());
+		
+		long hits = dataStore.getQueryCacheHits();
+		long misses = dataStore.getQueryCacheMisses();
+		
+		//same shape with different values should be served from cache
+		Assert.assertEquals(empRepository.findById(emp1.getId()).getEmailId(), "kiran@kk.com");
+		
+		Assert.assertEquals(dataStore.getQueryCacheMisses(), misses);
+		Assert.assertTrue(dataStore.getQueryCacheHits() > hits);
+		
+		//when limit is reached, least recently used query should be evicted
+		dataStore.setMaxCachedQueries(1);
+		
+		try
+		{
+			empRepository.findById(emp.getId());
+			empRepository.getCount();
+			
+			misses = dataStore.getQueryCacheMisses();
+			empRepository.findById(emp.getId());
+			Assert.assertEquals(dataStore.getQueryCacheMisses(), misses + 1);
+		}finally
+		{
+			dataStore.setMaxCachedQueries(RdbmsConfiguration.DEFAULT_MAX_CACHED_QUERIES);
+		}
+		
+		//cleanup the emp table
+		factory.dropRepository(Employee.class);
+	}
+	
+	/**
+	 * Tests current transaction is made available to tasks executed by other threads when propagated
+	 * @param factory
+	 */
+	@Test(dataProvider = "repositoryFactories")
+	public void testTransactionPropagation(RepositoryFactory factory) throws Exception
+	{
+		IEmployeeRepository empRepository = factory.getRepository(IEmployeeRepository.class);
+		
+		ITransaction transaction = empRepository.newTransaction();
+		
+		Thread thread = new Thread(factory.getDataStore().getTransactionManager().propagate(() -> {
+			empRepository.save(new Employee("12345", "kranthi@kk.com", "kranthi", "90232333", 28));
+		}));
+		
+		thread.start();
+		thread.join();
+		
+		//ensure save is done as part of current transaction
+		Assert.assertEquals(empRepository.getCount(), 1);
+		
+		transaction.rollback();
+		Assert.assertEquals(empRepository.getCount(), 0);
+		
+		//cleanup the emp table
+		factory.dropRepository(Employee.class);
+	}
+	
+	/**
+	 * Tests entities fetched by id are reused within a transaction, till they are updated
+	 * @param factory
+	 */
+	@Test(dataProvider = "repositoryFactories")
+	public void testIdentityMap(RepositoryFactory factory) throws Exception
+	{
+		IEmployeeRepository empRepository = factory.getRepository(IEmployeeRepository.class);
+		
+		Employee emp = new Employee("12345", "kranthi@kk.com", "kranthi", "90232333", 28);
+		empRepository.save(emp);
+		
+		//without transaction, entity should be fetched freshly every time
+		Assert.assertNotSame(empRepository.findById(emp.getId()), empRepository.findById(emp.getId()));
+		
+		try(ITransaction transaction = empRepository.newTransaction())
+		{
+			Employee emp1 = empRepository.findById(emp.getId());
+			Assert.assertSame(empRepository.findById(emp.getId()), emp1);
+			
+			//update should invalidate the entities in identity map
+			emp.setName("kranthi12");
+			empRepository.update(emp);
+			
+			Employee emp2 = empRepository.findById(emp.getId());
+			Assert.assertNotSame(emp2, emp1);
+			Assert.assertEquals(emp2.getName(), "kranthi12");
+			
+			transaction.commit();
+		}
+		
+		//cleanup the emp table
+		factory.dropRepository(Employee.class);
+	}
+	
+	/**
+	 * Tests finder results of shared cache enabled entities are served from cache till the entity is modified
+	 * @param factory
+	 */
+	@Test(dataProvider = "repositoryFactories")
+	public void testSharedCache(RepositoryFactory factory)
+	{
+		ICountryRepository countryRepository = factory.getRepository(ICountryRepository.class);
+		EntityCache cache = factory.getEntityCache(Country.class);
+		
+		Country country = new Country("IN", "India");
+		countryRepository.save(country);
+		
+		long hits = cache.getHits();
+		
+		Country country1 = countryRepository.findByCode("IN");
+		Country country2 = countryRepository.findByCode("IN");
+		
+		Assert.assertEquals(cache.getHits(), hits + 1);
+		Assert.assertEquals(country2.getName(), "India");
+		
+		//cached entities should not be shared
+		Assert.assertNotSame(country2, country1);
+		country1.setName("Changed");
+		Assert.assertEquals(countryRepository.findByCode("IN").getName(), "India");
+		
+		//update should invalidate the cache
+		country.setName("Bharat");
+		countryRepository.update(country);
+		Assert.assertEquals(countryRepository.findByCode("IN").getName(), "Bharat");
+		Assert.assertEquals(countryRepository.findById(country.getId()).getName(), "Bharat");
+		
+		//cleanup the country table
+		factory.dropRepository(Country.class);
+	}
+	
+	/**
+	 * Tests modifications done in transaction invalidate the shared cache on commit, so that results read
+	 * by other threads before the commit are not served afterwards
+	 * @param factory
+	 */
+	@Test(dataProvider = "repositoryFactories")
+	public void testSharedCacheWithTransaction(RepositoryFactory factory) throws Exception
+	{
+		ICountryRepository countryRepository = factory.getRepository(ICountryRepository.class);
+		EntityCache cache = factory.getEntityCache(Country.class);
+		
+		Country country = new Country("IN", "India");
+		countryRepository.save(country);
+		Assert.assertEquals(countryRepository.findByCode("IN").getName(), "India");
+		
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		
+		try
+		{
+			Future<Country> otherRead = null;
+			
+			try(ITransaction transaction = countryRepository.newTransaction())
+			{
+				long invalidations = cache.getInvalidations();
+				
+				country.setName("Bharat");
+				countryRepository.update(country);
+				
+				//read by other thread outside the transaction, which should get committed data
+				otherRead = executor.submit(() -> countryRepository.findByCode("IN"));
+				
+				try
+				{
+					Assert.assertEquals(otherRead.get(1, TimeUnit.SECONDS).getName(), "India");
+				}catch(TimeoutException ex)
+				{
+					//data store may make the read wait for the commit
+				}
+				
+				//cache should be invalidated only on commit
+				Assert.assertEquals(cache.getInvalidations(), invalidations);
+				
+				transaction.commit();
+				Assert.assertEquals(cache.getInvalidations(), invalidations + 1);
+			}
+			
+			otherRead.get();
+			Assert.assertEquals(countryRepository.findByCode("IN").getName(), "Bharat");
+			
+			//rolled back modifications should not invalidate the cache
+			long invalidations = cache.getInvalidations();
+			
+			try(ITransaction transaction = countryRepository.newTransaction())
+			{
+				country.setName("Hindustan");
+				countryRepository.update(country);
+				transaction.rollback();
+			}
+			
+			Assert.assertEquals(cache.getInvalidations(), invalidations);
+			Assert.assertEquals(countryRepository.findByCode("IN").getName(), "Bharat");
+		}finally
+		{
+			executor.shutdown();
+		}
+		
+		//cleanup the country table
+		factory.dropRepository(Country.class);
+	}
+	
+	/**
+	 * Tests prepared statements are reused within a transaction
+	 * @param factory
+	 */
+	@Test(dataProvider = "repositoryFactories")
+	public void testStatementCache(RepositoryFactory factory) throws Exception
+	{
+		IEmployeeRepository empRepository = factory.getRepository(IEmployeeRepository.class);
+		RdbmsDataStore dataStore = (RdbmsDataStore)factory.getDataStore();
+		
+		long preparesAvoided = dataStore.getPreparesAvoided();
+		
+		try(ITransaction transaction = empRepository.newTransaction())
+		{
+			for(int i = 0; i < 5; i++)
+			{
+				empRepository.save(new Employee("1234" + i, "kranthi" + i + "@kk.com", "kranthi", "90232333", 28));
+			}
+			
+			transaction.commit();
+		}
+		
+		//except first save, remaining saves should reuse the insert statement
+		Assert.assertTrue(dataStore.getPreparesAvoided() - preparesAvoided >= 4);
+		Assert.assertEquals(empRepository.getCount(), 5);
+		
+		//cleanup the emp table
+		factory.dropRepository(Employee.class);
+	}
+	
+	/**
+	 * Tests batch save, update and delete functionality
+	 * @param factory
+	 */
+	@Test(dataProvider = "repositoryFactories")
+	public void testBatchOperations(RepositoryFactory factory)
+	{
+		IEmployeeRepository empRepository = factory.getRepository(IEmployeeRepository.class);
+		
+		List<Employee> employees = Arrays.asList(
+				new Employee("12345", "kranthi@kk.com", "kranthi", "90232333", 28),
+				new Employee("123452", "kiran@kk.com", "kiran", "90232333", 28),
+				new Employee("123455", "abc@kk.com", "abc", "887788778", 28)
+		);
+		
+		Assert.assertEquals(empRepository.saveAll(employees), 3);
+		Assert.assertEquals(empRepository.getCount(), 3);
+		
+		//ensure ids are populated
+		for(Employee emp : employees)
+		{
+			Assert.assertEquals(empRepository.findById(emp.getId()).getEmailId(), emp.getEmailId());
+		}
+		
+		employees.get(0).setName("kranthi12");
+		employees.get(1).setName("kiran12");
+		
+		Assert.assertEquals(empRepository.updateAll(employees), 3);
+		Assert.assertEquals(empRepository.findById(employees.get(0).getId()).getName(), "kranthi12");
+		Assert.assertEquals(empRepository.findById(employees.get(1).getId()).getName(), "kiran12");
+		
+		Assert.assertEquals(empRepository.deleteAllById(Arrays.asList(employees.get(0).getId(), employees.get(2).getId())), 2);
+		Assert.assertEquals(empRepository.getCount(), 1);
+		Assert.assertEquals(empRepository.findById(employees.get(1).getId()).getEmailId(), "kiran@kk.com");
+		
+		//cleanup the emp table
+		factory.dropRepository(Employee.class);
+	}
+	
+	/**
+	 * Tests unique constraint checks of batch save, against existing data and among the batch entities
+	 * @param factory
+	 */
+	@Test(dataProvider = "repositoryFactories")
+	public void testBatchUniqueConstraints(RepositoryFactory factory)
+	{
+		RdbmsDataStore dataStore = (RdbmsDataStore)factory.getDataStore();
+		dataStore.setExplicitUniqueCheckRequired(true);
+		
+		try
+		{
+			IEmployeeRepository empRepository = factory.getRepository(IEmployeeRepository.class);
+			empRepository.save(new Employee("12345", "kranthi@kk.com", "kranthi", "90232333", 28));
+			
+			//duplicate mail against existing data
+			try
+			{
+				empRepository.saveAll(Arrays.asList(
+						new Employee("123452", "kiran@kk.com", "kiran", "90232333", 28),
+						new Employee("123455", "kranthi@kk.com", "abc", "887788778", 28)
+				));
+				Assert.fail("Employees got saved with duplicate mail");
+			}catch(UniqueConstraintViolationException ex)
+			{
+				Assert.assertEquals(ex.getConstraintName(), "EmailId");
+				Assert.assertTrue(ex.getMessage().contains("kranthi@kk.com"));
+			}
+			
+			//duplicate employee number among batch entities
+			try
+			{
+				empRepository.saveAll(Arrays.asList(
+						new Employee("123452", "kiran@kk.com", "kiran", "90232333", 28),
+						new Employee("123452", "abc@kk.com", "abc", "887788778", 28)
+				));
+				Assert.fail("Employees got saved with duplicate employee number");
+			}catch(UniqueConstraintViolationException ex)
+			{
+				Assert.assertEquals(ex.getConstraintName(), "EmpNo");
+			}
+			
+			Assert.assertEquals(empRepository.getCount(), 1);
+		}finally
+		{
+			dataStore.setExplicitUniqueCheckRequired(false);
+		}
+		
+		//cleanup the emp table
+		factory.dropRepository(Employee.class);
+	}
+	
+	/**
+	 * Tests unique constraint checks of batch update, with more entities than that can be checked using single IN condition
+	 * @param factory
+	 */
+	@Test(dataProvider = "repositoryFactories")
+	public void testLargeBatchUniqueChecks(RepositoryFactory factory)
+	{
+		RdbmsDataStore dataStore = (RdbmsDataStore)factory.getDataStore();
+		dataStore.setExplicitUniqueCheckRequired(true);
+		
+		try
+		{
+			IEmployeeRepository empRepository = factory.getRepository(IEmployeeRepository.class);
+			List<Employee> employees = new ArrayList<>();
+			
+			for(int i = 0; i < 1200; i++)
+			{
+				employees.add(new Employee("E" + i, "emp" + i + "@kk.com", "emp" + i, "90232333", 28));
+			}
+			
+			Assert.assertEquals(empRepository.saveAll(employees), 1200);
+			
+			for(Employee emp : employees)
+			{
+				emp.setName(emp.getName() + "_upd");
+			}
+			
+			Assert.assertEquals(empRepository.updateAll(employees), 1200);
+			Assert.assertEquals(empRepository.findById(employees.get(1100).getId()).getName(), "emp1100_upd");
+			
+			//duplicate mail in second chunk, against entity not part of the batch
+			employees.get(1100).setEmailId("emp5@kk.com");
+			
+			try
+			{
+				empRepository.updateAll(employees.subList(600, 1200));
+				Assert.fail("Employee got updated with duplicate mail");
+			}catch(UniqueConstraintViolationException ex)
+			{
+				Assert.assertEquals(ex.getConstraintName(), "EmailId");
+			}
+		}finally
+		{
+			dataStore.setExplicitUniqueCheckRequired(false);
+		}
+		
+		//cleanup the emp table
+		factory.dropRepository(Employee.class);
+	}
+	
+	/**
+	 * Tests batch update, with more entities than that can be checked using single IN condition, in which unique 
+	 * values are moved between entities of different chunks
+	 * @param factory
+	 */
+	@Test(dataProvider = "repositoryFactories")
+	public void testBatchUniqueValuesMovedAcrossChunks(RepositoryFactory factory)
+	{
+		RdbmsDataStore dataStore = (RdbmsDataStore)factory.getDataStore();
+		dataStore.setExplicitUniqueCheckRequired(true);
+		
+		try
+		{
+			IEmployeeRepository empRepository = factory.getRepository(IEmployeeRepository.class);
+			List<Employee> employees = new ArrayList<>();
+			
+			for(int i = 0; i < 600; i++)
+			{
+				employees.add(new Employee("E" + i, "emp" + i + "@kk.com", "emp" + i, "90232333", 28));
+			}
+			
+			Assert.assertEquals(empRepository.saveAll(employees), 600);
+			
+			//first entity releases its mail, which is taken by an entity of second chunk
+			employees.get(0).setEmailId("moved0@kk.com");
+			employees.get(550).setEmailId("emp0@kk.com");
+			
+			Assert.assertEquals(empRepository.updateAll(employees), 600);
+			Assert.assertEquals(empRepository.findById(employees.get(0).getId()).getEmailId(), "moved0@kk.com");
+			Assert.assertEquals(empRepository.findById(employees.get(550).getId()).getEmailId(), "emp0@kk.com");
+			
+			//taking the mail of an entity which is part of the batch but keeps its mail, should fail
+			employees.get(560).setEmailId("emp10@kk.com");
+			
+			try
+			{
+				empRepository.updateAll(employees);
+				Assert.fail("Employee got updated with duplicate mail");
+			}catch(UniqueConstraintViolationException ex)
+			{
+				Assert.assertEquals(ex.getConstraintName(), "EmailId");
+			}
+		}finally
+		{
+			dataStore.setExplicitUniqueCheckRequired(false);
+		}
+		
+		//cleanup the emp table
+		factory.dropRepository(Employee.class);
+	}
+	
+	/**
+	 * Creates new factory on data store of specified factory, using specified metadata snapshot file
+	 */
+	private RepositoryFactory newFactory(RepositoryFactory factory, File snapshotFile)
+	{
+		RepositoryFactory newFactory = new RepositoryFactory();
+		newFactory.setDataStore(factory.getDataStore());
+		newFactory.setCreateTables(true);
+		newFactory.setMetricsEnabled(false);
+		newFactory.setMetadataSnapshotFile(snapshotFile.getPath());
+		
+		return newFactory;
+	}
+	
+	/**
+	 * Tests table metadata is persisted to snapshot file and reused by next factory, only when it is valid
+	 * @param factory
+	 */
+	@Test(dataProvider = "repositoryFactories")
+	public void testMetadataSnapshot(RepositoryFactory factory) throws Exception
+	{
+		//ensure employee table exists
+		factory.getRepository(IEmployeeRepository.class);
+		
+		File snapshotFile = File.createTempFile("metadata", ".properties");
+		snapshotFile.delete();
+		
+		try
+		{
+			//columns fetched from data store should get persisted
+			newFactory(factory, snapshotFile).getRepository(IEmployeeRepository.class);
+			
+			Properties snapshot = new Properties();
+			
+			try(InputStream is = new FileInputStream(snapshotFile))
+			{
+				snapshot.load(is);
+			}
+			
+			Assert.assertTrue(snapshot.getProperty("EMPLOYEE").contains("EMP_NO"));
+			
+			//ensure factory using snapshot works normally
+			IEmployeeRepository empRepository = newFactory(factory, snapshotFile).getRepository(IEmployeeRepository.class);
+			
+			Employee emp = new Employee("12345", "kranthi@kk.com", "kranthi", "90232333", 28);
+			empRepository.save(emp);
+			Assert.assertEquals(empRepository.findById(emp.getId()).getEmailId(), "kranthi@kk.com");
+			
+			//snapshot with tables not matching data store should be ignored and rebuilt
+			snapshot.setProperty("NON_EXISTING_TABLE", "ID");
+			
+			try(OutputStream os = new FileOutputStream(snapshotFile))
+			{
+				snapshot.store(os, null);
+			}
+			
+			newFactory(factory, snapshotFile).getRepository(IEmployeeRepository.class);
+			snapshot.clear();
+			
+			try(InputStream is = new FileInputStream(snapshotFile))
+			{
+				snapshot.load(is);
+			}
+			
+			Assert.assertNull(snapshot.getProperty("NON_EXISTING_TABLE"));
+			Assert.assertNotNull(snapshot.getProperty("EMPLOYEE"));
+			
+			//snapshot missing a column of existing table (like column added after snapshot), should be refreshed
+			List<String> columns = new ArrayList<>(Arrays.asList(snapshot.getProperty("EMPLOYEE").split(",")));
+			Assert.assertTrue(columns.remove("EMP_NO"));
+			snapshot.setProperty("EMPLOYEE", String.join(",", columns));
+			
+			try(OutputStream os = new FileOutputStream(snapshotFile))
+			{
+				snapshot.store(os, null);
+			}
+			
+			empRepository = newFactory(factory, snapshotFile).getRepository(IEmployeeRepository.class);
+			Assert.assertEquals(empRepository.findById(emp.getId()).getEmployeeNo(), "12345");
+			
+			snapshot.clear();
+			
+			try(InputStream is = new FileInputStream(snapshotFile))
+			{
+				snapshot.load(is);
+			}
+			
+			Assert.assertTrue(Arrays.asList(snapshot.getProperty("EMPLOYEE").split(",")).contains("EMP_NO"));
+		}finally
+		{
+			snapshotFile.delete();
+		}
+	}
+	
+	/**
+	 * Fetches unique entity id column value of specified setting directly from the table
+	 */
+	private String getSettingUniqueEntityId(RepositoryFactory factory, String id) throws Exception
+	{
+		try(TransactionWrapper<? extends ITransaction> transaction = factory.getDataStore().getTransactionManager().newOrExistingTransaction())
+		{
+			RdbmsTransaction rdbmsTransaction = (RdbmsTransaction)transaction.getTransaction();
+			
+			try(PreparedStatement pstmt = rdbmsTransaction.getConnection().prepareStatement("SELECT UQ_ENTITY_ID FROM SETTING WHERE SETTING_KEY = ?"))
+			{
+				pstmt.setString(1, id);
+				
+				try(ResultSet rs = pstmt.executeQuery())
+				{
+					Assert.assertTrue(rs.next());
+					return rs.getString(1);
+				}
+			}finally
+			{
+				transaction.commit();
+			}
+		}
+	}
+	
+	/**
+	 * Tests save-or-update inserts new entities and updates existing ones
+	 * @param factory
+	 */
+	@Test(dataProvider = "repositoryFactories")
+	public void testSaveOrUpdate(RepositoryFactory factory) throws Exception
+	{
+		ISettingRepository settingRepository = factory.getRepository(ISettingRepository.class);
+		
+		//insert and update using single statement
+		Assert.assertTrue(settingRepository.saveOrUpdate(new Setting("theme", "dark")));
+		String uniqueEntityId = getSettingUniqueEntityId(factory, "theme");
+		Assert.assertNotNull(uniqueEntityId);
+		
+		Assert.assertTrue(settingRepository.saveOrUpdate(new Setting("theme", "light")));
+		
+		Assert.assertEquals(settingRepository.getCount(), 1);
+		Assert.assertEquals(settingRepository.findById("theme").getValue(), "light");
+		
+		//unique entity id should be retained when existing row is updated
+		Assert.assertEquals(getSettingUniqueEntityId(factory, "theme"), uniqueEntityId);
+		
+		//batch insert and update
+		Assert.assertEquals(settingRepository.saveOrUpdateAll(Arrays.asList(new Setting("theme", "blue"), 
+				new Setting("lang", "en"), new Setting("zone", "IST"))), 3);
+		
+		Assert.assertEquals(settingRepository.getCount(), 3);
+		Assert.assertEquals(settingRepository.findById("theme").getValue(), "blue");
+		Assert.assertEquals(settingRepository.findById("lang").getValue(), "en");
+		Assert.assertEquals(getSettingUniqueEntityId(factory, "theme"), uniqueEntityId);
+		Assert.assertNotNull(getSettingUniqueEntityId(factory, "lang"));
+		
+		//entities with generated ids, should get saved when id is not set
+		IEmployeeRepository empRepository = factory.getRepository(IEmployeeRepository.class);
+		
+		Employee emp = new Employee("12345", "kranthi@kk.com", "kranthi", "90232333", 28);
+		Assert.assertTrue(empRepository.saveOrUpdate(emp));
+		Assert.assertTrue(emp.getId() > 0);
+		
+		emp.setName("kiran");
+		Assert.assertTrue(empRepository.saveOrUpdate(emp));
+		Assert.assertEquals(empRepository.findById(emp.getId()).getName(), "kiran");
+		Assert.assertEquals(empRepository.getCount(), 1);
+		
+		//unique constraints should be checked against other entities
+		RdbmsDataStore dataStore = (RdbmsDataStore)factory.getDataStore();
+		dataStore.setExplicitUniqueCheckRequired(true);
+		
+		try
+		{
+			empRepository.saveOrUpdate(new Employee("12345", "kiran@kk.com", "kiran", "90232333", 28));
+			Assert.fail("Entity with duplicate employee no got saved");
+		}catch(UniqueConstraintViolationException ex)
+		{
+			//expected
+		}finally
+		{
+			dataStore.setExplicitUniqueCheckRequired(false);
+		}
+		
+		factory.dropRepository(Setting.class);
+	}
+	
+	/**
+	 * Tests save-or-update does not overwrite other entities with same unique values, when explicit
+	 * unique checks are disabled
+	 * @param factory
+	 */
+	@Test(dataProvider = "repositoryFactories")
+	public void testSaveOrUpdateUniqueConflict(RepositoryFactory factory)
+	{
+		//native upsert of mysql resolves conflicts on any unique key, so unique check is always needed
+		Assert.assertTrue(new RdbmsDataStore("mysql").isSaveOrUpdateUniqueCheckRequired());
+		Assert.assertFalse(new RdbmsDataStore("derby").isSaveOrUpdateUniqueCheckRequired());
+		
+		ICurrencyRepository currencyRepository = factory.getRepository(ICurrencyRepository.class);
+		Assert.assertFalse(factory.getDataStore().isExplicitUniqueCheckRequired());
+		
+		Assert.assertTrue(currencyRepository.saveOrUpdate(new Currency("USD", "$", "Dollar")));
+		Assert.assertTrue(currencyRepository.saveOrUpdate(new Currency("INR", "Rs", "Rupee")));
+		
+		//insert with symbol of other currency
+		try
+		{
+			currencyRepository.saveOrUpdate(new Currency("AUD", "$", "Australian Dollar"));
+			Assert.fail("Currency with duplicate symbol got saved");
+		}catch(PersistenceException ex)
+		{
+			//expected
+		}
+		
+		//update with symbol of other currency
+		try
+		{
+			currencyRepository.saveOrUpdate(new Currency("INR", "$", "Indian Rupee"));
+			Assert.fail("Currency with duplicate symbol got updated");
+		}catch(PersistenceException ex)
+		{
+			//expected
+		}
+		
+		//existing entities should not get overwritten
+		Assert.assertEquals(currencyRepository.getCount(), 2);
+		Assert.assertNull(currencyRepository.findById("AUD"));
+		Assert.assertEquals(currencyRepository.findById("USD").getName(), "Dollar");
+		Assert.assertEquals(currencyRepository.findById("INR").getSymbol(), "Rs");
+		
+		factory.dropRepository(Currency.class);
+	}
+	
+	/**
+	 * Tests only modified columns of loaded entities are updated, when dirty checking is enabled
+	 * @param factory
+	 */
+	@Test(dataProvider = "repositoryFactories")
+	public void testDirtyCheckedUpdate(RepositoryFactory factory)
+	{
+		ISettingRepository settingRepository = factory.getRepository(ISettingRepository.class);
+		settingRepository.save(new Setting("theme", "dark", "Theme"));
+		
+		Setting setting = settingRepository.findById("theme");
+		
+		//modify description in data store, which should not be overwritten by updates of loaded entity
+		Assert.assertEquals(settingRepository.updateDescription("theme", "UI Theme"), 1);
+		
+		//update of unmodified entity should be skipped
+		Assert.assertTrue(settingRepository.update(setting));
+		Assert.assertEquals(settingRepository.findById("theme").getDescription(), "UI Theme");
+		
+		//only modified column should be updated
+		setting.setValue("light");
+		Assert.assertTrue(settingRepository.update(setting));
+		
+		Setting foundSetting = settingRepository.findById("theme");
+		Assert.assertEquals(foundSetting.getValue(), "light");
+		Assert.assertEquals(foundSetting.getDescription(), "UI Theme");
+		
+		//batch update should skip unmodified entities
+		foundSetting.setDescription("Theme of UI");
+		Assert.assertEquals(settingRepository.updateAll(Arrays.asList(setting, foundSetting)), 2);
+		Assert.assertEquals(settingRepository.findById("theme").getDescription(), "Theme of UI");
+		
+		//entities not loaded through repository should be updated fully
+		Assert.assertTrue(settingRepository.update(new Setting("theme", "blue")));
+		
+		foundSetting = settingRepository.findById("theme");
+		Assert.assertEquals(foundSetting.getValue(), "blue");
+		Assert.assertNull(foundSetting.getDescription());
+		
+		factory.dropRepository(Setting.class);
+	}
+	
+	/**
+	 * Tests LOB fields are loaded lazily and can be read/written as streams
+	 * @param factory
+	 */
+	@Test(dataProvider = "repositoryFactories")
+	public void testLobFields(RepositoryFactory factory) throws Exception
+	{
+		IDocumentRepository docRepository = factory.getRepository(IDocumentRepository.class);
+		
+		Document doc = new Document("readme", "Readme content");
+		doc.setAttachment(new ByteArrayInputStream(new byte[] {1, 2, 3}));
+		docRepository.save(doc);
+		
+		//lob fields should be loaded on getter access
+		Document foundDoc = docRepository.findByName("readme").get(0);
+		Assert.assertFalse(LazyFieldsEntityCreator.isFieldLoaded(foundDoc, "content"));
+		Assert.assertEquals(foundDoc.getContent(), "Readme content");
+		Assert.assertTrue(LazyFieldsEntityCreator.isFieldLoaded(foundDoc, "content"));
+		Assert.assertEquals(IOUtils.toByteArray(foundDoc.getAttachment()), new byte[] {1, 2, 3});
+		
+		//update should not clear lob fields which are not loaded
+		foundDoc = docRepository.findById(doc.getId());
+		foundDoc.setName("readme2");
+		docRepository.update(foundDoc);
+		
+		foundDoc = docRepository.findById(doc.getId());
+		Assert.assertEquals(foundDoc.getName(), "readme2");
+		Assert.assertEquals(foundDoc.getContent(), "Readme content");
+		
+		//read and write lob fields as streams
+		Assert.assertTrue(docRepository.writeClob(doc.getId(), "content", new StringReader("New content")));
+		Assert.assertTrue(docRepository.writeBlob(doc.getId(), "attachment", new ByteArrayInputStream(new byte[] {4, 5})));
+		
+		try(Reader reader = docRepository.readClob(doc.getId(), "content"))
+		{
+			Assert.assertEquals(IOUtils.toString(reader), "New content");
+		}
+		
+		try(InputStream is = docRepository.readBlob(doc.getId(), "attachment"))
+		{
+			Assert.assertEquals(IOUtils.toByteArray(is), new byte[] {4, 5});
+		}
+		
+		Assert.assertNull(docRepository.readClob(doc.getId() + 100, "content"));
+		
+		try
+		{
+			docRepository.readClob(doc.getId(), "name");
+			Assert.fail("Non CLOB field is read as CLOB");
+		}catch(IllegalArgumentException ex)
+		{
+			//expected
+		}
+		
+		factory.dropRepository(Document.class);
+	}
+	
 	/*
 	@Test
 	public void testDelete()
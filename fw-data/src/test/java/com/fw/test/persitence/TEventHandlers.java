@@ -1,13 +1,18 @@
 package com.fw.test.persitence;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.testng.Assert;
 import org.testng.ITestResult;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.Test;
 
+import com.fw.persistence.InvalidConfigurationException;
 import com.fw.persistence.listeners.EntityEvent;
 import com.fw.persistence.listeners.EntityEventHandler;
 import com.fw.persistence.listeners.EntityEventType;
@@ -66,8 +71,41 @@ public class TEventHandlers extends TestSuiteBase
 		}
 	}
 	
+	public class AsyncEventHandler
+	{
+		@EntityEventHandler(eventType = EntityEventType.POST_SAVE, entityTypes = Employee.class, async = true)
+		public void postsave(EntityEvent event)
+		{
+			asyncThreads.add(Thread.currentThread().getName());
+		}
+
+		@EntityEventHandler(eventType = EntityEventType.POST_SAVE, entityTypes = Employee.class)
+		public void postsaveBatch(List<EntityEvent> events)
+		{
+			batchedEventCount.addAndGet(events.size());
+		}
+	}
+	
+	public class AsyncPreEventHandler
+	{
+		@EntityEventHandler(eventType = EntityEventType.PRE_SAVE, async = true)
+		public void presave(EntityEvent event)
+		{}
+	}
+	
+	public class BatchedPreEventHandler
+	{
+		@EntityEventHandler(eventType = EntityEventType.PRE_DELETE)
+		public void predelete(List<EntityEvent> events)
+		{}
+	}
+	
 	private Set<String> events = new HashSet<>();
 	
+	private List<String> asyncThreads = Collections.synchronizedList(new ArrayList<>());
+	
+	private AtomicInteger batchedEventCount = new AtomicInteger();
+	
 	
 	
 	@AfterMethod
@@ -107,4 +145,74 @@ public class TEventHandlers extends TestSuiteBase
 
 		Assert.assertEquals(events.size(), 5);
 	}
+	
+	/**
+	 * Tests async and batched listeners are invoked on worker threads
+	 * @param factory
+	 */
+	@Test(dataProvider = "repositoryFactories")
+	public void testForAsyncEvents(RepositoryFactory factory)
+	{
+		AsyncEventHandler handler = new AsyncEventHandler();
+		
+		factory.registerListeners(handler);
+		asyncThreads.clear();
+		batchedEventCount.set(0);
+		
+		try
+		{
+			IEmployeeRepository empRepository = factory.getRepository(IEmployeeRepository.class);
+			
+			empRepository.save(new Employee("12341", "async1@kk.com", "async1", "90232331", 28));
+			empRepository.save(new Employee("12342", "async2@kk.com", "async2", "90232332", 28));
+			empRepository.save(new Employee("12343", "async3@kk.com", "async3", "90232333", 28));
+			
+			//wait for pending events to be delivered
+			Assert.assertTrue(factory.getEntityListenerManager().shutdown(5000));
+			
+			Assert.assertEquals(asyncThreads.size(), 3);
+			Assert.assertEquals(batchedEventCount.get(), 3);
+			
+			for(String threadName : asyncThreads)
+			{
+				Assert.assertTrue(threadName.startsWith("entity-event-"));
+			}
+		}finally
+		{
+			factory.unregisterListeners(handler);
+		}
+		
+		//once unregistered, handlers should not be invoked
+		factory.getRepository(IEmployeeRepository.class).save(new Employee("12344", "async4@kk.com", "async4", "90232334", 28));
+		
+		Assert.assertTrue(factory.getEntityListenerManager().shutdown(5000));
+		Assert.assertEquals(asyncThreads.size(), 3);
+		Assert.assertEquals(batchedEventCount.get(), 3);
+	}
+	
+	/**
+	 * Tests async and batched handlers are rejected for pre events
+	 * @param factory
+	 */
+	@Test(dataProvider = "repositoryFactories")
+	public void testAsyncPreEventsRejected(RepositoryFactory factory)
+	{
+		try
+		{
+			factory.registerListeners(new AsyncPreEventHandler());
+			Assert.fail("Async handler got registered for pre-save event");
+		}catch(InvalidConfigurationException ex)
+		{
+			//expected
+		}
+		
+		try
+		{
+			factory.registerListeners(new BatchedPreEventHandler());
+			Assert.fail("Batched handler got registered for pre-delete event");
+		}catch(InvalidConfigurationException ex)
+		{
+			//expected
+		}
+	}
 }
@@ -1,14 +1,24 @@
 package com.fw.test.persitence;
 
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import com.fw.persistence.Operator;
 import com.fw.persistence.RecordCountMistmatchException;
+import com.fw.persistence.monitor.RepositoryMethodMetrics;
 import com.fw.persistence.repository.RepositoryFactory;
 import com.fw.persistence.repository.annotations.SearchResult;
+import com.fw.persistence.repository.search.PageRequest;
 import com.fw.persistence.repository.search.SearchCondition;
 import com.fw.persistence.repository.search.SearchQuery;
 import com.fw.test.persitence.entity.Employee;
@@ -50,6 +60,74 @@ public class TFinders extends TestSuiteBase
 		Assert.assertEquals(repo.findEmailByEmployeeNo("1234"), "user4@test.com");
 	}
 	
+	/**
+	 * Tests execution metrics are maintained for repository methods
+	 * @param factory
+	 */
+	@Test(dataProvider = "repositoryFactories")
+	public void testMethodMetrics(RepositoryFactory factory)
+	{
+		IEmployeeRepository repo = factory.getRepository(IEmployeeRepository.class);
+		RepositoryMethodMetrics metrics = factory.getMethodMetrics(IEmployeeRepository.class, "findByPhoneNo(java.lang.String)");
+		
+		long callCount = metrics.getCallCount();
+		long rowsRead = metrics.getRowsRead();
+		
+		Assert.assertEquals(repo.findByPhoneNo("12345%").size(), 6);
+		
+		Assert.assertEquals(metrics.getCallCount(), callCount + 1);
+		Assert.assertEquals(metrics.getRowsRead(), rowsRead + 6);
+		Assert.assertEquals(metrics.getErrorCount(), 0);
+		Assert.assertTrue(metrics.getMaxTime() > 0);
+		Assert.assertTrue(metrics.get99thPercentileTime() > 0);
+	}
+	
+	/**
+	 * Tests metrics mbeans of different factories do not replace each other and are unregistered on close
+	 * @param factory
+	 */
+	@Test(dataProvider = "repositoryFactories")
+	public void testMethodMetricsMBeans(RepositoryFactory factory) throws Exception
+	{
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName query = new ObjectName("com.fw.persistence:type=RepositoryMethod,*");
+		
+		RepositoryFactory factory1 = new RepositoryFactory();
+		RepositoryFactory factory2 = new RepositoryFactory();
+		
+		Assert.assertNotEquals(factory1.getName(), factory2.getName());
+		
+		try
+		{
+			int beanCount = server.queryNames(query, null).size();
+			
+			RepositoryMethodMetrics metrics1 = factory1.getMethodMetrics(IEmployeeRepository.class, "findByPhoneNo(java.lang.String)");
+			RepositoryMethodMetrics metrics2 = factory2.getMethodMetrics(IEmployeeRepository.class, "findByPhoneNo(java.lang.String)");
+			
+			Assert.assertNotSame(metrics1, metrics2);
+			Assert.assertEquals(server.queryNames(query, null).size(), beanCount + 2);
+			
+			//closing one factory should not remove beans of other factory
+			factory1.close();
+			Assert.assertEquals(server.queryNames(query, null).size(), beanCount + 1);
+			
+			//bean of other factory with same name should not get replaced
+			factory1.setName(factory2.getName());
+			factory1.getMethodMetrics(IEmployeeRepository.class, "findByPhoneNo(java.lang.String)");
+			Assert.assertEquals(server.queryNames(query, null).size(), beanCount + 1);
+			
+			factory1.close();
+			Assert.assertEquals(server.queryNames(query, null).size(), beanCount + 1);
+			
+			factory2.close();
+			Assert.assertEquals(server.queryNames(query, null).size(), beanCount);
+		}finally
+		{
+			factory1.close();
+			factory2.close();
+		}
+	}
+	
 	/**
 	 * Tests finder whose conditions specified
 	 * using annotation
@@ -62,6 +140,18 @@ public class TFinders extends TestSuiteBase
 		Assert.assertEquals(repo.findAge("user2", "1234562"), 30);
 	}
 	
+	/**
+	 * Tests overloaded finder methods are mapped to their own executors
+	 * @param factory
+	 */
+	@Test(dataProvider = "repositoryFactories")
+	public void testOverloadedFinder(RepositoryFactory factory)
+	{
+		IEmployeeRepository repo = factory.getRepository(IEmployeeRepository.class);
+		Assert.assertEquals(repo.findAge("user2@test.com"), 30);
+		Assert.assertEquals(repo.findAge("user2", "1234562"), 30);
+	}
+	
 	/**
 	 * Tests entity fetching
 	 * @param factory
@@ -99,6 +189,30 @@ public class TFinders extends TestSuiteBase
 		Assert.assertEquals(CommonUtils.toSet(empLst.get(0).getPhoneNo(), empLst.get(1).getPhoneNo()) , CommonUtils.toSet("1234564", "12345644"));
 	}
 
+	/**
+	 * Test finder to stream employees
+	 * @param factory
+	 */
+	@Test(dataProvider = "repositoryFactories")
+	public void testFindForEntityStream(RepositoryFactory factory)
+	{
+		IEmployeeRepository repo = factory.getRepository(IEmployeeRepository.class);
+		
+		try(Stream<Employee> empStream = repo.findStreamByPhoneNo("%64%"))
+		{
+			Set<String> empNos = empStream.map(Employee::getEmployeeNo).collect(Collectors.toSet());
+			Assert.assertEquals(empNos, CommonUtils.toSet("1234", "1235"));
+		}
+		
+		//ensure partially read stream releases the resources on close
+		try(Stream<Employee> empStream = repo.findStreamByPhoneNo("%"))
+		{
+			Assert.assertTrue(empStream.findFirst().isPresent());
+		}
+		
+		Assert.assertEquals(repo.findByPhoneNo("%64%").size(), 2);
+	}
+
 	/**
 	 * Tests entity fetch based on query object
 	 * @param factory
@@ -196,4 +310,75 @@ public class TFinders extends TestSuiteBase
 		Assert.assertEquals(results.size(), 1);
 		Assert.assertEquals(results.get(0).getEmployeeNo() , "1231");
 	}
+	
+	/**
+	 * Tests offset and keyset paging of finder methods
+	 * @param factory
+	 */
+	@Test(dataProvider = "repositoryFactories")
+	public void testFinderPaging(RepositoryFactory factory)
+	{
+		IEmployeeRepository repo = factory.getRepository(IEmployeeRepository.class);
+		
+		//offset paging
+		List<Employee> results = repo.findPageByPhoneNo("%", new PageRequest(0, 4));
+		Assert.assertEquals(results.stream().map(Employee::getAge).collect(Collectors.toList()), Arrays.asList(45, 40, 35, 30));
+		
+		long lastId = results.get(3).getId();
+		
+		results = repo.findPageByPhoneNo("%", new PageRequest(4, 4));
+		Assert.assertEquals(results.stream().map(Employee::getAge).collect(Collectors.toList()), Arrays.asList(25, 20));
+		
+		//keyset paging (descending order) after last row of first page, as age is not unique id is used as tie breaker
+		results = repo.findPageByPhoneNo("%", PageRequest.after(3, 30, lastId));
+		Assert.assertEquals(results.stream().map(Employee::getAge).collect(Collectors.toList()), Arrays.asList(25, 20));
+		
+		//without page request, only ordering should be applied
+		results = repo.findPageByPhoneNo("%64%", null);
+		Assert.assertEquals(results.stream().map(Employee::getAge).collect(Collectors.toList()), Arrays.asList(45, 40));
+	}
+
+	/**
+	 * Tests ordering and paging of search queries
+	 * @param factory
+	 */
+	@Test(dataProvider = "repositoryFactories")
+	public void testSearchPaging(RepositoryFactory factory)
+	{
+		IEmployeeRepository repo = factory.getRepository(IEmployeeRepository.class);
+		
+		SearchQuery query = new SearchQuery(new SearchCondition("age", Operator.GE, 25));
+		query.addOrderBy("name", true);
+		query.addOrderBy("employeeNo", false);
+		query.setPageRequest(new PageRequest(1, 2));
+		
+		List<Employee> results = repo.search(query);
+		Assert.assertEquals(results.stream().map(Employee::getEmployeeNo).collect(Collectors.toList()), Arrays.asList("1231", "1233"));
+		
+		//keyset paging with multiple ordering fields
+		query.setPageRequest(PageRequest.after(2, "user2", "1231"));
+		
+		results = repo.search(query);
+		Assert.assertEquals(results.stream().map(Employee::getEmployeeNo).collect(Collectors.toList()), Arrays.asList("1233", "1234"));
+		
+		//keyset paging with duplicate values of non-unique ordering field, rows with same name should not be skipped
+		query = new SearchQuery();
+		query.addOrderBy("name", true);
+		query.setPageRequest(new PageRequest(0, 2));
+		
+		results = repo.search(query);
+		Assert.assertEquals(results.stream().map(Employee::getEmployeeNo).collect(Collectors.toList()), Arrays.asList("1230", "1231"));
+		
+		query.setPageRequest(PageRequest.after(2, "user2", results.get(1).getId()));
+		
+		results = repo.search(query);
+		Assert.assertEquals(results.stream().map(Employee::getEmployeeNo).collect(Collectors.toList()), Arrays.asList("1232", "1233"));
+		
+		//default ordering by id, when ordering is not specified
+		query = new SearchQuery();
+		query.setPageRequest(new PageRequest(0, 2));
+		
+		results = repo.search(query);
+		Assert.assertEquals(results.stream().map(Employee::getEmployeeNo).collect(Collectors.toList()), Arrays.asList("1230", "1231"));
+	}
 }
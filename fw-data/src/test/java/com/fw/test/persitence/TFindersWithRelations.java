@@ -1,13 +1,24 @@
 package com.fw.test.persitence;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import com.fw.persistence.GenericRepository;
+import com.fw.persistence.ICrudRepository;
+import com.fw.persistence.Operator;
+import com.fw.persistence.rdbms.RdbmsDataStore;
 import com.fw.persistence.repository.RepositoryFactory;
+import com.fw.persistence.repository.search.SearchCondition;
+import com.fw.persistence.repository.search.SearchQuery;
 import com.fw.test.persitence.entity.Customer;
 import com.fw.test.persitence.entity.CustomerGroup;
 import com.fw.test.persitence.entity.ICustomerGroupRepository;
@@ -85,6 +96,79 @@ public class TFindersWithRelations extends TestSuiteBase
 		Assert.assertEquals(orders.size(), 0);
 	}
 
+	/**
+	 * Fetches number of queries built by specified factory data store. As every executed statement is built
+	 * once, this is used to count the queries executed.
+	 */
+	private long getQueryCount(RepositoryFactory factory)
+	{
+		RdbmsDataStore dataStore = (RdbmsDataStore)factory.getDataStore();
+		return dataStore.getQueryCacheHits() + dataStore.getQueryCacheMisses();
+	}
+	
+	/**
+	 * Tests parent proxies of multiple entities (loaded together by batch loader) are loaded properly,
+	 * using single IN query for all the entities of the result
+	 * @param factory
+	 */
+	@Test(dataProvider = "repositoryFactories")
+	public void testBatchedParentLoading(RepositoryFactory factory)
+	{
+		IOrderRepository repo = factory.getRepository(IOrderRepository.class);
+		
+		List<Order> orders = repo.search(new SearchQuery(new SearchCondition("orderNo", Operator.GT, 0)));
+		Assert.assertEquals(orders.size(), 3);
+		
+		long queryCount = getQueryCount(factory);
+		
+		for(Order order : orders)
+		{
+			Assert.assertEquals(order.getCustomer().getName(), (order.getOrderNo() == 30) ? "Customer2" : "Customer1");
+		}
+		
+		//parents of all orders should be loaded by single query, on first access
+		Assert.assertEquals(getQueryCount(factory), queryCount + 1);
+	}
+
+	/**
+	 * Tests parent entities are fetched eagerly (in the same query) when specified by finder method
+	 * @param factory
+	 */
+	@Test(dataProvider = "repositoryFactories")
+	public void testEagerParentFetching(RepositoryFactory factory)
+	{
+		IOrderRepository repo = factory.getRepository(IOrderRepository.class);
+		
+		//orders without parent should also be fetched
+		Order orderWithoutCustomer = new Order("order4", 40, null, null);
+		repo.save(orderWithoutCustomer);
+		
+		try
+		{
+			List<Order> orders = repo.findOrdersWithCustomer(0);
+			Assert.assertEquals(orders.size(), 4);
+			
+			for(int i = 0; i < 3; i++)
+			{
+				//parent should be actual entity instead of proxy
+				Assert.assertEquals(orders.get(i).getCustomer().getClass(), Customer.class);
+				Assert.assertEquals(orders.get(i).getCustomer().getName(), (orders.get(i).getOrderNo() == 30) ? "Customer2" : "Customer1");
+			}
+			
+			Assert.assertEquals(orders.get(3).getTitle(), "order4");
+			Assert.assertNull(orders.get(3).getCustomer());
+			
+			//eager fetch along with condition on same relation
+			orders = repo.fetchOrdersOfCustomer("Customer2");
+			Assert.assertEquals(orders.size(), 1);
+			Assert.assertEquals(orders.get(0).getCustomer().getClass(), Customer.class);
+			Assert.assertEquals(orders.get(0).getCustomer().getName(), "Customer2");
+		}finally
+		{
+			repo.deleteById(orderWithoutCustomer.getId());
+		}
+	}
+
 	/**
 	 * Tests fetching entities by using property of child item(s)
 	 * @param factory
@@ -154,4 +238,68 @@ public class TFindersWithRelations extends TestSuiteBase
 		groups = repo.findGroupsOfCusomer("nonexisting");
 		Assert.assertEquals(groups.size(), 0);
 	}
+	
+	/**
+	 * Tests update of many-to-many relation, where only the join table entries of added and removed
+	 * targets are inserted and deleted
+	 * @param factory
+	 */
+	@Test(dataProvider = "repositoryFactories")
+	public void testJoinRelationUpdate(RepositoryFactory factory)
+	{
+		ICustomerGroupRepository groupRepo = factory.getRepository(ICustomerGroupRepository.class);
+		ICrudRepository<Customer> customerRepo = factory.getRepositoryForEntity(Customer.class);
+		
+		Map<String, CustomerGroup> groups = new HashMap<>();
+		
+		for(CustomerGroup group : groupRepo.findGroupsOfCusomer("Customer1"))
+		{
+			groups.put(group.getName(), group);
+		}
+		
+		for(CustomerGroup group : groupRepo.findGroupsOfCusomer("Customer2"))
+		{
+			groups.put(group.getName(), group);
+		}
+		
+		Customer customer = new Customer("Customer3", new ArrayList<>(Arrays.asList(groups.get("Group1"))), null);
+		Assert.assertTrue(customerRepo.save(customer));
+		Assert.assertEquals(getGroupNames(groupRepo, "Customer3"), CommonUtils.toSet("Group1"));
+		
+		//group1 should be removed and group2, group3 should be added
+		customer.setCustomerGroups(Arrays.asList(groups.get("Group2"), groups.get("Group3")));
+		Assert.assertTrue(customerRepo.update(customer));
+		Assert.assertEquals(getGroupNames(groupRepo, "Customer3"), CommonUtils.toSet("Group2", "Group3"));
+		
+		//null relation is considered as not loaded, and entries should be retained
+		customer.setCustomerGroups(null);
+		Assert.assertTrue(customerRepo.update(customer));
+		Assert.assertEquals(getGroupNames(groupRepo, "Customer3"), CommonUtils.toSet("Group2", "Group3"));
+		
+		customer.setCustomerGroups(Arrays.asList(groups.get("Group1"), groups.get("Group3")));
+		Assert.assertEquals(customerRepo.updateAll(Arrays.asList(customer)), 1);
+		Assert.assertEquals(getGroupNames(groupRepo, "Customer3"), CommonUtils.toSet("Group1", "Group3"));
+
+		//entries of other customers should be untouched
+		Assert.assertEquals(getGroupNames(groupRepo, "Customer1"), CommonUtils.toSet("Group1", "Group3"));
+		Assert.assertEquals(getGroupNames(groupRepo, "Customer2"), CommonUtils.toSet("Group1", "Group2"));
+		
+		customer.setCustomerGroups(new ArrayList<>());
+		Assert.assertTrue(customerRepo.update(customer));
+		Assert.assertEquals(getGroupNames(groupRepo, "Customer3"), Collections.emptySet());
+		
+		Assert.assertTrue(customerRepo.deleteById(customer.getId()));
+	}
+	
+	private Set<String> getGroupNames(ICustomerGroupRepository repo, String customerName)
+	{
+		Set<String> names = new HashSet<>();
+		
+		for(CustomerGroup group : repo.findGroupsOfCusomer(customerName))
+		{
+			names.add(group.getName());
+		}
+		
+		return names;
+	}
 }
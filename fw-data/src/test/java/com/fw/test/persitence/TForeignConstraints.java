@@ -1,6 +1,9 @@
 package com.fw.test.persitence;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
 
 import org.testng.Assert;
 import org.testng.ITestResult;
@@ -9,11 +12,16 @@ import org.testng.annotations.Test;
 
 import com.fw.persistence.ICrudRepository;
 import com.fw.persistence.GenericRepository;
+import com.fw.persistence.listeners.EntityEvent;
+import com.fw.persistence.listeners.EntityEventHandler;
+import com.fw.persistence.listeners.EntityEventType;
+import com.fw.persistence.rdbms.RdbmsDataStore;
 import com.fw.persistence.repository.RepositoryFactory;
 import com.fw.test.persitence.entity.Customer;
 import com.fw.test.persitence.entity.CustomerGroup;
 import com.fw.test.persitence.entity.Order;
 import com.fw.test.persitence.entity.OrderItem;
+import com.fw.utils.CommonUtils;
 
 public class TForeignConstraints extends TestSuiteBase
 {
@@ -76,4 +84,117 @@ public class TForeignConstraints extends TestSuiteBase
 		genericRepository.save(customer2);
 	}
 	
+	/**
+	 * Tests child entities (at all levels) are deleted along with parent, when delete is cascaded
+	 * @param factory
+	 */
+	@Test(dataProvider = "repositoryFactories")
+	public void testCascadeDelete(RepositoryFactory factory)
+	{
+		RdbmsDataStore dataStore = (RdbmsDataStore)factory.getDataStore();
+		dataStore.setExplicitForeignCheckRequired(true);
+		
+		try
+		{
+			GenericRepository genericRepository = new GenericRepository(factory);
+			
+			Order order1 = new Order("order1", 10, null, Arrays.asList(new OrderItem("soap", 10, null), new OrderItem("box", 20, null)));
+			Order order2 = new Order("order2", 20, null, Arrays.asList(new OrderItem("brush", 3, null)));
+			Order order3 = new Order("order3", 30, null, Arrays.asList(new OrderItem("book", 20, null)));
+			
+			Customer customer1 = new Customer("Customer1", null, Arrays.asList(order1, order2));
+			Customer customer2 = new Customer("Customer2", null, Arrays.asList(order3));
+			
+			genericRepository.save(customer1);
+			genericRepository.save(customer2);
+			
+			ICrudRepository<Customer> customerRepo = factory.getRepositoryForEntity(Customer.class);
+			ICrudRepository<Order> orderRepo = factory.getRepositoryForEntity(Order.class);
+			ICrudRepository<OrderItem> itemRepo = factory.getRepositoryForEntity(OrderItem.class);
+			
+			Assert.assertEquals(orderRepo.getCount(), 3);
+			Assert.assertEquals(itemRepo.getCount(), 4);
+			
+			Assert.assertTrue(customerRepo.deleteById(customer1.getId()));
+			
+			//orders and items of customer1 should be deleted, while customer2 data is untouched
+			Assert.assertEquals(customerRepo.getCount(), 1);
+			Assert.assertEquals(orderRepo.getCount(), 1);
+			Assert.assertEquals(itemRepo.getCount(), 1);
+			Assert.assertEquals(orderRepo.findById(order3.getId()).getTitle(), "order3");
+		}finally
+		{
+			dataStore.setExplicitForeignCheckRequired(false);
+		}
+	}
+	
+	public class ItemDeleteHandler
+	{
+		private List<String> deletedItems = new ArrayList<>();
+		
+		@EntityEventHandler(eventType = EntityEventType.PRE_DELETE, entityTypes = OrderItem.class)
+		public void predelete(EntityEvent event)
+		{
+			deletedItems.add(((OrderItem)event.getEntity()).getItemName());
+		}
+	}
+	
+	/**
+	 * Fetches number of queries built by specified factory data store
+	 */
+	private long getQueryCount(RepositoryFactory factory)
+	{
+		RdbmsDataStore dataStore = (RdbmsDataStore)factory.getDataStore();
+		return dataStore.getQueryCacheHits() + dataStore.getQueryCacheMisses();
+	}
+	
+	/**
+	 * Tests delete listeners of cascaded child entities are invoked with the children, which are loaded together
+	 * @param factory
+	 */
+	@Test(dataProvider = "repositoryFactories")
+	public void testCascadeDeleteListeners(RepositoryFactory factory)
+	{
+		RdbmsDataStore dataStore = (RdbmsDataStore)factory.getDataStore();
+		dataStore.setExplicitForeignCheckRequired(true);
+		
+		ItemDeleteHandler handler = new ItemDeleteHandler();
+		
+		try
+		{
+			GenericRepository genericRepository = new GenericRepository(factory);
+			
+			Customer customer1 = new Customer("Customer1", null, Arrays.asList(
+					new Order("order1", 10, null, Arrays.asList(new OrderItem("soap", 10, null), new OrderItem("box", 20, null))),
+					new Order("order2", 20, null, Arrays.asList(new OrderItem("brush", 3, null), new OrderItem("book", 20, null)))
+			));
+			Customer customer2 = new Customer("Customer2", null, Arrays.asList(
+					new Order("order3", 10, null, Arrays.asList(new OrderItem("pen", 10, null), new OrderItem("ink", 20, null))),
+					new Order("order4", 20, null, Arrays.asList(new OrderItem("pad", 3, null), new OrderItem("clip", 20, null)))
+			));
+			
+			genericRepository.save(customer1);
+			genericRepository.save(customer2);
+			
+			ICrudRepository<Customer> customerRepo = factory.getRepositoryForEntity(Customer.class);
+			
+			//delete without listeners
+			long queryCount = getQueryCount(factory);
+			Assert.assertTrue(customerRepo.deleteById(customer1.getId()));
+			long plainDeleteQueries = getQueryCount(factory) - queryCount;
+			
+			//delete with listener, children should be fetched using one ids query and one IN query
+			factory.registerListeners(handler);
+			
+			queryCount = getQueryCount(factory);
+			Assert.assertTrue(customerRepo.deleteById(customer2.getId()));
+			
+			Assert.assertEquals(getQueryCount(factory) - queryCount, plainDeleteQueries + 2);
+			Assert.assertEquals(new HashSet<>(handler.deletedItems), CommonUtils.toSet("pen", "ink", "pad", "clip"));
+		}finally
+		{
+			factory.unregisterListeners(handler);
+			dataStore.setExplicitForeignCheckRequired(false);
+		}
+	}
 }
@@ -0,0 +1,80 @@
+package com.fw.test.persitence.entity;
+
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import com.fw.persistence.annotations.SharedCache;
+import com.fw.persistence.annotations.UniqueConstraint;
+
+@Table(name = "COUNTRY")
+@SharedCache(maxSize = 10)
+public class Country
+{
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private long id;
+
+	@UniqueConstraint(name = "CODE")
+	private String code;
+	
+	private String name;
+
+	public Country()
+	{}
+	
+	public Country(String code, String name)
+	{
+		this.code = code;
+		this.name = name;
+	}
+
+	/**
+	 * @return the {@link #id id}
+	 */
+	public long getId()
+	{
+		return id;
+	}
+
+	/**
+	 * @param id the {@link #id id} to set
+	 */
+	public void setId(long id)
+	{
+		this.id = id;
+	}
+
+	/**
+	 * @return the {@link #code code}
+	 */
+	public String getCode()
+	{
+		return code;
+	}
+
+	/**
+	 * @param code the {@link #code code} to set
+	 */
+	public void setCode(String code)
+	{
+		this.code = code;
+	}
+
+	/**
+	 * @return the {@link #name name}
+	 */
+	public String getName()
+	{
+		return name;
+	}
+
+	/**
+	 * @param name the {@link #name name} to set
+	 */
+	public void setName(String name)
+	{
+		this.name = name;
+	}
+}
@@ -0,0 +1,80 @@
+package com.fw.test.persitence.entity;
+
+import javax.persistence.Column;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import com.fw.persistence.annotations.UniqueConstraint;
+
+@Table(name = "CURRENCY")
+public class Currency
+{
+	@Id
+	@Column(name = "CODE")
+	private String id;
+	
+	@UniqueConstraint(name = "SYMBOL")
+	@Column(name = "SYMBOL")
+	private String symbol;
+	
+	@Column(name = "NAME")
+	private String name;
+
+	public Currency()
+	{}
+	
+	public Currency(String id, String symbol, String name)
+	{
+		this.id = id;
+		this.symbol = symbol;
+		this.name = name;
+	}
+
+	/**
+	 * @return the {@link #id id}
+	 */
+	public String getId()
+	{
+		return id;
+	}
+
+	/**
+	 * @param id the {@link #id id} to set
+	 */
+	public void setId(String id)
+	{
+		this.id = id;
+	}
+
+	/**
+	 * @return the {@link #symbol symbol}
+	 */
+	public String getSymbol()
+	{
+		return symbol;
+	}
+
+	/**
+	 * @param symbol the {@link #symbol symbol} to set
+	 */
+	public void setSymbol(String symbol)
+	{
+		this.symbol = symbol;
+	}
+
+	/**
+	 * @return the {@link #name name}
+	 */
+	public String getName()
+	{
+		return name;
+	}
+
+	/**
+	 * @param name the {@link #name name} to set
+	 */
+	public void setName(String name)
+	{
+		this.name = name;
+	}
+}
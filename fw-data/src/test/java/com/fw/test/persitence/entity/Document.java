@@ -0,0 +1,102 @@
+package com.fw.test.persitence.entity;
+
+import java.io.InputStream;
+
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import com.fw.persistence.annotations.DataType;
+import com.fw.persistence.annotations.DataTypeMapping;
+import com.fw.persistence.rdbms.converters.BlobConverter;
+import com.fw.persistence.rdbms.converters.ClobConverter;
+
+@Table(name = "DOCUMENT")
+public class Document
+{
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private long id;
+	
+	private String name;
+	
+	@DataTypeMapping(type = DataType.CLOB, converterType = ClobConverter.class)
+	private String content;
+	
+	@DataTypeMapping(type = DataType.BLOB, converterType = BlobConverter.class)
+	private InputStream attachment;
+	
+	public Document()
+	{}
+	
+	public Document(String name, String content)
+	{
+		this.name = name;
+		this.content = content;
+	}
+	
+	/**
+	 * @return the {@link #id id}
+	 */
+	public long getId()
+	{
+		return id;
+	}
+	
+	/**
+	 * @param id the {@link #id id} to set
+	 */
+	public void setId(long id)
+	{
+		this.id = id;
+	}
+	
+	/**
+	 * @return the {@link #name name}
+	 */
+	public String getName()
+	{
+		return name;
+	}
+	
+	/**
+	 * @param name the {@link #name name} to set
+	 */
+	public void setName(String name)
+	{
+		this.name = name;
+	}
+	
+	/**
+	 * @return the {@link #content content}
+	 */
+	public String getContent()
+	{
+		return content;
+	}
+	
+	/**
+	 * @param content the {@link #content content} to set
+	 */
+	public void setContent(String content)
+	{
+		this.content = content;
+	}
+	
+	/**
+	 * @return the {@link #attachment attachment}
+	 */
+	public InputStream getAttachment()
+	{
+		return attachment;
+	}
+	
+	/**
+	 * @param attachment the {@link #attachment attachment} to set
+	 */
+	public void setAttachment(InputStream attachment)
+	{
+		this.attachment = attachment;
+	}
+}
@@ -0,0 +1,8 @@
+package com.fw.test.persitence.entity;
+
+import com.fw.persistence.ICrudRepository;
+
+public interface ICountryRepository extends ICrudRepository<Country>
+{
+	public Country findByCode(String code);
+}
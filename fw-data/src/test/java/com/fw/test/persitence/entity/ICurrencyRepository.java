@@ -0,0 +1,7 @@
+package com.fw.test.persitence.entity;
+
+import com.fw.persistence.ICrudRepository;
+
+public interface ICurrencyRepository extends ICrudRepository<Currency>
+{
+}
@@ -0,0 +1,10 @@
+package com.fw.test.persitence.entity;
+
+import java.util.List;
+
+import com.fw.persistence.ICrudRepository;
+
+public interface IDocumentRepository extends ICrudRepository<Document>
+{
+	public List<Document> findByName(String name);
+}
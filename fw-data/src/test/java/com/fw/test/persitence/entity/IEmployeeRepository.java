@@ -1,6 +1,7 @@
 package com.fw.test.persitence.entity;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 import com.fw.persistence.ICrudRepository;
 import com.fw.persistence.Operator;
@@ -8,8 +9,10 @@ import com.fw.persistence.repository.annotations.Condition;
 import com.fw.persistence.repository.annotations.ConditionBean;
 import com.fw.persistence.repository.annotations.CountFunction;
 import com.fw.persistence.repository.annotations.Field;
+import com.fw.persistence.repository.annotations.OrderBy;
 import com.fw.persistence.repository.annotations.ResultMapping;
 import com.fw.persistence.repository.annotations.SearchResult;
+import com.fw.persistence.repository.search.PageRequest;
 import com.fw.test.persitence.queries.EmpSearchQuery;
 import com.fw.test.persitence.queries.EmpSearchResult;
 import com.fw.test.persitence.queries.KeyValueBean;
@@ -26,10 +29,18 @@ public interface IEmployeeRepository extends ICrudRepository<Employee>
 	@Field("age")
 	public int findAge(@Condition("name") String name, @Condition("phoneNo") String phoneNo);
 
+	@Field("age")
+	public int findAge(@Condition("emailId") String mail);
+
 	@Field("emailId")
 	public String findEmailByEmployeeNo(String empNo);
 	
 	public List<Employee> findByPhoneNo(@Condition(value = "phoneNo", op = Operator.LIKE) String phone);
+	
+	public Stream<Employee> findStreamByPhoneNo(@Condition(value = "phoneNo", op = Operator.LIKE) String phone);
+	
+	@OrderBy("age DESC")
+	public List<Employee> findPageByPhoneNo(@Condition(value = "phoneNo", op = Operator.LIKE) String phone, PageRequest page);
 
 	public List<Employee> find(@ConditionBean EmpSearchQuery query);
 	
@@ -3,8 +3,11 @@ package com.fw.test.persitence.entity;
 import java.util.List;
 
 import com.fw.persistence.ICrudRepository;
+import com.fw.persistence.Operator;
 import com.fw.persistence.repository.annotations.Condition;
+import com.fw.persistence.repository.annotations.EagerFetch;
 import com.fw.persistence.repository.annotations.Field;
+import com.fw.persistence.repository.annotations.OrderBy;
 
 public interface IOrderRepository extends ICrudRepository<Order>
 {
@@ -18,4 +21,11 @@ public interface IOrderRepository extends ICrudRepository<Order>
 	public String findCustomerName(@Condition("orderNo") int orderNo);
 	
 	public Order findOrderByOrderNo(int orderNo);
+	
+	@EagerFetch("customer")
+	@OrderBy("orderNo")
+	public List<Order> findOrdersWithCustomer(@Condition(value = "orderNo", op = Operator.GT) int orderNo);
+	
+	@EagerFetch("customer")
+	public List<Order> fetchOrdersOfCustomer(@Condition("customer.name") String customerName);
 }
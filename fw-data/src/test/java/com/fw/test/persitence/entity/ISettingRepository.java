@@ -0,0 +1,10 @@
+package com.fw.test.persitence.entity;
+
+import com.fw.persistence.ICrudRepository;
+import com.fw.persistence.repository.annotations.Condition;
+import com.fw.persistence.repository.annotations.Field;
+
+public interface ISettingRepository extends ICrudRepository<Setting>
+{
+	public int updateDescription(@Condition("id") String id, @Field("description") String description);
+}
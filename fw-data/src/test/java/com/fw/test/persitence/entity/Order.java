@@ -11,6 +11,8 @@ import javax.persistence.ManyToOne;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
 
+import com.fw.persistence.annotations.DeleteWithParent;
+
 @Table(name = "ORDERS")
 public class Order
 {
@@ -25,6 +27,7 @@ public class Order
 	private int orderNo;
 	
 	@ManyToOne
+	@DeleteWithParent
 	@Column(name = "CUST_ID")
 	private Customer customer;
 	
@@ -7,6 +7,8 @@ import javax.persistence.Id;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
 
+import com.fw.persistence.annotations.DeleteWithParent;
+
 @Table(name = "ORDER_ITEM")
 public class OrderItem
 {
@@ -21,6 +23,7 @@ public class OrderItem
 	private int quantity;
 	
 	@ManyToOne
+	@DeleteWithParent
 	@Column(name = "ORDER_ID")
 	private Order order;
 
@@ -0,0 +1,86 @@
+package com.fw.test.persitence.entity;
+
+import javax.persistence.Column;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import com.fw.persistence.annotations.DirtyCheck;
+
+@Table(name = "SETTING")
+@DirtyCheck
+public class Setting
+{
+	@Id
+	@Column(name = "SETTING_KEY")
+	private String id;
+	
+	@Column(name = "SETTING_VALUE")
+	private String value;
+	
+	@Column(name = "DESCRIPTION")
+	private String description;
+	
+	public Setting()
+	{}
+	
+	public Setting(String id, String value)
+	{
+		this.id = id;
+		this.value = value;
+	}
+	
+	public Setting(String id, String value, String description)
+	{
+		this.id = id;
+		this.value = value;
+		this.description = description;
+	}
+	
+	/**
+	 * @return the {@link #id id}
+	 */
+	public String getId()
+	{
+		return id;
+	}
+	
+	/**
+	 * @param id the {@link #id id} to set
+	 */
+	public void setId(String id)
+	{
+		this.id = id;
+	}
+	
+	/**
+	 * @return the {@link #value value}
+	 */
+	public String getValue()
+	{
+		return value;
+	}
+	
+	/**
+	 * @param value the {@link #value value} to set
+	 */
+	public void setValue(String value)
+	{
+		this.value = value;
+	}
+	
+	/**
+	 * @return the {@link #description description}
+	 */
+	public String getDescription()
+	{
+		return description;
+	}
+	
+	/**
+	 * @param description the {@link #description description} to set
+	 */
+	public void setDescription(String description)
+	{
+		this.description = description;
+	}
+}